@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.afs.mapdb.storage;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public final class DataChunkKey {
+
+    private final NamedLink dataLink;
+
+    private final UUID generation;
+
+    private final int chunk;
+
+    public DataChunkKey(NamedLink dataLink, UUID generation, int chunk) {
+        this.dataLink = Objects.requireNonNull(dataLink);
+        this.generation = Objects.requireNonNull(generation);
+        this.chunk = chunk;
+    }
+
+    public NamedLink getDataLink() {
+        return dataLink;
+    }
+
+    public UUID getGeneration() {
+        return generation;
+    }
+
+    public int getChunk() {
+        return chunk;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dataLink, generation, chunk);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof DataChunkKey) {
+            DataChunkKey other = (DataChunkKey) obj;
+            return dataLink.equals(other.dataLink) &&
+                    generation.equals(other.generation) &&
+                    chunk == other.chunk;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "DataChunkKey(dataLink=" + dataLink + ", generation=" + generation + ", chunk=" + chunk + ")";
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.afs.mapdb.storage;
+
+import org.mapdb.DataInput2;
+import org.mapdb.DataOutput2;
+import org.mapdb.Serializer;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class DataChunkKeySerializer implements Serializer<DataChunkKey>, Serializable {
+
+    public static final DataChunkKeySerializer INSTANCE = new DataChunkKeySerializer();
+
+    @Override
+    public void serialize(DataOutput2 out, DataChunkKey chunkKey) throws IOException {
+        NamedLinkSerializer.INSTANCE.serialize(out, chunkKey.getDataLink());
+        UuidSerializer.INSTANCE.serialize(out, chunkKey.getGeneration());
+        out.writeInt(chunkKey.getChunk());
+    }
+
+    @Override
+    public DataChunkKey deserialize(DataInput2 input, int available) throws IOException {
+        NamedLink dataLink = NamedLinkSerializer.INSTANCE.deserialize(input, available);
+        UUID generation = UuidSerializer.INSTANCE.deserialize(input, available);
+        int chunk = input.readInt();
+        return new DataChunkKey(dataLink, generation, chunk);
+    }
+}
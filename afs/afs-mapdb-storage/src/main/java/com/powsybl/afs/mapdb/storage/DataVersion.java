@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.afs.mapdb.storage;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Size of a binary data and generation of its chunks, published together once all the chunks are written.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public final class DataVersion {
+
+    private final long size;
+
+    private final UUID generation;
+
+    public DataVersion(long size, UUID generation) {
+        this.size = size;
+        this.generation = Objects.requireNonNull(generation);
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public UUID getGeneration() {
+        return generation;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(size, generation);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof DataVersion) {
+            DataVersion other = (DataVersion) obj;
+            return size == other.size &&
+                    generation.equals(other.generation);
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "DataVersion(size=" + size + ", generation=" + generation + ")";
+    }
+}
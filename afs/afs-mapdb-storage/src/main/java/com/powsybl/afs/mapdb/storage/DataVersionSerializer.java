@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.afs.mapdb.storage;
+
+import org.mapdb.DataInput2;
+import org.mapdb.DataOutput2;
+import org.mapdb.Serializer;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class DataVersionSerializer implements Serializer<DataVersion>, Serializable {
+
+    public static final DataVersionSerializer INSTANCE = new DataVersionSerializer();
+
+    @Override
+    public void serialize(DataOutput2 out, DataVersion version) throws IOException {
+        out.writeLong(version.getSize());
+        UuidSerializer.INSTANCE.serialize(out, version.getGeneration());
+    }
+
+    @Override
+    public DataVersion deserialize(DataInput2 input, int available) throws IOException {
+        long size = input.readLong();
+        UUID generation = UuidSerializer.INSTANCE.deserialize(input, available);
+        return new DataVersion(size, generation);
+    }
+}
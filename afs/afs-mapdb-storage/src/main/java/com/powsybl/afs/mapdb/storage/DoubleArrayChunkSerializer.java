@@ -9,6 +9,7 @@ package com.powsybl.afs.mapdb.storage;
 import com.powsybl.math.timeseries.CompressedDoubleArrayChunk;
 import com.powsybl.math.timeseries.DoubleArrayChunk;
 import com.powsybl.math.timeseries.UncompressedDoubleArrayChunk;
+import com.powsybl.math.timeseries.XorCompressedDoubleArrayChunk;
 import org.mapdb.DataInput2;
 import org.mapdb.DataOutput2;
 import org.mapdb.Serializer;
@@ -49,6 +50,13 @@ public final class DoubleArrayChunkSerializer implements Serializer<DoubleArrayC
             for (double value : compressedChunk.getStepValues()) {
                 out.writeDouble(value);
             }
+        } else if (chunk instanceof XorCompressedDoubleArrayChunk) {
+            XorCompressedDoubleArrayChunk xorCompressedChunk = (XorCompressedDoubleArrayChunk) chunk;
+            out.writeUTF("xorCompressed");
+            out.writeInt(xorCompressedChunk.getOffset());
+            out.writeInt(xorCompressedChunk.getUncompressedLength());
+            out.writeInt(xorCompressedChunk.getData().length);
+            out.write(xorCompressedChunk.getData());
         } else {
             throw new AssertionError();
         }
@@ -79,6 +87,12 @@ public final class DoubleArrayChunkSerializer implements Serializer<DoubleArrayC
                 stepValues[i] = input.readDouble();
             }
             return new CompressedDoubleArrayChunk(offset, uncompressedLength, stepValues, stepLengths);
+        } else if ("xorCompressed".equals(type)) {
+            int offset = input.readInt();
+            int uncompressedLength = input.readInt();
+            byte[] data = new byte[input.readInt()];
+            input.readFully(data);
+            return new XorCompressedDoubleArrayChunk(offset, uncompressedLength, data);
         } else {
             throw new AssertionError();
         }
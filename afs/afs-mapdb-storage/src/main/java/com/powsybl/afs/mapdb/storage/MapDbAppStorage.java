@@ -29,6 +29,8 @@ import java.util.stream.Stream;
  */
 public class MapDbAppStorage implements AppStorage {
 
+    public static final int DEFAULT_DATA_CHUNK_SIZE = 1024 * 1024;
+
     public static MapDbAppStorage createMem(String fileSystemName) {
         DBMaker.Maker maker = DBMaker.memoryDB();
         return new MapDbAppStorage(fileSystemName, maker::make);
@@ -57,6 +59,8 @@ public class MapDbAppStorage implements AppStorage {
 
     private final DB db;
 
+    private final int dataChunkSize;
+
     private final Atomic.Var<NodeInfo> rootNodeVar;
 
     private final ConcurrentMap<UUID, List<UUID>> childNodesMap;
@@ -67,8 +71,14 @@ public class MapDbAppStorage implements AppStorage {
 
     private final ConcurrentMap<UUID, NodeInfo> nodeInfoMap;
 
+    // binary data written by previous versions, stored in one piece
     private final ConcurrentMap<NamedLink, byte[]> dataMap;
 
+    // size and chunks generation of binary data
+    private final ConcurrentMap<NamedLink, DataVersion> dataVersionMap;
+
+    private final ConcurrentMap<DataChunkKey, byte[]> dataChunksMap;
+
     private final ConcurrentMap<UUID, Set<String>> dataNamesMap;
 
     private final ConcurrentMap<UUID, Set<String>> timeSeriesNamesMap;
@@ -88,7 +98,19 @@ public class MapDbAppStorage implements AppStorage {
     private final ConcurrentMap<UUID, List<UUID>> backwardDependencyNodesMap;
 
     protected MapDbAppStorage(String fileSystemName, Supplier<DB> db) {
+        this(fileSystemName, db, DEFAULT_DATA_CHUNK_SIZE);
+    }
+
+    /**
+     * @param dataChunkSize size in bytes of the chunks binary data is stored in, only used for writing as chunks of
+     *                      data already stored keep their size
+     */
+    protected MapDbAppStorage(String fileSystemName, Supplier<DB> db, int dataChunkSize) {
         this.fileSystemName = Objects.requireNonNull(fileSystemName);
+        if (dataChunkSize < 1) {
+            throw new IllegalArgumentException("Invalid data chunk size " + dataChunkSize);
+        }
+        this.dataChunkSize = dataChunkSize;
         this.db = db.get();
 
         rootNodeVar = this.db.atomicVar("rootNode", NodeInfoSerializer.INSTANCE)
@@ -114,6 +136,14 @@ public class MapDbAppStorage implements AppStorage {
                 .hashMap("data", NamedLinkSerializer.INSTANCE, Serializer.BYTE_ARRAY)
                 .createOrOpen();
 
+        dataVersionMap = this.db
+                .hashMap("dataVersion", NamedLinkSerializer.INSTANCE, DataVersionSerializer.INSTANCE)
+                .createOrOpen();
+
+        dataChunksMap = this.db
+                .hashMap("dataChunks", DataChunkKeySerializer.INSTANCE, Serializer.BYTE_ARRAY)
+                .createOrOpen();
+
         dataNamesMap = this.db
                 .hashMap("dataNames", UuidSerializer.INSTANCE, StringSetSerializer.INSTANCE)
                 .createOrOpen();
@@ -400,7 +430,7 @@ public class MapDbAppStorage implements AppStorage {
         }
         NodeInfo nodeInfo = nodeInfoMap.remove(nodeUuid);
         for (String dataName : dataNamesMap.get(nodeUuid)) {
-            dataMap.remove(new NamedLink(nodeUuid, dataName));
+            removeBinaryData(new NamedLink(nodeUuid, dataName));
         }
         dataNamesMap.remove(nodeUuid);
         childNodesMap.remove(nodeUuid);
@@ -431,12 +461,224 @@ public class MapDbAppStorage implements AppStorage {
         return parentNodeUuid;
     }
 
+    /**
+     * Binary data stream, chunks are loaded one at a time. All chunks but the last one have the same size, so skipping
+     * bytes does not load the skipped chunks and a range of the data can be read without reading what is before.
+     * Chunks of the generation current when the stream is opened are read: if the data is rewritten or removed
+     * meanwhile, chunks not loaded yet are not found anymore and reading fails instead of mixing both versions.
+     */
+    private final class BinaryDataInputStream extends InputStream {
+
+        private final NamedLink dataLink;
+
+        private final UUID generation;
+
+        private final long size;
+
+        private long position = 0;
+
+        // size of the chunks, the size of the first one
+        private int chunkSize = -1;
+
+        private int chunkNum = -1;
+
+        private byte[] chunk;
+
+        private BinaryDataInputStream(NamedLink dataLink, DataVersion version) {
+            this.dataLink = dataLink;
+            this.generation = version.getGeneration();
+            this.size = version.getSize();
+        }
+
+        private byte[] loadChunk(int num) throws IOException {
+            byte[] loadedChunk = dataChunksMap.get(new DataChunkKey(dataLink, generation, num));
+            if (loadedChunk == null || loadedChunk.length == 0) {
+                throw new IOException("Chunk " + num + " of data " + dataLink.getName() + " of node "
+                        + dataLink.getNodeUuid() + " not found");
+            }
+            return loadedChunk;
+        }
+
+        /**
+         * Load the chunk containing the current position.
+         *
+         * @return offset of the current position in the chunk
+         */
+        private int seek() throws IOException {
+            if (chunkSize == -1) {
+                chunk = loadChunk(0);
+                chunkNum = 0;
+                chunkSize = chunk.length;
+            }
+            int num = (int) (position / chunkSize);
+            if (num != chunkNum) {
+                chunk = loadChunk(num);
+                chunkNum = num;
+            }
+            return (int) (position - (long) num * chunkSize);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position >= size) {
+                return -1;
+            }
+            int offset = seek();
+            position++;
+            return chunk[offset] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            Objects.requireNonNull(b);
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= size) {
+                return -1;
+            }
+            int offset = seek();
+            int n = (int) Math.min(Math.min(len, chunk.length - offset), size - position);
+            System.arraycopy(chunk, offset, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, size - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            if (chunk == null || position >= size) {
+                return 0;
+            }
+            // remaining bytes of the loaded chunk
+            long chunkEnd = (long) chunkNum * chunkSize + chunk.length;
+            return (int) Math.max(0, Math.min(chunkEnd, size) - position);
+        }
+    }
+
+    /**
+     * Binary data stream, written bytes are buffered until a chunk is full. Chunks are written under a new generation,
+     * so that chunks of the current data are not overwritten: the data is replaced when the stream is closed, by
+     * publishing the size and the generation of the new chunks together, and chunks of the replaced generation are
+     * then removed.
+     */
+    private final class BinaryDataOutputStream extends OutputStream {
+
+        private final NamedLink dataLink;
+
+        private final UUID generation = UUID.randomUUID();
+
+        private final byte[] buffer = new byte[dataChunkSize];
+
+        private int bufferSize = 0;
+
+        private int chunkNum = 0;
+
+        private long size = 0;
+
+        private boolean closed = false;
+
+        private BinaryDataOutputStream(NamedLink dataLink) {
+            this.dataLink = dataLink;
+        }
+
+        private void checkNotClosed() throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+        }
+
+        private void writeChunk() {
+            // a copy as the heap store keeps a reference to the value
+            dataChunksMap.put(new DataChunkKey(dataLink, generation, chunkNum++), Arrays.copyOf(buffer, bufferSize));
+            bufferSize = 0;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            checkNotClosed();
+            buffer[bufferSize++] = (byte) b;
+            size++;
+            if (bufferSize == buffer.length) {
+                writeChunk();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            Objects.requireNonNull(b);
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            checkNotClosed();
+            int written = 0;
+            while (written < len) {
+                int n = Math.min(len - written, buffer.length - bufferSize);
+                System.arraycopy(b, off + written, buffer, bufferSize, n);
+                bufferSize += n;
+                written += n;
+                if (bufferSize == buffer.length) {
+                    writeChunk();
+                }
+            }
+            size += len;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (bufferSize > 0) {
+                writeChunk();
+            }
+
+            DataVersion oldVersion = dataVersionMap.put(dataLink, new DataVersion(size, generation));
+            addToSet(dataNamesMap, dataLink.getNodeUuid(), dataLink.getName());
+
+            // remove the overwritten data
+            if (oldVersion != null) {
+                removeDataChunks(dataLink, oldVersion);
+            }
+            dataMap.remove(dataLink);
+        }
+    }
+
+    private void removeDataChunks(NamedLink dataLink, DataVersion version) {
+        for (int num = 0; dataChunksMap.remove(new DataChunkKey(dataLink, version.getGeneration(), num)) != null; num++) {
+            // nothing to do
+        }
+    }
+
+    private void removeBinaryData(NamedLink dataLink) {
+        DataVersion version = dataVersionMap.remove(dataLink);
+        if (version != null) {
+            removeDataChunks(dataLink, version);
+        }
+        dataMap.remove(dataLink);
+    }
+
     @Override
     public Optional<InputStream> readBinaryData(String nodeId, String name) {
         UUID nodeUuid = checkNodeId(nodeId);
         Objects.requireNonNull(name);
         checkNodeExists(nodeUuid);
-        byte[] value = dataMap.get(new NamedLink(nodeUuid, name));
+        NamedLink dataLink = new NamedLink(nodeUuid, name);
+        DataVersion version = dataVersionMap.get(dataLink);
+        if (version != null) {
+            return Optional.of(new BinaryDataInputStream(dataLink, version));
+        }
+        byte[] value = dataMap.get(dataLink);
         return Optional.ofNullable(value).map(ByteArrayInputStream::new);
     }
 
@@ -445,16 +687,7 @@ public class MapDbAppStorage implements AppStorage {
         UUID nodeUuid = checkNodeId(nodeId);
         Objects.requireNonNull(name);
         checkNodeExists(nodeUuid);
-        return new ByteArrayOutputStream() {
-            @Override
-            public void close() throws IOException {
-                super.close();
-
-                // store the byte array
-                dataMap.put(new NamedLink(nodeUuid, name), toByteArray());
-                addToSet(dataNamesMap, nodeUuid, name);
-            }
-        };
+        return new BinaryDataOutputStream(new NamedLink(nodeUuid, name));
     }
 
     @Override
@@ -475,7 +708,7 @@ public class MapDbAppStorage implements AppStorage {
         UUID nodeUuid = checkNodeId(nodeId);
         Objects.requireNonNull(name);
         boolean removed = removeFromSet(dataNamesMap, nodeUuid, name);
-        dataMap.remove(new NamedLink(nodeUuid, name));
+        removeBinaryData(new NamedLink(nodeUuid, name));
         return removed;
     }
 
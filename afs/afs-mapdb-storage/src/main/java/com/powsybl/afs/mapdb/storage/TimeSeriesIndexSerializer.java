@@ -6,6 +6,7 @@
  */
 package com.powsybl.afs.mapdb.storage;
 
+import com.powsybl.math.timeseries.IrregularTimeSeriesIndex;
 import com.powsybl.math.timeseries.RegularTimeSeriesIndex;
 import com.powsybl.math.timeseries.TimeSeriesIndex;
 import org.mapdb.DataInput2;
@@ -33,6 +34,15 @@ public final class TimeSeriesIndexSerializer implements Serializer<TimeSeriesInd
             out.writeLong(regularIndex.getStartTime());
             out.writeLong(regularIndex.getEndTime());
             out.writeLong(regularIndex.getSpacing());
+        } else if (index instanceof IrregularTimeSeriesIndex) {
+            // delta encoding of times
+            long[] times = ((IrregularTimeSeriesIndex) index).getTimes();
+            out.writeUTF("irregularIndex");
+            out.packInt(times.length);
+            out.packLong(times[0]);
+            for (int i = 1; i < times.length; i++) {
+                out.packLong(times[i] - times[i - 1]);
+            }
         } else {
             throw new AssertionError();
         }
@@ -41,11 +51,18 @@ public final class TimeSeriesIndexSerializer implements Serializer<TimeSeriesInd
     @Override
     public TimeSeriesIndex deserialize(DataInput2 input, int available) throws IOException {
         String indexType = input.readUTF();
-        long startTime = input.readLong();
-        long endTime = input.readLong();
-        long spacing = input.readLong();
         if ("regularIndex".equals(indexType)) {
+            long startTime = input.readLong();
+            long endTime = input.readLong();
+            long spacing = input.readLong();
             return new RegularTimeSeriesIndex(startTime, endTime, spacing);
+        } else if ("irregularIndex".equals(indexType)) {
+            long[] times = new long[input.unpackInt()];
+            times[0] = input.unpackLong();
+            for (int i = 1; i < times.length; i++) {
+                times[i] = times[i - 1] + input.unpackLong();
+            }
+            return new IrregularTimeSeriesIndex(times);
         } else {
             throw new AssertionError();
         }
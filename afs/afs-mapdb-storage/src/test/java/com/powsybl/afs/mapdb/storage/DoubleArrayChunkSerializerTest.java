@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.afs.mapdb.storage;
+
+import com.powsybl.math.timeseries.CompressedDoubleArrayChunk;
+import com.powsybl.math.timeseries.DoubleArrayChunk;
+import com.powsybl.math.timeseries.UncompressedDoubleArrayChunk;
+import com.powsybl.math.timeseries.XorCompressedDoubleArrayChunk;
+import org.junit.Test;
+import org.mapdb.DataInput2;
+import org.mapdb.DataOutput2;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class DoubleArrayChunkSerializerTest {
+
+    private static DoubleArrayChunk roundTrip(DoubleArrayChunk chunk) throws IOException {
+        DataOutput2 out = new DataOutput2();
+        DoubleArrayChunkSerializer.INSTANCE.serialize(out, chunk);
+        return DoubleArrayChunkSerializer.INSTANCE.deserialize(new DataInput2.ByteArray(out.copyBytes()), -1);
+    }
+
+    @Test
+    public void test() throws IOException {
+        DoubleArrayChunk chunk1 = new UncompressedDoubleArrayChunk(2, new double[] {1d, 2d});
+        DoubleArrayChunk chunk2 = new CompressedDoubleArrayChunk(1, 5, new double[] {1d, 2d}, new int[] {2, 3});
+        DoubleArrayChunk chunk3 = XorCompressedDoubleArrayChunk.create(3, new double[] {1d, 1.5d, 1.25d, Double.NaN});
+        assertEquals(chunk1, roundTrip(chunk1));
+        assertEquals(chunk2, roundTrip(chunk2));
+        assertEquals(chunk3, roundTrip(chunk3));
+    }
+}
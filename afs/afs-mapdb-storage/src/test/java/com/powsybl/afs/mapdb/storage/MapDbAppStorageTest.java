@@ -6,8 +6,23 @@
  */
 package com.powsybl.afs.mapdb.storage;
 
+import com.google.common.io.ByteStreams;
 import com.powsybl.afs.storage.AbstractAppStorageTest;
 import com.powsybl.afs.storage.AppStorage;
+import com.powsybl.afs.storage.NodeGenericMetadata;
+import com.powsybl.afs.storage.NodeInfo;
+import org.junit.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -18,4 +33,122 @@ public class MapDbAppStorageTest extends AbstractAppStorageTest {
     protected AppStorage createStorage() {
         return MapDbAppStorage.createMem("mem");
     }
+
+    private static byte[] createData(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    private static byte[] readData(AppStorage storage, String nodeId, String name) throws IOException {
+        try (InputStream is = storage.readBinaryData(nodeId, name).orElseThrow(AssertionError::new)) {
+            return ByteStreams.toByteArray(is);
+        }
+    }
+
+    @Test
+    public void testChunkedBinaryData() throws IOException {
+        DB db = DBMaker.heapDB().make();
+        // chunks of 10 bytes
+        AppStorage storage = new MapDbAppStorage("mem", () -> db, 10);
+        NodeInfo rootNodeInfo = storage.createRootNodeIfNotExists("mem", "folder");
+        NodeInfo nodeInfo = storage.createNode(rootNodeInfo.getId(), "node", "data", "", 0, new NodeGenericMetadata());
+
+        // 3 chunks, written byte per byte and by arrays overlapping chunks
+        byte[] data = createData(25);
+        try (OutputStream os = storage.writeBinaryData(nodeInfo.getId(), "blob")) {
+            os.write(data[0]);
+            os.write(data, 1, 14);
+            os.write(data, 15, 10);
+        }
+        assertArrayEquals(data, readData(storage, nodeInfo.getId(), "blob"));
+
+        // range read
+        try (InputStream is = storage.readBinaryData(nodeInfo.getId(), "blob").orElseThrow(AssertionError::new)) {
+            assertEquals(12, is.skip(12));
+            byte[] range = new byte[10];
+            ByteStreams.readFully(is, range);
+            assertArrayEquals(Arrays.copyOfRange(data, 12, 22), range);
+            assertEquals(3, is.skip(10));
+            assertEquals(-1, is.read());
+        }
+
+        // data overwritten by shorter data
+        byte[] data2 = createData(5);
+        try (OutputStream os = storage.writeBinaryData(nodeInfo.getId(), "blob")) {
+            os.write(data2);
+        }
+        assertArrayEquals(data2, readData(storage, nodeInfo.getId(), "blob"));
+        assertEquals(1, db.hashMap("dataChunks", DataChunkKeySerializer.INSTANCE, Serializer.BYTE_ARRAY).createOrOpen().size());
+
+        // empty data
+        try (OutputStream os = storage.writeBinaryData(nodeInfo.getId(), "empty")) {
+            // nothing to write
+        }
+        assertEquals(0, readData(storage, nodeInfo.getId(), "empty").length);
+
+        assertTrue(storage.removeData(nodeInfo.getId(), "blob"));
+        assertFalse(storage.readBinaryData(nodeInfo.getId(), "blob").isPresent());
+        assertTrue(db.hashMap("dataChunks", DataChunkKeySerializer.INSTANCE, Serializer.BYTE_ARRAY).createOrOpen().isEmpty());
+    }
+
+    @Test
+    public void testBinaryDataRewrite() throws IOException {
+        DB db = DBMaker.heapDB().make();
+        AppStorage storage = new MapDbAppStorage("mem", () -> db, 10);
+        NodeInfo rootNodeInfo = storage.createRootNodeIfNotExists("mem", "folder");
+        NodeInfo nodeInfo = storage.createNode(rootNodeInfo.getId(), "node", "data", "", 0, new NodeGenericMetadata());
+
+        byte[] data = createData(25);
+        try (OutputStream os = storage.writeBinaryData(nodeInfo.getId(), "blob")) {
+            os.write(data);
+        }
+
+        try (InputStream is = storage.readBinaryData(nodeInfo.getId(), "blob").orElseThrow(AssertionError::new)) {
+            // first chunk is loaded
+            assertEquals(0, is.read());
+
+            // chunks written by a rewrite in progress do not change the current data
+            byte[] data2 = new byte[25];
+            Arrays.fill(data2, (byte) 1);
+            try (OutputStream os = storage.writeBinaryData(nodeInfo.getId(), "blob")) {
+                os.write(data2);
+                assertArrayEquals(data, readData(storage, nodeInfo.getId(), "blob"));
+            }
+            assertArrayEquals(data2, readData(storage, nodeInfo.getId(), "blob"));
+            assertEquals(3, db.hashMap("dataChunks", DataChunkKeySerializer.INSTANCE, Serializer.BYTE_ARRAY).createOrOpen().size());
+
+            // the stream opened before the rewrite does not mix both versions
+            ByteStreams.skipFully(is, 9);
+            try {
+                is.read();
+                fail();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    @Test
+    public void testPreviousVersionBinaryData() throws IOException {
+        DB db = DBMaker.heapDB().make();
+        AppStorage storage = new MapDbAppStorage("mem", () -> db, 10);
+        NodeInfo rootNodeInfo = storage.createRootNodeIfNotExists("mem", "folder");
+        NodeInfo nodeInfo = storage.createNode(rootNodeInfo.getId(), "node", "data", "", 0, new NodeGenericMetadata());
+
+        // data stored in one piece by a previous version
+        byte[] data = createData(25);
+        NamedLink dataLink = new NamedLink(UUID.fromString(nodeInfo.getId()), "blob");
+        db.hashMap("data", NamedLinkSerializer.INSTANCE, Serializer.BYTE_ARRAY).createOrOpen().put(dataLink, data);
+        assertArrayEquals(data, readData(storage, nodeInfo.getId(), "blob"));
+
+        // and replaced by chunked data once rewritten
+        byte[] data2 = createData(15);
+        try (OutputStream os = storage.writeBinaryData(nodeInfo.getId(), "blob")) {
+            os.write(data2);
+        }
+        assertArrayEquals(data2, readData(storage, nodeInfo.getId(), "blob"));
+        assertTrue(db.hashMap("data", NamedLinkSerializer.INSTANCE, Serializer.BYTE_ARRAY).createOrOpen().isEmpty());
+    }
 }
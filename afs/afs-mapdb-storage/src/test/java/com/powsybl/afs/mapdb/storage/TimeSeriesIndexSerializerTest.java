@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.afs.mapdb.storage;
+
+import com.powsybl.math.timeseries.IrregularTimeSeriesIndex;
+import com.powsybl.math.timeseries.RegularTimeSeriesIndex;
+import com.powsybl.math.timeseries.TimeSeriesIndex;
+import org.junit.Test;
+import org.mapdb.DataInput2;
+import org.mapdb.DataOutput2;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class TimeSeriesIndexSerializerTest {
+
+    private static TimeSeriesIndex roundTrip(TimeSeriesIndex index) throws IOException {
+        DataOutput2 out = new DataOutput2();
+        TimeSeriesIndexSerializer.INSTANCE.serialize(out, index);
+        return TimeSeriesIndexSerializer.INSTANCE.deserialize(new DataInput2.ByteArray(out.copyBytes()), -1);
+    }
+
+    @Test
+    public void test() throws IOException {
+        TimeSeriesIndex index1 = new RegularTimeSeriesIndex(0, 100, 10);
+        TimeSeriesIndex index2 = new IrregularTimeSeriesIndex(new long[] {1420070400000L, 1420071300000L, 1420074000000L});
+        assertEquals(index1, roundTrip(index1));
+        assertEquals(index2, roundTrip(index2));
+    }
+}
@@ -36,6 +36,8 @@ public class CacheManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CacheManager.class);
 
+    private static final String METADATA_FILE_NAME = ".metadata";
+
     private final Path cacheDir;
 
     private final Lock cacheEntriesLock = new ReentrantLock();
@@ -68,7 +70,7 @@ public class CacheManager {
         }
 
         private Path getMetadataFile() {
-            return path.resolve(".metadata");
+            return path.resolve(METADATA_FILE_NAME);
         }
 
         public Path create() {
@@ -183,4 +185,33 @@ public class CacheManager {
         return new CacheEntryBuilder(name);
     }
 
+    /**
+     * Get cache entries with keys of a given name already created in the cache directory, for instance by a previous
+     * run.
+     */
+    public List<CacheEntry> listCacheEntries(String name) {
+        Objects.requireNonNull(name);
+        Path baseDir = cacheDir.resolve(name);
+        if (!Files.isDirectory(baseDir)) {
+            return Collections.emptyList();
+        }
+        List<CacheEntry> entries = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(baseDir)) {
+            for (Path path : stream.collect(Collectors.toList())) {
+                Path metadataFile = path.resolve(METADATA_FILE_NAME);
+                if (Files.isRegularFile(metadataFile)) {
+                    List<String> keys = Files.readAllLines(metadataFile, StandardCharsets.UTF_8);
+                    CacheEntry entry = newCacheEntry(name).withKeys(keys).build();
+                    // keys with line breaks cannot be read back from the metadata file
+                    if (entry.toPath().equals(path)) {
+                        entries.add(entry);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return entries;
+    }
+
 }
@@ -24,10 +24,14 @@ public class LocalComputationConfig {
 
     private static final int DEFAULT_AVAILABLE_CORE = 1;
 
+    private static final boolean DEFAULT_LINK_INPUT_FILES = false;
+
     private final Path localDir;
 
     private final int availableCore;
 
+    private final boolean linkInputFiles;
+
     public static LocalComputationConfig load() {
         return load(PlatformConfig.defaultConfig());
     }
@@ -37,15 +41,17 @@ public class LocalComputationConfig {
 
         Path localDir = DEFAULT_LOCAL_DIR;
         int availableCore = DEFAULT_AVAILABLE_CORE;
+        boolean linkInputFiles = DEFAULT_LINK_INPUT_FILES;
         if (platformConfig.moduleExists(CONFIG_MODULE_NAME)) {
             ModuleConfig config = platformConfig.getModuleConfig(CONFIG_MODULE_NAME);
             localDir = config.getPathProperty("tmpDir", DEFAULT_LOCAL_DIR);
             availableCore = config.getIntProperty("availableCore", DEFAULT_AVAILABLE_CORE);
+            linkInputFiles = config.getBooleanProperty("linkInputFiles", DEFAULT_LINK_INPUT_FILES);
         }
         if (availableCore <= 0) {
             availableCore = Runtime.getRuntime().availableProcessors();
         }
-        return new LocalComputationConfig(localDir, availableCore);
+        return new LocalComputationConfig(localDir, availableCore, linkInputFiles);
     }
 
     public LocalComputationConfig(Path localDir) {
@@ -53,8 +59,17 @@ public class LocalComputationConfig {
     }
 
     public LocalComputationConfig(Path localDir, int availableCore) {
+        this(localDir, availableCore, DEFAULT_LINK_INPUT_FILES);
+    }
+
+    /**
+     * @param linkInputFiles if true, common input files are hard linked to working directories instead of being
+     *                       copied, so commands must not modify their input files in place
+     */
+    public LocalComputationConfig(Path localDir, int availableCore, boolean linkInputFiles) {
         this.localDir = localDir;
         this.availableCore = availableCore;
+        this.linkInputFiles = linkInputFiles;
     }
 
     public Path getLocalDir() {
@@ -65,10 +80,15 @@ public class LocalComputationConfig {
         return availableCore;
     }
 
+    public boolean isLinkInputFiles() {
+        return linkInputFiles;
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " [localDir=" + localDir +
                 ", availableCore=" + availableCore +
+                ", linkInputFiles=" + linkInputFiles +
                 "]";
     }
 }
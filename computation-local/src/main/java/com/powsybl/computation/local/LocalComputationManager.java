@@ -7,12 +7,9 @@
 package com.powsybl.computation.local;
 
 import com.google.common.io.ByteStreams;
-import com.powsybl.commons.PowsyblException;
 import com.powsybl.commons.config.PlatformConfig;
 import com.powsybl.commons.io.WorkingDirectory;
 import com.powsybl.computation.*;
-import net.java.truevfs.comp.zip.ZipEntry;
-import net.java.truevfs.comp.zip.ZipFile;
 import org.apache.commons.lang3.SystemUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,18 +17,20 @@ import org.slf4j.LoggerFactory;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
-import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
-
 /**
  *
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -44,14 +43,20 @@ public class LocalComputationManager implements ComputationManager {
 
     private final WorkingDirectory commonDir;
 
+    private final WorkingDirectory stagingDir;
+
+    private final LocalInputStager inputStager;
+
     private final LocalComputationResourcesStatus status;
 
-    private final Semaphore permits;
+    private final LocalExecutionScheduler scheduler;
 
     private final Executor threadPools;
 
     private final LocalCommandExecutor localCommandExecutor;
 
+    private final ExecutionMetrics metrics;
+
     private static final Lock LOCK = new ReentrantLock();
 
     private static LocalComputationManager defaultInstance;
@@ -108,14 +113,25 @@ public class LocalComputationManager implements ComputationManager {
     }
 
     public LocalComputationManager(LocalComputationConfig config, LocalCommandExecutor localCommandExecutor, Executor executor) throws IOException {
+        this(config, localCommandExecutor, executor, ExecutionMetrics.NONE);
+    }
+
+    /**
+     * @param metrics receiver of the durations of the execution phases, of the queue depth and of the staged bytes
+     */
+    public LocalComputationManager(LocalComputationConfig config, LocalCommandExecutor localCommandExecutor, Executor executor,
+                                   ExecutionMetrics metrics) throws IOException {
         this.config = Objects.requireNonNull(config);
         this.localCommandExecutor = Objects.requireNonNull(localCommandExecutor);
         this.threadPools = Objects.requireNonNull(executor);
+        this.metrics = Objects.requireNonNull(metrics);
         status = new LocalComputationResourcesStatus(config.getAvailableCore());
-        permits = new Semaphore(config.getAvailableCore());
+        scheduler = new LocalExecutionScheduler(config.getAvailableCore(), status, metrics);
         //make sure the localdir exists
         Files.createDirectories(config.getLocalDir());
         commonDir = new WorkingDirectory(config.getLocalDir(), "itools_common_", false);
+        stagingDir = new WorkingDirectory(config.getLocalDir(), "itools_staging_", false);
+        inputStager = new LocalInputStager(commonDir.toPath(), stagingDir.toPath(), config.isLinkInputFiles());
         if (LOGGER.isInfoEnabled()) {
             LOGGER.info(config.toString());
         }
@@ -131,9 +147,40 @@ public class LocalComputationManager implements ComputationManager {
         return config.getLocalDir();
     }
 
+    /**
+     * The common file is written to a temporary file, atomically moved into place when the stream is closed. So the
+     * previous version of the file, which may be linked by running executions or kept working directories, is never
+     * modified.
+     */
     @Override
     public OutputStream newCommonFile(String fileName) throws IOException {
-        return Files.newOutputStream(commonDir.toPath().resolve(fileName));
+        Path file = commonDir.toPath().resolve(fileName);
+        Path tmpFile = Files.createTempFile(file.getParent(), "." + file.getFileName(), ".tmp");
+        return new FilterOutputStream(Files.newOutputStream(tmpFile)) {
+
+            private boolean closed = false;
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    super.close();
+                } catch (IOException e) {
+                    Files.deleteIfExists(tmpFile);
+                    throw e;
+                }
+                Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                inputStager.invalidate(fileName);
+            }
+        };
     }
 
     @Override
@@ -151,32 +198,22 @@ public class LocalComputationManager implements ComputationManager {
 
             @Override
             public void start(CommandExecution execution, ExecutionListener listener) throws Exception {
-                enter();
-                try {
-                    if (listener != null) {
-                        listener.onExecutionStart(0, execution.getExecutionCount() - 1);
-                    }
-                    ExecutionReport report = execute(workingDir.toPath(), Collections.singletonList(execution), env, (execution1, executionIndex) -> {
-                        if (listener != null) {
-                            listener.onExecutionCompletion(executionIndex);
-                        }
-                    });
+                if (listener != null) {
+                    listener.onExecutionStart(0, execution.getExecutionCount() - 1);
+                }
+                ExecutionReport report = execute(workingDir.toPath(), Collections.singletonList(execution), env, (execution1, executionIndex) -> {
                     if (listener != null) {
-                        listener.onEnd(report);
+                        listener.onExecutionCompletion(executionIndex);
                     }
-                } finally {
-                    exit();
+                });
+                if (listener != null) {
+                    listener.onEnd(report);
                 }
             }
 
             @Override
             public ExecutionReport start(CommandExecution execution) throws Exception {
-                enter();
-                try {
-                    return execute(workingDir.toPath(), Collections.singletonList(execution), env, null);
-                } finally {
-                    exit();
-                }
+                return execute(workingDir.toPath(), Collections.singletonList(execution), env, null);
             }
 
             @Override
@@ -192,22 +229,163 @@ public class LocalComputationManager implements ComputationManager {
 
     }
 
-    private ExecutionReport execute(Path workingDir, List<CommandExecution> commandExecutionList, Map<String, String> variables, ExecutionMonitor monitor)
-            throws IOException, InterruptedException {
-        List<ExecutionError> errors = new ArrayList<>();
+    private static ExecutionMonitor createSynchronizedMonitor(ExecutionMonitor monitor) {
+        Lock monitorLock = new ReentrantLock();
+        return (execution, executionIndex) -> {
+            monitorLock.lock();
+            try {
+                monitor.onProgress(execution, executionIndex);
+            } finally {
+                monitorLock.unlock();
+            }
+        };
+    }
+
+    /**
+     * Asynchronous execution of a list of commands. Executions of a command may depend on the results of the
+     * previous command, so commands are run one after the other, whereas executions of a same command are
+     * independent and are all submitted at once to the scheduler. No thread is blocked waiting for a free core.
+     */
+    private final class JobExecution {
+
+        private final Path workingDir;
+
+        private final List<CommandExecution> commandExecutionList;
+
+        private final Map<String, String> variables;
+
+        private final ExecutionMonitor monitor;
+
+        private final LocalExecutionScheduler.Job job = scheduler.createJob();
+
+        private final LocalInputStager.Staging staging;
+
+        private final CompletableFuture<ExecutionReport> future = new CompletableFuture<>();
+
+        private final List<ExecutionError> errors = new ArrayList<>();
+
+        private final List<ExecutionError> commandErrors = Collections.synchronizedList(new ArrayList<>());
+
+        private final AtomicInteger remainingExecutions = new AtomicInteger();
+
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        private int commandNum = -1;
+
+        // staged bytes at the start of the current command
+        private long stagedBytes = 0;
+
+        private JobExecution(Path workingDir, List<CommandExecution> commandExecutionList, Map<String, String> variables,
+                             ExecutionMonitor monitor) {
+            this.workingDir = Objects.requireNonNull(workingDir);
+            this.commandExecutionList = Objects.requireNonNull(commandExecutionList);
+            this.variables = Objects.requireNonNull(variables);
+            this.monitor = monitor != null ? createSynchronizedMonitor(monitor) : null;
+            staging = inputStager.newStaging(workingDir);
+        }
+
+        private CompletableFuture<ExecutionReport> start() {
+            startNextCommand();
+            return future;
+        }
+
+        /**
+         * Pending executions are skipped, running ones have to be stopped by the command executor.
+         */
+        private void cancel() {
+            failure.compareAndSet(null, new CancellationException());
+        }
+
+        /**
+         * Called by the starting thread or by the thread completing the last execution of the previous command.
+         */
+        private void startNextCommand() {
+            List<ExecutionError> sortedCommandErrors = new ArrayList<>(commandErrors);
+            sortedCommandErrors.sort(Comparator.comparingInt(ExecutionError::getIndex));
+            errors.addAll(sortedCommandErrors);
+            commandErrors.clear();
+
+            if (commandNum >= 0) {
+                long newStagedBytes = staging.getStagedBytes();
+                metrics.recordStagedBytes(commandExecutionList.get(commandNum).getCommand().getId(), newStagedBytes - stagedBytes);
+                stagedBytes = newStagedBytes;
+            }
+
+            Exception e = failure.get();
+            if (e != null) {
+                future.completeExceptionally(e);
+                return;
+            }
 
-        for (CommandExecution commandExecution : commandExecutionList) {
-            Command command = commandExecution.getCommand();
+            commandNum++;
+            if (commandNum == commandExecutionList.size()) {
+                future.complete(new ExecutionReport(errors, staging.getStatistics()));
+                return;
+            }
 
-            for (int executionIndex = 0; executionIndex < commandExecution.getExecutionCount(); executionIndex++) {
-                logExecutingCommand(workingDir, command, executionIndex);
+            CommandExecution commandExecution = commandExecutionList.get(commandNum);
+            int executionCount = commandExecution.getExecutionCount();
+            remainingExecutions.set(executionCount);
+            List<Runnable> executions = new ArrayList<>(executionCount);
+            long submitTime = System.nanoTime();
+            for (int i = 0; i < executionCount; i++) {
+                int executionIndex = i;
+                executions.add(() -> run(commandExecution, executionIndex, submitTime));
+            }
+            job.submit(commandExecution.getPriority(), executions);
+        }
+
+        private void run(CommandExecution commandExecution, int executionIndex, long submitTime) {
+            metrics.recordPhase(ExecutionPhase.QUEUE_WAIT, commandExecution.getCommand().getId(), System.nanoTime() - submitTime);
+            try {
+                // after a failure, remaining executions are skipped
+                if (failure.get() == null) {
+                    execute(workingDir, staging, commandExecution, executionIndex, variables, commandErrors, monitor);
+                }
+            } catch (InterruptedException e) {
+                failure.compareAndSet(null, e);
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                if (remainingExecutions.decrementAndGet() == 0) {
+                    startNextCommand();
+                }
+            }
+        }
+    }
 
-                preProcess(workingDir, command, executionIndex);
-                int exitValue = process(workingDir, commandExecution, executionIndex, variables);
-                postProcess(workingDir, commandExecution, executionIndex, exitValue, errors, monitor);
+    private ExecutionReport execute(Path workingDir, List<CommandExecution> commandExecutionList, Map<String, String> variables, ExecutionMonitor monitor)
+            throws Exception {
+        JobExecution jobExecution = new JobExecution(workingDir, commandExecutionList, variables, monitor);
+        try {
+            return jobExecution.start().get();
+        } catch (InterruptedException e) {
+            jobExecution.cancel();
+            localCommandExecutor.stop(workingDir);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
             }
+            throw e;
         }
-        return new ExecutionReport(errors);
+    }
+
+    private void execute(Path workingDir, LocalInputStager.Staging staging, CommandExecution commandExecution, int executionIndex,
+                         Map<String, String> variables, List<ExecutionError> errors, ExecutionMonitor monitor) throws IOException, InterruptedException {
+        Command command = commandExecution.getCommand();
+        logExecutingCommand(workingDir, command, executionIndex);
+
+        long startTime = System.nanoTime();
+        preProcess(staging, command, executionIndex);
+        long preProcessingEndTime = System.nanoTime();
+        metrics.recordPhase(ExecutionPhase.PRE_PROCESSING, command.getId(), preProcessingEndTime - startTime);
+        int exitValue = process(workingDir, commandExecution, executionIndex, variables);
+        long processEndTime = System.nanoTime();
+        metrics.recordPhase(ExecutionPhase.PROCESS, command.getId(), processEndTime - preProcessingEndTime);
+        postProcess(workingDir, commandExecution, executionIndex, exitValue, errors, monitor);
+        metrics.recordPhase(ExecutionPhase.POST_PROCESSING, command.getId(), System.nanoTime() - processEndTime);
     }
 
     private void logExecutingCommand(Path workingDir, Command command, int executionIndex) {
@@ -217,34 +395,10 @@ public class LocalComputationManager implements ComputationManager {
         }
     }
 
-    private void preProcess(Path workingDir, Command command, int executionIndex) throws IOException {
-        // pre-processing
+    private static void preProcess(LocalInputStager.Staging staging, Command command, int executionIndex) throws IOException {
+        // pre-processing, input files are only decompressed and copied once for all executions
         for (InputFile file : command.getInputFiles()) {
-            String fileName = file.getName(executionIndex);
-
-            Path path = checkInputFileExistsInWorkingAndCommons(workingDir, fileName, file);
-            if (file.getPreProcessor() != null) {
-                switch (file.getPreProcessor()) {
-                    case FILE_GUNZIP:
-                        // gunzip the file
-                        try (InputStream is = new GZIPInputStream(Files.newInputStream(path));
-                             OutputStream os = Files.newOutputStream(workingDir.resolve(fileName.substring(0, fileName.length() - 3)))) {
-                            ByteStreams.copy(is, os);
-                        }
-                        break;
-                    case ARCHIVE_UNZIP:
-                        // extract the archive
-                        try (ZipFile zipFile = new ZipFile(path)) {
-                            for (ZipEntry ze : Collections.list(zipFile.entries())) {
-                                Files.copy(zipFile.getInputStream(ze.getName()), workingDir.resolve(ze.getName()), REPLACE_EXISTING);
-                            }
-                        }
-                        break;
-
-                    default:
-                        throw new AssertionError("Unexpected FilePreProcessor value: " + file.getPreProcessor());
-                }
-            }
+            staging.stage(file, executionIndex);
         }
     }
 
@@ -311,72 +465,106 @@ public class LocalComputationManager implements ComputationManager {
         }
     }
 
-    private Path checkInputFileExistsInWorkingAndCommons(Path workingDir, String fileName, InputFile file) throws IOException {
-        // first check if the file exists in the working directory
-        Path path = workingDir.resolve(fileName);
-        if (!Files.exists(path)) {
-            // if not check if the file exists in the common directory
-            path = commonDir.toPath().resolve(fileName);
-            if (!Files.exists(path)) {
-                throw new PowsyblException("Input file '" + fileName + "' not found in the working and common directory");
-            }
-            if (file.getPreProcessor() == null) {
-                Files.copy(path, workingDir.resolve(path.getFileName()));
-            }
-        }
-        return path;
-    }
-
-    private void enter() throws InterruptedException {
-        permits.acquire();
-        status.incrementNumberOfBusyCores();
-    }
-
-    private void exit() {
-        status.decrementNumberOfBusyCores();
-        permits.release();
-    }
-
     @Override
     public <R> CompletableFuture<R> execute(ExecutionEnvironment environment, ExecutionHandler<R> handler) {
         Objects.requireNonNull(environment);
         Objects.requireNonNull(handler);
         MyCf<R> f = new MyCf<>();
         threadPools.execute(() -> {
-            f.setThread(Thread.currentThread());
+            WorkingDirectory workingDir = null;
             try {
-                try (WorkingDirectory workingDir = new WorkingDirectory(config.getLocalDir(), environment.getWorkingDirPrefix(), environment.isDebug())) {
-                    f.setWorkingDir(workingDir.toPath());
-                    List<CommandExecution> commandExecutionList = handler.before(workingDir.toPath());
-                    ExecutionReport report = null;
-                    enter();
-                    try {
-                        report = execute(workingDir.toPath(), commandExecutionList, environment.getVariables(), handler::onProgress);
-                    } finally {
-                        exit();
-                    }
-                    R result = handler.after(workingDir.toPath(), report);
-                    f.complete(result);
+                workingDir = new WorkingDirectory(config.getLocalDir(), environment.getWorkingDirPrefix(), environment.isDebug());
+                f.setWorkingDir(workingDir.toPath());
+                long beforeStartTime = System.nanoTime();
+                List<CommandExecution> commandExecutionList = handler.before(workingDir.toPath());
+                metrics.recordPhase(ExecutionPhase.HANDLER_BEFORE, environment.getWorkingDirPrefix(), System.nanoTime() - beforeStartTime);
+                if (f.isCancelled()) {
+                    throw new CancellationException();
                 }
+                JobExecution jobExecution = new JobExecution(workingDir.toPath(), commandExecutionList, environment.getVariables(), handler::onProgress);
+                f.setJobExecution(jobExecution);
+                // results are processed by the executor, not by the scheduler worker which has run the last execution
+                WorkingDirectory jobWorkingDir = workingDir;
+                jobExecution.start().whenCompleteAsync((report, throwable) -> after(jobWorkingDir, environment.getWorkingDirPrefix(), handler, report, throwable, f), threadPools);
             } catch (Exception e) {
+                closeQuietly(workingDir);
                 f.completeExceptionally(e);
             }
         });
         return f;
     }
 
+    /**
+     * Java tasks are scheduled on the same slots as commands, so they are accounted as busy cores too.
+     */
+    @Override
+    public <R> CompletableFuture<List<R>> executeJava(JavaExecution<R> execution, ExecutionListener listener) {
+        // process phase is timed by the job, so that it is recorded when the future completes
+        JavaExecutionJob<R> job = new JavaExecutionJob<>(execution, listener, metrics);
+        long submitTime = System.nanoTime();
+        List<Runnable> executions = job.getExecutions().stream()
+                .map(javaExecution -> (Runnable) () -> {
+                    metrics.recordPhase(ExecutionPhase.QUEUE_WAIT, execution.getId(), System.nanoTime() - submitTime);
+                    javaExecution.run();
+                })
+                .collect(Collectors.toList());
+        scheduler.createJob().submit(execution.getPriority(), executions);
+        return job.getFuture();
+    }
+
+    private <R> void after(WorkingDirectory workingDir, String workingDirPrefix, ExecutionHandler<R> handler, ExecutionReport report,
+                           Throwable throwable, CompletableFuture<R> f) {
+        try (WorkingDirectory closedWorkingDir = workingDir) {
+            if (throwable != null) {
+                f.completeExceptionally(throwable);
+            } else {
+                long startTime = System.nanoTime();
+                R result = handler.after(closedWorkingDir.toPath(), report);
+                metrics.recordPhase(ExecutionPhase.HANDLER_AFTER, workingDirPrefix, System.nanoTime() - startTime);
+                f.complete(result);
+            }
+        } catch (Exception e) {
+            f.completeExceptionally(e);
+        }
+    }
+
+    private static void closeQuietly(WorkingDirectory workingDir) {
+        if (workingDir != null) {
+            try {
+                workingDir.close();
+            } catch (IOException e) {
+                LOGGER.error(e.toString(), e);
+            }
+        }
+    }
+
     private class MyCf<R> extends ThreadInterruptedCompletableFuture<R> {
 
-        private Path workingDir;
+        private volatile Path workingDir;
+
+        private volatile JobExecution jobExecution;
 
         private void setWorkingDir(Path workingDir) {
             this.workingDir = workingDir;
         }
 
+        private void setJobExecution(JobExecution jobExecution) {
+            this.jobExecution = jobExecution;
+        }
+
         @Override
         public boolean cancel(boolean mayInterruptIfRunning) {
-            super.cancel(mayInterruptIfRunning);
-            if (mayInterruptIfRunning) {
+            cancel = true;
+            if (isDone()) {
+                return false;
+            }
+            // the job is not bound to a thread, so instead of interrupting a thread, pending executions are skipped
+            // and running ones are stopped
+            JobExecution execution = jobExecution;
+            if (execution != null) {
+                execution.cancel();
+            }
+            if (mayInterruptIfRunning && workingDir != null) {
                 localCommandExecutor.stop(workingDir);
             }
             return true;
@@ -395,8 +583,10 @@ public class LocalComputationManager implements ComputationManager {
 
     @Override
     public void close() {
+        scheduler.shutdown();
         try {
             commonDir.close();
+            stagingDir.close();
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
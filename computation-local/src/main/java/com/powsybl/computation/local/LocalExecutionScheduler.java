@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation.local;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.powsybl.computation.ExecutionMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Non blocking scheduler of executions on a fixed number of slots (one per available core).
+ * <p>
+ * Submitting executions never blocks: they are queued and dispatched to worker threads as soon as a slot is free,
+ * so threads are only used by running executions. Executions are grouped by job (one job per
+ * {@link com.powsybl.computation.ComputationManager#execute} call) and the job to dispatch next is selected by:
+ * <ol>
+ *     <li>highest priority, i.e lowest {@link com.powsybl.computation.CommandExecution#getPriority()} value as for
+ *     MPI scheduling</li>
+ *     <li>fewest running executions, so that concurrent jobs fairly share the slots</li>
+ *     <li>least recently dispatched job (round robin), new jobs first</li>
+ * </ol>
+ * Executions of a same job are dispatched in submission order.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+class LocalExecutionScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalExecutionScheduler.class);
+
+    private static final long WORKER_KEEP_ALIVE_SECONDS = 60;
+
+    final class Job {
+
+        private int priority = Integer.MAX_VALUE;
+
+        private long lastDispatch;
+
+        private final Deque<Runnable> pendingExecutions = new ArrayDeque<>();
+
+        private int runningExecutions = 0;
+
+        private Job(long sequence) {
+            // never dispatched jobs are before the other ones, in creation order
+            lastDispatch = Long.MIN_VALUE + sequence;
+        }
+
+        /**
+         * Queue executions of the job, they are dispatched as soon as slots are free.
+         *
+         * @param priority priority of the job for these executions and the next ones
+         * @param executions the executions
+         */
+        void submit(int priority, Collection<Runnable> executions) {
+            Objects.requireNonNull(executions);
+            int queueDepth;
+            lock.lock();
+            try {
+                if (executions.isEmpty()) {
+                    return;
+                }
+                queue.remove(this);
+                this.priority = priority;
+                pendingExecutions.addAll(executions);
+                queue.add(this);
+                pendingExecutionCount += executions.size();
+                queueDepth = pendingExecutionCount;
+            } finally {
+                lock.unlock();
+            }
+            metrics.recordQueueDepth(queueDepth);
+            dispatch();
+        }
+    }
+
+    private static final Comparator<Job> JOB_COMPARATOR = Comparator.comparingInt((Job job) -> job.priority)
+                                                                    .thenComparingInt(job -> job.runningExecutions)
+                                                                    .thenComparingLong(job -> job.lastDispatch);
+
+    private final int slotCount;
+
+    private final LocalComputationResourcesStatus status;
+
+    private final ExecutionMetrics metrics;
+
+    private final ThreadPoolExecutor workers;
+
+    private final Lock lock = new ReentrantLock();
+
+    // jobs having pending executions
+    private final TreeSet<Job> queue = new TreeSet<>(JOB_COMPARATOR);
+
+    private int freeSlots;
+
+    private int pendingExecutionCount = 0;
+
+    private long jobSequence = 0;
+
+    private long dispatchCount = 0;
+
+    LocalExecutionScheduler(int slotCount, LocalComputationResourcesStatus status) {
+        this(slotCount, status, ExecutionMetrics.NONE);
+    }
+
+    LocalExecutionScheduler(int slotCount, LocalComputationResourcesStatus status, ExecutionMetrics metrics) {
+        if (slotCount < 1) {
+            throw new IllegalArgumentException("Invalid slot count " + slotCount);
+        }
+        this.slotCount = slotCount;
+        this.status = Objects.requireNonNull(status);
+        this.metrics = Objects.requireNonNull(metrics);
+        freeSlots = slotCount;
+        workers = new ThreadPoolExecutor(slotCount, slotCount, WORKER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                                         new ThreadFactoryBuilder().setNameFormat("local-computation-%d").setDaemon(true).build());
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    int getSlotCount() {
+        return slotCount;
+    }
+
+    Job createJob() {
+        lock.lock();
+        try {
+            return new Job(jobSequence++);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of executions waiting for a free slot.
+     */
+    int getPendingExecutionCount() {
+        lock.lock();
+        try {
+            return pendingExecutionCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch() {
+        List<Runnable> dispatched = new ArrayList<>();
+        int queueDepth;
+        lock.lock();
+        try {
+            while (freeSlots > 0 && !queue.isEmpty()) {
+                Job job = queue.pollFirst();
+                Runnable execution = job.pendingExecutions.poll();
+                job.runningExecutions++;
+                job.lastDispatch = dispatchCount++;
+                freeSlots--;
+                if (!job.pendingExecutions.isEmpty()) {
+                    queue.add(job);
+                }
+                dispatched.add(() -> run(job, execution));
+            }
+            pendingExecutionCount -= dispatched.size();
+            queueDepth = pendingExecutionCount;
+        } finally {
+            lock.unlock();
+        }
+        if (!dispatched.isEmpty()) {
+            metrics.recordQueueDepth(queueDepth);
+        }
+        for (Runnable runnable : dispatched) {
+            workers.execute(runnable);
+        }
+    }
+
+    private void run(Job job, Runnable execution) {
+        status.incrementNumberOfBusyCores();
+        try {
+            execution.run();
+        } catch (Throwable t) {
+            // the worker thread is kept, the slot is released and next executions dispatched
+            LOGGER.error(t.toString(), t);
+        } finally {
+            status.decrementNumberOfBusyCores();
+            lock.lock();
+            try {
+                // job position in the queue depends on its running executions
+                boolean queued = queue.remove(job);
+                job.runningExecutions--;
+                if (queued) {
+                    queue.add(job);
+                }
+                freeSlots++;
+            } finally {
+                lock.unlock();
+            }
+            dispatch();
+        }
+    }
+
+    /**
+     * Stop accepting executions and wait for running ones to finish.
+     */
+    void shutdown() {
+        workers.shutdown();
+        try {
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation.local;
+
+import com.google.common.io.ByteStreams;
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.computation.ExecutionIoStatistics;
+import com.powsybl.computation.FilePreProcessor;
+import com.powsybl.computation.InputFile;
+import net.java.truevfs.comp.zip.ZipEntry;
+import net.java.truevfs.comp.zip.ZipFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Stages input files of executions into working directories.
+ * <p>
+ * Compressed common files are decompressed once into a staging directory shared by all executions, instead of once per
+ * execution. Common files and their decompressed content are then copied to working directories, so that commands can
+ * modify their input files in place. Optionally, they are exposed with hard links instead, falling back to a copy when
+ * the file system does not support them (symbolic links are not used because working directories kept for debugging
+ * outlive the common directory): commands must then not modify their input files in place. Rewriting a common file is
+ * safe in both cases as it is replaced by a new file (see {@link LocalComputationManager#newCommonFile(String)}).
+ * Input files of the working directory are preprocessed only once, whatever the number of executions.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+class LocalInputStager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalInputStager.class);
+
+    /**
+     * Decompressed content of a common file: a gunzipped file or files extracted from an archive.
+     */
+    private static final class StagedCommonFile {
+
+        private final Path dir;
+
+        private final List<String> fileNames;
+
+        private StagedCommonFile(Path dir, List<String> fileNames) {
+            this.dir = dir;
+            this.fileNames = fileNames;
+        }
+    }
+
+    private final Path commonDir;
+
+    private final Path stagingDir;
+
+    private final boolean linkFiles;
+
+    private final Map<String, Lock> commonFileLocks = new ConcurrentHashMap<>();
+
+    private final Map<String, StagedCommonFile> stagedCommonFiles = new ConcurrentHashMap<>();
+
+    private final AtomicLong stagedCommonFileCount = new AtomicLong();
+
+    LocalInputStager(Path commonDir, Path stagingDir, boolean linkFiles) {
+        this.commonDir = Objects.requireNonNull(commonDir);
+        this.stagingDir = Objects.requireNonNull(stagingDir);
+        this.linkFiles = linkFiles;
+    }
+
+    /**
+     * Forget the decompressed content of a common file, because the common file is being rewritten. Already staged
+     * files stay on disk until the staging directory is removed, as they may still be linked by running executions.
+     */
+    void invalidate(String commonFileName) {
+        stagedCommonFiles.remove(commonFileName);
+    }
+
+    private static Lock getLock(Map<String, Lock> locks, String fileName) {
+        return locks.computeIfAbsent(fileName, k -> new ReentrantLock());
+    }
+
+    /**
+     * Input file staging of all executions of a job, sharing the same working directory.
+     */
+    final class Staging {
+
+        private final Path workingDir;
+
+        private final Map<String, Lock> fileLocks = new ConcurrentHashMap<>();
+
+        private final Set<String> stagedFileNames = ConcurrentHashMap.newKeySet();
+
+        private final AtomicInteger linkedFileCount = new AtomicInteger();
+
+        private final AtomicInteger copiedFileCount = new AtomicInteger();
+
+        private final AtomicLong copiedBytes = new AtomicLong();
+
+        private final AtomicInteger decompressedFileCount = new AtomicInteger();
+
+        private final AtomicLong decompressedBytes = new AtomicLong();
+
+        private final AtomicInteger reusedDecompressionCount = new AtomicInteger();
+
+        private Staging(Path workingDir) {
+            this.workingDir = Objects.requireNonNull(workingDir);
+        }
+
+        /**
+         * Stage an input file of an execution into the working directory. Executions of a job needing the same input
+         * file wait for the first one to stage it.
+         */
+        void stage(InputFile file, int executionIndex) throws IOException {
+            String fileName = file.getName(executionIndex);
+            Lock lock = getLock(fileLocks, fileName);
+            lock.lock();
+            try {
+                if (stagedFileNames.contains(fileName)) {
+                    return;
+                }
+                Path path = workingDir.resolve(fileName);
+                if (Files.exists(path)) {
+                    // created by the execution handler, preprocess it in place
+                    if (file.getPreProcessor() != null) {
+                        decompress(path, file.getPreProcessor(), workingDir, this);
+                    }
+                } else {
+                    Path commonFile = commonDir.resolve(fileName);
+                    if (!Files.exists(commonFile)) {
+                        throw new PowsyblException("Input file '" + fileName + "' not found in the working and common directory");
+                    }
+                    if (file.getPreProcessor() == null) {
+                        copyOrLink(commonFile, path);
+                    } else {
+                        StagedCommonFile stagedCommonFile = getStagedCommonFile(commonFile, file.getPreProcessor(), this);
+                        for (String stagedFileName : stagedCommonFile.fileNames) {
+                            copyOrLink(stagedCommonFile.dir.resolve(stagedFileName), workingDir.resolve(stagedFileName));
+                        }
+                    }
+                }
+                stagedFileNames.add(fileName);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void copyOrLink(Path source, Path target) throws IOException {
+            Files.createDirectories(target.getParent());
+            Files.deleteIfExists(target);
+            if (linkFiles) {
+                try {
+                    Files.createLink(target, source);
+                    linkedFileCount.incrementAndGet();
+                    return;
+                } catch (UnsupportedOperationException | IOException e) {
+                    LOGGER.trace("Cannot link {} to {}, copy it", source, target, e);
+                }
+            }
+            Files.copy(source, target);
+            copiedFileCount.incrementAndGet();
+            copiedBytes.addAndGet(Files.size(target));
+        }
+
+        /**
+         * Number of bytes copied or decompressed so far.
+         */
+        long getStagedBytes() {
+            return copiedBytes.get() + decompressedBytes.get();
+        }
+
+        ExecutionIoStatistics getStatistics() {
+            return new ExecutionIoStatistics(linkedFileCount.get(), copiedFileCount.get(), copiedBytes.get(),
+                                             decompressedFileCount.get(), decompressedBytes.get(), reusedDecompressionCount.get());
+        }
+    }
+
+    Staging newStaging(Path workingDir) {
+        return new Staging(workingDir);
+    }
+
+    private StagedCommonFile getStagedCommonFile(Path commonFile, FilePreProcessor preProcessor, Staging staging) throws IOException {
+        String fileName = commonFile.getFileName().toString();
+        Lock lock = getLock(commonFileLocks, fileName);
+        lock.lock();
+        try {
+            StagedCommonFile stagedCommonFile = stagedCommonFiles.get(fileName);
+            if (stagedCommonFile != null) {
+                staging.reusedDecompressionCount.incrementAndGet();
+            } else {
+                // a new directory for each version of the common file
+                Path dir = Files.createDirectories(stagingDir.resolve(Long.toString(stagedCommonFileCount.getAndIncrement())));
+                stagedCommonFile = decompress(commonFile, preProcessor, dir, staging);
+                stagedCommonFiles.put(fileName, stagedCommonFile);
+            }
+            return stagedCommonFile;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long copy(InputStream is, Path target) throws IOException {
+        try (OutputStream os = Files.newOutputStream(target)) {
+            return ByteStreams.copy(is, os);
+        }
+    }
+
+    private static StagedCommonFile decompress(Path file, FilePreProcessor preProcessor, Path targetDir, Staging staging) throws IOException {
+        List<String> fileNames = new ArrayList<>();
+        switch (preProcessor) {
+            case FILE_GUNZIP:
+                // gunzip the file
+                String fileName = file.getFileName().toString();
+                String gunzippedFileName = fileName.substring(0, fileName.length() - 3);
+                try (InputStream is = new GZIPInputStream(Files.newInputStream(file))) {
+                    staging.decompressedBytes.addAndGet(copy(is, targetDir.resolve(gunzippedFileName)));
+                }
+                fileNames.add(gunzippedFileName);
+                break;
+
+            case ARCHIVE_UNZIP:
+                // extract the archive
+                try (ZipFile zipFile = new ZipFile(file)) {
+                    for (ZipEntry ze : Collections.list(zipFile.entries())) {
+                        if (!ze.isDirectory()) {
+                            Path target = targetDir.resolve(ze.getName());
+                            Files.createDirectories(target.getParent());
+                            Files.deleteIfExists(target);
+                            try (InputStream is = zipFile.getInputStream(ze.getName())) {
+                                staging.decompressedBytes.addAndGet(copy(is, target));
+                            }
+                            fileNames.add(ze.getName());
+                        }
+                    }
+                }
+                break;
+
+            default:
+                throw new AssertionError("Unexpected FilePreProcessor value: " + preProcessor);
+        }
+        staging.decompressedFileCount.addAndGet(fileNames.size());
+        return new StagedCommonFile(targetDir, fileNames);
+    }
+}
@@ -19,14 +19,23 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -84,9 +93,16 @@ public class LocalComputationManagerTest {
         assertEquals(Runtime.getRuntime().availableProcessors(), config.getAvailableCore());
         assertEquals(localDir, config.getLocalDir());
 
+        assertFalse(config.isLinkInputFiles());
+
+        moduleConfig.setStringProperty("linkInputFiles", "true");
+        config = LocalComputationConfig.load(platformConfig);
+        assertTrue(config.isLinkInputFiles());
+
         config = new LocalComputationConfig(localDir);
         assertEquals(1, config.getAvailableCore());
         assertEquals(localDir, config.getLocalDir());
+        assertFalse(config.isLinkInputFiles());
     }
 
     @Test
@@ -239,4 +255,358 @@ public class LocalComputationManagerTest {
         }
     }
 
+    @Test
+    public void testParallelExecutions() throws Exception {
+        int executionCount = 8;
+        long executionTime = 200;
+        AtomicInteger runningExecutions = new AtomicInteger();
+        AtomicInteger maxRunningExecutions = new AtomicInteger();
+        LocalCommandExecutor localCommandExecutor = new AbstractLocalCommandExecutor() {
+            @Override
+            void nonZeroLog(List<String> cmdLs, int exitCode) {
+
+            }
+
+            @Override
+            public int execute(String program, List<String> args, Path outFile, Path errFile, Path workingDir, Map<String, String> env) throws IOException, InterruptedException {
+                maxRunningExecutions.accumulateAndGet(runningExecutions.incrementAndGet(), Math::max);
+                Thread.sleep(executionTime);
+                runningExecutions.decrementAndGet();
+
+                // odd executions fail
+                return Integer.parseInt(args.get(0)) % 2;
+            }
+        };
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try (ComputationManager computationManager = new LocalComputationManager(new LocalComputationConfig(localDir, 4), localCommandExecutor, executor)) {
+            List<Integer> completedExecutions = new ArrayList<>();
+            ExecutionReport report = computationManager.execute(new ExecutionEnvironment(ImmutableMap.of(), PREFIX, false),
+                    new AbstractExecutionHandler<ExecutionReport>() {
+                        @Override
+                        public List<CommandExecution> before(Path workingDir) {
+                            Command command = new SimpleCommandBuilder()
+                                    .id("prog_cmd")
+                                    .program("prog")
+                                    .args(executionIndex -> ImmutableList.of(Integer.toString(executionIndex)))
+                                    .build();
+                            return Collections.singletonList(new CommandExecution(command, executionCount));
+                        }
+
+                        @Override
+                        public void onProgress(CommandExecution execution, int executionIndex) {
+                            completedExecutions.add(executionIndex);
+                        }
+
+                        @Override
+                        public ExecutionReport after(Path workingDir, ExecutionReport report) {
+                            return report;
+                        }
+                    }).join();
+
+            // executions are spread over the 4 cores
+            assertEquals(4, maxRunningExecutions.get());
+            assertEquals(executionCount, completedExecutions.size());
+
+            // errors are sorted by execution index
+            assertEquals(4, report.getErrors().size());
+            for (int i = 0; i < report.getErrors().size(); i++) {
+                assertEquals(2 * i + 1, report.getErrors().get(i).getIndex());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testJavaExecution() throws Exception {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(i);
+        }
+        AtomicInteger maxBusyCores = new AtomicInteger();
+        List<Integer> completedExecutions = Collections.synchronizedList(new ArrayList<>());
+        try (ComputationManager computationManager = new LocalComputationManager(new LocalComputationConfig(localDir, 4), ForkJoinPool.commonPool())) {
+            JavaTask<Integer> sum = partition -> {
+                maxBusyCores.accumulateAndGet(computationManager.getResourcesStatus().getBusyCores(), Math::max);
+                Thread.sleep(20);
+                return items.subList(partition.startIndex(items.size()), partition.endIndex(items.size())).stream().mapToInt(Integer::intValue).sum();
+            };
+            List<Integer> results = computationManager.executeJava(new JavaExecution<>("sum", sum, 8), new DefaultExecutionListener() {
+                @Override
+                public void onExecutionCompletion(int executionIndex) {
+                    completedExecutions.add(executionIndex);
+                }
+            }).join();
+
+            // results are ordered by partition
+            assertEquals(8, results.size());
+            assertEquals(4950, results.stream().mapToInt(Integer::intValue).sum());
+            // sum of items 0 to 11
+            assertEquals(66, results.get(0).intValue());
+            assertEquals(8, completedExecutions.size());
+            // executions are accounted as busy cores
+            assertEquals(4, maxBusyCores.get());
+
+            // first failure completes the execution
+            try {
+                computationManager.executeJava(new JavaExecution<>("fail", partition -> {
+                    if (partition.getTaskIndex() == 2) {
+                        throw new IllegalStateException("partition " + partition);
+                    }
+                    return partition.getTaskIndex();
+                }, 4), new DefaultExecutionListener()).join();
+                fail();
+            } catch (CompletionException e) {
+                assertEquals("partition 2/4", e.getCause().getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        LocalCommandExecutor localCommandExecutor = new AbstractLocalCommandExecutor() {
+            @Override
+            void nonZeroLog(List<String> cmdLs, int exitCode) {
+
+            }
+
+            @Override
+            public int execute(String program, List<String> args, Path outFile, Path errFile, Path workingDir, Map<String, String> env) {
+                return 0;
+            }
+        };
+        ExecutionMetricsRegistry metrics = new ExecutionMetricsRegistry();
+        try (ComputationManager computationManager = new LocalComputationManager(new LocalComputationConfig(localDir, 4, true), localCommandExecutor,
+                                                                                 ForkJoinPool.commonPool(), metrics)) {
+            writeCommonFiles(computationManager, "a");
+            executeStaging(computationManager);
+            computationManager.executeJava(new JavaExecution<>("java", Partition::getTaskIndex, 3), new DefaultExecutionListener()).join();
+        }
+
+        // each execution index is timed
+        for (ExecutionPhase phase : new ExecutionPhase[] {ExecutionPhase.QUEUE_WAIT, ExecutionPhase.PRE_PROCESSING, ExecutionPhase.PROCESS, ExecutionPhase.POST_PROCESSING}) {
+            assertEquals(10, metrics.getHistogram(phase, "prog_cmd").getCount());
+        }
+        assertEquals(1, metrics.getHistogram(ExecutionPhase.HANDLER_BEFORE, PREFIX).getCount());
+        assertEquals(1, metrics.getHistogram(ExecutionPhase.HANDLER_AFTER, PREFIX).getCount());
+        assertEquals(3, metrics.getHistogram(ExecutionPhase.QUEUE_WAIT, "java").getCount());
+        assertEquals(3, metrics.getHistogram(ExecutionPhase.PROCESS, "java").getCount());
+
+        // the 3 decompressed bytes, linked files are not counted
+        ExecutionMetricsRegistry.Histogram stagedBytes = metrics.getHistogram(ExecutionMetricsRegistry.STAGED_BYTES, "prog_cmd");
+        assertEquals(1, stagedBytes.getCount());
+        assertEquals(3, stagedBytes.getSum());
+
+        // the 10 executions are queued at once
+        assertEquals(10, metrics.getHistogram(ExecutionMetricsRegistry.QUEUE_DEPTH, "").getMax());
+    }
+
+    @Test
+    public void testParallelInputStaging() throws Exception {
+        // all executions of the command need the same input file, created compressed by the handler in the working
+        // directory: it is decompressed in place once while the other executions wait for it
+        List<String> contents = Collections.synchronizedList(new ArrayList<>());
+        LocalCommandExecutor localCommandExecutor = new AbstractLocalCommandExecutor() {
+            @Override
+            void nonZeroLog(List<String> cmdLs, int exitCode) {
+
+            }
+
+            @Override
+            public int execute(String program, List<String> args, Path outFile, Path errFile, Path workingDir, Map<String, String> env) throws IOException {
+                contents.add(new String(Files.readAllBytes(workingDir.resolve("input")), StandardCharsets.UTF_8));
+                return 0;
+            }
+        };
+        int executionCount = 16;
+        try (ComputationManager computationManager = new LocalComputationManager(new LocalComputationConfig(localDir, 4), localCommandExecutor, ForkJoinPool.commonPool())) {
+            ExecutionReport report = computationManager.execute(new ExecutionEnvironment(ImmutableMap.of(), PREFIX, false),
+                    new AbstractExecutionHandler<ExecutionReport>() {
+                        @Override
+                        public List<CommandExecution> before(Path workingDir) throws IOException {
+                            try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(workingDir.resolve("input.gz")))) {
+                                os.write("abc".getBytes(StandardCharsets.UTF_8));
+                            }
+                            Command command = new SimpleCommandBuilder()
+                                    .id("prog_cmd")
+                                    .program("prog")
+                                    .inputFiles(new InputFile("input.gz", FilePreProcessor.FILE_GUNZIP))
+                                    .build();
+                            return Collections.singletonList(new CommandExecution(command, executionCount));
+                        }
+
+                        @Override
+                        public ExecutionReport after(Path workingDir, ExecutionReport report) {
+                            return report;
+                        }
+                    }).join();
+            assertTrue(report.getErrors().isEmpty());
+            assertEquals(Collections.nCopies(executionCount, "abc"), contents);
+            assertEquals(1, report.getIoStatistics().getDecompressedFileCount());
+        }
+    }
+
+    private static void writeCommonFiles(ComputationManager computationManager, String content) throws IOException {
+        try (OutputStream os = new GZIPOutputStream(computationManager.newCommonFile("file1.gz"))) {
+            os.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        try (ZipOutputStream os = new ZipOutputStream(computationManager.newCommonFile("file2.zip"))) {
+            for (String entryName : new String[] {"file2a", "file2b"}) {
+                os.putNextEntry(new ZipEntry(entryName));
+                os.write(content.getBytes(StandardCharsets.UTF_8));
+                os.closeEntry();
+            }
+        }
+        try (OutputStream os = computationManager.newCommonFile("file3")) {
+            os.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static ExecutionReport executeStaging(ComputationManager computationManager) {
+        return executeStaging(computationManager, false, new AtomicReference<>());
+    }
+
+    private static ExecutionReport executeStaging(ComputationManager computationManager, boolean debug, AtomicReference<Path> workingDirRef) {
+        return computationManager.execute(new ExecutionEnvironment(ImmutableMap.of(), PREFIX, debug),
+                new AbstractExecutionHandler<ExecutionReport>() {
+                    @Override
+                    public List<CommandExecution> before(Path workingDir) {
+                        workingDirRef.set(workingDir);
+                        Command command = new SimpleCommandBuilder()
+                                .id("prog_cmd")
+                                .program("prog")
+                                .inputFiles(new InputFile("file1.gz", FilePreProcessor.FILE_GUNZIP),
+                                            new InputFile("file2.zip", FilePreProcessor.ARCHIVE_UNZIP),
+                                            new InputFile("file3"))
+                                .build();
+                        return Collections.singletonList(new CommandExecution(command, 10));
+                    }
+
+                    @Override
+                    public ExecutionReport after(Path workingDir, ExecutionReport report) throws IOException {
+                        super.after(workingDir, report);
+                        return report;
+                    }
+                }).join();
+    }
+
+    @Test
+    public void testInputStaging() throws Exception {
+        List<String> contents = Collections.synchronizedList(new ArrayList<>());
+        LocalCommandExecutor localCommandExecutor = new AbstractLocalCommandExecutor() {
+            @Override
+            void nonZeroLog(List<String> cmdLs, int exitCode) {
+
+            }
+
+            @Override
+            public int execute(String program, List<String> args, Path outFile, Path errFile, Path workingDir, Map<String, String> env) throws IOException, InterruptedException {
+                StringBuilder content = new StringBuilder();
+                for (String fileName : new String[] {"file1", "file2a", "file2b", "file3"}) {
+                    content.append(new String(Files.readAllBytes(workingDir.resolve(fileName)), StandardCharsets.UTF_8));
+                }
+                contents.add(content.toString());
+                return 0;
+            }
+        };
+        try (ComputationManager computationManager = new LocalComputationManager(new LocalComputationConfig(localDir, 4, true), localCommandExecutor, ForkJoinPool.commonPool())) {
+            writeCommonFiles(computationManager, "a");
+
+            // common files are decompressed once and linked to the working directory
+            ExecutionReport report = executeStaging(computationManager);
+            assertEquals(Collections.nCopies(10, "aaaa"), contents);
+            ExecutionIoStatistics ioStatistics = report.getIoStatistics();
+            assertEquals(3, ioStatistics.getDecompressedFileCount());
+            assertEquals(3, ioStatistics.getDecompressedBytes());
+            assertEquals(4, ioStatistics.getLinkedFileCount());
+            assertEquals(0, ioStatistics.getCopiedFileCount());
+            assertEquals(0, ioStatistics.getReusedDecompressionCount());
+
+            // decompressed files are reused by the next executions
+            contents.clear();
+            ioStatistics = executeStaging(computationManager).getIoStatistics();
+            assertEquals(Collections.nCopies(10, "aaaa"), contents);
+            assertEquals(0, ioStatistics.getDecompressedFileCount());
+            assertEquals(4, ioStatistics.getLinkedFileCount());
+            assertEquals(2, ioStatistics.getReusedDecompressionCount());
+
+            // until common files are rewritten
+            writeCommonFiles(computationManager, "b");
+            contents.clear();
+            ioStatistics = executeStaging(computationManager).getIoStatistics();
+            assertEquals(Collections.nCopies(10, "bbbb"), contents);
+            assertEquals(3, ioStatistics.getDecompressedFileCount());
+            assertEquals(0, ioStatistics.getReusedDecompressionCount());
+        }
+    }
+
+    @Test
+    public void testInputCopy() throws Exception {
+        // commands of the first job append to their input files, which must not affect the next jobs
+        List<String> contents = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean modify = new AtomicBoolean(true);
+        LocalCommandExecutor localCommandExecutor = new AbstractLocalCommandExecutor() {
+            @Override
+            void nonZeroLog(List<String> cmdLs, int exitCode) {
+
+            }
+
+            @Override
+            public int execute(String program, List<String> args, Path outFile, Path errFile, Path workingDir, Map<String, String> env) throws IOException, InterruptedException {
+                StringBuilder content = new StringBuilder();
+                for (String fileName : new String[] {"file1", "file2a", "file2b", "file3"}) {
+                    Path file = workingDir.resolve(fileName);
+                    content.append(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+                    if (modify.get()) {
+                        Files.write(file, "x".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+                    }
+                }
+                contents.add(content.toString());
+                return 0;
+            }
+        };
+        try (ComputationManager computationManager = new LocalComputationManager(new LocalComputationConfig(localDir, 4), localCommandExecutor, ForkJoinPool.commonPool())) {
+            writeCommonFiles(computationManager, "a");
+
+            // input files are private copies by default
+            ExecutionIoStatistics ioStatistics = executeStaging(computationManager).getIoStatistics();
+            assertEquals(0, ioStatistics.getLinkedFileCount());
+            assertEquals(4, ioStatistics.getCopiedFileCount());
+
+            modify.set(false);
+            contents.clear();
+            executeStaging(computationManager);
+            assertEquals(Collections.nCopies(10, "aaaa"), contents);
+        }
+    }
+
+    @Test
+    public void testCommonFileRewrite() throws Exception {
+        LocalCommandExecutor localCommandExecutor = new AbstractLocalCommandExecutor() {
+            @Override
+            void nonZeroLog(List<String> cmdLs, int exitCode) {
+
+            }
+
+            @Override
+            public int execute(String program, List<String> args, Path outFile, Path errFile, Path workingDir, Map<String, String> env) {
+                return 0;
+            }
+        };
+        try (ComputationManager computationManager = new LocalComputationManager(new LocalComputationConfig(localDir, 4, true), localCommandExecutor, ForkJoinPool.commonPool())) {
+            writeCommonFiles(computationManager, "a");
+
+            AtomicReference<Path> workingDir = new AtomicReference<>();
+            ExecutionIoStatistics ioStatistics = executeStaging(computationManager, true, workingDir).getIoStatistics();
+            assertEquals(4, ioStatistics.getLinkedFileCount());
+
+            // rewriting common files replaces them, so files linked by the kept working directory are unchanged
+            writeCommonFiles(computationManager, "b");
+            for (String fileName : new String[] {"file1", "file2a", "file2b", "file3"}) {
+                assertEquals("a", new String(Files.readAllBytes(workingDir.get().resolve(fileName)), StandardCharsets.UTF_8));
+            }
+            executeStaging(computationManager, true, workingDir);
+            assertEquals("b", new String(Files.readAllBytes(workingDir.get().resolve("file3")), StandardCharsets.UTF_8));
+        }
+    }
 }
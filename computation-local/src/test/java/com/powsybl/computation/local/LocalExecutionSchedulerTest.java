@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation.local;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class LocalExecutionSchedulerTest {
+
+    private LocalComputationResourcesStatus status;
+
+    private LocalExecutionScheduler scheduler;
+
+    private final List<String> startedExecutions = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        status = new LocalComputationResourcesStatus(1);
+        scheduler = new LocalExecutionScheduler(1, status);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    private List<Runnable> createExecutions(String name, int count, CountDownLatch done) {
+        List<Runnable> executions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            executions.add(() -> {
+                startedExecutions.add(name);
+                done.countDown();
+            });
+        }
+        return executions;
+    }
+
+    /**
+     * Submit an execution occupying the only slot until the returned latch is released.
+     */
+    private CountDownLatch occupySlot() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        scheduler.createJob().submit(0, Collections.singletonList(() -> {
+            started.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        return gate;
+    }
+
+    @Test
+    public void testSlots() throws InterruptedException {
+        LocalComputationResourcesStatus status4 = new LocalComputationResourcesStatus(4);
+        LocalExecutionScheduler scheduler4 = new LocalExecutionScheduler(4, status4);
+        try {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(100);
+            List<Runnable> executions = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                executions.add(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+            }
+            // submission does not wait for free slots
+            scheduler4.createJob().submit(0, executions);
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(4, maxRunning.get());
+        } finally {
+            scheduler4.shutdown();
+        }
+    }
+
+    @Test
+    public void testPriority() throws InterruptedException {
+        CountDownLatch gate = occupySlot();
+        CountDownLatch done = new CountDownLatch(4);
+        scheduler.createJob().submit(5, createExecutions("low", 2, done));
+        scheduler.createJob().submit(1, createExecutions("high", 2, done));
+        assertEquals(4, scheduler.getPendingExecutionCount());
+        gate.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("high", "high", "low", "low"), startedExecutions);
+    }
+
+    @Test
+    public void testFairSharing() throws InterruptedException {
+        CountDownLatch gate = occupySlot();
+        CountDownLatch done = new CountDownLatch(5);
+        scheduler.createJob().submit(0, createExecutions("a", 3, done));
+        scheduler.createJob().submit(0, createExecutions("b", 2, done));
+        gate.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("a", "b", "a", "b", "a"), startedExecutions);
+    }
+
+    @Test
+    public void testShutdown() throws InterruptedException {
+        CountDownLatch gate = occupySlot();
+        CountDownLatch shutdown = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            scheduler.shutdown();
+            shutdown.countDown();
+        });
+        thread.start();
+        // shutdown waits for the running execution
+        assertFalse(shutdown.await(100, TimeUnit.MILLISECONDS));
+        assertEquals(1, status.getBusyCores());
+        gate.countDown();
+        assertTrue(shutdown.await(10, TimeUnit.SECONDS));
+        assertEquals(0, status.getBusyCores());
+        thread.join();
+    }
+}
@@ -6,23 +6,24 @@
  */
 package com.powsybl.computation.mpi;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Deque;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.function.IntPredicate;
 
 /**
+ * Idle cores of slave ranks.
+ * <p>
+ * Cores are borrowed first on prefered ranks, then on the other ones. In both cases ranks having the most idle cores
+ * are used first: cores borrowed together are grouped on as few ranks as possible, and idle ranks are used before
+ * busy ones so that the load is balanced between ranks.
  *
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
 class CorePool {
 
-    private final Deque<Core> cores = new ArrayDeque<>();
+    // idle cores indexed by rank number
+    private final Map<Integer, Deque<Core>> coresPerRank = new TreeMap<>();
 
-    private final Multimap<Integer, Core> coresPerRank = HashMultimap.create();
+    private int size = 0;
 
     List<Core> borrowCores(int n) {
         return borrowCores(n, null);
@@ -32,36 +33,38 @@ class CorePool {
         checkCores(n);
         List<Core> borrowedCores = new ArrayList<>(n);
         if (preferedRanks != null && !preferedRanks.isEmpty()) {
-            END: for (int preferedRank : preferedRanks) {
-                for (Core preferedCore : coresPerRank.get(preferedRank)) {
-                    if (borrowedCores.size() >= n) {
-                        break END;
-                    }
-                    borrowedCores.add(preferedCore);
-                }
-            }
-            for (Core borrowedCore : borrowedCores) {
-                cores.remove(borrowedCore);
-                coresPerRank.remove(borrowedCore.rank, borrowedCore);
+            borrowCores(n, borrowedCores, preferedRanks::contains);
+        }
+        borrowCores(n, borrowedCores, rank -> true);
+        return borrowedCores;
+    }
+
+    private void borrowCores(int n, List<Core> borrowedCores, IntPredicate rankFilter) {
+        List<Deque<Core>> candidates = new ArrayList<>();
+        for (Map.Entry<Integer, Deque<Core>> e : coresPerRank.entrySet()) {
+            if (!e.getValue().isEmpty() && rankFilter.test(e.getKey())) {
+                candidates.add(e.getValue());
             }
         }
-        while (borrowedCores.size() < n) {
-            Core borrowedCore = cores.poll();
-            borrowedCores.add(borrowedCore);
-            coresPerRank.remove(borrowedCore.rank, borrowedCore);
+        // stable sort, ranks having the same number of idle cores stay ordered by number
+        candidates.sort(Comparator.comparingInt((Deque<Core> cores) -> cores.size()).reversed());
+        for (Deque<Core> cores : candidates) {
+            while (borrowedCores.size() < n && !cores.isEmpty()) {
+                borrowedCores.add(cores.poll());
+                size--;
+            }
         }
-        return borrowedCores;
     }
 
     private void checkCores(int n) {
-        if (n > cores.size()) {
+        if (n > size) {
             throw new IllegalArgumentException("Not enough cores");
         }
     }
 
     synchronized void returnCore(Core borrowedCore) {
-        cores.push(borrowedCore);
-        coresPerRank.put(borrowedCore.rank.num, borrowedCore);
+        coresPerRank.computeIfAbsent(borrowedCore.rank.num, k -> new ArrayDeque<>()).push(borrowedCore);
+        size++;
     }
 
     void returnCores(List<Core> borrowedCores) {
@@ -71,7 +74,7 @@ class CorePool {
     }
 
     synchronized int availableCores() {
-        return cores.size();
+        return size;
     }
 
 }
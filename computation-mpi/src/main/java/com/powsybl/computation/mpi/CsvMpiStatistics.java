@@ -36,6 +36,7 @@ public class CsvMpiStatistics implements MpiStatistics {
     private static final String JOB_END_KEY = "JOB_END";
     private static final String TASK_START_KEY = "TASK_START";
     private static final String TASK_END_KEY = "TASK_END";
+    private static final String TASKS_PLACEMENT_KEY = "TASKS_PLACEMENT";
 
     private static final String CSV_SEPARATOR = ";";
 
@@ -112,6 +113,8 @@ public class CsvMpiStatistics implements MpiStatistics {
 
             void onCommonFileTransfer(CommonFileTransfer commonFileTransfer);
 
+            void onTasksPlacement(JobExecution job, int localTaskCount, int remoteTaskCount);
+
         }
 
         private abstract static class AbstractHandler implements Handler {
@@ -124,6 +127,10 @@ public class CsvMpiStatistics implements MpiStatistics {
             public void onCommonFileTransfer(CommonFileTransfer commonFileTransfer) {
             }
 
+            @Override
+            public void onTasksPlacement(JobExecution job, int localTaskCount, int remoteTaskCount) {
+            }
+
         }
 
         private StatisticsReader(Path tasksCsv) throws IOException {
@@ -202,6 +209,14 @@ public class CsvMpiStatistics implements MpiStatistics {
                         tasks.remove(taskId);
                         break;
                     }
+                    case TASKS_PLACEMENT_KEY: {
+                        checkTokenSize(4, tokens.length, line, key);
+                        int jobId = Integer.parseInt(tokens[1]);
+                        int localTaskCount = Integer.parseInt(tokens[2]);
+                        int remoteTaskCount = Integer.parseInt(tokens[3]);
+                        handler.onTasksPlacement(jobs.get(jobId), localTaskCount, remoteTaskCount);
+                        break;
+                    }
                     default:
                         throw new PowsyblException("Unknown key " + key);
                 }
@@ -317,6 +332,22 @@ public class CsvMpiStatistics implements MpiStatistics {
         }
     }
 
+    @Override
+    public void logTasksPlacement(int jobId, int localTaskCount, int remoteTaskCount) {
+        try {
+            internalWriter.write(TASKS_PLACEMENT_KEY);
+            internalWriter.write(CSV_SEPARATOR);
+            internalWriter.write(Integer.toString(jobId));
+            internalWriter.write(CSV_SEPARATOR);
+            internalWriter.write(Integer.toString(localTaskCount));
+            internalWriter.write(CSV_SEPARATOR);
+            internalWriter.write(Integer.toString(remoteTaskCount));
+            internalWriter.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Override
     public void logTaskEnd(int taskId, long taskDuration, List<Long> commandsDuration, long dataTransferDuration, long outputMessageSize, long workingDataSize, int exitCode) {
         try {
@@ -591,6 +622,46 @@ public class CsvMpiStatistics implements MpiStatistics {
         }
     }
 
+    public static void exportTasksPlacement(Path dbDir, String dbName) throws IOException {
+        Objects.requireNonNull(dbDir);
+        Objects.requireNonNull(dbName);
+
+        Path csv = dbDir.resolve(dbName + ".csv");
+
+        class PlacementStats {
+            int local = 0;
+            int remote = 0;
+        }
+
+        Path tasksPlacementCsv = dbDir.resolve("tasks-placement.csv");
+        logWritingPath(tasksPlacementCsv);
+
+        final Map<String, PlacementStats> placementPerCommandId = new TreeMap<>();
+        try (StatisticsReader reader = new StatisticsReader(csv)) {
+            reader.read(new StatisticsReader.AbstractHandler() {
+
+                @Override
+                public void onTasksPlacement(StatisticsReader.JobExecution job, int localTaskCount, int remoteTaskCount) {
+                    PlacementStats stats = placementPerCommandId.computeIfAbsent(job.commandId, k -> new PlacementStats());
+                    stats.local += localTaskCount;
+                    stats.remote += remoteTaskCount;
+                }
+
+            });
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(tasksPlacementCsv, StandardCharsets.UTF_8)) {
+            writer.write("Command Id" + CSV_SEPARATOR + "Local tasks" + CSV_SEPARATOR + "Remote tasks" + CSV_SEPARATOR + "Local rate");
+            writer.newLine();
+            for (Map.Entry<String, PlacementStats> entry : placementPerCommandId.entrySet()) {
+                PlacementStats stats = entry.getValue();
+                writer.write(entry.getKey() + CSV_SEPARATOR + stats.local + CSV_SEPARATOR + stats.remote + CSV_SEPARATOR
+                        + ((float) stats.local / (stats.local + stats.remote)));
+                writer.newLine();
+            }
+        }
+    }
+
     @Override
     public void close() {
         try {
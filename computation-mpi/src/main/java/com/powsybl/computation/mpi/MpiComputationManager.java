@@ -46,6 +46,8 @@ public class MpiComputationManager implements ComputationManager {
 
     private final MpiJobScheduler scheduler;
 
+    private final ExecutionMetrics metrics;
+
     private Future<?> busyCoresPrintTask;
 
     public MpiComputationManager(Path localDir, MpiJobScheduler scheduler) {
@@ -65,14 +67,31 @@ public class MpiComputationManager implements ComputationManager {
     public MpiComputationManager(Path localDir, MpiNativeServices nativeServices, MpiStatisticsFactory statisticsFactory,
                                  Path statisticsDbDir, String statisticsDbName, MpiExecutorContext executorContext,
                                  int coresPerRank, boolean verbose, Path stdOutArchive) throws IOException, InterruptedException {
+        this(localDir, nativeServices, statisticsFactory, statisticsDbDir, statisticsDbName, executorContext, coresPerRank, verbose,
+             stdOutArchive, ExecutionMetrics.NONE);
+    }
+
+    /**
+     * @param metrics receiver of the durations of the execution phases, of the queue depth and of the task message sizes
+     */
+    public MpiComputationManager(Path localDir, MpiNativeServices nativeServices, MpiStatisticsFactory statisticsFactory,
+                                 Path statisticsDbDir, String statisticsDbName, MpiExecutorContext executorContext,
+                                 int coresPerRank, boolean verbose, Path stdOutArchive, ExecutionMetrics metrics) throws IOException, InterruptedException {
         this(localDir, new MpiJobSchedulerImpl(nativeServices, statisticsFactory, statisticsDbDir, statisticsDbName, coresPerRank,
-                                               verbose, executorContext.getSchedulerExecutor(), stdOutArchive),  executorContext);
+                                               verbose, executorContext.getSchedulerExecutor(), stdOutArchive,
+                                               MpiJobSchedulerImpl.DEFAULT_MAX_PENDING_MESSAGE_SIZE, metrics),
+             executorContext, metrics);
     }
 
     public MpiComputationManager(Path localDir, MpiJobScheduler scheduler, MpiExecutorContext executorContext) {
+        this(localDir, scheduler, executorContext, ExecutionMetrics.NONE);
+    }
+
+    public MpiComputationManager(Path localDir, MpiJobScheduler scheduler, MpiExecutorContext executorContext, ExecutionMetrics metrics) {
         this.localDir = Objects.requireNonNull(localDir);
         this.executorContext = Objects.requireNonNull(executorContext);
         this.scheduler = scheduler;
+        this.metrics = Objects.requireNonNull(metrics);
         if (executorContext.getMonitorExecutor() != null) {
             busyCoresPrintTask = executorContext.getMonitorExecutor().scheduleAtFixedRate(
                 () -> LOGGER.info("Busy cores {}/{}, {} tasks/s", scheduler.getResources().getBusyCores(),
@@ -247,7 +266,9 @@ public class MpiComputationManager implements ComputationManager {
                         throw new UncheckedIOException(e);
                     }
                     try {
+                        long startTime = System.nanoTime();
                         ctxt.parametersList = handler.before(ctxt.workingDir.toPath());
+                        metrics.recordPhase(ExecutionPhase.HANDLER_BEFORE, environment.getWorkingDirPrefix(), System.nanoTime() - startTime);
                     } catch (Throwable t) {
                         try {
                             ctxt.workingDir.close();
@@ -310,7 +331,10 @@ public class MpiComputationManager implements ComputationManager {
                 }, executorContext.getComputationExecutor())
                 .thenApplyAsync(ctxt -> {
                     try {
-                        return handler.after(ctxt.workingDir.toPath(), ctxt.report);
+                        long startTime = System.nanoTime();
+                        R result = handler.after(ctxt.workingDir.toPath(), ctxt.report);
+                        metrics.recordPhase(ExecutionPhase.HANDLER_AFTER, environment.getWorkingDirPrefix(), System.nanoTime() - startTime);
+                        return result;
                     } catch (IOException e) {
                         throw new UncheckedIOException(e);
                     } finally {
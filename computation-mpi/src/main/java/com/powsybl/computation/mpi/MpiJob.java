@@ -35,12 +35,20 @@ public class MpiJob {
 
     private int taskIndex = 0;
 
+    // tasks whose messages are being encoded
+    private int startingTaskCount = 0;
+
     private final List<MpiTask> runningTasks = new ArrayList<>();
 
+    private Exception failure;
+
     private final List<ExecutionError> errors = new ArrayList<>();
 
     private final Set<Integer> usedRanks = new HashSet<>();
 
+    // System.nanoTime() at job submission, to compute the queue wait of its tasks
+    private final long submitTime = System.nanoTime();
+
     MpiJob(int id, CommandExecution execution, Path workingDir, Map<String, String> variables, ExecutionListener listener, CompletableFuture<ExecutionReport> future) {
         this.id = id;
         this.execution = execution;
@@ -78,6 +86,10 @@ public class MpiJob {
         return future;
     }
 
+    long getSubmitTime() {
+        return submitTime;
+    }
+
     int getTaskIndex() {
         return taskIndex;
     }
@@ -86,10 +98,28 @@ public class MpiJob {
         this.taskIndex = taskIndex;
     }
 
+    int getStartingTaskCount() {
+        return startingTaskCount;
+    }
+
+    void setStartingTaskCount(int startingTaskCount) {
+        this.startingTaskCount = startingTaskCount;
+    }
+
     List<MpiTask> getRunningTasks() {
         return runningTasks;
     }
 
+    Exception getFailure() {
+        return failure;
+    }
+
+    void setFailure(Exception failure) {
+        if (this.failure == null) {
+            this.failure = failure;
+        }
+    }
+
     List<ExecutionError> getErrors() {
         return errors;
     }
@@ -99,7 +129,8 @@ public class MpiJob {
     }
 
     boolean isCompleted() {
-        return taskIndex >= execution.getExecutionCount() && runningTasks.isEmpty();
+        // after a failure, no more tasks are started
+        return (taskIndex >= execution.getExecutionCount() || failure != null) && startingTaskCount == 0 && runningTasks.isEmpty();
     }
 
 }
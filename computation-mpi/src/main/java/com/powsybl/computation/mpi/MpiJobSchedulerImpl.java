@@ -8,6 +8,7 @@ package com.powsybl.computation.mpi;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.ByteString;
 import com.powsybl.commons.PowsyblException;
 import com.powsybl.computation.*;
@@ -29,6 +30,7 @@ import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
@@ -42,7 +44,14 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MpiJobSchedulerImpl.class);
 
-    private static final int TIMEOUT = 10; // ms
+    // delay between two checks of running tasks completion, doubled each time nothing happens up to a tenth of the
+    // mean task duration, so that polling delays task completion by at most about 10% while a long task costs a few
+    // hundreds of checks per second at most
+    private static final long MIN_POLLING_DELAY = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MAX_POLLING_DELAY = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int POLLING_DELAY_TASK_DURATION_RATIO = 10;
+
+    static final long DEFAULT_MAX_PENDING_MESSAGE_SIZE = 256L * 1024 * 1024;
 
     private static final Map<String, String> ZIP_FS_ENV = ImmutableMap.of("create", "true");
 
@@ -50,13 +59,16 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
 
     private final MpiStatistics statistics;
 
+    private final ExecutionMetrics metrics;
+
     private final Future<?> future;
 
     private final List<CommonFile> newCommonFiles = new ArrayList<>();
 
     private final Lock newCommonFileLock = new ReentrantLock();
 
-    private final Set<String> commonFiles = new HashSet<>();
+    // also read by task message encoding threads
+    private final Set<String> commonFiles = ConcurrentHashMap.newKeySet();
 
     private final List<MpiJob> newJobs = new ArrayList<>();
 
@@ -76,6 +88,59 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
 
     private volatile boolean stopRequested = false;
 
+    // wakes up the scheduler on job submission, common file transfer, task messages encoding and stop request
+    private final Lock eventLock = new ReentrantLock();
+
+    private final Condition eventCondition = eventLock.newCondition();
+
+    private boolean eventSignalled = false;
+
+    /**
+     * Tasks of a job started together, their messages are encoded out of the scheduler thread.
+     */
+    private static final class TaskBatch {
+
+        private final MpiJob job;
+
+        private final int firstTaskId;
+
+        private final int firstTaskIndex;
+
+        private final List<Core> cores;
+
+        private final DateTime startTime;
+
+        // job scoped files have to be sent with the message of the task
+        private final List<Boolean> initJobs = new ArrayList<>();
+
+        // completed jobs to notify to the slave with the message of the task
+        private final List<List<Integer>> completedJobIds = new ArrayList<>();
+
+        private final List<MpiTask> tasks = new ArrayList<>();
+
+        private Exception failure;
+
+        // pending message budget acquired by the batch, in KiB
+        private int permits = 0;
+
+        private TaskBatch(MpiJob job, int firstTaskId, int firstTaskIndex, List<Core> cores, DateTime startTime) {
+            this.job = job;
+            this.firstTaskId = firstTaskId;
+            this.firstTaskIndex = firstTaskIndex;
+            this.cores = cores;
+            this.startTime = startTime;
+        }
+    }
+
+    private final ExecutorService encodingExecutor;
+
+    // bounds the size of task messages encoded and not yet handed to the native services, in KiB
+    private final int maxPendingMessageKb;
+
+    private final Semaphore pendingMessageBudget;
+
+    private final Queue<TaskBatch> encodedBatches = new ConcurrentLinkedQueue<>();
+
     private String mpiVersion;
 
     private MpiResources resources;
@@ -88,6 +153,9 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
 
     private final Path stdOutArchive;
 
+    // last recorded number of tasks waiting for a free core, only accessed by the scheduler thread
+    private int queueDepth = 0;
+
     // profiling
     private long startTasksTime;
     private long startTasksJniTime;
@@ -96,8 +164,31 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
 
     MpiJobSchedulerImpl(MpiNativeServices nativeServices, MpiStatisticsFactory statisticsFactory, Path statisticsDbDir, String statisticsDbName,
                         int coresPerRank, boolean verbose, ExecutorService executor, Path stdOutArchive) throws InterruptedException, IOException {
+        this(nativeServices, statisticsFactory, statisticsDbDir, statisticsDbName, coresPerRank, verbose, executor, stdOutArchive, DEFAULT_MAX_PENDING_MESSAGE_SIZE);
+    }
+
+    /**
+     * @param maxPendingMessageSize maximum size in bytes of task messages encoded and not yet started, encoding of
+     *                              next tasks waits when it is reached. It does not bound the size of a single task
+     *                              message, which holds the whole content of its input files
+     */
+    MpiJobSchedulerImpl(MpiNativeServices nativeServices, MpiStatisticsFactory statisticsFactory, Path statisticsDbDir, String statisticsDbName,
+                        int coresPerRank, boolean verbose, ExecutorService executor, Path stdOutArchive, long maxPendingMessageSize) throws InterruptedException, IOException {
+        this(nativeServices, statisticsFactory, statisticsDbDir, statisticsDbName, coresPerRank, verbose, executor, stdOutArchive, maxPendingMessageSize, ExecutionMetrics.NONE);
+    }
+
+    /**
+     * @param metrics receiver of the durations of the task phases, of the queue depth and of the task message sizes
+     */
+    MpiJobSchedulerImpl(MpiNativeServices nativeServices, MpiStatisticsFactory statisticsFactory, Path statisticsDbDir, String statisticsDbName,
+                        int coresPerRank, boolean verbose, ExecutorService executor, Path stdOutArchive, long maxPendingMessageSize,
+                        ExecutionMetrics metrics) throws InterruptedException, IOException {
+        if (maxPendingMessageSize < 1024) {
+            throw new IllegalArgumentException("Invalid max pending message size " + maxPendingMessageSize);
+        }
         this.nativeServices = Objects.requireNonNull(nativeServices);
         this.statistics = Objects.requireNonNull(statisticsFactory).create(statisticsDbDir, statisticsDbName);
+        this.metrics = Objects.requireNonNull(metrics);
         if (stdOutArchive != null) {
             if (Files.exists(stdOutArchive)) {
                 if (!Files.isRegularFile(stdOutArchive)) {
@@ -108,6 +199,10 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
             LOGGER.info("Standard output of failed commands will be archived {}", stdOutArchive);
         }
         this.stdOutArchive = stdOutArchive;
+        maxPendingMessageKb = (int) Math.min(maxPendingMessageSize / 1024, Integer.MAX_VALUE);
+        pendingMessageBudget = new Semaphore(maxPendingMessageKb);
+        encodingExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                                                        new ThreadFactoryBuilder().setNameFormat("mpi-task-encoding-%d").setDaemon(true).build());
         final CountDownLatch initialized = new CountDownLatch(1);
         future = executor.submit(new Runnable() {
 
@@ -123,11 +218,11 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
                     initialized.countDown();
 
                     long time = System.currentTimeMillis();
+                    long pollingDelay = MIN_POLLING_DELAY;
+                    long meanTaskDuration = -1; // unknown until a task completes
 
                     List<MpiTask> completedTasks = new ArrayList<>();
                     while (!stopRequested || !jobs.isEmpty()) {
-                        boolean sleep = true;
-
                         // check performances
                         long oldTime = time;
                         time = System.currentTimeMillis();
@@ -141,35 +236,7 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
                         processCompletedTasksTime = 0;
                         checkTaskCompletionTime = 0;
 
-                        newCommonFileLock.lock();
-                        try {
-                            for (CommonFile commonFile : newCommonFiles) {
-                                LOGGER.info("Sending chunk {} of common file '{}' (last={})",
-                                        commonFile.getChunk(), commonFile.getName(), commonFile.isLast());
-                                List<Core> allCores = resources.reserveAllCoresOrFail();
-                                try {
-                                    try (ByteArrayInputStream is = new ByteArrayInputStream(commonFile.getData())) {
-                                        // no pre-processor let it as it is
-                                        Messages.CommonFile message = Messages.CommonFile.newBuilder()
-                                                .setName(commonFile.getName())
-                                                .setChunk(commonFile.getChunk())
-                                                .setLast(commonFile.isLast())
-                                                .setData(ByteString.readFrom(is))
-                                                .build();
-                                        long t1 = System.currentTimeMillis();
-                                        nativeServices.sendCommonFile(message.toByteArray());
-                                        long t2 = System.currentTimeMillis();
-                                        commonFiles.add(commonFile.getName());
-                                        MpiJobSchedulerImpl.this.statistics.logCommonFileTransfer(commonFile.getName(), commonFile.getChunk(), commonFile.getData().length, t2 - t1);
-                                    }
-                                } finally {
-                                    resources.releaseCores(allCores);
-                                }
-                            }
-                            newCommonFiles.clear();
-                        } finally {
-                            newCommonFileLock.unlock();
-                        }
+                        boolean active = sendCommonFiles();
 
                         // add new context
                         newJobsLock.lock();
@@ -180,16 +247,21 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
                             newJobsLock.unlock();
                         }
 
+                        active |= startEncodedTasks();
+
+                        boolean running = false;
                         for (Iterator<MpiJob> it = jobs.iterator(); it.hasNext(); ) {
                             MpiJob job = it.next();
 
-                            sleep = startTasks(job);
+                            active |= startTasks(job);
 
-                            long t0 = System.currentTimeMillis();
-                            try {
-                                nativeServices.checkTasksCompletion(job.getRunningTasks(), completedTasks);
-                            } finally {
-                                checkTaskCompletionTime += System.currentTimeMillis() - t0;
+                            if (!job.getRunningTasks().isEmpty()) {
+                                long t0 = System.currentTimeMillis();
+                                try {
+                                    nativeServices.checkTasksCompletion(job.getRunningTasks(), completedTasks);
+                                } finally {
+                                    checkTaskCompletionTime += System.currentTimeMillis() - t0;
+                                }
                             }
                             if (!completedTasks.isEmpty()) {
                                 DateTime endTime = DateTime.now();
@@ -198,6 +270,8 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
                                 for (MpiTask tasks : completedTasks) {
                                     MpiJobSchedulerImpl.this.resources.releaseCore(tasks.getCore());
                                     tasks.setEndTime(endTime);
+                                    meanTaskDuration = updateMeanTaskDuration(meanTaskDuration,
+                                            TimeUnit.MILLISECONDS.toNanos(endTime.getMillis() - tasks.getStartTime().getMillis()));
                                 }
 
                                 // ...and re-use immediatly free cores
@@ -206,29 +280,29 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
                                 // ...and then post process terminated tasks
                                 processCompletedTasks(job, completedTasks);
 
-                                // ...no more tasks to start or running, we can remove the context
-                                if (job.isCompleted()) {
-                                    // remove the job
-                                    it.remove();
-
-                                    ExecutionReport report = new ExecutionReport(job.getErrors());
-                                    try {
-                                        job.getListener().onEnd(report);
-                                    } catch (Exception e) {
-                                        LOGGER.error(e.toString(), e);
-                                    }
-                                    job.getFuture().complete(report);
+                                active = true;
+                            }
 
-                                    MpiJobSchedulerImpl.this.statistics.logJobEnd(job.getId());
-                                }
+                            // ...no more tasks to start or running, we can remove the context
+                            if (job.isCompleted()) {
+                                // remove the job
+                                it.remove();
 
-                                sleep = false;
+                                completeJob(job);
+                            } else {
+                                running |= !job.getRunningTasks().isEmpty();
                             }
                         }
 
-                        // just sleep in the case nothing has been done in the loop
-                        if (sleep) {
-                            TimeUnit.MILLISECONDS.sleep(TIMEOUT);
+                        if (active) {
+                            recordQueueDepth();
+                            pollingDelay = MIN_POLLING_DELAY;
+                        } else {
+                            // nothing has been done in the loop, wait for an event or, if tasks are running, until
+                            // next completion check
+                            waitForEvent(running ? pollingDelay : -1);
+                            pollingDelay = Math.min(2 * pollingDelay, getMaxPollingDelay(meanTaskDuration));
+                            time = System.currentTimeMillis();
                         }
                     }
 
@@ -246,6 +320,122 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
         initialized.await();
     }
 
+    /**
+     * Exponential moving average of task durations (as seen by the master), giving a weight of 1/8 to the last one.
+     */
+    static long updateMeanTaskDuration(long meanTaskDuration, long taskDuration) {
+        return meanTaskDuration < 0 ? taskDuration : meanTaskDuration + (taskDuration - meanTaskDuration) / 8;
+    }
+
+    /**
+     * Upper bound of the delay between two checks of running tasks completion, given the mean task duration (negative
+     * if unknown).
+     */
+    static long getMaxPollingDelay(long meanTaskDuration) {
+        if (meanTaskDuration < 0) {
+            return MAX_POLLING_DELAY;
+        }
+        return Math.max(MIN_POLLING_DELAY, Math.min(meanTaskDuration / POLLING_DELAY_TASK_DURATION_RATIO, MAX_POLLING_DELAY));
+    }
+
+    /**
+     * Record the number of tasks waiting for a free core, if it has changed.
+     */
+    private void recordQueueDepth() {
+        int newQueueDepth = 0;
+        for (MpiJob job : jobs) {
+            if (job.getFailure() == null) {
+                newQueueDepth += job.getExecution().getExecutionCount() - job.getTaskIndex();
+            }
+        }
+        if (newQueueDepth != queueDepth) {
+            queueDepth = newQueueDepth;
+            metrics.recordQueueDepth(queueDepth);
+        }
+    }
+
+    private void signalEvent() {
+        eventLock.lock();
+        try {
+            eventSignalled = true;
+            eventCondition.signalAll();
+        } finally {
+            eventLock.unlock();
+        }
+    }
+
+    /**
+     * @param timeout maximum time to wait in nanoseconds, no limit if negative
+     */
+    private void waitForEvent(long timeout) throws InterruptedException {
+        eventLock.lock();
+        try {
+            long remaining = timeout;
+            while (!eventSignalled && (timeout < 0 || remaining > 0)) {
+                if (timeout < 0) {
+                    eventCondition.await();
+                } else {
+                    remaining = eventCondition.awaitNanos(remaining);
+                }
+            }
+            eventSignalled = false;
+        } finally {
+            eventLock.unlock();
+        }
+    }
+
+    private boolean sendCommonFiles() throws IOException {
+        newCommonFileLock.lock();
+        try {
+            if (newCommonFiles.isEmpty()) {
+                return false;
+            }
+            for (CommonFile commonFile : newCommonFiles) {
+                LOGGER.info("Sending chunk {} of common file '{}' (last={})",
+                        commonFile.getChunk(), commonFile.getName(), commonFile.isLast());
+                List<Core> allCores = resources.reserveAllCoresOrFail();
+                try {
+                    try (ByteArrayInputStream is = new ByteArrayInputStream(commonFile.getData())) {
+                        // no pre-processor let it as it is
+                        Messages.CommonFile message = Messages.CommonFile.newBuilder()
+                                .setName(commonFile.getName())
+                                .setChunk(commonFile.getChunk())
+                                .setLast(commonFile.isLast())
+                                .setData(ByteString.readFrom(is))
+                                .build();
+                        long t1 = System.currentTimeMillis();
+                        nativeServices.sendCommonFile(message.toByteArray());
+                        long t2 = System.currentTimeMillis();
+                        commonFiles.add(commonFile.getName());
+                        statistics.logCommonFileTransfer(commonFile.getName(), commonFile.getChunk(), commonFile.getData().length, t2 - t1);
+                    }
+                } finally {
+                    resources.releaseCores(allCores);
+                }
+            }
+            newCommonFiles.clear();
+            return true;
+        } finally {
+            newCommonFileLock.unlock();
+        }
+    }
+
+    private void completeJob(MpiJob job) {
+        if (job.getFailure() != null) {
+            job.getFuture().completeExceptionally(job.getFailure());
+        } else {
+            ExecutionReport report = new ExecutionReport(job.getErrors());
+            try {
+                job.getListener().onEnd(report);
+            } catch (Exception e) {
+                LOGGER.error(e.toString(), e);
+            }
+            job.getFuture().complete(report);
+        }
+
+        statistics.logJobEnd(job.getId());
+    }
+
     @Override
     public MpiResources getResources() {
         return resources;
@@ -300,10 +490,9 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
         return builder.build();
     }
 
-    private Messages.Task createTaskMessage(MpiJob job, MpiRank rank, Command command, int taskIndex) throws IOException {
-
-        // job scoped file will be sent only one time to each slave
-        boolean initJob = rank.jobs.add(job);
+    private MpiMessages.TaskMessage createTaskMessage(MpiJob job, boolean initJob, List<Integer> completedJobIds, Command command, int taskIndex) throws IOException {
+        // content of these files is copied into the message during the encoding
+        List<MpiMessages.InputFileData> inputFileData = new ArrayList<>();
 
         Messages.Task.Builder builder = Messages.Task.newBuilder()
                 .setJobId(job.getId())
@@ -323,14 +512,12 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
                 //
                 Path path = job.getWorkingDir().resolve(fileName);
                 if (Files.exists(path)) {
-                    try (InputStream is = Files.newInputStream(path)) {
-                        builder.addInputFile(Messages.Task.InputFile.newBuilder()
-                                                               .setName(fileName)
-                                                               .setScope(Messages.Task.InputFile.Scope.TASK)
-                                                               .setPreProcessor(createPreProcessor(file.getPreProcessor()))
-                                                               .setData(ByteString.readFrom(is))
-                                                               .build());
-                    }
+                    inputFileData.add(new MpiMessages.InputFileData(Messages.Task.InputFile.newBuilder()
+                                                                                     .setName(fileName)
+                                                                                     .setScope(Messages.Task.InputFile.Scope.TASK)
+                                                                                     .setPreProcessor(createPreProcessor(file.getPreProcessor()))
+                                                                                     .build(),
+                                                                    path));
                 } else {
                     if (commonFiles.contains(fileName)) {
                         builder.addInputFile(Messages.Task.InputFile.newBuilder()
@@ -357,14 +544,12 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
                         // the slave with specified rank, we pack the file with
                         // the message
                         //
-                        try (InputStream is = Files.newInputStream(path)) {
-                            builder.addInputFile(Messages.Task.InputFile.newBuilder()
-                                                                   .setName(fileName)
-                                                                   .setScope(Messages.Task.InputFile.Scope.JOB)
-                                                                   .setPreProcessor(createPreProcessor(file.getPreProcessor()))
-                                                                   .setData(ByteString.readFrom(is))
-                                                                   .build());
-                        }
+                        inputFileData.add(new MpiMessages.InputFileData(Messages.Task.InputFile.newBuilder()
+                                                                                         .setName(fileName)
+                                                                                         .setScope(Messages.Task.InputFile.Scope.JOB)
+                                                                                         .setPreProcessor(createPreProcessor(file.getPreProcessor()))
+                                                                                         .build(),
+                                                                        path));
                     } else {
                         //
                         // case 2-2: another task of the job has already been
@@ -422,18 +607,68 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
                                                           .build());
         }
 
+        builder.addAllCompletedJobId(completedJobIds);
+
+        return new MpiMessages.TaskMessage(builder.build(), inputFileData);
+    }
+
+    private static List<Integer> removeCompletedJobs(MpiRank rank) {
+        List<Integer> completedJobIds = new ArrayList<>();
         for (Iterator<MpiJob> it = rank.jobs.iterator(); it.hasNext();) {
             MpiJob otherJob = it.next();
             if (otherJob.isCompleted()) {
                 it.remove();
-                builder.addCompletedJobId(otherJob.getId());
+                completedJobIds.add(otherJob.getId());
             }
         }
+        return completedJobIds;
+    }
 
-        return builder.build();
+    /**
+     * Encode task messages of a batch, called by encoding threads. Only immutable job data is accessed.
+     */
+    private void encodeTasks(TaskBatch batch) {
+        try {
+            Command command = batch.job.getExecution().getCommand();
+            List<MpiMessages.TaskMessage> messages = new ArrayList<>(batch.cores.size());
+            long[] encodingTimes = new long[batch.cores.size()];
+            long size = 0;
+            for (int i = 0; i < batch.cores.size(); i++) {
+                long startTime = System.nanoTime();
+                MpiMessages.TaskMessage message = createTaskMessage(batch.job, batch.initJobs.get(i), batch.completedJobIds.get(i), command, batch.firstTaskIndex + i);
+                encodingTimes[i] = System.nanoTime() - startTime;
+                messages.add(message);
+                size += message.getSize();
+            }
+
+            // wait for messages of other batches to be handed to the native services, a batch larger than the budget
+            // waits for all the others
+            int permits = (int) Math.min((size + 1023) / 1024, maxPendingMessageKb);
+            pendingMessageBudget.acquire(permits);
+            batch.permits = permits;
+
+            for (int i = 0; i < messages.size(); i++) {
+                long startTime = System.nanoTime();
+                batch.tasks.add(new MpiTask(batch.firstTaskId + i, batch.cores.get(i), batch.firstTaskIndex + i, messages.get(i).encode(), batch.startTime));
+                encodingTimes[i] += System.nanoTime() - startTime;
+            }
+            for (long encodingTime : encodingTimes) {
+                metrics.recordPhase(ExecutionPhase.PRE_PROCESSING, command.getId(), encodingTime);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batch.failure = e;
+        } catch (Exception e) {
+            batch.failure = e;
+        }
     }
 
-    private boolean startTasks(MpiJob job) throws IOException, InterruptedException {
+    /**
+     * Reserve cores for the remaining tasks of a job and submit encoding of their messages.
+     *
+     * @return true if some tasks are starting
+     */
+    private boolean startTasks(MpiJob job) throws InterruptedException {
         long t0 = System.currentTimeMillis();
         try {
             CommandExecution execution = job.getExecution();
@@ -441,7 +676,7 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
 
             int taskIndex = job.getTaskIndex();
 
-            if (taskIndex < execution.getExecutionCount()) {
+            if (taskIndex < execution.getExecutionCount() && job.getFailure() == null) {
                 // reserve one core for each of the execution instances
                 List<Core> allocatedCores = resources.reserveCores(execution.getExecutionCount() - taskIndex, job.getUsedRanks());
                 if (allocatedCores != null && !allocatedCores.isEmpty()) {
@@ -453,63 +688,110 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
                     LOGGER.debug("Sending commands {} to slaves {} using working directory {}",
                             command.toString(-1), allocatedCores, job.getWorkingDir());
 
-                    DateTime startTime = DateTime.now();
-
-                    // encode task messages
-                    int oldTaskIndex = taskIndex;
-                    List<MpiTask> tasks = new ArrayList<>(allocatedCores.size());
+                    TaskBatch batch = new TaskBatch(job, taskId, taskIndex, allocatedCores, DateTime.now());
+                    long queueWait = System.nanoTime() - job.getSubmitTime();
+                    for (int i = 0; i < allocatedCores.size(); i++) {
+                        metrics.recordPhase(ExecutionPhase.QUEUE_WAIT, command.getId(), queueWait);
+                    }
+                    int remoteTaskCount = 0;
                     for (Core core : allocatedCores) {
-                        byte[] message = createTaskMessage(job, core.rank, command, taskIndex).toByteArray();
-
-                        MpiTask task = new MpiTask(taskId++, core, taskIndex, message, startTime);
-                        tasks.add(task);
+                        // ranks are only accessed by the scheduler thread, job scoped file will be sent only one time
+                        // to each slave
+                        boolean initJob = core.rank.jobs.add(job);
+                        batch.initJobs.add(initJob);
+                        batch.completedJobIds.add(removeCompletedJobs(core.rank));
+
+                        // update used ranks, next tasks of the job will preferably be placed on ranks already
+                        // holding its data
+                        if (initJob) {
+                            job.getUsedRanks().add(core.rank.num);
+                            remoteTaskCount++;
+                        }
+                    }
+                    statistics.logTasksPlacement(job.getId(), allocatedCores.size() - remoteTaskCount, remoteTaskCount);
+                    taskId += allocatedCores.size();
+
+                    job.setTaskIndex(taskIndex + allocatedCores.size());
+                    job.setStartingTaskCount(job.getStartingTaskCount() + allocatedCores.size());
+
+                    // encode task messages out of the scheduler thread, tasks will be started by the scheduler thread
+                    // as soon as they are encoded
+                    encodingExecutor.execute(() -> {
+                        encodeTasks(batch);
+                        encodedBatches.add(batch);
+                        signalEvent();
+                    });
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            startTasksTime += System.currentTimeMillis() - t0;
+        }
+    }
 
-                        statistics.logTaskStart(task.getId(),
-                                                job.getId(),
-                                                taskIndex,
-                                                startTime,
-                                                core.rank.num,
-                                                core.thread,
-                                                message.length);
+    /**
+     * Start tasks whose messages have been encoded.
+     *
+     * @return true if some tasks have been started
+     */
+    private boolean startEncodedTasks() {
+        boolean started = false;
+        TaskBatch batch;
+        while ((batch = encodedBatches.poll()) != null) {
+            started = true;
+            MpiJob job = batch.job;
+            job.setStartingTaskCount(job.getStartingTaskCount() - batch.cores.size());
+            if (batch.failure != null) {
+                LOGGER.error(batch.failure.toString(), batch.failure);
+                pendingMessageBudget.release(batch.permits);
+                resources.releaseCores(batch.cores);
+                job.setFailure(batch.failure);
+                continue;
+            }
 
-                        taskIndex++;
+            for (MpiTask task : batch.tasks) {
+                statistics.logTaskStart(task.getId(),
+                                        job.getId(),
+                                        task.getIndex(),
+                                        task.getStartTime(),
+                                        task.getRank(),
+                                        task.getThread(),
+                                        task.getMessage().length);
+                metrics.recordStagedBytes(job.getExecution().getCommand().getId(), task.getMessage().length);
+            }
 
-                        // update used ranks
-                        // TODO c'est completement bugge, ne pas reactiver!!!!
-//                        job.getUsedRanks().add(core.rank.num);
-                    }
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace("Starting tasks {} of job {}",
+                        batch.tasks.stream().map(MpiTask::getIndex).collect(Collectors.toList()), job.getId());
+            }
 
-                    if (LOGGER.isTraceEnabled()) {
-                        LOGGER.trace("Starting tasks {} of job {}",
-                                tasks.stream().map(MpiTask::getIndex).collect(Collectors.toList()), job.getId());
-                    }
+            // run tasks on slaves nodes
+            long t1 = System.currentTimeMillis();
+            try {
+                nativeServices.startTasks(batch.tasks);
+            } finally {
+                startTasksJniTime += System.currentTimeMillis() - t1;
+            }
 
-                    // run tasks on slaves nodes
-                    long t1 = System.currentTimeMillis();
-                    try {
-                        nativeServices.startTasks(tasks);
-                    } finally {
-                        startTasksJniTime += System.currentTimeMillis() - t1;
-                    }
+            // messages have been copied by the native services, do not keep them until the end of the tasks
+            for (MpiTask task : batch.tasks) {
+                task.releaseMessage();
+            }
+            pendingMessageBudget.release(batch.permits);
 
-                    startedTasks.addAndGet(allocatedCores.size());
+            startedTasks.addAndGet(batch.tasks.size());
 
-                    job.setTaskIndex(taskIndex);
-                    job.getRunningTasks().addAll(tasks);
+            job.getRunningTasks().addAll(batch.tasks);
 
-                    // notify execution start
-                    try {
-                        job.getListener().onExecutionStart(oldTaskIndex, taskIndex);
-                    } catch (Exception e) {
-                        LOGGER.error(e.toString(), e);
-                    }
-                    return false;
-                }
+            // notify execution start
+            try {
+                job.getListener().onExecutionStart(batch.firstTaskIndex, batch.firstTaskIndex + batch.tasks.size());
+            } catch (Exception e) {
+                LOGGER.error(e.toString(), e);
             }
-            return true;
-        } finally {
-            startTasksTime += System.currentTimeMillis() - t0;
         }
+        return started;
     }
 
     private void processCompletedTasks(MpiJob job, List<MpiTask> completedTasks) throws IOException {
@@ -524,46 +806,44 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
             }
 
             for (MpiTask task : completedTasks) {
+                long postProcessingStartTime = System.nanoTime();
+
                 // duration of the task seen by the master in ms
                 long taskDurationSeenByMaster = new Duration(task.getStartTime(), task.getEndTime()).getMillis();
 
-                // decode task result messages
-                Messages.TaskResult message = Messages.TaskResult.parseFrom(task.getResultMessage());
-
-                // duration of the task seen by the slave in ms
-                long taskDurationSeenBySlave = message.getTaskDuration(); // number of ms
-
-                // write output files to working dir
+                // decode task result messages, output files are written to working dir directly from the
+                // received message
                 String stdOutGzFileName = job.getExecution().getCommand().getId() + "_" + task.getIndex() + ".out.gz";
-                for (Messages.TaskResult.OutputFile outputFile : message.getOutputFileList()) {
-                    // std out file special case directly unzip it on working dir
-                    if (outputFile.getName().equals(stdOutGzFileName)) {
-                        Path path = job.getWorkingDir().resolve(outputFile.getName().substring(0, outputFile.getName().length() - 3));
-                        try (InputStream is = new GZIPInputStream(outputFile.getData().newInput());
+                byte[] resultMessage = task.getResultMessage();
+                // offset and length of the standard output in the result message, to archive it
+                int[] stdOutGzRegion = {0, -1};
+                Messages.TaskResult message = MpiMessages.decodeTaskResult(resultMessage, (name, buffer, offset, length) -> {
+                    if (name.equals(stdOutGzFileName)) {
+                        // std out file special case directly unzip it on working dir
+                        Path path = job.getWorkingDir().resolve(name.substring(0, name.length() - 3));
+                        try (InputStream is = new GZIPInputStream(new ByteArrayInputStream(buffer, offset, length));
                              OutputStream os = Files.newOutputStream(path)) {
                             ByteStreams.copy(is, os);
                         }
+                        stdOutGzRegion[0] = offset;
+                        stdOutGzRegion[1] = length;
                     } else {
-                        Path path = job.getWorkingDir().resolve(outputFile.getName());
-                        try (InputStream is = outputFile.getData().newInput();
-                             OutputStream os = Files.newOutputStream(path)) {
-                            ByteStreams.copy(is, os);
+                        try (OutputStream os = Files.newOutputStream(job.getWorkingDir().resolve(name))) {
+                            os.write(buffer, offset, length);
                         }
                     }
+                });
 
-                    // archive standard output of problematic tasks
-                    if (stdOutArchive != null) {
-                        if (message.getExitCode() != 0) {
-                            if (outputFile.getName().equals(stdOutGzFileName)) {
-                                try (FileSystem archiveFileSystem = FileSystems.newFileSystem(URI.create("jar:file:" + stdOutArchive.toUri().getPath()), ZIP_FS_ENV)) {
-                                    Path dir = archiveFileSystem.getPath("/").resolve("job-" + job.getId());
-                                    Files.createDirectories(dir);
-                                    try (InputStream is = outputFile.getData().newInput();
-                                        OutputStream os = Files.newOutputStream(dir.resolve(outputFile.getName()))) {
-                                        ByteStreams.copy(is, os);
-                                    }
-                                }
-                            }
+                // duration of the task seen by the slave in ms
+                long taskDurationSeenBySlave = message.getTaskDuration(); // number of ms
+
+                // archive standard output of problematic tasks
+                if (stdOutArchive != null && message.getExitCode() != 0 && stdOutGzRegion[1] >= 0) {
+                    try (FileSystem archiveFileSystem = FileSystems.newFileSystem(URI.create("jar:file:" + stdOutArchive.toUri().getPath()), ZIP_FS_ENV)) {
+                        Path dir = archiveFileSystem.getPath("/").resolve("job-" + job.getId());
+                        Files.createDirectories(dir);
+                        try (OutputStream os = Files.newOutputStream(dir.resolve(stdOutGzFileName))) {
+                            os.write(resultMessage, stdOutGzRegion[0], stdOutGzRegion[1]);
                         }
                     }
                 }
@@ -574,6 +854,9 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
                                                            message.getExitCode()));
                 }
 
+                metrics.recordPhase(ExecutionPhase.PROCESS, command.getId(), TimeUnit.MILLISECONDS.toNanos(taskDurationSeenBySlave));
+                metrics.recordPhase(ExecutionPhase.POST_PROCESSING, command.getId(), System.nanoTime() - postProcessingStartTime);
+
                 // notify execution completion
                 try {
                     job.getListener().onExecutionCompletion(task.getIndex());
@@ -586,7 +869,7 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
                                       taskDurationSeenByMaster,
                                       message.getCommandDurationList(),
                                       taskDurationSeenByMaster - taskDurationSeenBySlave,
-                                      task.getResultMessage().length,
+                                      resultMessage.length,
                                       message.getWorkingDataSize(),
                                       message.getExitCode());
             }
@@ -606,6 +889,7 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
         } finally {
             newCommonFileLock.unlock();
         }
+        signalEvent();
     }
 
     @Override
@@ -621,6 +905,7 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
         } finally {
             newJobsLock.unlock();
         }
+        signalEvent();
         return future;
     }
 
@@ -632,7 +917,9 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
             LOGGER.error(e.toString(), e);
         }
         stopRequested = true;
+        signalEvent();
         future.get();
+        encodingExecutor.shutdown();
     }
 
 }
@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation.mpi;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.computation.mpi.generated.Messages;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Encoding of task messages and decoding of task result messages without intermediate copies of file contents.
+ * <p>
+ * Input and output files are not materialized as protobuf {@code bytes} fields: input files are read by bounded
+ * chunks directly into the encoded task message, and output files are handed to the caller as regions of the received
+ * task result message. The wire format is the one of {@link Messages.Task} and {@link Messages.TaskResult}, so slaves
+ * are not impacted.
+ * <p>
+ * Files are not streamed though: a task message still holds the whole content of its input files in a single array,
+ * and a task result message the whole content of its output files, as each of them is sent as one MPI message.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+final class MpiMessages {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final int INPUT_FILE_DATA_TAG = makeTag(Messages.Task.InputFile.DATA_FIELD_NUMBER);
+
+    private static final int OUTPUT_FILE_TAG = makeTag(Messages.TaskResult.OUTPUTFILE_FIELD_NUMBER);
+
+    private static final int OUTPUT_FILE_NAME_TAG = makeTag(Messages.TaskResult.OutputFile.NAME_FIELD_NUMBER);
+
+    private static final int OUTPUT_FILE_DATA_TAG = makeTag(Messages.TaskResult.OutputFile.DATA_FIELD_NUMBER);
+
+    private MpiMessages() {
+    }
+
+    private static int makeTag(int fieldNumber) {
+        return (fieldNumber << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    }
+
+    /**
+     * Input file sent with a task message, its content is read from the working directory during the encoding.
+     */
+    static final class InputFileData {
+
+        // input file message without data
+        private final Messages.Task.InputFile header;
+
+        private final Path path;
+
+        private final int size;
+
+        InputFileData(Messages.Task.InputFile header, Path path) throws IOException {
+            this.header = Objects.requireNonNull(header);
+            this.path = Objects.requireNonNull(path);
+            long fileSize = Files.size(path);
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new PowsyblException("Input file " + path + " is too large to be sent with a task message");
+            }
+            size = (int) fileSize;
+        }
+
+        private int getSerializedSize() {
+            return header.getSerializedSize()
+                    + CodedOutputStream.computeRawVarint32Size(INPUT_FILE_DATA_TAG)
+                    + CodedOutputStream.computeRawVarint32Size(size)
+                    + size;
+        }
+    }
+
+    /**
+     * Task message whose input files content is not loaded yet.
+     */
+    static final class TaskMessage {
+
+        private final Messages.Task task;
+
+        private final List<InputFileData> inputFiles;
+
+        private final long size;
+
+        TaskMessage(Messages.Task task, List<InputFileData> inputFiles) {
+            this.task = Objects.requireNonNull(task);
+            this.inputFiles = Objects.requireNonNull(inputFiles);
+            long messageSize = task.getSerializedSize();
+            for (InputFileData inputFile : inputFiles) {
+                int inputFileSize = inputFile.getSerializedSize();
+                messageSize += CodedOutputStream.computeTagSize(Messages.Task.INPUTFILE_FIELD_NUMBER)
+                        + CodedOutputStream.computeRawVarint32Size(inputFileSize)
+                        + inputFileSize;
+            }
+            size = messageSize;
+        }
+
+        /**
+         * Size in bytes of the encoded message.
+         */
+        long getSize() {
+            return size;
+        }
+
+        /**
+         * Encode the message, input files are appended as additional repeated fields, their content being copied by
+         * chunks from the working directory to the message.
+         */
+        byte[] encode() throws IOException {
+            if (size > Integer.MAX_VALUE) {
+                throw new PowsyblException("Task message is too large (" + size + " bytes)");
+            }
+            byte[] message = new byte[(int) size];
+            CodedOutputStream cos = CodedOutputStream.newInstance(message);
+            task.writeTo(cos);
+            byte[] chunk = new byte[CHUNK_SIZE];
+            for (InputFileData inputFile : inputFiles) {
+                cos.writeTag(Messages.Task.INPUTFILE_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                cos.writeRawVarint32(inputFile.getSerializedSize());
+                inputFile.header.writeTo(cos);
+                cos.writeRawVarint32(INPUT_FILE_DATA_TAG);
+                cos.writeRawVarint32(inputFile.size);
+                try (InputStream is = Files.newInputStream(inputFile.path)) {
+                    int remaining = inputFile.size;
+                    while (remaining > 0) {
+                        int read = is.read(chunk, 0, Math.min(chunk.length, remaining));
+                        if (read == -1) {
+                            throw new PowsyblException("Input file " + inputFile.path + " has been truncated during the encoding");
+                        }
+                        cos.writeRawBytes(chunk, 0, read);
+                        remaining -= read;
+                    }
+                }
+            }
+            cos.checkNoSpaceLeft();
+            return message;
+        }
+    }
+
+    @FunctionalInterface
+    interface OutputFileWriter {
+
+        /**
+         * Write an output file whose content is the {@code length} bytes of {@code buffer} starting at {@code offset}.
+         */
+        void write(String name, byte[] buffer, int offset, int length) throws IOException;
+    }
+
+    /**
+     * Decode a task result message, output files are passed to the writer instead of being copied to the returned
+     * message.
+     *
+     * @return the task result without output files
+     */
+    static Messages.TaskResult decodeTaskResult(byte[] message, OutputFileWriter writer) throws IOException {
+        Objects.requireNonNull(message);
+        Objects.requireNonNull(writer);
+        CodedInputStream cis = CodedInputStream.newInstance(message);
+        cis.setSizeLimit(Integer.MAX_VALUE);
+        // other fields are small, they are decoded by the generated code
+        ByteArrayOutputStream otherFields = new ByteArrayOutputStream();
+        while (true) {
+            int start = cis.getTotalBytesRead();
+            int tag = cis.readTag();
+            if (tag == 0) {
+                break;
+            }
+            if (tag == OUTPUT_FILE_TAG) {
+                int length = cis.readRawVarint32();
+                int oldLimit = cis.pushLimit(length);
+                decodeOutputFile(message, cis, writer);
+                cis.popLimit(oldLimit);
+            } else {
+                cis.skipField(tag);
+                otherFields.write(message, start, cis.getTotalBytesRead() - start);
+            }
+        }
+        return Messages.TaskResult.parseFrom(otherFields.toByteArray());
+    }
+
+    private static void decodeOutputFile(byte[] message, CodedInputStream cis, OutputFileWriter writer) throws IOException {
+        String name = null;
+        int offset = 0;
+        int length = 0;
+        while (true) {
+            int tag = cis.readTag();
+            if (tag == 0) {
+                break;
+            }
+            if (tag == OUTPUT_FILE_NAME_TAG) {
+                name = cis.readString();
+            } else if (tag == OUTPUT_FILE_DATA_TAG) {
+                length = cis.readRawVarint32();
+                offset = cis.getTotalBytesRead();
+                cis.skipRawBytes(length);
+            } else {
+                cis.skipField(tag);
+            }
+        }
+        if (name == null) {
+            throw new InvalidProtocolBufferException("Output file name is missing");
+        }
+        writer.write(name, message, offset, length);
+    }
+}
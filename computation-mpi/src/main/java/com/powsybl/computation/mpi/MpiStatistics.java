@@ -56,6 +56,17 @@ public interface MpiStatistics extends AutoCloseable {
      */
     void logTaskStart(int taskId, int jobId, int taskIndex, DateTime startTime, int slaveRank, int slaveThread, long inputMessageSize);
 
+    /**
+     * Log the placement of tasks of a job started together.
+     *
+     * @param jobId the job id
+     * @param localTaskCount number of tasks placed on a slave rank already holding the job data
+     * @param remoteTaskCount number of tasks placed on a slave rank the job data has to be sent to
+     */
+    default void logTasksPlacement(int jobId, int localTaskCount, int remoteTaskCount) {
+        // no-op implementation, for statistics implementations not aware of tasks placement
+    }
+
     /**
      * Log a task end.
      *
@@ -20,7 +20,7 @@ class MpiTask {
 
     private final int index;
 
-    private final byte[] message;
+    private byte[] message;
 
     private final DateTime startTime;
 
@@ -60,6 +60,13 @@ class MpiTask {
         return message;
     }
 
+    /**
+     * Release the message once it has been handed to the native services.
+     */
+    void releaseMessage() {
+        message = null;
+    }
+
     DateTime getStartTime() {
         return startTime;
     }
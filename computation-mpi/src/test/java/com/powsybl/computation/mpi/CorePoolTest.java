@@ -92,4 +92,34 @@ public class CorePoolTest {
         pool.returnCores(cores);
         assertTrue(pool.availableCores() == 4);
     }
+
+    @Test
+    public void testPreferedCoresNotBorrowedTwice() {
+        List<Core> cores = pool.borrowCores(2, Collections.singleton(0));
+        assertEquals(2, cores.size());
+        // rank 0 has no idle cores anymore
+        List<Core> otherCores = pool.borrowCores(2, Collections.singleton(0));
+        assertEquals(2, otherCores.size());
+        assertEquals(1, otherCores.get(0).rank.num);
+        assertEquals(1, otherCores.get(1).rank.num);
+        assertEquals(0, pool.availableCores());
+    }
+
+    @Test
+    public void testMostIdleRankFirst() {
+        MpiRank rank2 = new MpiRank(2);
+        pool.returnCore(new Core(rank2, 0));
+        pool.returnCore(new Core(rank2, 1));
+        pool.returnCore(new Core(rank2, 2));
+        List<Core> cores = pool.borrowCores(1);
+        assertEquals(2, cores.get(0).rank.num);
+        cores = pool.borrowCores(1, Collections.singleton(1));
+        assertEquals(1, cores.get(0).rank.num);
+
+        // rank 0 and 2 have 2 idle cores, rank 1 only 1
+        cores = pool.borrowCores(3);
+        assertEquals(0, cores.get(0).rank.num);
+        assertEquals(0, cores.get(1).rank.num);
+        assertEquals(2, cores.get(2).rank.num);
+    }
 }
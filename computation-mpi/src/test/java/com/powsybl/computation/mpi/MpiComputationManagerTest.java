@@ -29,6 +29,8 @@ import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -65,23 +67,21 @@ public class MpiComputationManagerTest {
                     .build();
         }
 
+        // command of started tasks, messages are released once tasks are started
+        private final Map<MpiTask, String> cmdIds = new ConcurrentHashMap<>();
+
         @Override
         public void checkTasksCompletion(List<MpiTask> runningTasks, List<MpiTask> completedTasks) {
             for (MpiTask runningTask : runningTasks) {
-                try {
-                    Messages.Task message = Messages.Task.parseFrom(runningTask.getMessage());
-                    switch (message.getCmdId()) {
-                        case ID_CMD_1:
-                            runningTask.setResultMessage(createResultMessage(OUTPUT_FILE_NAME_1, OUTPUT_FILE_CONTENT_1).toByteArray());
-                            completedTasks.add(runningTask);
-                            break;
-                        case ID_CMD_2:
-                            runningTask.setResultMessage(createResultMessage(OUTPUT_FILE_NAME_2, OUTPUT_FILE_CONTENT_2).toByteArray());
-                            completedTasks.add(runningTask);
-                            break;
-                    }
-                } catch (InvalidProtocolBufferException e) {
-                    LOGGER.error(e.toString(), e);
+                switch (cmdIds.get(runningTask)) {
+                    case ID_CMD_1:
+                        runningTask.setResultMessage(createResultMessage(OUTPUT_FILE_NAME_1, OUTPUT_FILE_CONTENT_1).toByteArray());
+                        completedTasks.add(runningTask);
+                        break;
+                    case ID_CMD_2:
+                        runningTask.setResultMessage(createResultMessage(OUTPUT_FILE_NAME_2, OUTPUT_FILE_CONTENT_2).toByteArray());
+                        completedTasks.add(runningTask);
+                        break;
                 }
             }
         }
@@ -110,6 +110,13 @@ public class MpiComputationManagerTest {
 
         @Override
         public void startTasks(List<MpiTask> tasks) {
+            for (MpiTask task : tasks) {
+                try {
+                    cmdIds.put(task, Messages.Task.parseFrom(task.getMessage()).getCmdId());
+                } catch (InvalidProtocolBufferException e) {
+                    LOGGER.error(e.toString(), e);
+                }
+            }
         }
     }
 
@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation.mpi;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import com.powsybl.computation.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class MpiJobSchedulerImplTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MpiJobSchedulerImplTest.class);
+
+    private FileSystem fileSystem;
+
+    private Path workingDir;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        fileSystem = Jimfs.newFileSystem(Configuration.unix());
+        workingDir = Files.createDirectories(fileSystem.getPath("/work"));
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdown();
+        fileSystem.close();
+    }
+
+    private MpiJobScheduler createScheduler(MpiNativeServices nativeServices, int coresPerRank) throws Exception {
+        return new MpiJobSchedulerImpl(nativeServices, new NoMpiStatisticsFactory(), null, null, coresPerRank, false, executor, null);
+    }
+
+    private static CommandExecution createExecution(int executionCount, InputFile... inputFiles) {
+        Command command = new SimpleCommandBuilder()
+                .id("cmd")
+                .program("prog")
+                .inputFiles(inputFiles)
+                .build();
+        return new CommandExecution(command, executionCount);
+    }
+
+    @Test
+    public void testThroughput() throws Exception {
+        // 2 slaves of 4 cores, 1 ms tasks
+        int taskCount = 1000;
+        SimulatedMpiNativeServices nativeServices = new SimulatedMpiNativeServices(3, 1, TimeUnit.MILLISECONDS);
+        MpiJobScheduler scheduler = createScheduler(nativeServices, 4);
+        try {
+            long start = System.nanoTime();
+            List<CompletableFuture<ExecutionReport>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(scheduler.execute(createExecution(taskCount / 10), workingDir, Collections.emptyMap(), new DefaultExecutionListener()));
+            }
+            for (CompletableFuture<ExecutionReport> future : futures) {
+                assertTrue(future.join().getErrors().isEmpty());
+            }
+            long elapsedTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            LOGGER.info("{} tasks in {} ms ({} tasks/s)", taskCount, elapsedTime, taskCount * 1000L / Math.max(elapsedTime, 1));
+
+            assertEquals(taskCount, nativeServices.getStartedTaskCount());
+            assertEquals(taskCount, nativeServices.getCompletedTaskCount());
+            assertEquals(0, scheduler.getResources().getBusyCores());
+            // throughput is only logged, a wall-clock bound would depend on the load of the machine: the polling
+            // delay bound is checked by testPollingDelay
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testPollingDelay() {
+        // no task has completed yet
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), MpiJobSchedulerImpl.getMaxPollingDelay(-1));
+
+        // a tenth of the mean task duration, between 50 us and 10 ms
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(50), MpiJobSchedulerImpl.getMaxPollingDelay(0));
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(100), MpiJobSchedulerImpl.getMaxPollingDelay(TimeUnit.MILLISECONDS.toNanos(1)));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), MpiJobSchedulerImpl.getMaxPollingDelay(TimeUnit.SECONDS.toNanos(10)));
+
+        // mean task duration follows the last durations
+        long meanTaskDuration = MpiJobSchedulerImpl.updateMeanTaskDuration(-1, 800);
+        assertEquals(800, meanTaskDuration);
+        assertEquals(700, MpiJobSchedulerImpl.updateMeanTaskDuration(meanTaskDuration, 0));
+        for (int i = 0; i < 100; i++) {
+            meanTaskDuration = MpiJobSchedulerImpl.updateMeanTaskDuration(meanTaskDuration, 8000);
+        }
+        assertTrue(meanTaskDuration > 7900 && meanTaskDuration <= 8000);
+    }
+
+    @Test
+    public void testEncodingFailure() throws Exception {
+        SimulatedMpiNativeServices nativeServices = new SimulatedMpiNativeServices(2, 0, TimeUnit.MILLISECONDS);
+        MpiJobScheduler scheduler = createScheduler(nativeServices, 2);
+        try {
+            // input file is missing, so task messages cannot be encoded
+            CompletableFuture<ExecutionReport> future = scheduler.execute(createExecution(4, new InputFile("missing.txt")), workingDir,
+                                                                          Collections.emptyMap(), new DefaultExecutionListener());
+            try {
+                future.join();
+                fail();
+            } catch (CompletionException e) {
+                assertTrue(e.getCause().getMessage().contains("missing.txt"));
+            }
+            assertEquals(0, nativeServices.getStartedTaskCount());
+
+            // cores have been released and the scheduler is still running
+            assertTrue(scheduler.execute(createExecution(4), workingDir, Collections.emptyMap(), new DefaultExecutionListener())
+                                .join().getErrors().isEmpty());
+            assertEquals(4, nativeServices.getCompletedTaskCount());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testFileTransfer() throws Exception {
+        // 2 slaves of 4 cores, task outputs are a copy of task inputs
+        SimulatedMpiNativeServices nativeServices = new SimulatedMpiNativeServices(3, 1, TimeUnit.MILLISECONDS, true);
+        // a budget smaller than a batch of messages, batches are started one by one
+        MpiJobScheduler scheduler = new MpiJobSchedulerImpl(nativeServices, new NoMpiStatisticsFactory(), null, null, 4, false, executor, null, 64 * 1024);
+        try {
+            int taskCount = 20;
+            byte[][] contents = new byte[taskCount][];
+            Random random = new Random(0);
+            for (int i = 0; i < taskCount; i++) {
+                // larger than the encoding chunk
+                contents[i] = new byte[100000 + i];
+                random.nextBytes(contents[i]);
+                Files.write(workingDir.resolve("in" + i + ".bin"), contents[i]);
+            }
+            Files.write(workingDir.resolve("job.bin"), new byte[100000]);
+            Command command = new SimpleCommandBuilder()
+                    .id("cmd")
+                    .program("prog")
+                    .inputFiles(new InputFile(i -> "in" + i + ".bin", null), new InputFile("job.bin"))
+                    .outputFiles(new OutputFile(i -> "out" + i + ".bin", null))
+                    .build();
+            assertTrue(scheduler.execute(new CommandExecution(command, taskCount), workingDir, Collections.emptyMap(), new DefaultExecutionListener())
+                                .join().getErrors().isEmpty());
+            for (int i = 0; i < taskCount; i++) {
+                assertArrayEquals(contents[i], Files.readAllBytes(workingDir.resolve("out" + i + ".bin")));
+            }
+            assertEquals(taskCount, nativeServices.getCompletedTaskCount());
+            // messages are not kept by the master while tasks are running
+            assertEquals(0, nativeServices.getRetainedMessageCount());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testPlacement() throws Exception {
+        int[] placement = new int[2];
+        MpiStatisticsFactory statisticsFactory = (dbDir, dbName) -> new NoMpiStatistics() {
+            @Override
+            public void logTasksPlacement(int jobId, int localTaskCount, int remoteTaskCount) {
+                placement[0] += localTaskCount;
+                placement[1] += remoteTaskCount;
+            }
+        };
+        // 2 slaves of 2 cores
+        SimulatedMpiNativeServices nativeServices = new SimulatedMpiNativeServices(3, 1, TimeUnit.MILLISECONDS);
+        MpiJobScheduler scheduler = new MpiJobSchedulerImpl(nativeServices, statisticsFactory, null, null, 2, false, executor, null);
+        try {
+            assertTrue(scheduler.execute(createExecution(20), workingDir, Collections.emptyMap(), new DefaultExecutionListener())
+                                .join().getErrors().isEmpty());
+        } finally {
+            scheduler.shutdown();
+        }
+        // job data is sent once to each rank
+        assertEquals(18, placement[0]);
+        assertEquals(2, placement[1]);
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        ExecutionMetricsRegistry metrics = new ExecutionMetricsRegistry();
+        // 2 slaves of 2 cores
+        SimulatedMpiNativeServices nativeServices = new SimulatedMpiNativeServices(3, 1, TimeUnit.MILLISECONDS);
+        MpiJobScheduler scheduler = new MpiJobSchedulerImpl(nativeServices, new NoMpiStatisticsFactory(), null, null, 2, false, executor, null,
+                                                            MpiJobSchedulerImpl.DEFAULT_MAX_PENDING_MESSAGE_SIZE, metrics);
+        try {
+            assertTrue(scheduler.execute(createExecution(20), workingDir, Collections.emptyMap(), new DefaultExecutionListener())
+                                .join().getErrors().isEmpty());
+        } finally {
+            scheduler.shutdown();
+        }
+        // each task is timed
+        for (ExecutionPhase phase : new ExecutionPhase[] {ExecutionPhase.QUEUE_WAIT, ExecutionPhase.PRE_PROCESSING, ExecutionPhase.PROCESS, ExecutionPhase.POST_PROCESSING}) {
+            assertEquals(20, metrics.getHistogram(phase, "cmd").getCount());
+        }
+        assertEquals(20, metrics.getHistogram(ExecutionMetricsRegistry.STAGED_BYTES, "cmd").getCount());
+        // 4 tasks are started at once, the other ones wait for a free core
+        ExecutionMetricsRegistry.Histogram queueDepth = metrics.getHistogram(ExecutionMetricsRegistry.QUEUE_DEPTH, "");
+        assertEquals(16, queueDepth.getMax());
+        assertEquals(0, queueDepth.getMin());
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation.mpi;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.powsybl.computation.mpi.generated.Messages;
+
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simulated MPI native services, to test and benchmark the job scheduler without an MPI runtime: each task is
+ * completed successfully after a fixed duration. Output files of a task, if echo is enabled, contain the task scoped
+ * input files sent with its message, otherwise there is no output file.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+class SimulatedMpiNativeServices implements MpiNativeServices {
+
+    private final int commSize;
+
+    private final long taskDuration;
+
+    private final boolean echo;
+
+    // completion time in nanoseconds of running tasks, only accessed by the scheduler thread
+    private final Map<MpiTask, Long> completionTimes = new HashMap<>();
+
+    // result messages of running tasks when echo is enabled, only accessed by the scheduler thread
+    private final Map<MpiTask, byte[]> resultMessages = new HashMap<>();
+
+    private final AtomicInteger startedTaskCount = new AtomicInteger();
+
+    private final AtomicInteger completedTaskCount = new AtomicInteger();
+
+    private final AtomicInteger retainedMessageCount = new AtomicInteger();
+
+    private final byte[] resultMessage = Messages.TaskResult.newBuilder()
+            .setExitCode(0)
+            .setTaskDuration(0)
+            .setWorkingDataSize(0)
+            .build()
+            .toByteArray();
+
+    /**
+     * @param commSize MPI communicator size, including the master
+     * @param taskDuration duration of each task
+     * @param unit time unit of the task duration
+     */
+    SimulatedMpiNativeServices(int commSize, long taskDuration, TimeUnit unit) {
+        this(commSize, taskDuration, unit, false);
+    }
+
+    /**
+     * @param echo if true, output files of tasks contain their task scoped input files
+     */
+    SimulatedMpiNativeServices(int commSize, long taskDuration, TimeUnit unit, boolean echo) {
+        this.commSize = commSize;
+        this.taskDuration = unit.toNanos(taskDuration);
+        this.echo = echo;
+    }
+
+    int getStartedTaskCount() {
+        return startedTaskCount.get();
+    }
+
+    int getCompletedTaskCount() {
+        return completedTaskCount.get();
+    }
+
+    /**
+     * Number of completed tasks whose message has not been released by the job scheduler.
+     */
+    int getRetainedMessageCount() {
+        return retainedMessageCount.get();
+    }
+
+    @Override
+    public void initMpi(int coresPerRank, boolean verbose) {
+        // nothing to initialize
+    }
+
+    @Override
+    public void terminateMpi() {
+        // nothing to terminate
+    }
+
+    @Override
+    public String getMpiVersion() {
+        return "simulated";
+    }
+
+    @Override
+    public int getMpiCommSize() {
+        return commSize;
+    }
+
+    @Override
+    public void sendCommonFile(byte[] message) {
+        // common files are not needed by simulated tasks
+    }
+
+    private static byte[] createEchoResultMessage(byte[] message) throws InvalidProtocolBufferException {
+        Messages.Task task = Messages.Task.parseFrom(message);
+        ByteString data = ByteString.EMPTY;
+        for (Messages.Task.InputFile inputFile : task.getInputFileList()) {
+            if (inputFile.getScope() == Messages.Task.InputFile.Scope.TASK) {
+                data = data.concat(inputFile.getData());
+            }
+        }
+        Messages.TaskResult.Builder builder = Messages.TaskResult.newBuilder()
+                .setExitCode(0)
+                .setTaskDuration(0)
+                .setWorkingDataSize(data.size());
+        for (Messages.Task.OutputFile outputFile : task.getOutputFileList()) {
+            builder.addOutputFile(Messages.TaskResult.OutputFile.newBuilder()
+                                                                .setName(outputFile.getName())
+                                                                .setData(data));
+        }
+        return builder.build().toByteArray();
+    }
+
+    @Override
+    public void startTasks(List<MpiTask> tasks) {
+        long completionTime = System.nanoTime() + taskDuration;
+        for (MpiTask task : tasks) {
+            completionTimes.put(task, completionTime);
+            if (echo) {
+                // as native services, copy what is needed from the message which is released after the start
+                try {
+                    resultMessages.put(task, createEchoResultMessage(task.getMessage()));
+                } catch (InvalidProtocolBufferException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        startedTaskCount.addAndGet(tasks.size());
+    }
+
+    @Override
+    public void checkTasksCompletion(List<MpiTask> runningTasks, List<MpiTask> completedTasks) {
+        long now = System.nanoTime();
+        for (MpiTask task : runningTasks) {
+            Long completionTime = completionTimes.get(task);
+            if (completionTime != null && completionTime <= now) {
+                completionTimes.remove(task);
+                byte[] echoResultMessage = resultMessages.remove(task);
+                task.setResultMessage(echoResultMessage != null ? echoResultMessage : resultMessage);
+                if (task.getMessage() != null) {
+                    retainedMessageCount.incrementAndGet();
+                }
+                completedTasks.add(task);
+                completedTaskCount.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,499 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation;
+
+import com.google.common.hash.Funnels;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingOutputStream;
+import com.google.common.io.ByteStreams;
+import com.powsybl.commons.io.CacheManager;
+import com.powsybl.commons.io.ForwardingOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * A computation manager decorator caching results of executions on disk.
+ * <p>
+ * An execution is identified by its content: command definitions (program, arguments, input and output files),
+ * execution counts, environment variables and content of the input files, either created by the handler in the working
+ * directory or by {@link #newCommonFile(String)}. When the same execution has already succeeded, its output files are
+ * copied from the cache to the working directory and commands are not executed again. Otherwise, the execution is
+ * delegated and its output files are stored in the cache if no error occurred.
+ * <p>
+ * Only declared output files (and their post-processed version) are cached, so handlers reading other files of the
+ * working directory should not be run through this computation manager. The size of the cache is bounded, least
+ * recently used entries are evicted first.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class CachingComputationManager implements ComputationManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingComputationManager.class);
+
+    private static final String CACHE_ENTRY_NAME = "executions";
+
+    // created once all output files have been stored, its last modified time is the last access time of the entry
+    private static final String COMPLETE_FILE_NAME = ".complete";
+
+    private static final HashFunction HASH_FUNCTION = Hashing.sha256();
+
+    private static final class StoredEntry {
+
+        private final CacheManager.CacheEntry entry;
+
+        private final long size;
+
+        private StoredEntry(CacheManager.CacheEntry entry, long size) {
+            this.entry = entry;
+            this.size = size;
+        }
+    }
+
+    private final ComputationManager delegate;
+
+    private final CacheManager cacheManager;
+
+    private final long maxSize;
+
+    // content hash of common files by name
+    private final Map<String, String> commonFileHashes = new ConcurrentHashMap<>();
+
+    private final Lock lock = new ReentrantLock();
+
+    // in least recently used order
+    private final LinkedHashMap<Path, StoredEntry> storedEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size = 0;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public CachingComputationManager(ComputationManager delegate, Path cacheDir, long maxSize) {
+        this.delegate = Objects.requireNonNull(delegate);
+        Objects.requireNonNull(cacheDir);
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Invalid cache max size " + maxSize);
+        }
+        this.maxSize = maxSize;
+        cacheManager = new CacheManager(cacheDir);
+        loadStoredEntries();
+    }
+
+    private static boolean isComplete(CacheManager.CacheEntry entry) {
+        return Files.isRegularFile(entry.toPath().resolve(COMPLETE_FILE_NAME));
+    }
+
+    private static long getSize(Path dir) throws IOException {
+        try (Stream<Path> stream = Files.walk(dir)) {
+            long size = 0;
+            for (Path file : stream.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                size += Files.size(file);
+            }
+            return size;
+        }
+    }
+
+    private void loadStoredEntries() {
+        List<CacheManager.CacheEntry> entries = new ArrayList<>();
+        for (CacheManager.CacheEntry entry : cacheManager.listCacheEntries(CACHE_ENTRY_NAME)) {
+            if (isComplete(entry)) {
+                entries.add(entry);
+            } else {
+                // interrupted while being stored
+                entry.remove();
+            }
+        }
+        try {
+            Map<CacheManager.CacheEntry, FileTime> lastAccessTimes = new HashMap<>();
+            for (CacheManager.CacheEntry entry : entries) {
+                lastAccessTimes.put(entry, Files.getLastModifiedTime(entry.toPath().resolve(COMPLETE_FILE_NAME)));
+            }
+            entries.sort(Comparator.comparing(lastAccessTimes::get));
+            for (CacheManager.CacheEntry entry : entries) {
+                addStoredEntry(entry, getSize(entry.toPath()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        LOGGER.info("{} execution results in cache ({} bytes)", getEntryCount(), getSize());
+    }
+
+    private void addStoredEntry(CacheManager.CacheEntry entry, long entrySize) {
+        List<StoredEntry> evictedEntries = new ArrayList<>();
+        lock.lock();
+        try {
+            StoredEntry oldStoredEntry = storedEntries.put(entry.toPath(), new StoredEntry(entry, entrySize));
+            if (oldStoredEntry != null) {
+                size -= oldStoredEntry.size;
+            }
+            size += entrySize;
+            Iterator<StoredEntry> it = storedEntries.values().iterator();
+            while (size > maxSize && it.hasNext()) {
+                StoredEntry storedEntry = it.next();
+                if (storedEntry.entry != entry) {
+                    it.remove();
+                    size -= storedEntry.size;
+                    evictedEntries.add(storedEntry);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (StoredEntry evictedEntry : evictedEntries) {
+            LOGGER.debug("Evict execution results {} from cache", evictedEntry.entry);
+            evictedEntry.entry.lock();
+            try {
+                evictedEntry.entry.remove();
+            } finally {
+                evictedEntry.entry.unlock();
+            }
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    private void touchStoredEntry(CacheManager.CacheEntry entry) {
+        lock.lock();
+        try {
+            // move the entry to the end of the access order
+            storedEntries.get(entry.toPath());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String hash(Path file) throws IOException {
+        Hasher hasher = HASH_FUNCTION.newHasher();
+        try (InputStream is = Files.newInputStream(file)) {
+            ByteStreams.copy(is, Funnels.asOutputStream(hasher));
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void addCommandKeys(Command command, int executionIndex, List<String> keys) {
+        switch (command.getType()) {
+            case SIMPLE:
+                SimpleCommand simpleCommand = (SimpleCommand) command;
+                keys.add("program=" + simpleCommand.getProgram() + " " + simpleCommand.getArgs(executionIndex));
+                break;
+            case GROUP:
+                for (GroupCommand.SubCommand subCommand : ((GroupCommand) command).getSubCommands()) {
+                    keys.add("program=" + subCommand.getProgram() + " " + subCommand.getArgs(executionIndex));
+                }
+                break;
+            default:
+                throw new AssertionError("Unexpected CommandType value: " + command.getType());
+        }
+    }
+
+    /**
+     * Compute keys identifying an execution and collect the names of its output files.
+     *
+     * @return the keys or null if the execution cannot be cached because an input file is missing
+     */
+    private List<String> createKeys(Path workingDir, List<CommandExecution> commandExecutionList, Map<String, String> variables,
+                                    Set<String> outputFileNames) throws IOException {
+        List<String> keys = new ArrayList<>();
+        keys.add("variables=" + new TreeMap<>(variables));
+        Map<String, String> inputFileHashes = new HashMap<>();
+        for (CommandExecution commandExecution : commandExecutionList) {
+            Command command = commandExecution.getCommand();
+            keys.add("command=" + command.getId() + " " + command.getType() + " " + commandExecution.getExecutionCount());
+            if (commandExecution.getOverloadedVariables() != null) {
+                keys.add("overloadedVariables=" + new TreeMap<>(commandExecution.getOverloadedVariables()));
+            }
+            for (int executionIndex = 0; executionIndex < commandExecution.getExecutionCount(); executionIndex++) {
+                addCommandKeys(command, executionIndex, keys);
+                for (InputFile inputFile : command.getInputFiles()) {
+                    String fileName = inputFile.getName(executionIndex);
+                    String hash = inputFileHashes.get(fileName);
+                    if (hash == null) {
+                        // same lookup order as computation managers: working directory first, then common files
+                        Path file = workingDir.resolve(fileName);
+                        if (Files.isRegularFile(file)) {
+                            hash = hash(file);
+                        } else {
+                            hash = commonFileHashes.get(fileName);
+                            if (hash == null) {
+                                LOGGER.warn("Input file '{}' not found, execution results will not be cached", fileName);
+                                return null;
+                            }
+                        }
+                        inputFileHashes.put(fileName, hash);
+                    }
+                    keys.add("input=" + fileName + " " + inputFile.getPreProcessor() + " " + hash);
+                }
+                for (OutputFile outputFile : command.getOutputFiles()) {
+                    String fileName = outputFile.getName(executionIndex);
+                    keys.add("output=" + fileName + " " + outputFile.getPostProcessor());
+                    outputFileNames.add(fileName);
+                    if (outputFile.getPostProcessor() == FilePostProcessor.FILE_GZIP) {
+                        outputFileNames.add(fileName + ".gz");
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Copy output files of a successful execution from the cache to the working directory.
+     *
+     * @return false if the execution is not in the cache
+     */
+    private static boolean load(CacheManager.CacheEntry entry, Path workingDir, Set<String> outputFileNames) throws IOException {
+        entry.lock();
+        try {
+            if (!isComplete(entry)) {
+                return false;
+            }
+            for (String fileName : outputFileNames) {
+                Path cachedFile = entry.toPath().resolve(fileName);
+                if (Files.exists(cachedFile)) {
+                    Path file = workingDir.resolve(fileName);
+                    Files.createDirectories(file.getParent());
+                    Files.copy(cachedFile, file, REPLACE_EXISTING);
+                }
+            }
+            Files.setLastModifiedTime(entry.toPath().resolve(COMPLETE_FILE_NAME), FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } finally {
+            entry.unlock();
+        }
+    }
+
+    /**
+     * Copy output files of a successful execution from the working directory to the cache.
+     */
+    private void store(CacheManager.CacheEntry entry, Path workingDir, Set<String> outputFileNames) throws IOException {
+        List<Path> files = new ArrayList<>();
+        long entrySize = 0;
+        for (String fileName : outputFileNames) {
+            Path file = workingDir.resolve(fileName);
+            if (Files.isRegularFile(file)) {
+                files.add(file);
+                entrySize += Files.size(file);
+            }
+        }
+        if (entrySize > maxSize) {
+            LOGGER.debug("Execution results are too big to be cached ({} bytes)", entrySize);
+            return;
+        }
+        entry.lock();
+        try {
+            if (isComplete(entry)) {
+                // already stored by a concurrent execution
+                return;
+            }
+            entry.remove();
+            Path entryDir = entry.create();
+            for (Path file : files) {
+                Path cachedFile = entryDir.resolve(workingDir.relativize(file).toString());
+                Files.createDirectories(cachedFile.getParent());
+                Files.copy(file, cachedFile);
+            }
+            Files.createFile(entryDir.resolve(COMPLETE_FILE_NAME));
+        } finally {
+            entry.unlock();
+        }
+        addStoredEntry(entry, getSize(entry.toPath()));
+    }
+
+    private final class CachingExecutionHandler<R> implements ExecutionHandler<R> {
+
+        private final ExecutionHandler<R> handler;
+
+        private final Map<String, String> variables;
+
+        private final Set<String> outputFileNames = new LinkedHashSet<>();
+
+        // entry to store results to after a cache miss
+        private volatile CacheManager.CacheEntry missedEntry;
+
+        private CachingExecutionHandler(ExecutionHandler<R> handler, Map<String, String> variables) {
+            this.handler = Objects.requireNonNull(handler);
+            this.variables = Objects.requireNonNull(variables);
+        }
+
+        @Override
+        public List<CommandExecution> before(Path workingDir) throws IOException {
+            List<CommandExecution> commandExecutionList = handler.before(workingDir);
+            List<String> keys = createKeys(workingDir, commandExecutionList, variables, outputFileNames);
+            if (keys != null) {
+                CacheManager.CacheEntry entry = cacheManager.newCacheEntry(CACHE_ENTRY_NAME)
+                        .withKeys(keys)
+                        .build();
+                if (load(entry, workingDir, outputFileNames)) {
+                    LOGGER.debug("Execution results found in cache {}", entry);
+                    hitCount.incrementAndGet();
+                    touchStoredEntry(entry);
+                    // nothing to execute, results are already in the working directory
+                    return Collections.emptyList();
+                }
+                missedEntry = entry;
+            }
+            missCount.incrementAndGet();
+            return commandExecutionList;
+        }
+
+        @Override
+        public void onExecutionStart(CommandExecution execution, int executionIndex) {
+            handler.onExecutionStart(execution, executionIndex);
+        }
+
+        @Override
+        public void onExecutionCompletion(CommandExecution execution, int executionIndex) {
+            handler.onExecutionCompletion(execution, executionIndex);
+        }
+
+        @Override
+        public void onProgress(CommandExecution execution, int executionIndex) {
+            handler.onProgress(execution, executionIndex);
+        }
+
+        @Override
+        public R after(Path workingDir, ExecutionReport report) throws IOException {
+            CacheManager.CacheEntry entry = missedEntry;
+            if (entry != null && report.getErrors().isEmpty()) {
+                store(entry, workingDir, outputFileNames);
+            }
+            return handler.after(workingDir, report);
+        }
+    }
+
+    @Override
+    public String getVersion() {
+        return delegate.getVersion();
+    }
+
+    @Override
+    public OutputStream newCommonFile(String fileName) throws IOException {
+        Objects.requireNonNull(fileName);
+        // a common file being rewritten cannot be used for caching until it is closed
+        commonFileHashes.remove(fileName);
+        return new ForwardingOutputStream<HashingOutputStream>(new HashingOutputStream(HASH_FUNCTION, delegate.newCommonFile(fileName))) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                commonFileHashes.put(fileName, os.hash().toString());
+            }
+        };
+    }
+
+    /**
+     * @deprecated Use execute(ExecutionEnvironment, ExecutionHandler<R>) instead.
+     */
+    @Deprecated
+    @Override
+    public CommandExecutor newCommandExecutor(Map<String, String> env, String workingDirPrefix, boolean debug) throws Exception {
+        return delegate.newCommandExecutor(env, workingDirPrefix, debug);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> execute(ExecutionEnvironment environment, ExecutionHandler<R> handler) {
+        Objects.requireNonNull(environment);
+        return delegate.execute(environment, new CachingExecutionHandler<>(handler, environment.getVariables()));
+    }
+
+    /**
+     * Java task results are not cached.
+     */
+    @Override
+    public <R> CompletableFuture<List<R>> executeJava(JavaExecution<R> execution, ExecutionListener listener) {
+        return delegate.executeJava(execution, listener);
+    }
+
+    @Override
+    public ComputationResourcesStatus getResourcesStatus() {
+        return delegate.getResourcesStatus();
+    }
+
+    @Override
+    public Executor getExecutor() {
+        return delegate.getExecutor();
+    }
+
+    @Override
+    public Path getLocalDir() {
+        return delegate.getLocalDir();
+    }
+
+    /**
+     * Number of executions whose results have been found in the cache.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Number of executions whose results have not been found in the cache.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Number of execution results evicted from the cache to keep its size under the limit.
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public int getEntryCount() {
+        lock.lock();
+        try {
+            return storedEntries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Size in bytes of the execution results in the cache.
+     */
+    public long getSize() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public void close() {
+        LOGGER.info("Execution results cache: {} hits, {} misses, {} evictions", hitCount.get(), missCount.get(), evictionCount.get());
+        delegate.close();
+    }
+}
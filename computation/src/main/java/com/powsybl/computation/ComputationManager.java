@@ -9,6 +9,7 @@ package com.powsybl.computation;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -33,6 +34,19 @@ public interface ComputationManager extends AutoCloseable {
 
     <R> CompletableFuture<R> execute(ExecutionEnvironment environment, ExecutionHandler<R> handler);
 
+    /**
+     * Execute a Java task in the JVM, once for each partition, without working directory nor external process.
+     * The default implementation runs executions on {@link #getExecutor()}, implementations managing cores should
+     * override it so that Java tasks share cores with commands.
+     *
+     * @return a future of the results ordered by execution index, completed exceptionally by the first failure
+     */
+    default <R> CompletableFuture<List<R>> executeJava(JavaExecution<R> execution, ExecutionListener listener) {
+        JavaExecutionJob<R> job = new JavaExecutionJob<>(execution, listener);
+        job.getExecutions().forEach(getExecutor()::execute);
+        return job.getFuture();
+    }
+
     ComputationResourcesStatus getResourcesStatus();
 
     Executor getExecutor();
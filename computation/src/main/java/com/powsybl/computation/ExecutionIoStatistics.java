@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation;
+
+/**
+ * Input/output statistics of an execution: how input files have been staged into the working directory.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class ExecutionIoStatistics {
+
+    public static final ExecutionIoStatistics EMPTY = new ExecutionIoStatistics(0, 0, 0, 0, 0, 0);
+
+    private final int linkedFileCount;
+
+    private final int copiedFileCount;
+
+    private final long copiedBytes;
+
+    private final int decompressedFileCount;
+
+    private final long decompressedBytes;
+
+    private final int reusedDecompressionCount;
+
+    public ExecutionIoStatistics(int linkedFileCount, int copiedFileCount, long copiedBytes, int decompressedFileCount,
+                                 long decompressedBytes, int reusedDecompressionCount) {
+        this.linkedFileCount = linkedFileCount;
+        this.copiedFileCount = copiedFileCount;
+        this.copiedBytes = copiedBytes;
+        this.decompressedFileCount = decompressedFileCount;
+        this.decompressedBytes = decompressedBytes;
+        this.reusedDecompressionCount = reusedDecompressionCount;
+    }
+
+    /**
+     * Number of input files exposed to the working directory without copying their content.
+     */
+    public int getLinkedFileCount() {
+        return linkedFileCount;
+    }
+
+    /**
+     * Number of input files copied to the working directory.
+     */
+    public int getCopiedFileCount() {
+        return copiedFileCount;
+    }
+
+    public long getCopiedBytes() {
+        return copiedBytes;
+    }
+
+    /**
+     * Number of files decompressed (gunzipped or extracted from an archive) by this execution.
+     */
+    public int getDecompressedFileCount() {
+        return decompressedFileCount;
+    }
+
+    /**
+     * Number of bytes written by decompression.
+     */
+    public long getDecompressedBytes() {
+        return decompressedBytes;
+    }
+
+    /**
+     * Number of compressed input files whose decompressed content has been reused from a previous execution.
+     */
+    public int getReusedDecompressionCount() {
+        return reusedDecompressionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionIoStatistics(linkedFileCount=" + linkedFileCount + ", copiedFileCount=" + copiedFileCount
+                + ", copiedBytes=" + copiedBytes + ", decompressedFileCount=" + decompressedFileCount
+                + ", decompressedBytes=" + decompressedBytes + ", reusedDecompressionCount=" + reusedDecompressionCount + ")";
+    }
+}
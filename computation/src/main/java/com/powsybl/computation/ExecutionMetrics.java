@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation;
+
+/**
+ * Receiver of the execution metrics of a computation manager. {@link ExecutionMetricsRegistry} keeps them in memory
+ * for a CSV or JSON export, an adapter implementing this interface can forward them to an external metrics registry.
+ * <p>
+ * Methods are called by the computation manager threads, possibly concurrently, so implementations have to be
+ * thread safe and fast.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public interface ExecutionMetrics {
+
+    ExecutionMetrics NONE = new ExecutionMetrics() {
+        @Override
+        public void recordPhase(ExecutionPhase phase, String id, long durationNanos) {
+            // nothing to do
+        }
+
+        @Override
+        public void recordQueueDepth(int depth) {
+            // nothing to do
+        }
+
+        @Override
+        public void recordStagedBytes(String id, long bytes) {
+            // nothing to do
+        }
+    };
+
+    /**
+     * Record the duration of a phase.
+     *
+     * @param phase the phase
+     * @param id the command id (or Java execution id) for execution phases, the working directory prefix of the
+     *           execution environment for handler phases
+     * @param durationNanos duration in nanoseconds
+     */
+    void recordPhase(ExecutionPhase phase, String id, long durationNanos);
+
+    /**
+     * Record the number of executions waiting for a free core, each time it changes.
+     */
+    void recordQueueDepth(int depth);
+
+    /**
+     * Record the number of bytes copied or decompressed to stage the input files of a command, or sent to run it.
+     *
+     * @param id the command id
+     * @param bytes number of bytes
+     */
+    void recordStagedBytes(String id, long bytes);
+}
@@ -0,0 +1,330 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.powsybl.commons.json.JsonUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In memory execution metrics: each metric is a histogram, per metric name and id. Phase durations are recorded in
+ * microseconds under the {@link ExecutionPhase} name, queue depth samples under {@link #QUEUE_DEPTH} and staged bytes
+ * under {@link #STAGED_BYTES}.
+ * <p>
+ * Histogram buckets are powers of two, so percentiles are approximated by the upper bound of their bucket (at most
+ * twice the exact value) whereas count, sum, min and max are exact.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class ExecutionMetricsRegistry implements ExecutionMetrics {
+
+    public static final String QUEUE_DEPTH = "QUEUE_DEPTH";
+
+    public static final String STAGED_BYTES = "STAGED_BYTES";
+
+    private static final String DURATION_UNIT = "us";
+
+    private static final String QUEUE_DEPTH_UNIT = "executions";
+
+    private static final String STAGED_BYTES_UNIT = "bytes";
+
+    private static final char CSV_SEPARATOR = ';';
+
+    // bucket 0 is for 0, bucket i > 0 for values from 2^(i-1) to 2^i - 1
+    private static final int BUCKET_COUNT = Long.SIZE + 1;
+
+    private static int getBucket(long value) {
+        return Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+
+    private static long getBucketUpperBound(int bucket) {
+        return bucket == Long.SIZE ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    /**
+     * Snapshot of a metric.
+     */
+    public static final class Histogram {
+
+        private final String name;
+
+        private final String id;
+
+        private final String unit;
+
+        private final long count;
+
+        private final long sum;
+
+        private final long min;
+
+        private final long max;
+
+        private final long[] buckets;
+
+        private Histogram(String name, String id, String unit, long count, long sum, long min, long max, long[] buckets) {
+            this.name = name;
+            this.id = id;
+            this.unit = unit;
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+            this.buckets = buckets;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMin() {
+            return min;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count > 0 ? (double) sum / count : 0;
+        }
+
+        /**
+         * Approximated percentile, the upper bound of the bucket of the percentile (bounded by the max).
+         *
+         * @param percentile the percentile, between 0 and 100
+         */
+        public long getPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Invalid percentile " + percentile);
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long cumulatedCount = 0;
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                cumulatedCount += buckets[bucket];
+                if (cumulatedCount >= rank) {
+                    return Math.min(getBucketUpperBound(bucket), max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Count of values of non empty buckets, indexed by bucket upper bound.
+         */
+        public SortedMap<Long, Long> getBuckets() {
+            SortedMap<Long, Long> nonEmptyBuckets = new TreeMap<>();
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                if (buckets[bucket] > 0) {
+                    nonEmptyBuckets.put(getBucketUpperBound(bucket), buckets[bucket]);
+                }
+            }
+            return nonEmptyBuckets;
+        }
+    }
+
+    private static final class Recorder {
+
+        private final String unit;
+
+        private final Lock lock = new ReentrantLock();
+
+        private long count = 0;
+
+        private long sum = 0;
+
+        private long min = Long.MAX_VALUE;
+
+        private long max = Long.MIN_VALUE;
+
+        private final long[] buckets = new long[BUCKET_COUNT];
+
+        private Recorder(String unit) {
+            this.unit = unit;
+        }
+
+        private void record(long value) {
+            long positiveValue = Math.max(0, value);
+            lock.lock();
+            try {
+                count++;
+                sum += positiveValue;
+                min = Math.min(min, positiveValue);
+                max = Math.max(max, positiveValue);
+                buckets[getBucket(positiveValue)]++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Histogram snapshot(String name, String id) {
+            lock.lock();
+            try {
+                return new Histogram(name, id, unit, count, sum, count > 0 ? min : 0, count > 0 ? max : 0, buckets.clone());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // recorders indexed by metric name and then by id
+    private final ConcurrentMap<String, ConcurrentMap<String, Recorder>> recorders = new ConcurrentHashMap<>();
+
+    private void record(String name, String id, String unit, long value) {
+        recorders.computeIfAbsent(name, k -> new ConcurrentHashMap<>())
+                 .computeIfAbsent(id, k -> new Recorder(unit))
+                 .record(value);
+    }
+
+    @Override
+    public void recordPhase(ExecutionPhase phase, String id, long durationNanos) {
+        Objects.requireNonNull(phase);
+        Objects.requireNonNull(id);
+        record(phase.name(), id, DURATION_UNIT, TimeUnit.NANOSECONDS.toMicros(durationNanos));
+    }
+
+    @Override
+    public void recordQueueDepth(int depth) {
+        record(QUEUE_DEPTH, "", QUEUE_DEPTH_UNIT, depth);
+    }
+
+    @Override
+    public void recordStagedBytes(String id, long bytes) {
+        Objects.requireNonNull(id);
+        record(STAGED_BYTES, id, STAGED_BYTES_UNIT, bytes);
+    }
+
+    /**
+     * Get a snapshot of a metric.
+     *
+     * @return the snapshot or null if nothing has been recorded for this metric
+     */
+    public Histogram getHistogram(String name, String id) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(id);
+        Map<String, Recorder> recordersById = recorders.get(name);
+        if (recordersById != null) {
+            Recorder recorder = recordersById.get(id);
+            if (recorder != null) {
+                return recorder.snapshot(name, id);
+            }
+        }
+        return null;
+    }
+
+    public Histogram getHistogram(ExecutionPhase phase, String id) {
+        return getHistogram(Objects.requireNonNull(phase).name(), id);
+    }
+
+    /**
+     * Get a snapshot of all metrics, ordered by name and id.
+     */
+    public List<Histogram> getHistograms() {
+        List<Histogram> histograms = new ArrayList<>();
+        new TreeMap<>(recorders).forEach((name, recordersById) ->
+            new TreeMap<>(recordersById).forEach((id, recorder) -> histograms.add(recorder.snapshot(name, id))));
+        return histograms;
+    }
+
+    /**
+     * Forget all recorded values.
+     */
+    public void reset() {
+        recorders.clear();
+    }
+
+    public void writeCsv(Writer writer) {
+        Objects.requireNonNull(writer);
+        try {
+            writer.write(String.join(String.valueOf(CSV_SEPARATOR), "name", "id", "unit", "count", "sum", "min", "max", "mean", "p50", "p95", "p99"));
+            writer.write(System.lineSeparator());
+            for (Histogram histogram : getHistograms()) {
+                writer.append(histogram.getName()).append(CSV_SEPARATOR)
+                        .append(histogram.getId()).append(CSV_SEPARATOR)
+                        .append(histogram.getUnit()).append(CSV_SEPARATOR)
+                        .append(Long.toString(histogram.getCount())).append(CSV_SEPARATOR)
+                        .append(Long.toString(histogram.getSum())).append(CSV_SEPARATOR)
+                        .append(Long.toString(histogram.getMin())).append(CSV_SEPARATOR)
+                        .append(Long.toString(histogram.getMax())).append(CSV_SEPARATOR)
+                        .append(Double.toString(histogram.getMean())).append(CSV_SEPARATOR)
+                        .append(Long.toString(histogram.getPercentile(50))).append(CSV_SEPARATOR)
+                        .append(Long.toString(histogram.getPercentile(95))).append(CSV_SEPARATOR)
+                        .append(Long.toString(histogram.getPercentile(99)));
+                writer.write(System.lineSeparator());
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeJson(JsonGenerator generator, Histogram histogram) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("name", histogram.getName());
+        generator.writeStringField("id", histogram.getId());
+        generator.writeStringField("unit", histogram.getUnit());
+        generator.writeNumberField("count", histogram.getCount());
+        generator.writeNumberField("sum", histogram.getSum());
+        generator.writeNumberField("min", histogram.getMin());
+        generator.writeNumberField("max", histogram.getMax());
+        generator.writeNumberField("mean", histogram.getMean());
+        generator.writeNumberField("p50", histogram.getPercentile(50));
+        generator.writeNumberField("p95", histogram.getPercentile(95));
+        generator.writeNumberField("p99", histogram.getPercentile(99));
+        generator.writeArrayFieldStart("buckets");
+        for (Map.Entry<Long, Long> e : histogram.getBuckets().entrySet()) {
+            generator.writeStartObject();
+            generator.writeNumberField("upperBound", e.getKey());
+            generator.writeNumberField("count", e.getValue());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    public void writeJson(Writer writer) {
+        JsonUtil.writeJson(writer, generator -> {
+            try {
+                generator.writeStartArray();
+                for (Histogram histogram : getHistograms()) {
+                    writeJson(generator, histogram);
+                }
+                generator.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation;
+
+/**
+ * Timed phases of an execution, from the {@link ExecutionHandler} point of view down to each execution index of a
+ * command.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public enum ExecutionPhase {
+
+    /**
+     * {@link ExecutionHandler#before} call.
+     */
+    HANDLER_BEFORE,
+
+    /**
+     * Wait of an execution for a free core, from its submission to its start.
+     */
+    QUEUE_WAIT,
+
+    /**
+     * Staging of the input files of an execution (and message encoding for a distributed execution).
+     */
+    PRE_PROCESSING,
+
+    /**
+     * Run of the command process (or of the Java task).
+     */
+    PROCESS,
+
+    /**
+     * Post processing of the output files of an execution.
+     */
+    POST_PROCESSING,
+
+    /**
+     * {@link ExecutionHandler#after} call.
+     */
+    HANDLER_AFTER
+}
@@ -7,6 +7,7 @@
 package com.powsybl.computation;
 
 import java.util.List;
+import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,14 +21,25 @@ public class ExecutionReport {
 
     private final List<ExecutionError> errors;
 
+    private final ExecutionIoStatistics ioStatistics;
+
     public ExecutionReport(List<ExecutionError> errors) {
+        this(errors, ExecutionIoStatistics.EMPTY);
+    }
+
+    public ExecutionReport(List<ExecutionError> errors, ExecutionIoStatistics ioStatistics) {
         this.errors = errors;
+        this.ioStatistics = Objects.requireNonNull(ioStatistics);
     }
 
     public List<ExecutionError> getErrors() {
         return errors;
     }
 
+    public ExecutionIoStatistics getIoStatistics() {
+        return ioStatistics;
+    }
+
     public void log() {
         if (!errors.isEmpty()) {
             LOGGER.error("{} commands have failed: {}", errors.size(), errors);
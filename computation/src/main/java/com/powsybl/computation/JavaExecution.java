@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Execution of a Java task in the JVM, the counterpart of {@link CommandExecution} without working directory nor
+ * external process. Each execution index runs the task on its own {@link Partition}.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class JavaExecution<R> {
+
+    private final String id;
+
+    private final JavaTask<R> task;
+
+    private final int executionCount;
+
+    private final int priority;
+
+    private final Map<String, String> tags;
+
+    public JavaExecution(String id, JavaTask<R> task, int executionCount) {
+        this(id, task, executionCount, Integer.MAX_VALUE);
+    }
+
+    public JavaExecution(String id, JavaTask<R> task, int executionCount, int priority) {
+        this(id, task, executionCount, priority, null);
+    }
+
+    public JavaExecution(String id, JavaTask<R> task, int executionCount, int priority, Map<String, String> tags) {
+        this.id = Objects.requireNonNull(id, "id is null");
+        this.task = Objects.requireNonNull(task, "task is null");
+        if (executionCount < 1) {
+            throw new IllegalArgumentException("execution count must be > 0");
+        }
+        this.executionCount = executionCount;
+        this.priority = priority;
+        this.tags = tags;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public JavaTask<R> getTask() {
+        return task;
+    }
+
+    public int getExecutionCount() {
+        return executionCount;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public Partition getPartition(int executionIndex) {
+        return new Partition(executionIndex + 1, executionCount);
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the executions of a {@link JavaExecution}, to be used by {@link ComputationManager} implementations: each
+ * execution of {@link #getExecutions()} has to be run once, on any thread. The listener is notified as for commands
+ * and the future is completed with the results ordered by execution index, or exceptionally by the first failure
+ * (exception or error), in which case executions not started yet are skipped.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class JavaExecutionJob<R> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JavaExecutionJob.class);
+
+    private final JavaExecution<R> execution;
+
+    private final ExecutionListener listener;
+
+    private final ExecutionMetrics metrics;
+
+    private final List<R> results;
+
+    private final AtomicInteger remainingExecutions;
+
+    private final CompletableFuture<List<R>> future = new CompletableFuture<>();
+
+    public JavaExecutionJob(JavaExecution<R> execution, ExecutionListener listener) {
+        this(execution, listener, ExecutionMetrics.NONE);
+    }
+
+    /**
+     * @param metrics receiver of the {@link ExecutionPhase#PROCESS} duration of each execution, recorded before the
+     *                future is completed
+     */
+    public JavaExecutionJob(JavaExecution<R> execution, ExecutionListener listener, ExecutionMetrics metrics) {
+        this.execution = Objects.requireNonNull(execution);
+        this.listener = Objects.requireNonNull(listener);
+        this.metrics = Objects.requireNonNull(metrics);
+        results = Collections.synchronizedList(new ArrayList<>(Collections.nCopies(execution.getExecutionCount(), null)));
+        remainingExecutions = new AtomicInteger(execution.getExecutionCount());
+    }
+
+    public JavaExecution<R> getExecution() {
+        return execution;
+    }
+
+    public List<Runnable> getExecutions() {
+        List<Runnable> executions = new ArrayList<>(execution.getExecutionCount());
+        for (int executionIndex = 0; executionIndex < execution.getExecutionCount(); executionIndex++) {
+            int index = executionIndex;
+            executions.add(() -> run(index));
+        }
+        return executions;
+    }
+
+    public CompletableFuture<List<R>> getFuture() {
+        return future;
+    }
+
+    private void run(int executionIndex) {
+        // failed or cancelled
+        if (future.isDone()) {
+            return;
+        }
+        try {
+            listener.onExecutionStart(executionIndex, executionIndex + 1);
+            long startTime = System.nanoTime();
+            try {
+                results.set(executionIndex, execution.getTask().call(execution.getPartition(executionIndex)));
+            } finally {
+                metrics.recordPhase(ExecutionPhase.PROCESS, execution.getId(), System.nanoTime() - startTime);
+            }
+            listener.onExecutionCompletion(executionIndex);
+        } catch (Throwable t) {
+            // errors too, otherwise the future would never complete
+            LOGGER.error("Execution {} of {} has failed", executionIndex, execution.getId(), t);
+            future.completeExceptionally(t);
+            return;
+        }
+        if (remainingExecutions.decrementAndGet() == 0) {
+            try {
+                listener.onEnd(new ExecutionReport(Collections.emptyList()));
+            } catch (Exception e) {
+                LOGGER.error(e.toString(), e);
+            }
+            future.complete(new ArrayList<>(results));
+        }
+    }
+}
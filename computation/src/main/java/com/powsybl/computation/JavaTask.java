@@ -0,0 +1,22 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation;
+
+/**
+ * A task executed in the JVM, once for each partition of a {@link JavaExecution}.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+@FunctionalInterface
+public interface JavaTask<R> {
+
+    /**
+     * @param partition the partition of the execution, from 1/n to n/n
+     * @return the result of the partition
+     */
+    R call(Partition partition) throws Exception;
+}
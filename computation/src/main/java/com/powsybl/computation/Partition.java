@@ -47,6 +47,14 @@ public class Partition {
         this.taskCount = taskCount;
     }
 
+    public int getTaskIndex() {
+        return taskIndex;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
     public int startIndex(int size) {
         checkSize(size);
         return (taskIndex - 1) * size / taskCount;
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+/**
+ * Dynamic work distribution of a list of items, an alternative to a static {@link Partition} of the items when their
+ * processing time is uneven (contingencies for instance).
+ * <p>
+ * Workers are executed as a {@link JavaExecution}, each one pulls small batches of consecutive items from a shared
+ * queue until it is exhausted, so that a slow batch only delays its own worker while the other ones process the
+ * remaining items. Batch results are merged as soon as they are available, in completion order.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class WorkQueueExecution<T, R> {
+
+    @FunctionalInterface
+    public interface BatchTask<T, R> {
+
+        R call(List<T> batch) throws Exception;
+    }
+
+    private final String id;
+
+    private final List<T> items;
+
+    private final int workerCount;
+
+    private final int batchSize;
+
+    private final BatchTask<T, R> task;
+
+    public WorkQueueExecution(String id, List<T> items, int workerCount, int batchSize, BatchTask<T, R> task) {
+        this.id = Objects.requireNonNull(id);
+        this.items = Objects.requireNonNull(items);
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("worker count must be > 0");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batch size must be > 0");
+        }
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.task = Objects.requireNonNull(task);
+    }
+
+    /**
+     * Merged result of the batches, only updated under the lock.
+     */
+    private static final class Accumulation<A> {
+
+        private final Lock lock = new ReentrantLock();
+
+        private A value;
+
+        private Accumulation(A value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Process the items on the computation manager.
+     *
+     * @param identity initial merged result
+     * @param accumulator merges a batch result into the merged result, calls are serialized
+     * @return a future of the merged result, completed exceptionally by the first failure after which no more batch
+     * is pulled
+     */
+    public <A> CompletableFuture<A> execute(ComputationManager computationManager, A identity, BiFunction<A, ? super R, A> accumulator) {
+        Objects.requireNonNull(computationManager);
+        Objects.requireNonNull(accumulator);
+
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean(false);
+        Accumulation<A> accumulation = new Accumulation<>(identity);
+
+        JavaTask<Integer> worker = partition -> {
+            int processedItems = 0;
+            try {
+                while (!failed.get()) {
+                    int start = nextIndex.getAndAdd(batchSize);
+                    if (start >= items.size()) {
+                        break;
+                    }
+                    List<T> batch = items.subList(start, Math.min(start + batchSize, items.size()));
+                    R result = task.call(batch);
+                    accumulation.lock.lock();
+                    try {
+                        accumulation.value = accumulator.apply(accumulation.value, result);
+                    } finally {
+                        accumulation.lock.unlock();
+                    }
+                    processedItems += batch.size();
+                }
+            } catch (Exception e) {
+                failed.set(true);
+                throw e;
+            }
+            return processedItems;
+        };
+
+        // no need for more workers than batches
+        int batchCount = (items.size() + batchSize - 1) / batchSize;
+        int executionCount = Math.max(1, Math.min(workerCount, batchCount));
+        return computationManager.executeJava(new JavaExecution<>(id, worker, executionCount), new DefaultExecutionListener())
+                .thenApply(processedItems -> {
+                    accumulation.lock.lock();
+                    try {
+                        return accumulation.value;
+                    } finally {
+                        accumulation.lock.unlock();
+                    }
+                });
+    }
+}
@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import com.powsybl.commons.PowsyblException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class CachingComputationManagerTest {
+
+    /**
+     * Simulates the execution of commands: each output file contains the program, its arguments and the content of
+     * the input files.
+     */
+    private static class SimulatedComputationManager implements ComputationManager {
+
+        private final Path localDir;
+
+        private final Path commonDir;
+
+        private int executionCount = 0;
+
+        private int workingDirCount = 0;
+
+        SimulatedComputationManager(Path localDir) throws IOException {
+            this.localDir = localDir;
+            commonDir = Files.createDirectories(localDir.resolve("common"));
+        }
+
+        @Override
+        public String getVersion() {
+            return "simulated";
+        }
+
+        @Override
+        public OutputStream newCommonFile(String fileName) throws IOException {
+            return Files.newOutputStream(commonDir.resolve(fileName));
+        }
+
+        private void execute(Path workingDir, CommandExecution commandExecution, int executionIndex, List<ExecutionError> errors) throws IOException {
+            SimpleCommand command = (SimpleCommand) commandExecution.getCommand();
+            executionCount++;
+            if (command.getProgram().equals("fail")) {
+                errors.add(new ExecutionError(command, executionIndex, 1));
+                return;
+            }
+            StringBuilder content = new StringBuilder(command.getProgram() + " " + command.getArgs(executionIndex));
+            for (InputFile inputFile : command.getInputFiles()) {
+                String fileName = inputFile.getName(executionIndex);
+                Path file = workingDir.resolve(fileName);
+                if (!Files.exists(file)) {
+                    file = commonDir.resolve(fileName);
+                }
+                content.append(" ").append(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            }
+            for (OutputFile outputFile : command.getOutputFiles()) {
+                Files.write(workingDir.resolve(outputFile.getName(executionIndex)), content.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        @Override
+        public <R> CompletableFuture<R> execute(ExecutionEnvironment environment, ExecutionHandler<R> handler) {
+            try {
+                Path workingDir = Files.createDirectories(localDir.resolve("working" + workingDirCount++));
+                List<ExecutionError> errors = new ArrayList<>();
+                for (CommandExecution commandExecution : handler.before(workingDir)) {
+                    for (int executionIndex = 0; executionIndex < commandExecution.getExecutionCount(); executionIndex++) {
+                        execute(workingDir, commandExecution, executionIndex, errors);
+                    }
+                }
+                return CompletableFuture.completedFuture(handler.after(workingDir, new ExecutionReport(errors)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public ComputationResourcesStatus getResourcesStatus() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Executor getExecutor() {
+            return ForkJoinPool.commonPool();
+        }
+
+        @Override
+        public Path getLocalDir() {
+            return localDir;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private FileSystem fileSystem;
+
+    private Path cacheDir;
+
+    private SimulatedComputationManager simulatedComputationManager;
+
+    @Before
+    public void setUp() throws IOException {
+        fileSystem = Jimfs.newFileSystem(Configuration.unix());
+        cacheDir = fileSystem.getPath("/cache");
+        simulatedComputationManager = new SimulatedComputationManager(Files.createDirectories(fileSystem.getPath("/tmp")));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        fileSystem.close();
+    }
+
+    private static Command createCommand(String program) {
+        return new SimpleCommandBuilder()
+                .id("cmd")
+                .program(program)
+                .args(executionIndex -> Collections.singletonList("arg" + executionIndex))
+                .inputFiles(new InputFile("in.txt"), new InputFile("common.txt"))
+                .outputFiles(new OutputFile(executionIndex -> "out" + executionIndex + ".txt", null))
+                .build();
+    }
+
+    private static String execute(ComputationManager computationManager, Map<String, String> variables, String program, String input) {
+        return computationManager.execute(new ExecutionEnvironment(variables, "test_", false), new AbstractExecutionHandler<String>() {
+            @Override
+            public List<CommandExecution> before(Path workingDir) throws IOException {
+                Files.write(workingDir.resolve("in.txt"), input.getBytes(StandardCharsets.UTF_8));
+                return Collections.singletonList(new CommandExecution(createCommand(program), 2));
+            }
+
+            @Override
+            public String after(Path workingDir, ExecutionReport report) throws IOException {
+                super.after(workingDir, report);
+                return new String(Files.readAllBytes(workingDir.resolve("out0.txt")), StandardCharsets.UTF_8)
+                        + "|" + new String(Files.readAllBytes(workingDir.resolve("out1.txt")), StandardCharsets.UTF_8);
+            }
+        }).join();
+    }
+
+    private static void writeCommonFile(ComputationManager computationManager, String content) throws IOException {
+        try (OutputStream os = computationManager.newCommonFile("common.txt")) {
+            os.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void test() throws IOException {
+        try (CachingComputationManager computationManager = new CachingComputationManager(simulatedComputationManager, cacheDir, 100000)) {
+            writeCommonFile(computationManager, "c1");
+
+            assertEquals("prog [arg0] a c1|prog [arg1] a c1", execute(computationManager, Collections.emptyMap(), "prog", "a"));
+            assertEquals(2, simulatedComputationManager.executionCount);
+            assertEquals(0, computationManager.getHitCount());
+            assertEquals(1, computationManager.getMissCount());
+            assertEquals(1, computationManager.getEntryCount());
+
+            // same execution, results are read from the cache
+            assertEquals("prog [arg0] a c1|prog [arg1] a c1", execute(computationManager, Collections.emptyMap(), "prog", "a"));
+            assertEquals(2, simulatedComputationManager.executionCount);
+            assertEquals(1, computationManager.getHitCount());
+
+            // different input file, program, variables or common file
+            assertEquals("prog [arg0] b c1|prog [arg1] b c1", execute(computationManager, Collections.emptyMap(), "prog", "b"));
+            assertEquals("prog2 [arg0] a c1|prog2 [arg1] a c1", execute(computationManager, Collections.emptyMap(), "prog2", "a"));
+            assertEquals("prog [arg0] a c1|prog [arg1] a c1", execute(computationManager, ImmutableMap.of("VAR", "1"), "prog", "a"));
+            writeCommonFile(computationManager, "c2");
+            assertEquals("prog [arg0] a c2|prog [arg1] a c2", execute(computationManager, Collections.emptyMap(), "prog", "a"));
+            assertEquals(10, simulatedComputationManager.executionCount);
+            assertEquals(1, computationManager.getHitCount());
+            assertEquals(5, computationManager.getMissCount());
+            assertEquals(5, computationManager.getEntryCount());
+        }
+
+        // the cache is reloaded from disk
+        try (CachingComputationManager computationManager = new CachingComputationManager(simulatedComputationManager, cacheDir, 100000)) {
+            assertEquals(5, computationManager.getEntryCount());
+            writeCommonFile(computationManager, "c1");
+            assertEquals("prog [arg0] b c1|prog [arg1] b c1", execute(computationManager, Collections.emptyMap(), "prog", "b"));
+            assertEquals(10, simulatedComputationManager.executionCount);
+            assertEquals(1, computationManager.getHitCount());
+        }
+    }
+
+    @Test
+    public void testFailure() throws IOException {
+        try (CachingComputationManager computationManager = new CachingComputationManager(simulatedComputationManager, cacheDir, 100000)) {
+            writeCommonFile(computationManager, "c1");
+            for (int i = 0; i < 2; i++) {
+                try {
+                    execute(computationManager, Collections.emptyMap(), "fail", "a");
+                    fail();
+                } catch (PowsyblException e) {
+                    // expected
+                }
+            }
+            // failed executions are not cached
+            assertEquals(4, simulatedComputationManager.executionCount);
+            assertEquals(0, computationManager.getHitCount());
+            assertEquals(2, computationManager.getMissCount());
+            assertEquals(0, computationManager.getEntryCount());
+        }
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        long entrySize;
+        try (CachingComputationManager computationManager = new CachingComputationManager(simulatedComputationManager, fileSystem.getPath("/cache2"), 10000)) {
+            writeCommonFile(computationManager, "c1");
+            execute(computationManager, Collections.emptyMap(), "prog", "a");
+            entrySize = computationManager.getSize();
+            assertTrue(entrySize > 0);
+        }
+
+        // room for 2 entries
+        long maxSize = 2 * entrySize + entrySize / 2;
+        try (CachingComputationManager computationManager = new CachingComputationManager(simulatedComputationManager, cacheDir, maxSize)) {
+            writeCommonFile(computationManager, "c1");
+            execute(computationManager, Collections.emptyMap(), "prog", "a");
+            execute(computationManager, Collections.emptyMap(), "prog", "b");
+            // a is used, so b is the least recently used entry
+            execute(computationManager, Collections.emptyMap(), "prog", "a");
+            execute(computationManager, Collections.emptyMap(), "prog", "c");
+            assertEquals(1, computationManager.getEvictionCount());
+            assertEquals(2, computationManager.getEntryCount());
+            assertEquals(2 * entrySize, computationManager.getSize());
+            assertEquals(1, computationManager.getHitCount());
+
+            execute(computationManager, Collections.emptyMap(), "prog", "a");
+            assertEquals(2, computationManager.getHitCount());
+            execute(computationManager, Collections.emptyMap(), "prog", "b");
+            assertEquals(2, computationManager.getHitCount());
+        }
+
+        // results bigger than the cache are not stored
+        try (CachingComputationManager computationManager = new CachingComputationManager(simulatedComputationManager, fileSystem.getPath("/cache3"), 10)) {
+            writeCommonFile(computationManager, "c1");
+            execute(computationManager, Collections.emptyMap(), "prog", "a");
+            assertEquals(0, computationManager.getEntryCount());
+        }
+    }
+
+    @Test
+    public void testMissingInputFile() {
+        try (CachingComputationManager computationManager = new CachingComputationManager(simulatedComputationManager, cacheDir, 100000)) {
+            try {
+                execute(computationManager, Collections.emptyMap(), "prog", "a");
+                fail();
+            } catch (UncheckedIOException e) {
+                // common file does not exist
+            }
+            assertEquals(1, computationManager.getMissCount());
+            assertEquals(0, computationManager.getEntryCount());
+        }
+    }
+}
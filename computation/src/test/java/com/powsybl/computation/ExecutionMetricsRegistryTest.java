@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class ExecutionMetricsRegistryTest {
+
+    @Test
+    public void testHistogram() {
+        ExecutionMetricsRegistry registry = new ExecutionMetricsRegistry();
+        assertNull(registry.getHistogram(ExecutionPhase.PROCESS, "cmd"));
+        for (int i = 1; i <= 100; i++) {
+            registry.recordPhase(ExecutionPhase.PROCESS, "cmd", i * 1000L);
+        }
+        ExecutionMetricsRegistry.Histogram histogram = registry.getHistogram(ExecutionPhase.PROCESS, "cmd");
+        assertNotNull(histogram);
+        assertEquals("us", histogram.getUnit());
+        assertEquals(100, histogram.getCount());
+        assertEquals(5050, histogram.getSum());
+        assertEquals(1, histogram.getMin());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50.5, histogram.getMean(), 0);
+        // 50th value is in bucket [32, 63], 95th and 99th ones in bucket [64, 127] bounded by the max
+        assertEquals(63, histogram.getPercentile(50));
+        assertEquals(100, histogram.getPercentile(95));
+        assertEquals(100, histogram.getPercentile(99));
+        assertEquals(1, histogram.getPercentile(0));
+        assertEquals(Arrays.asList(1L, 3L, 7L, 15L, 31L, 63L, 127L), histogram.getBuckets().keySet().stream().collect(Collectors.toList()));
+        assertEquals(Long.valueOf(37), histogram.getBuckets().get(127L));
+
+        // snapshot is not updated
+        registry.recordPhase(ExecutionPhase.PROCESS, "cmd", 0);
+        assertEquals(100, histogram.getCount());
+        ExecutionMetricsRegistry.Histogram histogram2 = registry.getHistogram(ExecutionPhase.PROCESS, "cmd");
+        assertEquals(101, histogram2.getCount());
+        assertEquals(0, histogram2.getMin());
+        assertEquals(Long.valueOf(1), histogram2.getBuckets().get(0L));
+
+        registry.reset();
+        assertTrue(registry.getHistograms().isEmpty());
+    }
+
+    @Test
+    public void testExport() {
+        ExecutionMetricsRegistry registry = new ExecutionMetricsRegistry();
+        registry.recordPhase(ExecutionPhase.QUEUE_WAIT, "cmd2", 3000);
+        registry.recordPhase(ExecutionPhase.QUEUE_WAIT, "cmd1", 5000);
+        registry.recordQueueDepth(2);
+        registry.recordStagedBytes("cmd1", 1024);
+
+        List<String> names = registry.getHistograms().stream().map(h -> h.getName() + "/" + h.getId()).collect(Collectors.toList());
+        assertEquals(Arrays.asList("QUEUE_DEPTH/", "QUEUE_WAIT/cmd1", "QUEUE_WAIT/cmd2", "STAGED_BYTES/cmd1"), names);
+
+        StringWriter csv = new StringWriter();
+        registry.writeCsv(csv);
+        assertEquals(String.join(System.lineSeparator(),
+                "name;id;unit;count;sum;min;max;mean;p50;p95;p99",
+                "QUEUE_DEPTH;;executions;1;2;2;2;2.0;2;2;2",
+                "QUEUE_WAIT;cmd1;us;1;5;5;5;5.0;5;5;5",
+                "QUEUE_WAIT;cmd2;us;1;3;3;3;3.0;3;3;3",
+                "STAGED_BYTES;cmd1;bytes;1;1024;1024;1024;1024.0;1024;1024;1024") + System.lineSeparator(),
+                csv.toString());
+
+        StringWriter json = new StringWriter();
+        registry.writeJson(json);
+        String jsonStr = json.toString();
+        assertTrue(jsonStr.startsWith("["));
+        assertTrue(jsonStr.contains("\"name\" : \"STAGED_BYTES\""));
+        assertTrue(jsonStr.contains("\"upperBound\" : 2047"));
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class JavaExecutionJobTest {
+
+    @Test
+    public void test() {
+        List<String> events = new ArrayList<>();
+        JavaExecutionJob<String> job = new JavaExecutionJob<>(new JavaExecution<>("test", Partition::toString, 3), new ExecutionListener() {
+            @Override
+            public void onExecutionStart(int fromExecutionIndex, int toExecutionIndex) {
+                events.add("start " + fromExecutionIndex);
+            }
+
+            @Override
+            public void onExecutionCompletion(int executionIndex) {
+                events.add("completion " + executionIndex);
+            }
+
+            @Override
+            public void onEnd(ExecutionReport report) {
+                assertTrue(report.getErrors().isEmpty());
+                events.add("end");
+            }
+        });
+        List<Runnable> executions = job.getExecutions();
+        assertEquals(3, executions.size());
+        // executions can be run in any order
+        executions.get(2).run();
+        executions.get(0).run();
+        assertFalse(job.getFuture().isDone());
+        executions.get(1).run();
+        assertEquals(Arrays.asList("1/3", "2/3", "3/3"), job.getFuture().join());
+        assertEquals(Arrays.asList("start 2", "completion 2", "start 0", "completion 0", "start 1", "completion 1", "end"), events);
+    }
+
+    @Test
+    public void testFailure() {
+        List<Integer> calls = Collections.synchronizedList(new ArrayList<>());
+        JavaExecutionJob<Integer> job = new JavaExecutionJob<>(new JavaExecution<>("test", partition -> {
+            calls.add(partition.getTaskIndex());
+            if (partition.getTaskIndex() == 1) {
+                throw new IllegalStateException("failure");
+            }
+            return partition.getTaskIndex();
+        }, 2), new DefaultExecutionListener());
+        job.getExecutions().forEach(Runnable::run);
+        assertTrue(job.getFuture().isCompletedExceptionally());
+        // second execution is skipped
+        assertEquals(Collections.singletonList(1), calls);
+    }
+
+    @Test
+    public void testMetrics() {
+        ExecutionMetricsRegistry metrics = new ExecutionMetricsRegistry();
+        JavaExecutionJob<String> job = new JavaExecutionJob<>(new JavaExecution<>("test", Partition::toString, 3), new DefaultExecutionListener(), metrics);
+        // process duration of each execution is recorded when the future completes
+        CompletableFuture<Long> processCount = job.getFuture().thenApply(results -> metrics.getHistogram(ExecutionPhase.PROCESS, "test").getCount());
+        job.getExecutions().forEach(Runnable::run);
+        assertEquals(3L, (long) processCount.join());
+    }
+
+    @Test
+    public void testError() {
+        JavaExecutionJob<Integer> job = new JavaExecutionJob<>(new JavaExecution<>("test", partition -> {
+            throw new StackOverflowError();
+        }, 1), new DefaultExecutionListener());
+        job.getExecutions().forEach(Runnable::run);
+        try {
+            job.getFuture().join();
+            fail();
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof StackOverflowError);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class WorkQueueExecutionTest {
+
+    private ExecutorService executor;
+
+    private ComputationManager computationManager;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        // Java executions are run by the default implementation, on the executor
+        computationManager = new ComputationManager() {
+            @Override
+            public String getVersion() {
+                return "test";
+            }
+
+            @Override
+            public OutputStream newCommonFile(String fileName) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public <R> CompletableFuture<R> execute(ExecutionEnvironment environment, ExecutionHandler<R> handler) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public ComputationResourcesStatus getResourcesStatus() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Executor getExecutor() {
+                return executor;
+            }
+
+            @Override
+            public Path getLocalDir() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    private static List<Integer> createItems(int count) {
+        return IntStream.range(0, count).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    public void test() {
+        List<Integer> items = createItems(1000);
+        Set<Integer> batchSizes = Collections.synchronizedSet(new HashSet<>());
+        WorkQueueExecution<Integer, Integer> execution = new WorkQueueExecution<>("sum", items, 4, 7, batch -> {
+            batchSizes.add(batch.size());
+            return batch.stream().mapToInt(Integer::intValue).sum();
+        });
+        assertEquals(Integer.valueOf(999 * 1000 / 2), execution.execute(computationManager, 0, Integer::sum).join());
+        // 142 batches of 7 items and a last one of 6 items
+        assertEquals(new HashSet<>(Arrays.asList(7, 6)), batchSizes);
+    }
+
+    @Test
+    public void testUnevenItems() {
+        // first item is very slow, the other workers process all the other items meanwhile
+        List<Integer> items = createItems(40);
+        AtomicInteger itemsProcessedDuringSlowItem = new AtomicInteger();
+        AtomicInteger processedItems = new AtomicInteger();
+        WorkQueueExecution<Integer, List<Integer>> execution = new WorkQueueExecution<>("uneven", items, 4, 1, batch -> {
+            if (batch.get(0) == 0) {
+                Thread.sleep(500);
+                itemsProcessedDuringSlowItem.set(processedItems.get());
+            } else {
+                Thread.sleep(5);
+            }
+            processedItems.incrementAndGet();
+            return batch;
+        });
+        List<Integer> result = execution.execute(computationManager, new ArrayList<Integer>(), (merged, batch) -> {
+            merged.addAll(batch);
+            return merged;
+        }).join();
+        assertEquals(items, result.stream().sorted().collect(Collectors.toList()));
+        assertEquals(39, itemsProcessedDuringSlowItem.get());
+        // slow item is merged last
+        assertEquals(Integer.valueOf(0), result.get(39));
+    }
+
+    @Test
+    public void testEmpty() {
+        WorkQueueExecution<Integer, Integer> execution = new WorkQueueExecution<>("empty", Collections.emptyList(), 4, 10, batch -> 1);
+        assertEquals(Integer.valueOf(0), execution.execute(computationManager, 0, Integer::sum).join());
+    }
+
+    @Test
+    public void testFailure() {
+        AtomicInteger batchCount = new AtomicInteger();
+        WorkQueueExecution<Integer, Integer> execution = new WorkQueueExecution<>("fail", createItems(100), 1, 10, batch -> {
+            batchCount.incrementAndGet();
+            if (batch.get(0) == 20) {
+                throw new IllegalStateException("failure");
+            }
+            return batch.size();
+        });
+        try {
+            execution.execute(computationManager, 0, Integer::sum).join();
+            fail();
+        } catch (CompletionException e) {
+            assertEquals("failure", e.getCause().getMessage());
+        }
+        // no more batch is pulled after the failure
+        assertEquals(3, batchCount.get());
+    }
+}
@@ -892,13 +892,14 @@ class NodeBreakerVoltageLevel extends AbstractVoltageLevel {
     public boolean connect(TerminalExt terminal) {
         assert terminal instanceof NodeTerminal;
         int node = ((NodeTerminal) terminal).getNode();
-        // find all paths starting from the current terminal to a busbar section that does not contain an open disconnector
-        // paths are already sorted
-        List<TIntArrayList> paths = graph.findAllPaths(node, NodeBreakerVoltageLevel::isBusbarSection, NodeBreakerVoltageLevel::isOpenedDisconnector);
+        // find the shortest path starting from the current terminal to a busbar section that does not contain an open
+        // disconnector, paths are found by increasing size
+        Optional<TIntArrayList> path = graph.findPaths(node, NodeBreakerVoltageLevel::isBusbarSection, NodeBreakerVoltageLevel::isOpenedDisconnector, Integer.MAX_VALUE)
+                .findFirst();
         boolean connected = false;
-        if (!paths.isEmpty()) {
+        if (path.isPresent()) {
             // the shorted path is the best, close all opened breakers of the path
-            TIntArrayList shortestPath = paths.get(0);
+            TIntArrayList shortestPath = path.get();
             for (int i = 0; i < shortestPath.size(); i++) {
                 int e = shortestPath.get(i);
                 SwitchImpl sw = graph.getEdgeObject(e);
@@ -915,32 +916,39 @@ class NodeBreakerVoltageLevel extends AbstractVoltageLevel {
     public boolean disconnect(TerminalExt terminal) {
         assert terminal instanceof NodeTerminal;
         int node = ((NodeTerminal) terminal).getNode();
-        // find all paths starting from the current terminal to a busbar section that does not contain an open disconnector
-        // (because otherwise there is nothing we can do to connected the terminal using only breakers)
-        List<TIntArrayList> paths = graph.findAllPaths(node, NodeBreakerVoltageLevel::isBusbarSection, NodeBreakerVoltageLevel::isOpenedDisconnector);
-        if (paths.isEmpty()) {
-            return false;
-        }
+        // walk the paths starting from the current terminal to a busbar section that do not contain an open
+        // disconnector, shortest first, and open the first breaker of each of them (if it is not already open). A path
+        // without breaker means there is nothing we can do to disconnect the terminal using only breakers, so the
+        // search stops there. Paths are found one at a time, the memory used does not depend on their number
+        boolean[] disconnected = {true};
+        int pathCount = graph.findPaths(node, NodeBreakerVoltageLevel::isBusbarSection, NodeBreakerVoltageLevel::isOpenedDisconnector, Integer.MAX_VALUE,
+            Integer.MAX_VALUE, path -> {
+                if (openFirstBreaker(path)) {
+                    return TraverseResult.CONTINUE;
+                }
+                disconnected[0] = false;
+                return TraverseResult.TERMINATE;
+            });
+        return pathCount > 0 && disconnected[0];
+    }
 
-        for (TIntArrayList path : paths) {
-            boolean pathOpen = false;
-            for (int i = 0; i < path.size(); i++) {
-                int e = path.get(i);
-                SwitchImpl sw = graph.getEdgeObject(e);
-                if (sw.getKind() == SwitchKind.BREAKER) {
-                    if (!sw.isOpen()) {
-                        sw.setOpen(true);
-                    }
-                    // just one open breaker is enough to disconnect the terminal, so we can stop
-                    pathOpen = true;
-                    break;
+    /**
+     * Open the first breaker of a path, if it is not already open.
+     *
+     * @return false if there is no breaker on the path
+     */
+    private boolean openFirstBreaker(TIntArrayList path) {
+        for (int i = 0; i < path.size(); i++) {
+            SwitchImpl sw = graph.getEdgeObject(path.get(i));
+            if (sw.getKind() == SwitchKind.BREAKER) {
+                if (!sw.isOpen()) {
+                    sw.setOpen(true);
                 }
-            }
-            if (!pathOpen) {
-                return false;
+                // just one open breaker is enough to disconnect the terminal from this path
+                return true;
             }
         }
-        return true;
+        return false;
     }
 
     boolean isConnected(TerminalExt terminal) {
@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.network.impl;
+
+import com.powsybl.iidm.network.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Connection and disconnection of a load fed by two bays meshed by a disconnector:
+ * <pre>
+ *   BBS1 (0) ---------- BRC ---------- BBS2 (1)
+ *      |                                  |
+ *     BR1                                BR2
+ *      |                                  |
+ *     (3) ------------- D3 ------------- (4)
+ *      |                                  |
+ *      D1                                 D2
+ *      |                                  |
+ *      ------------------ L (2) -----------
+ * </pre>
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class NodeBreakerMeshedConnectionTest {
+
+    private Network network;
+
+    private VoltageLevel vl;
+
+    private Load load;
+
+    private void addSwitch(String id, SwitchKind kind, int node1, int node2) {
+        vl.getNodeBreakerView().newSwitch()
+                .setId(id)
+                .setKind(kind)
+                .setNode1(node1)
+                .setNode2(node2)
+                .setOpen(false)
+                .add();
+    }
+
+    @Before
+    public void setUp() {
+        network = NetworkFactory.create("test", "test");
+        Substation s = network.newSubstation()
+                .setId("S")
+                .setCountry(Country.FR)
+                .add();
+        vl = s.newVoltageLevel()
+                .setId("VL")
+                .setNominalV(400.0)
+                .setTopologyKind(TopologyKind.NODE_BREAKER)
+                .add();
+        vl.getNodeBreakerView().setNodeCount(10);
+        vl.getNodeBreakerView().newBusbarSection()
+                .setId("BBS1")
+                .setNode(0)
+                .add();
+        vl.getNodeBreakerView().newBusbarSection()
+                .setId("BBS2")
+                .setNode(1)
+                .add();
+        load = vl.newLoad()
+                .setId("L")
+                .setNode(2)
+                .setP0(1)
+                .setQ0(1)
+                .add();
+        addSwitch("D1", SwitchKind.DISCONNECTOR, 2, 3);
+        addSwitch("BR1", SwitchKind.BREAKER, 3, 0);
+        addSwitch("D2", SwitchKind.DISCONNECTOR, 2, 4);
+        addSwitch("BR2", SwitchKind.BREAKER, 4, 1);
+        addSwitch("D3", SwitchKind.DISCONNECTOR, 3, 4);
+        addSwitch("BRC", SwitchKind.BREAKER, 0, 1);
+    }
+
+    private boolean isOpen(String switchId) {
+        return network.getSwitch(switchId).isOpen();
+    }
+
+    @Test
+    public void testDisconnect() {
+        assertTrue(load.getTerminal().isConnected());
+        assertTrue(load.getTerminal().disconnect());
+        assertFalse(load.getTerminal().isConnected());
+        // first breaker of each path is opened, the coupling breaker is not on any path
+        assertTrue(isOpen("BR1"));
+        assertTrue(isOpen("BR2"));
+        assertFalse(isOpen("BRC"));
+        assertFalse(isOpen("D1") || isOpen("D2") || isOpen("D3"));
+    }
+
+    @Test
+    public void testDisconnectOneBreakerAlreadyOpen() {
+        network.getSwitch("BR1").setOpen(true);
+        assertTrue(load.getTerminal().isConnected());
+        assertTrue(load.getTerminal().disconnect());
+        assertFalse(load.getTerminal().isConnected());
+        assertTrue(isOpen("BR1"));
+        assertTrue(isOpen("BR2"));
+    }
+
+    @Test
+    public void testDisconnectPathWithoutBreaker() {
+        // a bypass made of disconnectors only
+        addSwitch("D4", SwitchKind.DISCONNECTOR, 2, 5);
+        addSwitch("D5", SwitchKind.DISCONNECTOR, 5, 0);
+        assertFalse(load.getTerminal().disconnect());
+        assertTrue(load.getTerminal().isConnected());
+    }
+
+    @Test
+    public void testNoPath() {
+        network.getSwitch("D1").setOpen(true);
+        network.getSwitch("D2").setOpen(true);
+        assertFalse(load.getTerminal().isConnected());
+        assertFalse(load.getTerminal().disconnect());
+        assertFalse(load.getTerminal().connect());
+        assertFalse(isOpen("BR1") || isOpen("BR2"));
+    }
+
+    @Test
+    public void testConnect() {
+        network.getSwitch("BR1").setOpen(true);
+        network.getSwitch("BR2").setOpen(true);
+        assertFalse(load.getTerminal().isConnected());
+        assertTrue(load.getTerminal().connect());
+        assertTrue(load.getTerminal().isConnected());
+        // only breakers of the shortest path are closed
+        assertFalse(isOpen("BR1"));
+        assertTrue(isOpen("BR2"));
+
+        // nothing to close anymore
+        assertFalse(load.getTerminal().connect());
+    }
+
+    @Test
+    public void testConnectOpenDisconnector() {
+        network.getSwitch("BR1").setOpen(true);
+        network.getSwitch("BR2").setOpen(true);
+        // shortest path without open disconnector goes through the second bay
+        network.getSwitch("D1").setOpen(true);
+        assertTrue(load.getTerminal().connect());
+        assertTrue(load.getTerminal().isConnected());
+        assertTrue(isOpen("BR1"));
+        assertFalse(isOpen("BR2"));
+    }
+}
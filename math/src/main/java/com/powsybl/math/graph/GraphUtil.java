@@ -13,6 +13,9 @@ import gnu.trove.set.hash.TIntHashSet;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
 
 /**
  *
@@ -35,6 +38,54 @@ public final class GraphUtil {
 
     }
 
+    /**
+     * Lock free union-find: a root is always linked to a root with a lower index using a CAS, so that concurrent
+     * unions cannot create cycles.
+     */
+    private static final class ConcurrentUnionFind {
+
+        private final AtomicIntegerArray parent;
+
+        private ConcurrentUnionFind(int vertexCount) {
+            parent = new AtomicIntegerArray(vertexCount);
+            for (int v = 0; v < vertexCount; v++) {
+                parent.set(v, v);
+            }
+        }
+
+        private int find(int v) {
+            int current = v;
+            int p = parent.get(current);
+            while (p != current) {
+                int gp = parent.get(p);
+                if (gp != p) {
+                    // path halving, failure is harmless as parents only move towards the root
+                    parent.compareAndSet(current, p, gp);
+                }
+                current = gp;
+                p = parent.get(current);
+            }
+            return current;
+        }
+
+        private void union(int v1, int v2) {
+            int r1 = v1;
+            int r2 = v2;
+            while (true) {
+                r1 = find(r1);
+                r2 = find(r2);
+                if (r1 == r2) {
+                    return;
+                }
+                int high = Math.max(r1, r2);
+                int low = Math.min(r1, r2);
+                if (parent.compareAndSet(high, high, low)) {
+                    return;
+                }
+            }
+        }
+    }
+
     public static class ConnectedComponentsComputationResult {
 
         private final int[] componentNumber;
@@ -56,30 +107,101 @@ public final class GraphUtil {
 
     }
 
-    private static void computeConnectedComponents(int v1, int c, int[] componentSize, TIntArrayList[] adjacencyList, int[] componentNumber) {
-        componentNumber[v1] = c;
-        ++componentSize[c];
-        TIntArrayList ls = adjacencyList[v1];
-        for (int i = 0; i < ls.size(); i++) {
-            int v2 = ls.getQuick(i);
-            if (componentNumber[v2] == -1) {
-                computeConnectedComponents(v2, c, componentSize, adjacencyList, componentNumber);
+    /**
+     * Iterative depth first search, so that long chains of vertices (radial feeders) do not overflow the stack.
+     * Components are numbered in the order of their first vertex.
+     */
+    private static int computeConnectedComponents(TIntArrayList[] adjacencyList, int[] componentNumber, int[] componentSize) {
+        int c = 0;
+        int[] stack = new int[adjacencyList.length];
+        for (int v = 0; v < adjacencyList.length; v++) {
+            if (componentNumber[v] == -1) {
+                int stackSize = 0;
+                stack[stackSize++] = v;
+                componentNumber[v] = c;
+                while (stackSize > 0) {
+                    int v1 = stack[--stackSize];
+                    ++componentSize[c];
+                    TIntArrayList ls = adjacencyList[v1];
+                    for (int i = 0; i < ls.size(); i++) {
+                        int v2 = ls.getQuick(i);
+                        if (componentNumber[v2] == -1) {
+                            componentNumber[v2] = c;
+                            stack[stackSize++] = v2;
+                        }
+                    }
+                }
+                c++;
             }
         }
+        return c;
+    }
+
+    /**
+     * Union-find where each vertex is merged with its neighbours, vertices being distributed on the common
+     * fork/join pool. Components are numbered in the order of their first vertex, as in the sequential version.
+     */
+    private static int computeConnectedComponentsInParallel(TIntArrayList[] adjacencyList, int[] componentNumber, int[] componentSize) {
+        ConcurrentUnionFind unionFind = new ConcurrentUnionFind(adjacencyList.length);
+        IntStream.range(0, adjacencyList.length).parallel().forEach(v1 -> {
+            TIntArrayList ls = adjacencyList[v1];
+            for (int i = 0; i < ls.size(); i++) {
+                int v2 = ls.getQuick(i);
+                if (v2 < v1) {
+                    unionFind.union(v1, v2);
+                }
+            }
+        });
+        int[] roots = new int[adjacencyList.length];
+        IntStream.range(0, adjacencyList.length).parallel().forEach(v -> roots[v] = unionFind.find(v));
+        return numberComponents(roots, componentNumber, componentSize);
+    }
+
+    /**
+     * Number components from the representative vertex of each vertex, in the order of the first vertex of each
+     * component.
+     */
+    static int numberComponents(int[] roots, int[] componentNumber, int[] componentSize) {
+        int[] rootComponentNumber = new int[roots.length];
+        Arrays.fill(rootComponentNumber, -1);
+        int c = 0;
+        for (int v = 0; v < roots.length; v++) {
+            int root = roots[v];
+            if (rootComponentNumber[root] == -1) {
+                rootComponentNumber[root] = c++;
+            }
+            componentNumber[v] = rootComponentNumber[root];
+            ++componentSize[componentNumber[v]];
+        }
+        return c;
     }
 
     public static ConnectedComponentsComputationResult computeConnectedComponents(TIntArrayList[] adjacencyList) {
+        return computeConnectedComponents(adjacencyList, false);
+    }
+
+    /**
+     * Compute connected components of a graph given as an adjacency list. Components are numbered by decreasing size.
+     *
+     * @param adjacencyList for each vertex, the list of its neighbours (each edge has to be present in both lists)
+     * @param parallel if true, components are computed using a concurrent union-find on the common fork/join pool,
+     *                 which is only worth it for very large graphs
+     */
+    public static ConnectedComponentsComputationResult computeConnectedComponents(TIntArrayList[] adjacencyList, boolean parallel) {
+        Objects.requireNonNull(adjacencyList);
         int[] componentNumber = new int[adjacencyList.length];
         Arrays.fill(componentNumber, -1);
-        int c = 0;
         int[] componentSize = new int[adjacencyList.length];
-        Arrays.fill(componentSize, 0);
-        for (int v = 0; v < adjacencyList.length; v++) {
-            if (componentNumber[v] == -1) {
-                computeConnectedComponents(v, c++, componentSize, adjacencyList, componentNumber);
-            }
+        int c;
+        if (parallel && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            c = computeConnectedComponentsInParallel(adjacencyList, componentNumber, componentSize);
+        } else {
+            c = computeConnectedComponents(adjacencyList, componentNumber, componentSize);
         }
+        return sortComponentsBySize(componentNumber, componentSize, c);
+    }
 
+    static ConnectedComponentsComputationResult sortComponentsBySize(int[] componentNumber, int[] componentSize, int c) {
         // sort components by size
         ConnectedComponent[] components = new ConnectedComponent[c];
         ConnectedComponent[] orderedComponents = new ConnectedComponent[c];
@@ -98,16 +220,16 @@ public final class GraphUtil {
             orderedComponents[i].orderedNumber = i;
         }
 
-        componentSize = new int[orderedComponents.length];
+        int[] orderedComponentSize = new int[orderedComponents.length];
         for (ConnectedComponent cc : orderedComponents) {
-            componentSize[cc.orderedNumber] = cc.size;
+            orderedComponentSize[cc.orderedNumber] = cc.size;
         }
         for (int i = 0; i < componentNumber.length; i++) {
             ConnectedComponent cc = components[componentNumber[i]];
             componentNumber[i] = cc.orderedNumber;
         }
 
-        return new ConnectedComponentsComputationResult(componentNumber, componentSize);
+        return new ConnectedComponentsComputationResult(componentNumber, orderedComponentSize);
     }
 
     /**
@@ -67,6 +67,39 @@ public interface UndirectedGraph<V, E> {
 
     List<TIntArrayList> findAllPaths(int from, Function<V, Boolean> pathComplete, Function<E, Boolean> pathCanceled);
 
+    /**
+     * Lazily find paths starting from a vertex, as {@link #findAllPaths(int, Function, Function)} does, but shortest
+     * paths first. Paths are computed on demand, using an iterative deepening depth first search whose memory only
+     * depends on the size of the paths, so that the consumer can stop the search at any time (for instance using
+     * {@link Stream#findFirst()} or {@link Stream#limit(long)}). The graph must not be modified while the stream is
+     * consumed.
+     *
+     * @param from the vertex to start from
+     * @param pathComplete a path ends on a vertex whose object satisfies this condition
+     * @param pathCanceled edges whose object satisfies this condition (if not null) are not traversed
+     * @param maxDepth the maximum number of edges of a path
+     * @return a stream of paths, as lists of edges, sorted by size
+     */
+    Stream<TIntArrayList> findPaths(int from, Function<V, Boolean> pathComplete, Function<E, Boolean> pathCanceled, int maxDepth);
+
+    /**
+     * Same as {@link #findPaths(int, Function, Function, int)}, the search ending once {@code maxCount} paths have
+     * been found.
+     *
+     * @param maxCount the maximum number of paths to find
+     */
+    Stream<TIntArrayList> findPaths(int from, Function<V, Boolean> pathComplete, Function<E, Boolean> pathCanceled, int maxDepth, int maxCount);
+
+    /**
+     * Same as {@link #findPaths(int, Function, Function, int, int)}, each path found being passed to {@code pathFound}
+     * which ends the search by returning {@link TraverseResult#TERMINATE}.
+     *
+     * @param pathFound called for each path found, shortest first
+     * @return the number of paths found
+     */
+    int findPaths(int from, Function<V, Boolean> pathComplete, Function<E, Boolean> pathCanceled, int maxDepth, int maxCount,
+                  Function<TIntArrayList, TraverseResult> pathFound);
+
     void addListener(UndirectedGraphListener l);
 
     void removeListener(UndirectedGraphListener l);
@@ -19,6 +19,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  *
@@ -32,6 +33,8 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
 
     private static final int NEIGHBORS_CAPACITY = 2;
 
+    private static final int INITIAL_TRAVERSAL_STACK_SIZE = 16;
+
     private static final class Vertex<E> {
 
         private E object;
@@ -86,14 +89,34 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
 
     }
 
+    /**
+     * Immutable adjacency list in compressed sparse row format: edges and opposite vertices adjacent to vertex v are
+     * stored at indices [offsets[v], offsets[v + 1]) of edges and neighbors arrays. Edges of a vertex are sorted by
+     * index. Once built, it can be read by many threads without any synchronization.
+     */
+    private static final class AdjacencyList {
+
+        private final int[] offsets;
+
+        private final int[] edges;
+
+        private final int[] neighbors;
+
+        private AdjacencyList(int[] offsets, int[] edges, int[] neighbors) {
+            this.offsets = offsets;
+            this.edges = edges;
+            this.neighbors = neighbors;
+        }
+    }
+
     /* vertices */
     private final List<Vertex<V>> vertices = new ArrayList<>(VERTICES_CAPACITY);
 
     /* edges */
     private final List<Edge<E>> edges = new ArrayList<>(EDGES_CAPACITY);
 
-    /* cached adjacency list */
-    private TIntArrayList[] adjacencyListCache;
+    /* cached adjacency list, rebuilt on first access after a modification of the graph */
+    private volatile AdjacencyList adjacencyListCache;
 
     private final Lock adjacencyListCacheLock = new ReentrantLock();
 
@@ -297,50 +320,75 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
         checkVertex(v1);
         checkVertex(v2);
         List<E> edgeObjects = new ArrayList<>(1);
-        TIntArrayList[] adjacencyList = getAdjacencyList();
-        TIntArrayList adjacentEdges = adjacencyList[v1];
-        for (int i = 0; i < adjacentEdges.size(); i++) {
-            int e = adjacentEdges.getQuick(i);
-            Edge<E> edge = edges.get(e);
-            if ((edge.getV1() == v1 && edge.getV2() == v2)
-                || (edge.getV1() == v2 && edge.getV2() == v1)) {
-                edgeObjects.add(edge.getObject());
+        AdjacencyList adjacencyList = getAdjacencyList();
+        for (int k = adjacencyList.offsets[v1]; k < adjacencyList.offsets[v1 + 1]; k++) {
+            if (adjacencyList.neighbors[k] == v2) {
+                edgeObjects.add(edges.get(adjacencyList.edges[k]).getObject());
             }
         }
         return edgeObjects;
     }
 
-    private TIntArrayList[] getAdjacencyList() {
-        adjacencyListCacheLock.lock();
-        try {
-            if (adjacencyListCache == null) {
-                adjacencyListCache = new TIntArrayList[vertices.size()];
-                for (int v = 0; v < vertices.size(); v++) {
-                    Vertex<V> vertex = vertices.get(v);
-                    if (vertex != null) {
-                        adjacencyListCache[v] = new TIntArrayList(NEIGHBORS_CAPACITY);
-                    }
-                }
-                for (int e = 0; e < edges.size(); e++) {
-                    Edge<E> edge = edges.get(e);
-                    if (edge != null) {
-                        int v1 = edge.getV1();
-                        int v2 = edge.getV2();
-                        adjacencyListCache[v1].add(e);
-                        adjacencyListCache[v2].add(e);
-                    }
+    private AdjacencyList getAdjacencyList() {
+        AdjacencyList adjacencyList = adjacencyListCache;
+        if (adjacencyList == null) {
+            adjacencyListCacheLock.lock();
+            try {
+                adjacencyList = adjacencyListCache;
+                if (adjacencyList == null) {
+                    adjacencyList = createAdjacencyList();
+                    adjacencyListCache = adjacencyList;
                 }
+            } finally {
+                adjacencyListCacheLock.unlock();
+            }
+        }
+        return adjacencyList;
+    }
+
+    private AdjacencyList createAdjacencyList() {
+        // count edges of each vertex
+        int[] offsets = new int[vertices.size() + 1];
+        int entryCount = 0;
+        for (Edge<E> edge : edges) {
+            if (edge != null) {
+                offsets[edge.getV1() + 1]++;
+                offsets[edge.getV2() + 1]++;
+                entryCount += 2;
+            }
+        }
+        for (int v = 0; v < vertices.size(); v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        // fill by increasing edge index
+        int[] next = Arrays.copyOf(offsets, vertices.size());
+        int[] adjacentEdges = new int[entryCount];
+        int[] neighbors = new int[entryCount];
+        for (int e = 0; e < edges.size(); e++) {
+            Edge<E> edge = edges.get(e);
+            if (edge != null) {
+                int v1 = edge.getV1();
+                int v2 = edge.getV2();
+                int k1 = next[v1]++;
+                adjacentEdges[k1] = e;
+                neighbors[k1] = v2;
+                int k2 = next[v2]++;
+                adjacentEdges[k2] = e;
+                neighbors[k2] = v1;
             }
-            return adjacencyListCache;
-        } finally {
-            adjacencyListCacheLock.unlock();
         }
+        return new AdjacencyList(offsets, adjacentEdges, neighbors);
     }
 
     private void invalidateAdjacencyList() {
         adjacencyListCache = null;
     }
 
+    /**
+     * Depth first traversal using an explicit stack, so that long chains of vertices do not overflow the thread stack.
+     * Vertices and edges are visited in the same order as a recursive traversal.
+     */
     @Override
     public void traverse(int v, Traverser<E> traverser, boolean[] encountered) {
         checkVertex(v);
@@ -351,22 +399,36 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
             throw new PowsyblException("Encountered array is too small");
         }
 
-        TIntArrayList[] adjacencyList = getAdjacencyList();
-        TIntArrayList adjacentEdges = adjacencyList[v];
+        AdjacencyList adjacencyList = getAdjacencyList();
+        int[] offsets = adjacencyList.offsets;
+        int[] neighbors = adjacencyList.neighbors;
+        int[] adjacentEdges = adjacencyList.edges;
+
+        // for each vertex of the stack, the vertex followed by the index of its next adjacent edge to traverse. The
+        // stack starts small and grows as needed, as most traversals (bus computation for instance) only reach a few
+        // vertices of the graph
+        int[] stack = new int[2 * INITIAL_TRAVERSAL_STACK_SIZE];
+        int top = 0;
+        stack[top] = v;
+        stack[top + 1] = offsets[v];
         encountered[v] = true;
-        for (int i = 0; i < adjacentEdges.size(); i++) {
-            int e = adjacentEdges.getQuick(i);
-            Edge<E> edge = edges.get(e);
-            int v1 = edge.getV1();
-            int v2 = edge.getV2();
-            if (!encountered[v1]) {
-                if (traverser.traverse(v2, e, v1) == TraverseResult.CONTINUE) {
-                    encountered[v1] = true;
-                    traverse(v1, traverser, encountered);
+        while (top >= 0) {
+            int current = stack[top];
+            int k = stack[top + 1];
+            if (k < offsets[current + 1]) {
+                stack[top + 1] = k + 1;
+                int neighbor = neighbors[k];
+                if (!encountered[neighbor] && traverser.traverse(current, adjacentEdges[k], neighbor) == TraverseResult.CONTINUE) {
+                    encountered[neighbor] = true;
+                    top += 2;
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, 2 * stack.length);
+                    }
+                    stack[top] = neighbor;
+                    stack[top + 1] = offsets[neighbor];
                 }
-            } else if (!encountered[v2] && traverser.traverse(v1, e, v2) == TraverseResult.CONTINUE) {
-                encountered[v2] = true;
-                traverse(v2, traverser, encountered);
+            } else {
+                top -= 2;
             }
         }
     }
@@ -390,6 +452,178 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
         return paths;
     }
 
+    /**
+     * Iterative deepening depth first search on simple paths: paths of n edges are found by a depth first search
+     * limited to n edges, n increasing from 1, so that paths are found by increasing size (and in depth first order for
+     * a given size). Only the path being walked is kept in memory, the cost being to walk again shorter paths at each
+     * depth. The search ends when no path has been cut by the depth limit.
+     */
+    private final class PathIterator implements Iterator<TIntArrayList> {
+
+        private final int from;
+
+        private final Function<V, Boolean> pathComplete;
+
+        private final Function<E, Boolean> pathCanceled;
+
+        private final int maxDepth;
+
+        private final int maxCount;
+
+        private final AdjacencyList adjacencyList = getAdjacencyList();
+
+        private final BitSet encountered = new BitSet(vertices.size());
+
+        // for each vertex of the path being walked, the vertex, the edge it has been reached by and the index of its
+        // next adjacency to explore
+        private int[] stackVertex = new int[INITIAL_TRAVERSAL_STACK_SIZE];
+
+        private int[] stackEdge = new int[INITIAL_TRAVERSAL_STACK_SIZE];
+
+        private int[] stackAdjacency = new int[INITIAL_TRAVERSAL_STACK_SIZE];
+
+        private int top = -1;
+
+        // maximum number of edges of the paths of the current search
+        private int depth = 0;
+
+        // true if a path of the current search could have been extended beyond the depth limit
+        private boolean cut = true;
+
+        private int count = 0;
+
+        private TIntArrayList next;
+
+        private PathIterator(int from, Function<V, Boolean> pathComplete, Function<E, Boolean> pathCanceled, int maxDepth, int maxCount) {
+            this.from = from;
+            this.pathComplete = pathComplete;
+            this.pathCanceled = pathCanceled;
+            this.maxDepth = maxDepth;
+            this.maxCount = maxCount;
+        }
+
+        private void push(int v, int e) {
+            top++;
+            if (top == stackVertex.length) {
+                stackVertex = Arrays.copyOf(stackVertex, 2 * stackVertex.length);
+                stackEdge = Arrays.copyOf(stackEdge, 2 * stackEdge.length);
+                stackAdjacency = Arrays.copyOf(stackAdjacency, 2 * stackAdjacency.length);
+            }
+            stackVertex[top] = v;
+            stackEdge[top] = e;
+            stackAdjacency[top] = adjacencyList.offsets[v];
+            encountered.set(v);
+        }
+
+        private boolean nextSearch() {
+            if (!cut || depth >= maxDepth) {
+                return false;
+            }
+            depth++;
+            cut = false;
+            push(from, -1);
+            return true;
+        }
+
+        private TIntArrayList toEdges(int e) {
+            int[] edgesOfPath = new int[top + 1];
+            System.arraycopy(stackEdge, 1, edgesOfPath, 0, top);
+            edgesOfPath[top] = e;
+            return TIntArrayList.wrap(edgesOfPath);
+        }
+
+        private TIntArrayList findNext() {
+            while (true) {
+                if (top == -1 && !nextSearch()) {
+                    return null;
+                }
+                int v = stackVertex[top];
+                int k = stackAdjacency[top];
+                if (k == adjacencyList.offsets[v + 1]) {
+                    encountered.clear(v);
+                    top--;
+                    continue;
+                }
+                stackAdjacency[top] = k + 1;
+                int e = adjacencyList.edges[k];
+                int v2 = adjacencyList.neighbors[k];
+                if (encountered.get(v2) || (pathCanceled != null && pathCanceled.apply(edges.get(e).getObject()))) {
+                    continue;
+                }
+                boolean complete = pathComplete.apply(vertices.get(v2).getObject());
+                if (top + 1 == depth) {
+                    // paths of this size are the ones of the current search
+                    if (complete) {
+                        return toEdges(e);
+                    }
+                    cut = true;
+                } else if (!complete) {
+                    // complete paths shorter than the depth limit have been found by a previous search
+                    push(v2, e);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && count < maxCount) {
+                next = findNext();
+                if (next != null) {
+                    count++;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public TIntArrayList next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            TIntArrayList result = next;
+            next = null;
+            return result;
+        }
+    }
+
+    private PathIterator createPathIterator(int from, Function<V, Boolean> pathComplete, Function<E, Boolean> pathCanceled, int maxDepth, int maxCount) {
+        checkVertex(from);
+        Objects.requireNonNull(pathComplete);
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Invalid max depth: " + maxDepth);
+        }
+        if (maxCount < 0) {
+            throw new IllegalArgumentException("Invalid max count: " + maxCount);
+        }
+        return new PathIterator(from, pathComplete, pathCanceled, maxDepth, maxCount);
+    }
+
+    @Override
+    public Stream<TIntArrayList> findPaths(int from, Function<V, Boolean> pathComplete, Function<E, Boolean> pathCanceled, int maxDepth) {
+        return findPaths(from, pathComplete, pathCanceled, maxDepth, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Stream<TIntArrayList> findPaths(int from, Function<V, Boolean> pathComplete, Function<E, Boolean> pathCanceled, int maxDepth, int maxCount) {
+        PathIterator iterator = createPathIterator(from, pathComplete, pathCanceled, maxDepth, maxCount);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public int findPaths(int from, Function<V, Boolean> pathComplete, Function<E, Boolean> pathCanceled, int maxDepth, int maxCount,
+                         Function<TIntArrayList, TraverseResult> pathFound) {
+        Objects.requireNonNull(pathFound);
+        PathIterator iterator = createPathIterator(from, pathComplete, pathCanceled, maxDepth, maxCount);
+        int count = 0;
+        while (iterator.hasNext()) {
+            count++;
+            if (pathFound.apply(iterator.next()) == TraverseResult.TERMINATE) {
+                break;
+            }
+        }
+        return count;
+    }
+
     private boolean findAllPaths(int e, int v1or2, Function<V, Boolean> pathComplete, Function<E, Boolean> pathCanceled,
                                  TIntArrayList path, BitSet encountered, List<TIntArrayList> paths) {
         if (encountered.get(v1or2)) {
@@ -410,10 +644,11 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
                               TIntArrayList path, BitSet encountered, List<TIntArrayList> paths) {
         checkVertex(v);
         encountered.set(v, true);
-        TIntArrayList[] adjacencyList = getAdjacencyList();
-        TIntArrayList adjacentEdges = adjacencyList[v];
-        for (int i = 0; i < adjacentEdges.size(); i++) {
-            int e = adjacentEdges.getQuick(i);
+        AdjacencyList adjacencyList = getAdjacencyList();
+        int first = adjacencyList.offsets[v];
+        int last = adjacencyList.offsets[v + 1];
+        for (int k = first; k < last; k++) {
+            int e = adjacencyList.edges[k];
             Edge<E> edge = edges.get(e);
             if (pathCanceled != null && pathCanceled.apply(edge.getObject())) {
                 continue;
@@ -422,7 +657,7 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
             int v2 = edge.getV2();
             TIntArrayList path2;
             BitSet encountered2;
-            if (i < adjacentEdges.size() - 1) {
+            if (k < last - 1) {
                 path2 = new TIntArrayList(path);
                 encountered2 = new BitSet(vertices.size());
                 encountered2.or(encountered);
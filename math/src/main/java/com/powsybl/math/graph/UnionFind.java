@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.graph;
+
+import java.util.Arrays;
+
+/**
+ * Incremental connected components computation (union by size with path halving). Vertices and edges can be added
+ * at any time without recomputing components from scratch. This class is not thread safe.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class UnionFind {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] parent;
+
+    private int[] size;
+
+    private int vertexCount = 0;
+
+    private int setCount = 0;
+
+    public UnionFind() {
+        this(0);
+    }
+
+    public UnionFind(int vertexCount) {
+        if (vertexCount < 0) {
+            throw new IllegalArgumentException("Vertex count is negative: " + vertexCount);
+        }
+        int capacity = Math.max(vertexCount, DEFAULT_CAPACITY);
+        parent = new int[capacity];
+        size = new int[capacity];
+        for (int v = 0; v < vertexCount; v++) {
+            addVertex();
+        }
+    }
+
+    /**
+     * Add a new isolated vertex.
+     *
+     * @return the index of the new vertex
+     */
+    public int addVertex() {
+        if (vertexCount == parent.length) {
+            parent = Arrays.copyOf(parent, parent.length * 2);
+            size = Arrays.copyOf(size, size.length * 2);
+        }
+        int v = vertexCount++;
+        parent[v] = v;
+        size[v] = 1;
+        setCount++;
+        return v;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= vertexCount) {
+            throw new IllegalArgumentException("Vertex " + v + " not found");
+        }
+    }
+
+    /**
+     * Get the representative vertex of the component of a vertex.
+     */
+    public int find(int v) {
+        checkVertex(v);
+        int current = v;
+        while (parent[current] != current) {
+            parent[current] = parent[parent[current]];
+            current = parent[current];
+        }
+        return current;
+    }
+
+    /**
+     * Merge the components of two vertices, as when adding an edge between them.
+     *
+     * @return true if the 2 vertices were not already connected
+     */
+    public boolean union(int v1, int v2) {
+        int r1 = find(v1);
+        int r2 = find(v2);
+        if (r1 == r2) {
+            return false;
+        }
+        if (size[r1] < size[r2]) {
+            int tmp = r1;
+            r1 = r2;
+            r2 = tmp;
+        }
+        parent[r2] = r1;
+        size[r1] += size[r2];
+        setCount--;
+        return true;
+    }
+
+    public boolean isConnected(int v1, int v2) {
+        return find(v1) == find(v2);
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Get the number of connected components.
+     */
+    public int getComponentCount() {
+        return setCount;
+    }
+
+    /**
+     * Get the size of the connected component of a vertex.
+     */
+    public int getComponentSize(int v) {
+        return size[find(v)];
+    }
+
+    /**
+     * Get components numbered by decreasing size, as computed by
+     * {@link GraphUtil#computeConnectedComponents(gnu.trove.list.array.TIntArrayList[])}.
+     */
+    public GraphUtil.ConnectedComponentsComputationResult getConnectedComponents() {
+        int[] roots = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            roots[v] = find(v);
+        }
+        int[] componentNumber = new int[vertexCount];
+        int[] componentSize = new int[vertexCount];
+        int c = GraphUtil.numberComponents(roots, componentNumber, componentSize);
+        return GraphUtil.sortComponentsBySize(componentNumber, componentSize, c);
+    }
+}
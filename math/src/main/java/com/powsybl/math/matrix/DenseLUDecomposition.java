@@ -6,29 +6,262 @@
  */
 package com.powsybl.math.matrix;
 
+import com.powsybl.commons.PowsyblException;
+
+import java.nio.DoubleBuffer;
 import java.util.Objects;
+import java.util.stream.IntStream;
 
 /**
+ * Blocked LU decomposition with partial pivoting (right-looking variant). Each panel of columns is factorized
+ * with an unblocked algorithm, then the trailing sub-matrix is updated column block by column block, the blocks
+ * being distributed on the common fork/join pool for large matrices.
+ *
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
 public class DenseLUDecomposition implements LUDecomposition {
 
-    private final Jama.LUDecomposition decomposition;
+    private static final int PANEL_SIZE = 64;
+
+    private static final int COLUMN_BLOCK_SIZE = 64;
+
+    private static final int ROW_BLOCK_SIZE = 512;
+
+    private final int n;
+
+    /**
+     * L (unit diagonal not stored) and U factors, column-major.
+     */
+    private final double[] lu;
+
+    /**
+     * Row interchanged with row k at step k of the elimination.
+     */
+    private final int[] pivot;
 
+    private boolean singular = false;
+
+    public DenseLUDecomposition(DenseMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        if (matrix.getM() != matrix.getN()) {
+            throw new IllegalArgumentException("matrix is not square");
+        }
+        n = matrix.getN();
+        lu = matrix.getValuesCopy();
+        pivot = new int[n];
+        decompose();
+    }
+
+    /**
+     * @deprecated Use {@link DenseMatrix#decomposeLU()} instead, the decomposition is now computed without Jama.
+     */
+    @Deprecated
     public DenseLUDecomposition(Jama.LUDecomposition decomposition) {
-        this.decomposition = Objects.requireNonNull(decomposition);
+        Objects.requireNonNull(decomposition);
+        Jama.Matrix l = decomposition.getL();
+        Jama.Matrix u = decomposition.getU();
+        n = u.getRowDimension();
+        lu = new double[n * n];
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i < n; i++) {
+                lu[i + j * n] = i > j ? l.get(i, j) : u.get(i, j);
+            }
+        }
+        // Jama gives the final row permutation, convert it to the row interchange of each step
+        int[] permutation = decomposition.getPivot();
+        pivot = new int[n];
+        int[] rows = new int[n];
+        int[] positions = new int[n];
+        for (int i = 0; i < n; i++) {
+            rows[i] = i;
+            positions[i] = i;
+        }
+        for (int k = 0; k < n; k++) {
+            int p = positions[permutation[k]];
+            pivot[k] = p;
+            int row = rows[k];
+            rows[k] = rows[p];
+            rows[p] = row;
+            positions[rows[k]] = k;
+            positions[rows[p]] = p;
+        }
+        singular = !decomposition.isNonsingular();
+    }
+
+    private void decompose() {
+        for (int k0 = 0; k0 < n; k0 += PANEL_SIZE) {
+            int panelEnd = Math.min(n, k0 + PANEL_SIZE);
+            decomposePanel(k0, panelEnd);
+            if (panelEnd < n) {
+                int blockCount = (n - panelEnd + COLUMN_BLOCK_SIZE - 1) / COLUMN_BLOCK_SIZE;
+                IntStream blocks = IntStream.range(0, blockCount);
+                if (DenseMatrix.useParallelism((long) (n - panelEnd) * (n - panelEnd) * (panelEnd - k0), blockCount)) {
+                    blocks = blocks.parallel();
+                }
+                int firstPanelColumn = k0;
+                blocks.forEach(block -> {
+                    int firstColumn = panelEnd + block * COLUMN_BLOCK_SIZE;
+                    updateTrailingColumns(firstPanelColumn, panelEnd, firstColumn, Math.min(n, firstColumn + COLUMN_BLOCK_SIZE));
+                });
+            }
+        }
+    }
+
+    private void swapRows(int i1, int i2) {
+        for (int j = 0; j < n; j++) {
+            double tmp = lu[i1 + j * n];
+            lu[i1 + j * n] = lu[i2 + j * n];
+            lu[i2 + j * n] = tmp;
+        }
+    }
+
+    /**
+     * Unblocked decomposition of columns [k0, panelEnd), row interchanges are applied to all the columns.
+     */
+    private void decomposePanel(int k0, int panelEnd) {
+        for (int k = k0; k < panelEnd; k++) {
+            int kOffset = k * n;
+
+            // search pivot
+            int p = k;
+            double max = Math.abs(lu[k + kOffset]);
+            for (int i = k + 1; i < n; i++) {
+                double abs = Math.abs(lu[i + kOffset]);
+                if (abs > max) {
+                    max = abs;
+                    p = i;
+                }
+            }
+            pivot[k] = p;
+            if (p != k) {
+                swapRows(k, p);
+            }
+
+            double d = lu[k + kOffset];
+            if (d == 0) {
+                singular = true;
+                continue;
+            }
+            for (int i = k + 1; i < n; i++) {
+                lu[i + kOffset] /= d;
+            }
+
+            // update remaining columns of the panel
+            for (int j = k + 1; j < panelEnd; j++) {
+                int jOffset = j * n;
+                double u = lu[k + jOffset];
+                if (u != 0) {
+                    for (int i = k + 1; i < n; i++) {
+                        lu[i + jOffset] -= lu[i + kOffset] * u;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute U12 = L11^-1 * A12 and A22 = A22 - L21 * U12 for columns [firstColumn, lastColumn), L11 and L21 being
+     * the factorized panel [k0, panelEnd). The update of A22 is done by blocks of rows so that the block of the
+     * panel stays in cache.
+     */
+    private void updateTrailingColumns(int k0, int panelEnd, int firstColumn, int lastColumn) {
+        for (int j = firstColumn; j < lastColumn; j++) {
+            int jOffset = j * n;
+            for (int p = k0; p < panelEnd; p++) {
+                double u = lu[p + jOffset];
+                if (u != 0) {
+                    int pOffset = p * n;
+                    for (int i = p + 1; i < panelEnd; i++) {
+                        lu[i + jOffset] -= lu[i + pOffset] * u;
+                    }
+                }
+            }
+        }
+        for (int i0 = panelEnd; i0 < n; i0 += ROW_BLOCK_SIZE) {
+            int i1 = Math.min(n, i0 + ROW_BLOCK_SIZE);
+            for (int j = firstColumn; j < lastColumn; j++) {
+                int jOffset = j * n;
+                for (int p = k0; p < panelEnd; p++) {
+                    double u = lu[p + jOffset];
+                    if (u != 0) {
+                        int pOffset = p * n;
+                        for (int i = i0; i < i1; i++) {
+                            lu[i + jOffset] -= lu[i + pOffset] * u;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void checkNotSingular() {
+        if (singular) {
+            throw new PowsyblException("Matrix is singular");
+        }
+    }
+
+    private void solveInPlace(double[] b) {
+        for (int k = 0; k < n; k++) {
+            int p = pivot[k];
+            if (p != k) {
+                double tmp = b[k];
+                b[k] = b[p];
+                b[p] = tmp;
+            }
+        }
+        // L * y = b
+        for (int k = 0; k < n; k++) {
+            double bk = b[k];
+            if (bk != 0) {
+                int kOffset = k * n;
+                for (int i = k + 1; i < n; i++) {
+                    b[i] -= lu[i + kOffset] * bk;
+                }
+            }
+        }
+        // U * x = y
+        for (int k = n - 1; k >= 0; k--) {
+            int kOffset = k * n;
+            b[k] /= lu[k + kOffset];
+            double bk = b[k];
+            if (bk != 0) {
+                for (int i = 0; i < k; i++) {
+                    b[i] -= lu[i + kOffset] * bk;
+                }
+            }
+        }
     }
 
     @Override
     public void solve(double[] b) {
-        Jama.Matrix x = decomposition.solve(new Jama.Matrix(b, b.length));
-        System.arraycopy(x.getColumnPackedCopy(), 0, b, 0, b.length);
+        Objects.requireNonNull(b);
+        if (b.length != n) {
+            throw new IllegalArgumentException("Incorrect b size " + b.length + ", expected " + n);
+        }
+        checkNotSingular();
+        solveInPlace(b);
     }
 
     @Override
     public void solve(DenseMatrix b) {
-        Jama.Matrix x = decomposition.solve(b.toJamaMatrix());
-        b.setValues(x.getColumnPackedCopy());
+        Objects.requireNonNull(b);
+        if (b.getM() != n) {
+            throw new IllegalArgumentException("Incorrect b row count " + b.getM() + ", expected " + n);
+        }
+        checkNotSingular();
+        IntStream columns = IntStream.range(0, b.getN());
+        if (DenseMatrix.useParallelism((long) n * n * b.getN(), b.getN())) {
+            columns = columns.parallel();
+        }
+        columns.forEach(j -> {
+            DoubleBuffer view = b.createDoubleView();
+            double[] column = new double[n];
+            view.position(j * n);
+            view.get(column);
+            solveInPlace(column);
+            view.position(j * n);
+            view.put(column);
+        });
     }
 
     @Override
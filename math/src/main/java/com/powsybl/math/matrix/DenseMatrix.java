@@ -11,14 +11,34 @@ import com.google.common.base.Strings;
 import java.io.PrintStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
 public class DenseMatrix extends AbstractMatrix {
 
+    /**
+     * Number of columns of the result computed by one task in matrix product.
+     */
+    private static final int COLUMN_BLOCK_SIZE = 64;
+
+    /**
+     * Size of the block of A (rows x columns) copied to a local array in matrix product, so that it stays in cache
+     * while being used for all the columns of a block of the result.
+     */
+    private static final int ROW_BLOCK_SIZE = 256;
+    private static final int INNER_BLOCK_SIZE = 128;
+
+    /**
+     * Under this number of multiply-add operations, matrix product is not split between threads.
+     */
+    private static final long PARALLEL_THRESHOLD = 1L << 21;
+
     private final int m;
 
     private final int n;
@@ -109,24 +129,120 @@ public class DenseMatrix extends AbstractMatrix {
         }
     }
 
+    /**
+     * Create a new double view of the whole buffer, with its own position so that it can be used by only one thread.
+     */
+    DoubleBuffer createDoubleView() {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.clear();
+        return duplicate.order(buffer.order()).asDoubleBuffer();
+    }
+
     double[] getValuesCopy() {
         double[] values = new double[m * n];
-        buffer.asDoubleBuffer().get(values);
+        createDoubleView().get(values);
         return values;
     }
 
-    Jama.Matrix toJamaMatrix() {
-        return new Jama.Matrix(getValuesCopy(), m);
-    }
-
     @Override
     public LUDecomposition decomposeLU() {
-        return new DenseLUDecomposition(toJamaMatrix().lu());
+        return new DenseLUDecomposition(this);
+    }
+
+    static boolean useParallelism(long operationCount, int taskCount) {
+        return operationCount >= PARALLEL_THRESHOLD && taskCount > 1 && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /**
+     * Compute a block of columns of C = A * B. Blocks of B and A are copied from the buffers to local arrays (as done
+     * by BLAS implementations) so that the inner loop works on contiguous data that stays in cache.
+     */
+    private static void times(DenseMatrix a, DenseMatrix b, DenseMatrix c, int firstColumn, int lastColumn) {
+        int m = a.m;
+        int k = a.n;
+        int width = lastColumn - firstColumn;
+        DoubleBuffer aView = a.createDoubleView();
+        DoubleBuffer bView = b.createDoubleView();
+        double[] cBlock = new double[m * width];
+        double[] bBlock = new double[Math.min(INNER_BLOCK_SIZE, k) * width];
+        double[] aBlock = new double[Math.min(ROW_BLOCK_SIZE, m) * Math.min(INNER_BLOCK_SIZE, k)];
+        for (int p0 = 0; p0 < k; p0 += INNER_BLOCK_SIZE) {
+            int kb = Math.min(INNER_BLOCK_SIZE, k - p0);
+            for (int jj = 0; jj < width; jj++) {
+                bView.position((firstColumn + jj) * k + p0);
+                bView.get(bBlock, jj * kb, kb);
+            }
+            for (int i0 = 0; i0 < m; i0 += ROW_BLOCK_SIZE) {
+                int mb = Math.min(ROW_BLOCK_SIZE, m - i0);
+                for (int pp = 0; pp < kb; pp++) {
+                    aView.position((p0 + pp) * m + i0);
+                    aView.get(aBlock, pp * mb, mb);
+                }
+                for (int jj = 0; jj < width; jj++) {
+                    int cOffset = jj * m + i0;
+                    for (int pp = 0; pp < kb; pp++) {
+                        double bValue = bBlock[jj * kb + pp];
+                        if (bValue != 0) {
+                            int aOffset = pp * mb;
+                            for (int i = 0; i < mb; i++) {
+                                cBlock[cOffset + i] += aBlock[aOffset + i] * bValue;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        DoubleBuffer cView = c.createDoubleView();
+        cView.position(firstColumn * m);
+        cView.put(cBlock);
+    }
+
+    private DenseMatrix times(DenseMatrix other) {
+        if (n != other.m) {
+            throw new IllegalArgumentException("Incompatible matrix dimensions: (" + m + ", " + n + ") and ("
+                    + other.m + ", " + other.n + ")");
+        }
+        DenseMatrix result = new DenseMatrix(m, other.n);
+        int blockCount = (other.n + COLUMN_BLOCK_SIZE - 1) / COLUMN_BLOCK_SIZE;
+        IntStream blocks = IntStream.range(0, blockCount);
+        if (useParallelism((long) m * n * other.n, blockCount)) {
+            blocks = blocks.parallel();
+        }
+        blocks.forEach(block -> {
+            int firstColumn = block * COLUMN_BLOCK_SIZE;
+            times(this, other, result, firstColumn, Math.min(other.n, firstColumn + COLUMN_BLOCK_SIZE));
+        });
+        return result;
+    }
+
+    /**
+     * Dense matrix by sparse matrix product, the sparse matrix is not converted to a dense one: each column of the
+     * result is a linear combination of the columns of this matrix.
+     */
+    private DenseMatrix times(SparseMatrix other) {
+        if (n != other.getM()) {
+            throw new IllegalArgumentException("Incompatible matrix dimensions: (" + m + ", " + n + ") and ("
+                    + other.getM() + ", " + other.getN() + ")");
+        }
+        double[] a = getValuesCopy();
+        double[] c = new double[m * other.getN()];
+        other.iterateNonZeroValue((k, j, value) -> {
+            int aOffset = k * m;
+            int cOffset = j * m;
+            for (int i = 0; i < m; i++) {
+                c[cOffset + i] += a[aOffset + i] * value;
+            }
+        });
+        return new DenseMatrix(m, other.getN(), c);
     }
 
     @Override
     public Matrix times(Matrix other) {
-        return new DenseMatrix(toJamaMatrix().times(other.toDense().toJamaMatrix()));
+        Objects.requireNonNull(other);
+        if (other instanceof SparseMatrix) {
+            return times((SparseMatrix) other);
+        }
+        return times(other.toDense());
     }
 
     @Override
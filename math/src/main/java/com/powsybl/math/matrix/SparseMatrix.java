@@ -16,6 +16,9 @@ import java.io.PrintStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -62,6 +65,14 @@ public class SparseMatrix extends AbstractMatrix {
         this.values = new TDoubleArrayListHack(Objects.requireNonNull(values));
     }
 
+    private SparseMatrix(int m, int n, int[] columnStart, TIntArrayListHack rowIndices, TDoubleArrayListHack values) {
+        this.m = m;
+        this.n = n;
+        this.columnStart = columnStart;
+        this.rowIndices = rowIndices;
+        this.values = values;
+    }
+
     public SparseMatrix(int m, int n, int estimatedNonZeroValueCount) {
         this.m = m;
         this.n = n;
@@ -99,8 +110,10 @@ public class SparseMatrix extends AbstractMatrix {
         if (n == currentColumn) {
             // ok, continue to fill row
         } else if (n > currentColumn) {
-            // start new column
-            columnStart[n] = values.size();
+            // start new column, skipped columns are empty
+            for (int j = currentColumn + 1; j <= n; j++) {
+                columnStart[j] = values.size();
+            }
             currentColumn = n;
         } else {
             throw new PowsyblException("Columns have to be filled in the right order");
@@ -116,17 +129,264 @@ public class SparseMatrix extends AbstractMatrix {
         return new SparseLUDecomposition(this);
     }
 
-    private native SparseMatrix times(int m1, int n1, int[] ap1, int[] ai1, double[] ax1, int m2, int n2, int[] ap2, int[] ai2, double[] ax2);
+    /**
+     * Get index of the first value after column {@code j}, empty trailing columns being marked with -1.
+     */
+    private int getColumnEnd(int j) {
+        int k = j + 1;
+        while (columnStart[k] == -1) {
+            k++;
+        }
+        return columnStart[k];
+    }
+
+    private static void checkSize(String name, int expected, int actual) {
+        if (expected != actual) {
+            throw new IllegalArgumentException("Incorrect " + name + " size " + actual + ", expected " + expected);
+        }
+    }
+
+    private static boolean useParallelism(boolean parallel, int size) {
+        return parallel && size > 1 && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /**
+     * Compute y = A * x.
+     *
+     * @param x vector of size n
+     * @param y vector of size m, overwritten with the result
+     */
+    public void times(double[] x, double[] y) {
+        Objects.requireNonNull(x);
+        Objects.requireNonNull(y);
+        checkSize("x", n, x.length);
+        checkSize("y", m, y.length);
+        Arrays.fill(y, 0);
+        int[] ai = rowIndices.getData();
+        double[] ax = values.getData();
+        for (int j = 0; j < n; j++) {
+            int first = columnStart[j];
+            double xj = x[j];
+            if (first != -1 && xj != 0) {
+                int last = getColumnEnd(j);
+                for (int v = first; v < last; v++) {
+                    y[ai[v]] += ax[v] * xj;
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute A * x.
+     *
+     * @param x vector of size n
+     * @return a new vector of size m
+     */
+    public double[] times(double[] x) {
+        double[] y = new double[m];
+        times(x, y);
+        return y;
+    }
+
+    /**
+     * Compute y = A<sup>T</sup> * x. As the matrix is stored column by column, each element of y only depends on one
+     * column of A so the computation can be split between threads without any synchronization.
+     *
+     * @param x vector of size m
+     * @param y vector of size n, overwritten with the result
+     * @param parallel if true, columns are distributed on the common fork/join pool
+     */
+    public void transposeTimes(double[] x, double[] y, boolean parallel) {
+        Objects.requireNonNull(x);
+        Objects.requireNonNull(y);
+        checkSize("x", m, x.length);
+        checkSize("y", n, y.length);
+        IntStream columns = IntStream.range(0, n);
+        if (useParallelism(parallel, n)) {
+            columns = columns.parallel();
+        }
+        int[] ai = rowIndices.getData();
+        double[] ax = values.getData();
+        columns.forEach(j -> {
+            double sum = 0;
+            int first = columnStart[j];
+            if (first != -1) {
+                int last = getColumnEnd(j);
+                for (int v = first; v < last; v++) {
+                    sum += ax[v] * x[ai[v]];
+                }
+            }
+            y[j] = sum;
+        });
+    }
+
+    public void transposeTimes(double[] x, double[] y) {
+        transposeTimes(x, y, false);
+    }
+
+    /**
+     * Compute A<sup>T</sup> * x.
+     *
+     * @param x vector of size m
+     * @return a new vector of size n
+     */
+    public double[] transposeTimes(double[] x) {
+        double[] y = new double[n];
+        transposeTimes(x, y, false);
+        return y;
+    }
+
+    /**
+     * Compute the transpose of the matrix. Row indices of each column of the result are sorted.
+     */
+    public SparseMatrix transpose() {
+        int valueCount = values.size();
+        int[] ai = rowIndices.getData();
+        double[] ax = values.getData();
+
+        // count values of each row to get column start of the transposed matrix
+        int[] tColumnStart = new int[m + 1];
+        for (int v = 0; v < valueCount; v++) {
+            tColumnStart[ai[v] + 1]++;
+        }
+        for (int i = 0; i < m; i++) {
+            tColumnStart[i + 1] += tColumnStart[i];
+        }
+
+        int[] next = Arrays.copyOf(tColumnStart, m);
+        int[] tRowIndices = new int[valueCount];
+        double[] tValues = new double[valueCount];
+        for (int j = 0; j < n; j++) {
+            int first = columnStart[j];
+            if (first != -1) {
+                int last = getColumnEnd(j);
+                for (int v = first; v < last; v++) {
+                    int k = next[ai[v]]++;
+                    tRowIndices[k] = j;
+                    tValues[k] = ax[v];
+                }
+            }
+        }
+        return new SparseMatrix(n, m, tColumnStart, TIntArrayListHack.wrap(tRowIndices), TDoubleArrayListHack.wrap(tValues));
+    }
+
+    /**
+     * Multiply in place all the values of the matrix by a scalar.
+     */
+    public void scale(double alpha) {
+        double[] ax = values.getData();
+        for (int v = 0; v < values.size(); v++) {
+            ax[v] *= alpha;
+        }
+    }
+
+    /**
+     * Compute alpha * A + beta * B.
+     */
+    public SparseMatrix add(SparseMatrix other, double alpha, double beta) {
+        Objects.requireNonNull(other);
+        if (m != other.m || n != other.n) {
+            throw new IllegalArgumentException("Incompatible matrix dimensions: (" + m + ", " + n + ") and ("
+                    + other.m + ", " + other.n + ")");
+        }
+        ColumnAccumulator accumulator = new ColumnAccumulator(m, 0, n, values.size() + other.values.size());
+        for (int j = 0; j < n; j++) {
+            accumulator.startColumn(j);
+            accumulateColumn(j, alpha, accumulator);
+            other.accumulateColumn(j, beta, accumulator);
+            accumulator.endColumn();
+        }
+        return accumulator.toMatrix(n);
+    }
+
+    public SparseMatrix add(SparseMatrix other) {
+        return add(other, 1, 1);
+    }
+
+    /**
+     * Add alpha * A(:, j) to the column being accumulated.
+     */
+    private void accumulateColumn(int j, double alpha, ColumnAccumulator accumulator) {
+        int first = columnStart[j];
+        if (first != -1) {
+            int last = getColumnEnd(j);
+            int[] ai = rowIndices.getData();
+            double[] ax = values.getData();
+            for (int v = first; v < last; v++) {
+                accumulator.add(ai[v], alpha * ax[v]);
+            }
+        }
+    }
+
+    /**
+     * Sparse matrix product A * B using Gustavson algorithm: each column of the result is a linear combination of
+     * columns of A.
+     *
+     * @param other the right side matrix
+     * @param parallel if true, columns of the result are computed by blocks on the common fork/join pool
+     */
+    public SparseMatrix times(SparseMatrix other, boolean parallel) {
+        Objects.requireNonNull(other);
+        if (n != other.m) {
+            throw new IllegalArgumentException("Incompatible matrix dimensions: (" + m + ", " + n + ") and ("
+                    + other.m + ", " + other.n + ")");
+        }
+        int blockCount = useParallelism(parallel, other.n) ? Math.min(other.n, ForkJoinPool.getCommonPoolParallelism() * 4) : 1;
+        int blockSize = blockCount > 0 ? (other.n + blockCount - 1) / blockCount : 0;
+        int estimatedNonZeroValueCount = Math.max(values.size(), other.values.size());
+        IntStream blocks = IntStream.range(0, blockCount);
+        if (blockCount > 1) {
+            blocks = blocks.parallel();
+        }
+        List<ColumnAccumulator> accumulators = blocks.mapToObj(b -> {
+            int firstColumn = b * blockSize;
+            int lastColumn = Math.min(other.n, firstColumn + blockSize);
+            ColumnAccumulator accumulator = new ColumnAccumulator(m, firstColumn, lastColumn, estimatedNonZeroValueCount / blockCount);
+            int[] bi = other.rowIndices.getData();
+            double[] bx = other.values.getData();
+            for (int j = firstColumn; j < lastColumn; j++) {
+                accumulator.startColumn(j);
+                int first = other.columnStart[j];
+                if (first != -1) {
+                    int last = other.getColumnEnd(j);
+                    for (int v = first; v < last; v++) {
+                        accumulateColumn(bi[v], bx[v], accumulator);
+                    }
+                }
+                accumulator.endColumn();
+            }
+            return accumulator;
+        }).collect(Collectors.toList());
+        return ColumnAccumulator.toMatrix(m, other.n, accumulators);
+    }
+
+    /**
+     * Sparse matrix by dense matrix product, the result is dense.
+     */
+    private DenseMatrix times(DenseMatrix other) {
+        if (n != other.getM()) {
+            throw new IllegalArgumentException("Incompatible matrix dimensions: (" + m + ", " + n + ") and ("
+                    + other.getM() + ", " + other.getN() + ")");
+        }
+        double[] b = other.getValuesCopy();
+        double[] c = new double[m * other.getN()];
+        double[] x = new double[n];
+        double[] y = new double[m];
+        for (int j = 0; j < other.getN(); j++) {
+            System.arraycopy(b, j * n, x, 0, n);
+            times(x, y);
+            System.arraycopy(y, 0, c, j * m, m);
+        }
+        return new DenseMatrix(m, other.getN(), c);
+    }
 
     @Override
     public Matrix times(Matrix other) {
-        checkNativeInit();
-        if (!(other instanceof SparseMatrix)) {
-            throw new PowsyblException("Sparse and dense matrix multiplication is not supported");
+        Objects.requireNonNull(other);
+        if (other instanceof DenseMatrix) {
+            return times((DenseMatrix) other);
         }
-        SparseMatrix o = (SparseMatrix) other;
-        return times(m, n, columnStart, rowIndices.getData(), values.getData(),
-                     o.m, o.n, o.columnStart, o.rowIndices.getData(), o.values.getData());
+        return times(other.toSparse(), false);
     }
 
     @Override
@@ -140,7 +400,7 @@ public class SparseMatrix extends AbstractMatrix {
     public void iterateNonZeroValueOfColumn(int j, ElementHandler handler) {
         int first = columnStart[j];
         if (first != -1) {
-            int last = j < columnStart.length - 1 ? columnStart[j + 1] : values.size();
+            int last = getColumnEnd(j);
             for (int v = first; v < last; v++) {
                 int i = rowIndices.getQuick(v);
                 double value = values.getQuick(v);
@@ -214,4 +474,85 @@ public class SparseMatrix extends AbstractMatrix {
         }
         return false;
     }
+
+    /**
+     * Workspace used to build a block of consecutive columns of a sparse matrix, values of the column being built
+     * are accumulated in a dense array of size m.
+     */
+    private static final class ColumnAccumulator {
+
+        private final int[] marks;
+
+        private final double[] x;
+
+        private final int firstColumn;
+
+        private final int[] columnStart;
+
+        private final TIntArrayListHack rowIndices;
+
+        private final TDoubleArrayListHack values;
+
+        private int currentColumn = -1;
+
+        private ColumnAccumulator(int m, int firstColumn, int lastColumn, int estimatedNonZeroValueCount) {
+            marks = new int[m];
+            Arrays.fill(marks, -1);
+            x = new double[m];
+            this.firstColumn = firstColumn;
+            columnStart = new int[lastColumn - firstColumn];
+            rowIndices = new TIntArrayListHack(Math.max(estimatedNonZeroValueCount, 1));
+            values = new TDoubleArrayListHack(Math.max(estimatedNonZeroValueCount, 1));
+        }
+
+        private void startColumn(int j) {
+            currentColumn = j;
+            columnStart[j - firstColumn] = rowIndices.size();
+        }
+
+        private void add(int i, double value) {
+            if (marks[i] != currentColumn) {
+                marks[i] = currentColumn;
+                x[i] = value;
+                rowIndices.add(i);
+            } else {
+                x[i] += value;
+            }
+        }
+
+        private void endColumn() {
+            int first = columnStart[currentColumn - firstColumn];
+            int last = rowIndices.size();
+            Arrays.sort(rowIndices.getData(), first, last);
+            for (int v = first; v < last; v++) {
+                values.add(x[rowIndices.getQuick(v)]);
+            }
+        }
+
+        private SparseMatrix toMatrix(int n) {
+            int[] matrixColumnStart = Arrays.copyOf(columnStart, n + 1);
+            matrixColumnStart[n] = values.size();
+            return new SparseMatrix(marks.length, n, matrixColumnStart, rowIndices, values);
+        }
+
+        private static SparseMatrix toMatrix(int m, int n, List<ColumnAccumulator> accumulators) {
+            if (accumulators.size() == 1) {
+                return accumulators.get(0).toMatrix(n);
+            }
+            int valueCount = accumulators.stream().mapToInt(a -> a.values.size()).sum();
+            int[] matrixColumnStart = new int[n + 1];
+            TIntArrayListHack matrixRowIndices = new TIntArrayListHack(Math.max(valueCount, 1));
+            TDoubleArrayListHack matrixValues = new TDoubleArrayListHack(Math.max(valueCount, 1));
+            for (ColumnAccumulator accumulator : accumulators) {
+                int offset = matrixValues.size();
+                for (int k = 0; k < accumulator.columnStart.length; k++) {
+                    matrixColumnStart[accumulator.firstColumn + k] = offset + accumulator.columnStart[k];
+                }
+                matrixRowIndices.add(accumulator.rowIndices.getData(), 0, accumulator.rowIndices.size());
+                matrixValues.add(accumulator.values.getData(), 0, accumulator.values.size());
+            }
+            matrixColumnStart[n] = valueCount;
+            return new SparseMatrix(m, n, matrixColumnStart, matrixRowIndices, matrixValues);
+        }
+    }
 }
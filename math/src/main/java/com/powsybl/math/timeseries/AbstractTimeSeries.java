@@ -60,7 +60,12 @@ public abstract class AbstractTimeSeries<P extends AbstractPoint, C extends Arra
                 .collect(Collectors.toList());
     }
 
-    private List<C> getCheckedChunks(boolean fillGap) {
+    /**
+     * Get chunks sorted by offset, after checking they do not overlap and are included in the index range.
+     *
+     * @param fillGap if true, gaps between chunks are filled with chunks of missing values
+     */
+    protected List<C> getCheckedChunks(boolean fillGap) {
         // sort chunks by offset
         List<C> sortedChunks = getSortedChunks();
         int pointCount = metadata.getIndex().getPointCount();
@@ -156,6 +156,7 @@ public interface ArrayChunk<P extends AbstractPoint, A extends ArrayChunk<P, A>>
         private TDoubleArrayList doubleValues;
         private List<String> stringValues;
         private TIntArrayList stepLengths;
+        private byte[] xorValues;
         private int uncompressedLength = -1;
         private boolean valuesOrLengthArray = false;
 
@@ -193,6 +194,10 @@ public interface ArrayChunk<P extends AbstractPoint, A extends ArrayChunk<P, A>>
             case "stepValues":
                 context.valuesOrLengthArray = true;
                 break;
+            case "xorValues":
+                parser.nextToken();
+                context.xorValues = parser.getBinaryValue();
+                break;
             default:
                 break;
         }
@@ -231,8 +236,16 @@ public interface ArrayChunk<P extends AbstractPoint, A extends ArrayChunk<P, A>>
         }
     }
 
+    static void addXorCompressedChunk(JsonParsingContext context) {
+        context.doubleChunks.add(new XorCompressedDoubleArrayChunk(context.offset, context.uncompressedLength, context.xorValues));
+        context.xorValues = null;
+        context.uncompressedLength = -1;
+    }
+
     static void parseEndObject(JsonParsingContext context) {
-        if (context.stepLengths == null) {
+        if (context.xorValues != null) {
+            addXorCompressedChunk(context);
+        } else if (context.stepLengths == null) {
             addUncompressedChunk(context);
         } else {
             addCompressedChunk(context);
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import com.google.common.math.IntMath;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * A double buffer indexed by a long, split in several {@link DoubleBuffer} so that its size is not limited to 2 GB.
+ * Each underlying buffer is allocated separately, so it can be a direct buffer or a memory mapped file region.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class BigDoubleBuffer {
+
+    /**
+     * Maximum number of doubles of an underlying buffer (1 GB).
+     */
+    public static final int MAX_BUFFER_SIZE = 1 << 27;
+
+    private final long capacity;
+
+    private final int bufferSize;
+
+    private final DoubleBuffer[] buffers;
+
+    public BigDoubleBuffer(IntFunction<ByteBuffer> byteBufferAllocator, long capacity) {
+        this(byteBufferAllocator, capacity, MAX_BUFFER_SIZE);
+    }
+
+    /**
+     * @param byteBufferAllocator the allocator of each underlying buffer
+     * @param capacity the number of doubles of the buffer
+     * @param bufferSize the number of doubles of each underlying buffer (except the last one which can be smaller)
+     */
+    public BigDoubleBuffer(IntFunction<ByteBuffer> byteBufferAllocator, long capacity, int bufferSize) {
+        Objects.requireNonNull(byteBufferAllocator);
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Invalid buffer capacity: " + capacity);
+        }
+        if (bufferSize < 1 || bufferSize > MAX_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Invalid buffer size: " + bufferSize);
+        }
+        this.capacity = capacity;
+        this.bufferSize = bufferSize;
+        int bufferCount = (int) ((capacity + bufferSize - 1) / bufferSize);
+        buffers = new DoubleBuffer[bufferCount];
+        for (int i = 0; i < bufferCount; i++) {
+            int size = (int) Math.min(bufferSize, capacity - (long) i * bufferSize);
+            buffers[i] = byteBufferAllocator.apply(IntMath.checkedMultiply(size, Double.BYTES)).asDoubleBuffer();
+        }
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getBufferCount() {
+        return buffers.length;
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= capacity) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of range [0, " + capacity + "[");
+        }
+    }
+
+    /**
+     * Get the underlying buffer containing a value.
+     *
+     * @param index the index of the value
+     * @return the underlying buffer, the value being at {@link #getBufferOffset(long)}
+     */
+    public DoubleBuffer getBuffer(long index) {
+        checkIndex(index);
+        return buffers[(int) (index / bufferSize)];
+    }
+
+    /**
+     * Get the index of a value in its underlying buffer.
+     */
+    public int getBufferOffset(long index) {
+        checkIndex(index);
+        return (int) (index % bufferSize);
+    }
+
+    public double get(long index) {
+        return getBuffer(index).get((int) (index % bufferSize));
+    }
+
+    public void put(long index, double value) {
+        getBuffer(index).put((int) (index % bufferSize), value);
+    }
+
+    /**
+     * Bulk copy of values to an array, values can be located in several underlying buffers. This method is thread
+     * safe as the position of underlying buffers is not modified.
+     */
+    public void get(long index, double[] values, int offset, int length) {
+        Objects.requireNonNull(values);
+        if (offset < 0 || length < 0 || offset + length > values.length) {
+            throw new IndexOutOfBoundsException("Invalid array range [" + offset + ", " + (offset + length) + "[");
+        }
+        if (length == 0) {
+            return;
+        }
+        checkIndex(index);
+        checkIndex(index + length - 1);
+        long i = index;
+        int o = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            DoubleBuffer buffer = buffers[(int) (i / bufferSize)].duplicate();
+            int bufferOffset = (int) (i % bufferSize);
+            int n = Math.min(remaining, buffer.capacity() - bufferOffset);
+            buffer.position(bufferOffset);
+            buffer.get(values, o, n);
+            i += n;
+            o += n;
+            remaining -= n;
+        }
+    }
+
+    public void get(long index, double[] values) {
+        get(index, values, 0, values.length);
+    }
+
+    public void fill(double value) {
+        for (DoubleBuffer buffer : buffers) {
+            for (int i = 0; i < buffer.capacity(); i++) {
+                buffer.put(i, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class BinaryOperationNodeCalc implements NodeCalc {
+
+    public enum Operator {
+        PLUS("+"),
+        MINUS("-"),
+        MULTIPLY("*"),
+        DIVIDE("/"),
+        MIN("min"),
+        MAX("max");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+    }
+
+    private final NodeCalc left;
+
+    private final NodeCalc right;
+
+    private final Operator operator;
+
+    public BinaryOperationNodeCalc(NodeCalc left, NodeCalc right, Operator operator) {
+        this.left = Objects.requireNonNull(left);
+        this.right = Objects.requireNonNull(right);
+        this.operator = Objects.requireNonNull(operator);
+    }
+
+    public NodeCalc getLeft() {
+        return left;
+    }
+
+    public NodeCalc getRight() {
+        return right;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    @Override
+    public void evaluate(NodeCalcContext context, int fromPoint, double[] values) {
+        left.evaluate(context, fromPoint, values);
+        double[] rightValues = context.borrowArray(values.length);
+        try {
+            right.evaluate(context, fromPoint, rightValues);
+            // one loop per operator so that loops are as simple as possible
+            switch (operator) {
+                case PLUS:
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] += rightValues[i];
+                    }
+                    break;
+                case MINUS:
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] -= rightValues[i];
+                    }
+                    break;
+                case MULTIPLY:
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] *= rightValues[i];
+                    }
+                    break;
+                case DIVIDE:
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] /= rightValues[i];
+                    }
+                    break;
+                case MIN:
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = Math.min(values[i], rightValues[i]);
+                    }
+                    break;
+                case MAX:
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = Math.max(values[i], rightValues[i]);
+                    }
+                    break;
+                default:
+                    throw new AssertionError("Unknown operator " + operator);
+            }
+        } finally {
+            context.releaseArray(rightValues);
+        }
+    }
+
+    @Override
+    public void collectTimeSeries(List<DoubleTimeSeries> timeSeriesList) {
+        left.collectTimeSeries(timeSeriesList);
+        right.collectTimeSeries(timeSeriesList);
+    }
+
+    @Override
+    public String toString() {
+        if (operator == Operator.MIN || operator == Operator.MAX) {
+            return operator.getSymbol() + "(" + left + ", " + right + ")";
+        }
+        return "(" + left + " " + operator.getSymbol() + " " + right + ")";
+    }
+}
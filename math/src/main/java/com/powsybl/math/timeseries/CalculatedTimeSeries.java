@@ -0,0 +1,264 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.nio.DoubleBuffer;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Double time series which values are lazily calculated from other time series using an expression tree
+ * ({@link NodeCalc}). Values are never stored, the expression is evaluated by blocks of points each time data is
+ * requested, only data of referenced time series needed by the block being read.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class CalculatedTimeSeries implements DoubleTimeSeries {
+
+    static final int BLOCK_SIZE = 4096;
+
+    /**
+     * Consumer of the values of a block of points.
+     */
+    @FunctionalInterface
+    public interface BlockConsumer {
+
+        /**
+         * @param timeSeriesNum number of the time series in the evaluated list
+         * @param fromPoint first point of the block
+         * @param values values of the block, the array is reused for next blocks
+         */
+        void accept(int timeSeriesNum, int fromPoint, double[] values);
+    }
+
+    private final NodeCalc nodeCalc;
+
+    private final TimeSeriesMetadata metadata;
+
+    public CalculatedTimeSeries(String name, NodeCalc nodeCalc) {
+        Objects.requireNonNull(name);
+        this.nodeCalc = Objects.requireNonNull(nodeCalc);
+        metadata = new TimeSeriesMetadata(name, TimeSeriesDataType.DOUBLE, computeIndex(name, nodeCalc));
+    }
+
+    private static TimeSeriesIndex computeIndex(String name, NodeCalc nodeCalc) {
+        List<DoubleTimeSeries> timeSeriesList = new ArrayList<>();
+        nodeCalc.collectTimeSeries(timeSeriesList);
+        if (timeSeriesList.isEmpty()) {
+            throw new TimeSeriesException("Calculated time series '" + name + "' does not reference any time series");
+        }
+        TimeSeriesIndex index = timeSeriesList.get(0).getMetadata().getIndex();
+        for (DoubleTimeSeries timeSeries : timeSeriesList) {
+            if (!index.equals(timeSeries.getMetadata().getIndex())) {
+                throw new TimeSeriesException("Time series referenced by '" + name + "' must have the same index: "
+                        + index + " != " + timeSeries.getMetadata().getIndex());
+            }
+        }
+        return index;
+    }
+
+    public NodeCalc getNodeCalc() {
+        return nodeCalc;
+    }
+
+    @Override
+    public TimeSeriesMetadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Evaluate several calculated time series block by block. Evaluation of all the time series on a block shares
+     * the same context, so a time series referenced by several expressions is only read once per block.
+     *
+     * @param timeSeriesList the calculated time series, they must have the same index
+     * @param consumer the consumer of calculated values
+     */
+    public static void evaluate(List<CalculatedTimeSeries> timeSeriesList, BlockConsumer consumer) {
+        Objects.requireNonNull(timeSeriesList);
+        Objects.requireNonNull(consumer);
+        if (timeSeriesList.isEmpty()) {
+            return;
+        }
+        TimeSeriesIndex index = timeSeriesList.get(0).getMetadata().getIndex();
+        for (CalculatedTimeSeries timeSeries : timeSeriesList) {
+            if (!index.equals(timeSeries.getMetadata().getIndex())) {
+                throw new TimeSeriesException("Time series must have the same index");
+            }
+        }
+        NodeCalcContext context = new NodeCalcContext();
+        int pointCount = index.getPointCount();
+        double[] values = new double[Math.min(BLOCK_SIZE, pointCount)];
+        for (int fromPoint = 0; fromPoint < pointCount; fromPoint += BLOCK_SIZE) {
+            if (fromPoint + values.length > pointCount) {
+                // last block
+                values = new double[pointCount - fromPoint];
+            }
+            for (int timeSeriesNum = 0; timeSeriesNum < timeSeriesList.size(); timeSeriesNum++) {
+                timeSeriesList.get(timeSeriesNum).nodeCalc.evaluate(context, fromPoint, values);
+                consumer.accept(timeSeriesNum, fromPoint, values);
+            }
+        }
+    }
+
+    private void evaluate(int fromPoint, int toPoint, BlockConsumer consumer) {
+        NodeCalcContext context = new NodeCalcContext();
+        double[] values = new double[Math.min(BLOCK_SIZE, toPoint - fromPoint)];
+        for (int point = fromPoint; point < toPoint; point += BLOCK_SIZE) {
+            if (point + values.length > toPoint) {
+                values = new double[toPoint - point];
+            }
+            nodeCalc.evaluate(context, point, values);
+            consumer.accept(0, point, values);
+        }
+    }
+
+    @Override
+    public void fillBuffer(DoubleBuffer buffer, int timeSeriesOffset) {
+        Objects.requireNonNull(buffer);
+        // bulk copy using a duplicate so that buffer position is not modified
+        DoubleBuffer duplicate = buffer.duplicate();
+        evaluate(0, metadata.getIndex().getPointCount(), (timeSeriesNum, fromPoint, values) -> {
+            duplicate.position(timeSeriesOffset + fromPoint);
+            duplicate.put(values);
+        });
+    }
+
+    @Override
+    public void fillArray(double[] array, int fromPoint) {
+        Objects.requireNonNull(array);
+        evaluate(fromPoint, fromPoint + array.length, (timeSeriesNum, point, values) -> System.arraycopy(values, 0, array, point - fromPoint, values.length));
+    }
+
+    @Override
+    public double[] toArray() {
+        double[] array = new double[metadata.getIndex().getPointCount()];
+        fillArray(array, 0);
+        return array;
+    }
+
+    @Override
+    public void synchronize(TimeSeriesIndex newIndex) {
+        Objects.requireNonNull(newIndex);
+        if (!metadata.getIndex().equals(newIndex)) {
+            throw new UnsupportedOperationException("Not yet implemented");
+        }
+    }
+
+    @Override
+    public DoubleCursor cursor() {
+        TimeSeriesIndex index = metadata.getIndex();
+        return new DoubleCursor() {
+
+            private final NodeCalcContext context = new NodeCalcContext();
+
+            private double[] values = new double[0];
+
+            private int blockOffset = 0;
+
+            private int point = -1;
+
+            @Override
+            public boolean next() {
+                if (point < index.getPointCount()) {
+                    point++;
+                }
+                if (point == index.getPointCount()) {
+                    return false;
+                }
+                if (point == blockOffset + values.length) {
+                    // evaluate next block
+                    blockOffset = point;
+                    int length = Math.min(BLOCK_SIZE, index.getPointCount() - point);
+                    if (values.length != length) {
+                        values = new double[length];
+                    }
+                    nodeCalc.evaluate(context, blockOffset, values);
+                }
+                return true;
+            }
+
+            @Override
+            public int getIndex() {
+                return point;
+            }
+
+            @Override
+            public int getLength() {
+                return 1;
+            }
+
+            @Override
+            public long getTime() {
+                return index.getTimeAt(point);
+            }
+
+            @Override
+            public double getValue() {
+                return values[point - blockOffset];
+            }
+        };
+    }
+
+    @Override
+    public Iterator<DoublePoint> iterator() {
+        DoubleCursor cursor = cursor();
+        return new Iterator<DoublePoint>() {
+
+            private boolean hasNext = cursor.next();
+
+            @Override
+            public boolean hasNext() {
+                return hasNext;
+            }
+
+            @Override
+            public DoublePoint next() {
+                if (!hasNext) {
+                    throw new NoSuchElementException();
+                }
+                DoublePoint point = new DoublePoint(cursor.getIndex(), cursor.getTime(), cursor.getValue());
+                hasNext = cursor.next();
+                return point;
+            }
+        };
+    }
+
+    @Override
+    public Stream<DoublePoint> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), metadata.getIndex().getPointCount(),
+                Spliterator.ORDERED | Spliterator.IMMUTABLE), false);
+    }
+
+    /**
+     * Calculate all the values and store them (compressed if efficient) in a new time series.
+     */
+    public StoredDoubleTimeSeries toStoredTimeSeries() {
+        return new StoredDoubleTimeSeries(metadata, new UncompressedDoubleArrayChunk(0, toArray()).tryToCompress());
+    }
+
+    @Override
+    public List<DoubleTimeSeries> split(int newChunkSize) {
+        return toStoredTimeSeries().split(newChunkSize);
+    }
+
+    /**
+     * Write calculated values as a stored time series: the expression is not serialized, so the time series is read
+     * back as a {@link StoredDoubleTimeSeries}.
+     */
+    @Override
+    public void writeJson(JsonGenerator generator) {
+        toStoredTimeSeries().writeJson(generator);
+    }
+
+    @Override
+    public String toString() {
+        return "CalculatedTimeSeries(name=" + metadata.getName() + ", nodeCalc=" + nodeCalc + ")";
+    }
+}
@@ -62,6 +62,21 @@ public class CompressedDoubleArrayChunk extends AbstractCompressedArrayChunk imp
         }
     }
 
+    @Override
+    public void fillArray(double[] array, int fromPoint) {
+        Objects.requireNonNull(array);
+        int toPoint = fromPoint + array.length;
+        int k = offset;
+        for (int i = 0; i < stepValues.length && k < toPoint; i++) {
+            int start = Math.max(k, fromPoint);
+            int end = Math.min(k + stepLengths[i], toPoint);
+            if (start < end) {
+                Arrays.fill(array, start - fromPoint, end - fromPoint, stepValues[i]);
+            }
+            k += stepLengths[i];
+        }
+    }
+
     @Override
     public Iterator<DoublePoint> iterator(TimeSeriesIndex index) {
         Objects.requireNonNull(index);
@@ -88,6 +103,47 @@ public class CompressedDoubleArrayChunk extends AbstractCompressedArrayChunk imp
         };
     }
 
+    @Override
+    public DoubleCursor cursor(TimeSeriesIndex index) {
+        Objects.requireNonNull(index);
+        return new DoubleCursor() {
+
+            private int i = offset;
+            private int step = -1;
+
+            @Override
+            public boolean next() {
+                if (step < stepValues.length) {
+                    if (step >= 0) {
+                        i += stepLengths[step];
+                    }
+                    step++;
+                }
+                return step < stepValues.length;
+            }
+
+            @Override
+            public int getIndex() {
+                return i;
+            }
+
+            @Override
+            public int getLength() {
+                return stepLengths[step];
+            }
+
+            @Override
+            public long getTime() {
+                return index.getTimeAt(i);
+            }
+
+            @Override
+            public double getValue() {
+                return stepValues[step];
+            }
+        };
+    }
+
     @Override
     public Stream<DoublePoint> stream(TimeSeriesIndex index) {
         return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class ConstantNodeCalc implements NodeCalc {
+
+    private final double value;
+
+    public ConstantNodeCalc(double value) {
+        this.value = value;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    public void evaluate(NodeCalcContext context, int fromPoint, double[] values) {
+        Arrays.fill(values, value);
+    }
+
+    @Override
+    public void collectTimeSeries(List<DoubleTimeSeries> timeSeriesList) {
+        // no time series
+    }
+
+    @Override
+    public String toString() {
+        return Double.toString(value);
+    }
+}
@@ -7,6 +7,7 @@
 package com.powsybl.math.timeseries;
 
 import java.nio.DoubleBuffer;
+import java.util.Objects;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -14,4 +15,33 @@ import java.nio.DoubleBuffer;
 public interface DoubleArrayChunk extends ArrayChunk<DoublePoint, DoubleArrayChunk> {
 
     void fillBuffer(DoubleBuffer buffer, int timeSeriesOffset);
+
+    /**
+     * Copy values of the chunk included in a range of points to an array. Array items of points not included in the
+     * chunk are not modified. This default implementation uncompresses the whole chunk using
+     * {@link #fillBuffer(DoubleBuffer, int)}, as iterating over points would require the time series index.
+     *
+     * @param array the array to fill, first item corresponding to {@code fromPoint}
+     * @param fromPoint first point of the range
+     */
+    default void fillArray(double[] array, int fromPoint) {
+        Objects.requireNonNull(array);
+        int start = Math.max(getOffset(), fromPoint);
+        int end = Math.min(getOffset() + getLength(), fromPoint + array.length);
+        if (start < end) {
+            DoubleBuffer buffer = DoubleBuffer.allocate(getLength());
+            fillBuffer(buffer, -getOffset());
+            buffer.position(start - getOffset());
+            buffer.get(array, start - fromPoint, end - start);
+        }
+    }
+
+    /**
+     * Get a cursor on the steps of the chunk. This default implementation adapts {@link #iterator(TimeSeriesIndex)}.
+     *
+     * @param index the time series index, to get times of the points
+     */
+    default DoubleCursor cursor(TimeSeriesIndex index) {
+        return DoubleCursor.fromPoints(iterator(index), getOffset() + getLength());
+    }
 }
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Allocation free cursor on double time series data. The cursor moves step by step, a step being a run of
+ * consecutive points with the same value: a step of a compressed chunk, or a single point of an uncompressed chunk.
+ * The cursor is initially before the first step, so {@link #next()} has to be called before reading the first step.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public interface DoubleCursor {
+
+    /**
+     * Move to next step.
+     *
+     * @return false if there is no more step
+     */
+    boolean next();
+
+    /**
+     * Get the index of the first point of the current step.
+     */
+    int getIndex();
+
+    /**
+     * Get the number of points of the current step.
+     */
+    int getLength();
+
+    /**
+     * Get the time of the first point of the current step.
+     */
+    long getTime();
+
+    double getValue();
+
+    /**
+     * Adapt an iterator on points to a cursor, each point starting a step which lasts until the next point.
+     *
+     * @param points the points, sorted by index
+     * @param endPoint the point following the last step
+     */
+    static DoubleCursor fromPoints(Iterator<DoublePoint> points, int endPoint) {
+        Objects.requireNonNull(points);
+        return new DoubleCursor() {
+
+            private DoublePoint point;
+
+            private DoublePoint nextPoint;
+
+            @Override
+            public boolean next() {
+                point = point == null ? (points.hasNext() ? points.next() : null) : nextPoint;
+                nextPoint = point != null && points.hasNext() ? points.next() : null;
+                return point != null;
+            }
+
+            @Override
+            public int getIndex() {
+                return point.getIndex();
+            }
+
+            @Override
+            public int getLength() {
+                return (nextPoint != null ? nextPoint.getIndex() : endPoint) - point.getIndex();
+            }
+
+            @Override
+            public long getTime() {
+                return point.getTime();
+            }
+
+            @Override
+            public double getValue() {
+                return point.getValue();
+            }
+        };
+    }
+}
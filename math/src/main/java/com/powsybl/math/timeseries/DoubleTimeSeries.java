@@ -20,6 +20,58 @@ public interface DoubleTimeSeries extends TimeSeries<DoublePoint, DoubleTimeSeri
 
     double[] toArray();
 
+    /**
+     * Copy values of a range of points to an array, points without value being NaN. Only data needed for this range
+     * is read by implementations of this library, this default implementation iterates over points from the start
+     * of the time series.
+     *
+     * @param array the array to fill, first item corresponding to {@code fromPoint}
+     * @param fromPoint first point of the range
+     */
+    default void fillArray(double[] array, int fromPoint) {
+        Objects.requireNonNull(array);
+        Arrays.fill(array, Double.NaN);
+        int toPoint = fromPoint + array.length;
+        int pointCount = getMetadata().getIndex().getPointCount();
+        // a point of the iterator starts a step which lasts until the next point
+        Iterator<DoublePoint> it = iterator();
+        DoublePoint point = it.hasNext() ? it.next() : null;
+        while (point != null && point.getIndex() < toPoint) {
+            DoublePoint nextPoint = it.hasNext() ? it.next() : null;
+            int start = Math.max(point.getIndex(), fromPoint);
+            int end = Math.min(nextPoint != null ? nextPoint.getIndex() : pointCount, toPoint);
+            if (start < end) {
+                Arrays.fill(array, start - fromPoint, end - fromPoint, point.getValue());
+            }
+            point = nextPoint;
+        }
+    }
+
+    /**
+     * Get a cursor on the steps of the time series, missing values being NaN steps. Unlike {@link #iterator()} no
+     * object is created per step by implementations of this library, this default implementation adapts the
+     * iterator.
+     */
+    default DoubleCursor cursor() {
+        return DoubleCursor.fromPoints(iterator(), getMetadata().getIndex().getPointCount());
+    }
+
+    /**
+     * Visit all the points of the time series, steps being expanded to their points.
+     */
+    default void forEachPoint(DoublePointConsumer consumer) {
+        Objects.requireNonNull(consumer);
+        TimeSeriesIndex index = getMetadata().getIndex();
+        DoubleCursor cursor = cursor();
+        while (cursor.next()) {
+            double value = cursor.getValue();
+            int toPoint = cursor.getIndex() + cursor.getLength();
+            for (int point = cursor.getIndex(); point < toPoint; point++) {
+                consumer.accept(point, index.getTimeAt(point), value);
+            }
+        }
+    }
+
     static Iterator<DoubleMultiPoint> iterator(List<DoubleTimeSeries> timeSeriesList) {
         Objects.requireNonNull(timeSeriesList);
 
@@ -36,64 +88,60 @@ public interface DoubleTimeSeries extends TimeSeries<DoublePoint, DoubleTimeSeri
             throw new TimeSeriesException("Time series must have the same index");
         }
 
-        class DoublePointExt {
-
-            private final DoublePoint point;
-
-            private final int timeSeriesNum;
-
-            DoublePointExt(DoublePoint point, int timeSeriesNum) {
-                this.point = point;
-                this.timeSeriesNum = timeSeriesNum;
-            }
-
-            public DoublePoint getPoint() {
-                return point;
-            }
-
-            public int getTimeSeriesNum() {
-                return timeSeriesNum;
-            }
-        }
-
-        Map<Integer, List<DoublePointExt>> points = new TreeMap<>();
+        // merge steps of all the time series, using one cursor per time series
+        TimeSeriesIndex index = timeSeriesList.get(0).getMetadata().getIndex();
+        DoubleCursor[] cursors = new DoubleCursor[timeSeriesList.size()];
+        boolean[] hasStep = new boolean[timeSeriesList.size()];
         for (int timeSeriesNum = 0; timeSeriesNum < timeSeriesList.size(); timeSeriesNum++) {
-            DoubleTimeSeries timeSeries = timeSeriesList.get(timeSeriesNum);
-            for (DoublePoint point : timeSeries) {
-                points.computeIfAbsent(point.getIndex(), key -> new ArrayList<>())
-                        .add(new DoublePointExt(point, timeSeriesNum));
-            }
+            cursors[timeSeriesNum] = timeSeriesList.get(timeSeriesNum).cursor();
+            hasStep[timeSeriesNum] = cursors[timeSeriesNum].next();
         }
 
-        Iterator<Map.Entry<Integer, List<DoublePointExt>>> it = points.entrySet().iterator();
-
         return new Iterator<DoubleMultiPoint>() {
 
             private final double[] values = new double[timeSeriesList.size()];
 
             @Override
             public boolean hasNext() {
-                return it.hasNext();
+                for (boolean b : hasStep) {
+                    if (b) {
+                        return true;
+                    }
+                }
+                return false;
             }
 
             @Override
             public DoubleMultiPoint next() {
-                Map.Entry<Integer, List<DoublePointExt>> e = it.next();
+                int point = Integer.MAX_VALUE;
+                for (int timeSeriesNum = 0; timeSeriesNum < cursors.length; timeSeriesNum++) {
+                    if (hasStep[timeSeriesNum]) {
+                        point = Math.min(point, cursors[timeSeriesNum].getIndex());
+                    }
+                }
+                if (point == Integer.MAX_VALUE) {
+                    throw new NoSuchElementException();
+                }
 
                 // update values
-                for (DoublePointExt point : e.getValue()) {
-                    values[point.getTimeSeriesNum()] = point.getPoint().getValue();
+                for (int timeSeriesNum = 0; timeSeriesNum < cursors.length; timeSeriesNum++) {
+                    if (hasStep[timeSeriesNum] && cursors[timeSeriesNum].getIndex() == point) {
+                        values[timeSeriesNum] = cursors[timeSeriesNum].getValue();
+                        hasStep[timeSeriesNum] = cursors[timeSeriesNum].next();
+                    }
                 }
 
+                int finalPoint = point;
+                long time = index.getTimeAt(point);
                 return new DoubleMultiPoint() {
                     @Override
                     public int getIndex() {
-                        return e.getKey();
+                        return finalPoint;
                     }
 
                     @Override
                     public long getTime() {
-                        return e.getValue().get(0).getPoint().getTime();
+                        return time;
                     }
 
                     @Override
@@ -0,0 +1,361 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Aggregation of double time series values by fixed duration time windows (for instance hourly mean, min and max
+ * of one minute data). Windows are aligned on the first time of the time series index.
+ * <p>
+ * Values are read directly from chunk arrays: a step of a compressed chunk is aggregated as a whole (value times
+ * step length) without being expanded. NaN values are ignored and a window without any value is NaN (0 for
+ * {@link Type#COUNT}).
+ * <p>
+ * Aggregated windows can be aggregated again to build a pyramid of resolutions (for instance hour, day, week), each
+ * level being computed from the previous one and not from raw data.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public final class DoubleTimeSeriesAggregator {
+
+    public static final String AGGREGATION_TAG = "aggregation";
+
+    public static final String SPACING_TAG = "spacing";
+
+    public static final String SOURCE_TAG = "source";
+
+    private static final int BLOCK_SIZE = 4096;
+
+    public enum Type {
+        MIN,
+        MAX,
+        SUM,
+        MEAN,
+        COUNT
+    }
+
+    /**
+     * Statistics of consecutive time windows.
+     */
+    public static final class Windows {
+
+        private final long startTime;
+
+        private final long spacing;
+
+        private final int[] counts;
+
+        private final double[] sums;
+
+        private final double[] mins;
+
+        private final double[] maxs;
+
+        private Windows(long startTime, long spacing, int windowCount) {
+            this.startTime = startTime;
+            this.spacing = spacing;
+            counts = new int[windowCount];
+            sums = new double[windowCount];
+            mins = new double[windowCount];
+            maxs = new double[windowCount];
+            Arrays.fill(mins, Double.POSITIVE_INFINITY);
+            Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+        }
+
+        private void add(int window, double value, int length) {
+            if (!Double.isNaN(value)) {
+                counts[window] += length;
+                sums[window] += value * length;
+                if (value < mins[window]) {
+                    mins[window] = value;
+                }
+                if (value > maxs[window]) {
+                    maxs[window] = value;
+                }
+            }
+        }
+
+        private void add(int window, double[] values, int from, int to) {
+            int count = 0;
+            double sum = 0;
+            double min = mins[window];
+            double max = maxs[window];
+            for (int i = from; i < to; i++) {
+                double value = values[i];
+                if (!Double.isNaN(value)) {
+                    count++;
+                    sum += value;
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+            }
+            counts[window] += count;
+            sums[window] += sum;
+            mins[window] = min;
+            maxs[window] = max;
+        }
+
+        public long getStartTime() {
+            return startTime;
+        }
+
+        public Duration getSpacing() {
+            return Duration.ofMillis(spacing);
+        }
+
+        public int getWindowCount() {
+            return counts.length;
+        }
+
+        public long getTimeAt(int window) {
+            return startTime + window * spacing;
+        }
+
+        public double getValue(Type type, int window) {
+            Objects.requireNonNull(type);
+            if (type == Type.COUNT) {
+                return counts[window];
+            }
+            if (counts[window] == 0) {
+                return Double.NaN;
+            }
+            switch (type) {
+                case MIN:
+                    return mins[window];
+                case MAX:
+                    return maxs[window];
+                case SUM:
+                    return sums[window];
+                case MEAN:
+                    return sums[window] / counts[window];
+                default:
+                    throw new AssertionError("Unknown aggregation type " + type);
+            }
+        }
+
+        public double[] getValues(Type type) {
+            double[] values = new double[counts.length];
+            for (int window = 0; window < counts.length; window++) {
+                values[window] = getValue(type, window);
+            }
+            return values;
+        }
+
+        /**
+         * Index of the windows, a window time being its start time.
+         */
+        public TimeSeriesIndex getIndex() {
+            if (counts.length == 1) {
+                return new IrregularTimeSeriesIndex(new long[] {startTime});
+            }
+            return new RegularTimeSeriesIndex(startTime, getTimeAt(counts.length - 1), spacing);
+        }
+
+        /**
+         * Aggregate windows by longer windows.
+         *
+         * @param newSpacing the new window duration, has to be a multiple of current one
+         */
+        public Windows aggregate(Duration newSpacing) {
+            Objects.requireNonNull(newSpacing);
+            long newSpacingMillis = newSpacing.toMillis();
+            if (newSpacingMillis < spacing || newSpacingMillis % spacing != 0) {
+                throw new IllegalArgumentException("Spacing " + newSpacing + " is not a multiple of " + getSpacing());
+            }
+            // a factor greater than the number of windows gives a single window
+            int factor = (int) Math.min(newSpacingMillis / spacing, counts.length);
+            Windows newWindows = new Windows(startTime, newSpacingMillis, (counts.length + factor - 1) / factor);
+            for (int window = 0; window < counts.length; window++) {
+                int newWindow = window / factor;
+                newWindows.counts[newWindow] += counts[window];
+                newWindows.sums[newWindow] += sums[window];
+                newWindows.mins[newWindow] = Math.min(newWindows.mins[newWindow], mins[window]);
+                newWindows.maxs[newWindow] = Math.max(newWindows.maxs[newWindow], maxs[window]);
+            }
+            return newWindows;
+        }
+
+        /**
+         * Create a time series from aggregated values, named as {@link #getAggregatedName(String, Type, Duration)}
+         * and tagged with the aggregation type, the spacing and the source time series name.
+         */
+        public StoredDoubleTimeSeries toTimeSeries(String sourceName, Type type) {
+            Objects.requireNonNull(sourceName);
+            Map<String, String> tags = ImmutableMap.of(AGGREGATION_TAG, type.name(),
+                                                       SPACING_TAG, getSpacing().toString(),
+                                                       SOURCE_TAG, sourceName);
+            TimeSeriesMetadata metadata = new TimeSeriesMetadata(getAggregatedName(sourceName, type, getSpacing()),
+                                                                 TimeSeriesDataType.DOUBLE, tags, getIndex());
+            return new StoredDoubleTimeSeries(metadata, new UncompressedDoubleArrayChunk(0, getValues(type)).tryToCompress());
+        }
+    }
+
+    private DoubleTimeSeriesAggregator() {
+    }
+
+    public static String getAggregatedName(String name, Type type, Duration spacing) {
+        return name + "_" + type + "_" + spacing;
+    }
+
+    /**
+     * Find the first point of range [fromPoint, toPoint[ which time is greater or equal than a time (binary search).
+     */
+    private static int findPoint(TimeSeriesIndex index, long time, int fromPoint, int toPoint) {
+        int low = fromPoint;
+        int high = toPoint;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (index.getTimeAt(middle) < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int getWindow(Windows windows, TimeSeriesIndex index, int point) {
+        return (int) ((index.getTimeAt(point) - windows.startTime) / windows.spacing);
+    }
+
+    /**
+     * Aggregate a step of same values, split by windows.
+     */
+    private static void addStep(Windows windows, TimeSeriesIndex index, int fromPoint, int toPoint, double value) {
+        int point = fromPoint;
+        while (point < toPoint) {
+            int window = getWindow(windows, index, point);
+            int nextPoint = findPoint(index, windows.getTimeAt(window + 1), point + 1, toPoint);
+            windows.add(window, value, nextPoint - point);
+            point = nextPoint;
+        }
+    }
+
+    /**
+     * Aggregate an array of values, values[0] being at point fromPoint.
+     */
+    private static void addValues(Windows windows, TimeSeriesIndex index, int fromPoint, double[] values) {
+        int toPoint = fromPoint + values.length;
+        int point = fromPoint;
+        while (point < toPoint) {
+            int window = getWindow(windows, index, point);
+            int nextPoint = findPoint(index, windows.getTimeAt(window + 1), point + 1, toPoint);
+            windows.add(window, values, point - fromPoint, nextPoint - fromPoint);
+            point = nextPoint;
+        }
+    }
+
+    private static void addChunk(Windows windows, TimeSeriesIndex index, DoubleArrayChunk chunk) {
+        if (chunk instanceof UncompressedDoubleArrayChunk) {
+            addValues(windows, index, chunk.getOffset(), ((UncompressedDoubleArrayChunk) chunk).getValues());
+        } else if (chunk instanceof CompressedDoubleArrayChunk) {
+            CompressedDoubleArrayChunk compressedChunk = (CompressedDoubleArrayChunk) chunk;
+            double[] stepValues = compressedChunk.getStepValues();
+            int[] stepLengths = compressedChunk.getStepLengths();
+            int point = chunk.getOffset();
+            for (int step = 0; step < stepValues.length; step++) {
+                addStep(windows, index, point, point + stepLengths[step], stepValues[step]);
+                point += stepLengths[step];
+            }
+        } else if (chunk instanceof XorCompressedDoubleArrayChunk) {
+            addValues(windows, index, chunk.getOffset(), ((XorCompressedDoubleArrayChunk) chunk).uncompress());
+        } else {
+            double[] values = new double[chunk.getLength()];
+            chunk.fillArray(values, chunk.getOffset());
+            addValues(windows, index, chunk.getOffset(), values);
+        }
+    }
+
+    /**
+     * Compute statistics of a time series by time windows.
+     *
+     * @param timeSeries the time series to aggregate
+     * @param spacing the duration of a window
+     */
+    public static Windows aggregate(DoubleTimeSeries timeSeries, Duration spacing) {
+        Objects.requireNonNull(timeSeries);
+        Objects.requireNonNull(spacing);
+        if (spacing.toMillis() <= 0) {
+            throw new IllegalArgumentException("Invalid spacing " + spacing);
+        }
+        TimeSeriesIndex index = timeSeries.getMetadata().getIndex();
+        int pointCount = index.getPointCount();
+        if (pointCount == 0) {
+            throw new IllegalArgumentException("Time series '" + timeSeries.getMetadata().getName() + "' is empty");
+        }
+        long startTime = index.getTimeAt(0);
+        long spacingMillis = spacing.toMillis();
+        long lastTime = index.getTimeAt(pointCount - 1);
+        int windowCount;
+        try {
+            windowCount = Math.toIntExact((lastTime - startTime) / spacingMillis + 1);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Too many windows of " + spacing + " to aggregate time series '"
+                    + timeSeries.getMetadata().getName() + "' from " + Instant.ofEpochMilli(startTime) + " to "
+                    + Instant.ofEpochMilli(lastTime), e);
+        }
+        Windows windows = new Windows(startTime, spacingMillis, windowCount);
+        if (timeSeries instanceof StoredDoubleTimeSeries) {
+            for (DoubleArrayChunk chunk : ((StoredDoubleTimeSeries) timeSeries).getChunks()) {
+                addChunk(windows, index, chunk);
+            }
+        } else {
+            // other time series (calculated) are read by blocks
+            double[] values = new double[Math.min(BLOCK_SIZE, pointCount)];
+            for (int point = 0; point < pointCount; point += BLOCK_SIZE) {
+                if (point + values.length > pointCount) {
+                    values = new double[pointCount - point];
+                }
+                timeSeries.fillArray(values, point);
+                addValues(windows, index, point, values);
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * Resample a time series: each value of the resampled time series is the aggregation of source values of a
+     * time window.
+     */
+    public static StoredDoubleTimeSeries resample(DoubleTimeSeries timeSeries, Duration spacing, Type type) {
+        Objects.requireNonNull(type);
+        return aggregate(timeSeries, spacing).toTimeSeries(timeSeries.getMetadata().getName(), type);
+    }
+
+    /**
+     * Create a pyramid of resampled time series, one per spacing and per aggregation type. Each level is aggregated
+     * from the previous one, so each spacing has to be a multiple of the previous one.
+     *
+     * @param timeSeries the time series to aggregate
+     * @param spacings increasing spacings of the levels
+     * @param types aggregation types
+     * @return resampled time series, level by level
+     */
+    public static List<StoredDoubleTimeSeries> createPyramid(DoubleTimeSeries timeSeries, List<Duration> spacings, Set<Type> types) {
+        Objects.requireNonNull(timeSeries);
+        Objects.requireNonNull(spacings);
+        Objects.requireNonNull(types);
+        if (spacings.isEmpty()) {
+            throw new IllegalArgumentException("Empty spacing list");
+        }
+        String name = timeSeries.getMetadata().getName();
+        List<StoredDoubleTimeSeries> pyramid = new ArrayList<>(spacings.size() * types.size());
+        Windows windows = null;
+        for (Duration spacing : spacings) {
+            windows = windows == null ? aggregate(timeSeries, spacing) : windows.aggregate(spacing);
+            for (Type type : types) {
+                pyramid.add(windows.toTimeSeries(name, type));
+            }
+        }
+        return pyramid;
+    }
+}
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import gnu.trove.list.array.TLongArrayList;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Time series index with arbitrary (strictly increasing) times. Times are serialized as a start time followed by
+ * the differences between consecutive times.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class IrregularTimeSeriesIndex implements TimeSeriesIndex {
+
+    public static final String TYPE = "irregularIndex";
+
+    private final long[] times; // in ms from epoch
+
+    public IrregularTimeSeriesIndex(long[] times) {
+        Objects.requireNonNull(times);
+        if (times.length == 0) {
+            throw new IllegalArgumentException("Empty time list");
+        }
+        if (times[0] < 0) {
+            throw new IllegalArgumentException("Bad time value " + times[0]);
+        }
+        for (int i = 1; i < times.length; i++) {
+            if (times[i] <= times[i - 1]) {
+                throw new IllegalArgumentException("Times are not strictly increasing at point " + i);
+            }
+        }
+        this.times = times;
+    }
+
+    public static IrregularTimeSeriesIndex create(Instant... instants) {
+        return create(Arrays.asList(instants));
+    }
+
+    public static IrregularTimeSeriesIndex create(List<Instant> instants) {
+        Objects.requireNonNull(instants);
+        return new IrregularTimeSeriesIndex(instants.stream().mapToLong(Instant::toEpochMilli).toArray());
+    }
+
+    /**
+     * Create the union of several indexes, i.e an index containing times of all the indexes.
+     */
+    public static IrregularTimeSeriesIndex union(TimeSeriesIndex... indexes) {
+        return union(Arrays.asList(indexes));
+    }
+
+    public static IrregularTimeSeriesIndex union(List<TimeSeriesIndex> indexes) {
+        Objects.requireNonNull(indexes);
+        if (indexes.isEmpty()) {
+            throw new IllegalArgumentException("Empty index list");
+        }
+        // k-way merge, each index being already sorted
+        int[] points = new int[indexes.size()];
+        TLongArrayList times = new TLongArrayList();
+        while (true) {
+            long minTime = Long.MAX_VALUE;
+            boolean found = false;
+            for (int i = 0; i < indexes.size(); i++) {
+                TimeSeriesIndex index = indexes.get(i);
+                if (points[i] < index.getPointCount()) {
+                    minTime = Math.min(minTime, index.getTimeAt(points[i]));
+                    found = true;
+                }
+            }
+            if (!found) {
+                break;
+            }
+            times.add(minTime);
+            for (int i = 0; i < indexes.size(); i++) {
+                TimeSeriesIndex index = indexes.get(i);
+                if (points[i] < index.getPointCount() && index.getTimeAt(points[i]) == minTime) {
+                    points[i]++;
+                }
+            }
+        }
+        return new IrregularTimeSeriesIndex(times.toArray());
+    }
+
+    public static IrregularTimeSeriesIndex parseJson(JsonParser parser) {
+        Objects.requireNonNull(parser);
+        JsonToken token;
+        try {
+            TLongArrayList times = null;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+                    switch (fieldName) {
+                        case "startTime":
+                            times = new TLongArrayList();
+                            times.add(parser.nextLongValue(-1));
+                            break;
+                        case "deltas":
+                            if (times == null) {
+                                throw new IllegalStateException("Start time is expected before deltas");
+                            }
+                            parseDeltas(parser, times);
+                            break;
+                        default:
+                            throw new IllegalStateException("Unexpected field " + fieldName);
+                    }
+                } else if (token == JsonToken.END_OBJECT) {
+                    if (times == null) {
+                        throw new IllegalStateException("Incomplete irregular time series index json");
+                    }
+                    return new IrregularTimeSeriesIndex(times.toArray());
+                }
+            }
+            throw new IllegalStateException("Should not happen");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void parseDeltas(JsonParser parser, TLongArrayList times) throws IOException {
+        JsonToken token;
+        long time = times.get(0);
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                time += parser.getLongValue();
+                times.add(time);
+            }
+        }
+    }
+
+    public long[] getTimes() {
+        return times;
+    }
+
+    @Override
+    public int getPointCount() {
+        return times.length;
+    }
+
+    @Override
+    public long getTimeAt(int point) {
+        return times[point];
+    }
+
+    /**
+     * Find a point by its time using a binary search.
+     *
+     * @param time a time in ms from epoch
+     * @return the point at this time, or (-(insertion point) - 1) if not found (see {@link Arrays#binarySearch(long[], long)})
+     */
+    public int getPointAt(long time) {
+        return Arrays.binarySearch(times, time);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(times);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof IrregularTimeSeriesIndex) {
+            IrregularTimeSeriesIndex otherIndex = (IrregularTimeSeriesIndex) obj;
+            return Arrays.equals(times, otherIndex.times);
+        }
+        return false;
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator) {
+        Objects.requireNonNull(generator);
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("startTime", times[0]);
+            generator.writeFieldName("deltas");
+            generator.writeStartArray();
+            for (int i = 1; i < times.length; i++) {
+                generator.writeNumber(times[i] - times[i - 1]);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IrregularTimeSeriesIndex(startTime=" + Instant.ofEpochMilli(times[0]) + ", endTime="
+                + Instant.ofEpochMilli(times[times.length - 1]) + ", pointCount=" + times.length + ")";
+    }
+}
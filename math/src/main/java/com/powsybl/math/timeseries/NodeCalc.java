@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import java.util.List;
+
+/**
+ * Node of a time series calculation expression tree. Nodes are evaluated on a range of points at once, each node
+ * writing its result in a primitive array so that operations are simple loops on arrays.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public interface NodeCalc {
+
+    /**
+     * Evaluate the node on a range of points.
+     *
+     * @param context the evaluation context
+     * @param fromPoint first point of the range
+     * @param values the array to fill with the result, its length being the number of points of the range
+     */
+    void evaluate(NodeCalcContext context, int fromPoint, double[] values);
+
+    /**
+     * Add time series referenced by this node and its children to a list.
+     */
+    void collectTimeSeries(List<DoubleTimeSeries> timeSeriesList);
+
+    static NodeCalc constant(double value) {
+        return new ConstantNodeCalc(value);
+    }
+
+    static NodeCalc timeSeries(DoubleTimeSeries timeSeries) {
+        return new TimeSeriesNodeCalc(timeSeries);
+    }
+
+    static NodeCalc plus(NodeCalc left, NodeCalc right) {
+        return new BinaryOperationNodeCalc(left, right, BinaryOperationNodeCalc.Operator.PLUS);
+    }
+
+    static NodeCalc minus(NodeCalc left, NodeCalc right) {
+        return new BinaryOperationNodeCalc(left, right, BinaryOperationNodeCalc.Operator.MINUS);
+    }
+
+    static NodeCalc multiply(NodeCalc left, NodeCalc right) {
+        return new BinaryOperationNodeCalc(left, right, BinaryOperationNodeCalc.Operator.MULTIPLY);
+    }
+
+    static NodeCalc divide(NodeCalc left, NodeCalc right) {
+        return new BinaryOperationNodeCalc(left, right, BinaryOperationNodeCalc.Operator.DIVIDE);
+    }
+
+    static NodeCalc min(NodeCalc left, NodeCalc right) {
+        return new BinaryOperationNodeCalc(left, right, BinaryOperationNodeCalc.Operator.MIN);
+    }
+
+    static NodeCalc max(NodeCalc left, NodeCalc right) {
+        return new BinaryOperationNodeCalc(left, right, BinaryOperationNodeCalc.Operator.MAX);
+    }
+
+    static NodeCalc negate(NodeCalc child) {
+        return new UnaryOperationNodeCalc(child, UnaryOperationNodeCalc.Operator.NEGATE);
+    }
+
+    static NodeCalc abs(NodeCalc child) {
+        return new UnaryOperationNodeCalc(child, UnaryOperationNodeCalc.Operator.ABS);
+    }
+}
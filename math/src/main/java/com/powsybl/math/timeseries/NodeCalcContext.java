@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import java.util.*;
+
+/**
+ * Evaluation context of {@link NodeCalc}, shared by all the nodes evaluated on the same range of points. Values of
+ * a time series referenced several times (by the same expression or by several expressions evaluated together) are
+ * only read once per range. Temporary arrays are recycled from one range to the next. This class is not thread safe.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class NodeCalcContext {
+
+    private final Map<DoubleTimeSeries, double[]> timeSeriesValues = new IdentityHashMap<>();
+
+    private int fromPoint = -1;
+
+    private int length = -1;
+
+    private final Deque<double[]> arrays = new ArrayDeque<>();
+
+    /**
+     * Get values of a time series on a range of points, the returned array must not be modified.
+     */
+    double[] getTimeSeriesValues(DoubleTimeSeries timeSeries, int fromPoint, int length) {
+        if (fromPoint != this.fromPoint || length != this.length) {
+            // new range, cached values are obsolete
+            timeSeriesValues.values().forEach(this::releaseArray);
+            timeSeriesValues.clear();
+            this.fromPoint = fromPoint;
+            this.length = length;
+        }
+        return timeSeriesValues.computeIfAbsent(timeSeries, ts -> {
+            double[] values = borrowArray(length);
+            ts.fillArray(values, fromPoint);
+            return values;
+        });
+    }
+
+    /**
+     * Get a temporary array, to be given back with {@link #releaseArray(double[])}.
+     */
+    double[] borrowArray(int length) {
+        double[] array = arrays.pollFirst();
+        if (array == null || array.length != length) {
+            array = new double[length];
+        }
+        return array;
+    }
+
+    void releaseArray(double[] array) {
+        arrays.addFirst(Objects.requireNonNull(array));
+    }
+}
@@ -118,7 +118,7 @@ public class RegularTimeSeriesIndex implements TimeSeriesIndex {
 
     @Override
     public boolean equals(Object obj) {
-        if (obj instanceof TimeSeriesIndex) {
+        if (obj instanceof RegularTimeSeriesIndex) {
             RegularTimeSeriesIndex otherIndex = (RegularTimeSeriesIndex) obj;
             return startTime == otherIndex.startTime &&
                     endTime == otherIndex.endTime &&
@@ -7,6 +7,7 @@
 package com.powsybl.math.timeseries;
 
 import java.nio.DoubleBuffer;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -50,6 +51,62 @@ public class StoredDoubleTimeSeries extends AbstractTimeSeries<DoublePoint, Doub
         chunks.forEach(chunk -> chunk.fillBuffer(buffer, timeSeriesOffset));
     }
 
+    @Override
+    public void fillArray(double[] array, int fromPoint) {
+        Objects.requireNonNull(array);
+        Arrays.fill(array, Double.NaN);
+        int toPoint = fromPoint + array.length;
+        for (DoubleArrayChunk chunk : chunks) {
+            // skip chunks out of range
+            if (chunk.getOffset() < toPoint && chunk.getOffset() + chunk.getLength() > fromPoint) {
+                chunk.fillArray(array, fromPoint);
+            }
+        }
+    }
+
+    @Override
+    public DoubleCursor cursor() {
+        List<DoubleArrayChunk> checkedChunks = getCheckedChunks(true);
+        TimeSeriesIndex index = metadata.getIndex();
+        return new DoubleCursor() {
+
+            private int chunkNum = 0;
+
+            private DoubleCursor chunkCursor;
+
+            @Override
+            public boolean next() {
+                while (chunkCursor == null || !chunkCursor.next()) {
+                    if (chunkNum == checkedChunks.size()) {
+                        return false;
+                    }
+                    chunkCursor = checkedChunks.get(chunkNum++).cursor(index);
+                }
+                return true;
+            }
+
+            @Override
+            public int getIndex() {
+                return chunkCursor.getIndex();
+            }
+
+            @Override
+            public int getLength() {
+                return chunkCursor.getLength();
+            }
+
+            @Override
+            public long getTime() {
+                return chunkCursor.getTime();
+            }
+
+            @Override
+            public double getValue() {
+                return chunkCursor.getValue();
+            }
+        };
+    }
+
     @Override
     public double[] toArray() {
         DoubleBuffer buffer = DoubleBuffer.allocate(metadata.getIndex().getPointCount());
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+/**
+ * Constants of the binary columnar time series file format, written by {@link TimeSeriesBinaryWriter} and read by
+ * {@link TimeSeriesBinaryReader}. All numbers are big endian.
+ *
+ * <pre>
+ * file      := MAGIC FORMAT_VERSION chunk* directory directoryPosition(long) MAGIC
+ * chunk     := padding (so that the chunk starts on a multiple of 8 bytes) chunk data
+ * directory := seriesCount(int) series*
+ * series    := metadataLength(int) metadata(UTF-8 JSON) versionCount(int) (version(int) chunkCount(int) chunkRef*)*
+ * chunkRef  := type(byte) position(long) size(int)
+ * </pre>
+ *
+ * Chunks of a time series version are written consecutively (columnar layout), so that a time series can be read
+ * without reading the other ones. Chunk data by type:
+ * <ul>
+ *     <li>{@link #DOUBLE_UNCOMPRESSED}: offset(int) length(int) values(double*), values are aligned on 8 bytes</li>
+ *     <li>{@link #DOUBLE_COMPRESSED}: offset(int) uncompressedLength(int) stepCount(int) 0(int) stepValues(double*) stepLengths(int*)</li>
+ *     <li>{@link #DOUBLE_XOR}: offset(int) uncompressedLength(int) byteCount(int) data(byte*)</li>
+ *     <li>{@link #STRING_UNCOMPRESSED}: offset(int) length(int) values(string*)</li>
+ *     <li>{@link #STRING_COMPRESSED}: offset(int) uncompressedLength(int) stepCount(int) stepValues(string*) stepLengths(int*)</li>
+ * </ul>
+ * where a string is its UTF-8 byte count (-1 for null) followed by its bytes.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+final class TimeSeriesBinaryFormat {
+
+    static final int MAGIC = 0x50545342; // "PTSB"
+
+    static final int FORMAT_VERSION = 1;
+
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    static final int FOOTER_SIZE = Long.BYTES + Integer.BYTES;
+
+    static final int ALIGNMENT = Double.BYTES;
+
+    static final byte DOUBLE_UNCOMPRESSED = 0;
+
+    static final byte DOUBLE_COMPRESSED = 1;
+
+    static final byte DOUBLE_XOR = 2;
+
+    static final byte STRING_UNCOMPRESSED = 3;
+
+    static final byte STRING_COMPRESSED = 4;
+
+    static final int NULL_STRING_LENGTH = -1;
+
+    /**
+     * Reference to a chunk in the directory.
+     */
+    static final class ChunkRef {
+
+        final byte type;
+
+        final long position;
+
+        final int size;
+
+        ChunkRef(byte type, long position, int size) {
+            this.type = type;
+            this.position = position;
+            this.size = size;
+        }
+    }
+
+    private TimeSeriesBinaryFormat() {
+    }
+}
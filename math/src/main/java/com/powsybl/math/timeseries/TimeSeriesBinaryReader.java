@@ -0,0 +1,285 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import com.powsybl.commons.json.JsonUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static com.powsybl.math.timeseries.TimeSeriesBinaryFormat.*;
+
+/**
+ * Reader of the binary columnar time series file format (see {@link TimeSeriesBinaryFormat}).
+ * <p>
+ * Only the directory is read when the reader is opened, chunks of a time series version are read on demand with
+ * one positional read per chunk, so any subset of the time series can be loaded without reading the whole file.
+ * <p>
+ * Reading is thread safe.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class TimeSeriesBinaryReader implements AutoCloseable {
+
+    private static final class SeriesEntry {
+
+        private final TimeSeriesMetadata metadata;
+
+        private final Map<Integer, List<ChunkRef>> chunksByVersion = new TreeMap<>();
+
+        private SeriesEntry(TimeSeriesMetadata metadata) {
+            this.metadata = metadata;
+        }
+    }
+
+    private final Path file;
+
+    private final FileChannel channel;
+
+    private final Map<String, SeriesEntry> entries = new LinkedHashMap<>();
+
+    public TimeSeriesBinaryReader(Path file) {
+        this.file = Objects.requireNonNull(file);
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            readDirectory();
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private ByteBuffer read(long position, int size) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new TimeSeriesException("Unexpected end of file " + file);
+                }
+            }
+            buffer.flip();
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkMagic(int magic) {
+        if (magic != MAGIC) {
+            throw new TimeSeriesException("File " + file + " is not a binary time series file");
+        }
+    }
+
+    private void readDirectory() {
+        long fileSize;
+        try {
+            fileSize = channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (fileSize < HEADER_SIZE + FOOTER_SIZE) {
+            throw new TimeSeriesException("File " + file + " is not a binary time series file");
+        }
+        ByteBuffer header = read(0, HEADER_SIZE);
+        checkMagic(header.getInt());
+        int formatVersion = header.getInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new TimeSeriesException("Unsupported binary time series format version " + formatVersion);
+        }
+        ByteBuffer footer = read(fileSize - FOOTER_SIZE, FOOTER_SIZE);
+        long directoryPosition = footer.getLong();
+        checkMagic(footer.getInt());
+
+        ByteBuffer directory = read(directoryPosition, Math.toIntExact(fileSize - FOOTER_SIZE - directoryPosition));
+        int seriesCount = directory.getInt();
+        for (int i = 0; i < seriesCount; i++) {
+            byte[] metadataJson = new byte[directory.getInt()];
+            directory.get(metadataJson);
+            TimeSeriesMetadata metadata = JsonUtil.parseJson(new String(metadataJson, StandardCharsets.UTF_8), TimeSeriesMetadata::parseJson);
+            SeriesEntry entry = new SeriesEntry(metadata);
+            int versionCount = directory.getInt();
+            for (int j = 0; j < versionCount; j++) {
+                int version = directory.getInt();
+                int chunkCount = directory.getInt();
+                List<ChunkRef> chunkRefs = new ArrayList<>(chunkCount);
+                for (int k = 0; k < chunkCount; k++) {
+                    byte type = directory.get();
+                    long position = directory.getLong();
+                    chunkRefs.add(new ChunkRef(type, position, directory.getInt()));
+                }
+                entry.chunksByVersion.put(version, chunkRefs);
+            }
+            entries.put(metadata.getName(), entry);
+        }
+    }
+
+    public List<TimeSeriesMetadata> getMetadata() {
+        List<TimeSeriesMetadata> metadataList = new ArrayList<>(entries.size());
+        for (SeriesEntry entry : entries.values()) {
+            metadataList.add(entry.metadata);
+        }
+        return metadataList;
+    }
+
+    /**
+     * Get all the versions of the file, a time series may not have all of them.
+     */
+    public SortedSet<Integer> getVersions() {
+        SortedSet<Integer> versions = new TreeSet<>();
+        for (SeriesEntry entry : entries.values()) {
+            versions.addAll(entry.chunksByVersion.keySet());
+        }
+        return versions;
+    }
+
+    private static double[] getDoubles(ByteBuffer buffer, int length) {
+        double[] values = new double[length];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + length * Double.BYTES);
+        return values;
+    }
+
+    private static int[] getInts(ByteBuffer buffer, int length) {
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        return values;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_STRING_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String[] getStrings(ByteBuffer buffer, int length) {
+        String[] values = new String[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = getString(buffer);
+        }
+        return values;
+    }
+
+    private DoubleArrayChunk readDoubleChunk(byte type, ByteBuffer buffer) {
+        int offset = buffer.getInt();
+        switch (type) {
+            case DOUBLE_UNCOMPRESSED:
+                return new UncompressedDoubleArrayChunk(offset, getDoubles(buffer, buffer.getInt()));
+            case DOUBLE_COMPRESSED: {
+                int uncompressedLength = buffer.getInt();
+                int stepCount = buffer.getInt();
+                buffer.getInt(); // padding
+                double[] stepValues = getDoubles(buffer, stepCount);
+                return new CompressedDoubleArrayChunk(offset, uncompressedLength, stepValues, getInts(buffer, stepCount));
+            }
+            case DOUBLE_XOR: {
+                int uncompressedLength = buffer.getInt();
+                byte[] data = new byte[buffer.getInt()];
+                buffer.get(data);
+                return new XorCompressedDoubleArrayChunk(offset, uncompressedLength, data);
+            }
+            default:
+                throw new TimeSeriesException("Unexpected chunk type " + type + " in a double time series");
+        }
+    }
+
+    private StringArrayChunk readStringChunk(byte type, ByteBuffer buffer) {
+        int offset = buffer.getInt();
+        switch (type) {
+            case STRING_UNCOMPRESSED:
+                return new UncompressedStringArrayChunk(offset, getStrings(buffer, buffer.getInt()));
+            case STRING_COMPRESSED: {
+                int uncompressedLength = buffer.getInt();
+                int stepCount = buffer.getInt();
+                String[] stepValues = getStrings(buffer, stepCount);
+                return new CompressedStringArrayChunk(offset, uncompressedLength, stepValues, getInts(buffer, stepCount));
+            }
+            default:
+                throw new TimeSeriesException("Unexpected chunk type " + type + " in a string time series");
+        }
+    }
+
+    private TimeSeries read(SeriesEntry entry, List<ChunkRef> chunkRefs) {
+        TimeSeriesDataType dataType = entry.metadata.getDataType();
+        List<DoubleArrayChunk> doubleChunks = new ArrayList<>();
+        List<StringArrayChunk> stringChunks = new ArrayList<>();
+        for (ChunkRef chunkRef : chunkRefs) {
+            ByteBuffer buffer = read(chunkRef.position, chunkRef.size);
+            if (dataType == TimeSeriesDataType.DOUBLE) {
+                doubleChunks.add(readDoubleChunk(chunkRef.type, buffer));
+            } else {
+                stringChunks.add(readStringChunk(chunkRef.type, buffer));
+            }
+        }
+        switch (dataType) {
+            case DOUBLE:
+                return new StoredDoubleTimeSeries(entry.metadata, doubleChunks);
+            case STRING:
+                return new StringTimeSeries(entry.metadata, stringChunks);
+            default:
+                throw new AssertionError("Unexpected time series data type " + dataType);
+        }
+    }
+
+    public TimeSeries read(String name, int version) {
+        Objects.requireNonNull(name);
+        SeriesEntry entry = entries.get(name);
+        if (entry == null) {
+            throw new TimeSeriesException("Time series '" + name + "' not found");
+        }
+        List<ChunkRef> chunkRefs = entry.chunksByVersion.get(version);
+        if (chunkRefs == null) {
+            throw new TimeSeriesException("Version " + version + " of time series '" + name + "' not found");
+        }
+        return read(entry, chunkRefs);
+    }
+
+    /**
+     * Read all the time series having a given version.
+     */
+    public List<TimeSeries> read(int version) {
+        List<TimeSeries> timeSeriesList = new ArrayList<>();
+        for (SeriesEntry entry : entries.values()) {
+            List<ChunkRef> chunkRefs = entry.chunksByVersion.get(version);
+            if (chunkRefs != null) {
+                timeSeriesList.add(read(entry, chunkRefs));
+            }
+        }
+        return timeSeriesList;
+    }
+
+    public Map<Integer, List<TimeSeries>> readAll() {
+        Map<Integer, List<TimeSeries>> timeSeriesPerVersion = new TreeMap<>();
+        for (int version : getVersions()) {
+            timeSeriesPerVersion.put(version, read(version));
+        }
+        return timeSeriesPerVersion;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
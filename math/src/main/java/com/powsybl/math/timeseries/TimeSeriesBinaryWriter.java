@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import com.google.common.io.CountingOutputStream;
+import com.powsybl.commons.json.JsonUtil;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static com.powsybl.math.timeseries.TimeSeriesBinaryFormat.*;
+
+/**
+ * Writer of the binary columnar time series file format (see {@link TimeSeriesBinaryFormat}).
+ * <p>
+ * Chunks are streamed to the file as time series are written, only the directory (metadata and chunk positions) is
+ * kept in memory and written when the writer is closed. Chunks are written as they are (compressed chunks stay
+ * compressed), values of other double time series (calculated) are written in a single chunk.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class TimeSeriesBinaryWriter implements AutoCloseable {
+
+    private static final int BLOCK_SIZE = 4096;
+
+    private static final class SeriesEntry {
+
+        private final TimeSeriesMetadata metadata;
+
+        private final Map<Integer, List<ChunkRef>> chunksByVersion = new TreeMap<>();
+
+        private SeriesEntry(TimeSeriesMetadata metadata) {
+            this.metadata = metadata;
+        }
+    }
+
+    private final CountingOutputStream countingOutputStream;
+
+    private final DataOutputStream os;
+
+    private final Map<String, SeriesEntry> entries = new LinkedHashMap<>();
+
+    private final ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE * Double.BYTES);
+
+    private boolean closed = false;
+
+    public TimeSeriesBinaryWriter(Path file) {
+        Objects.requireNonNull(file);
+        try {
+            countingOutputStream = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            os = new DataOutputStream(countingOutputStream);
+            os.writeInt(MAGIC);
+            os.writeInt(FORMAT_VERSION);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void write(int version, List<? extends TimeSeries> timeSeriesList) {
+        Objects.requireNonNull(timeSeriesList);
+        for (TimeSeries timeSeries : timeSeriesList) {
+            write(version, timeSeries);
+        }
+    }
+
+    public void write(int version, TimeSeries timeSeries) {
+        TimeSeriesIndex.checkVersion(version);
+        Objects.requireNonNull(timeSeries);
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        TimeSeriesMetadata metadata = timeSeries.getMetadata();
+        SeriesEntry entry = entries.computeIfAbsent(metadata.getName(), name -> new SeriesEntry(metadata));
+        if (!entry.metadata.equals(metadata)) {
+            throw new TimeSeriesException("Metadata of time series '" + metadata.getName() + "' differs between versions");
+        }
+        if (entry.chunksByVersion.containsKey(version)) {
+            throw new TimeSeriesException("Version " + version + " of time series '" + metadata.getName() + "' already written");
+        }
+        List<ChunkRef> chunkRefs = new ArrayList<>();
+        try {
+            if (timeSeries instanceof StoredDoubleTimeSeries) {
+                for (DoubleArrayChunk chunk : ((StoredDoubleTimeSeries) timeSeries).getChunks()) {
+                    writeChunk(chunk, chunkRefs);
+                }
+            } else if (timeSeries instanceof DoubleTimeSeries) {
+                writeChunk(new UncompressedDoubleArrayChunk(0, ((DoubleTimeSeries) timeSeries).toArray()).tryToCompress(), chunkRefs);
+            } else if (timeSeries instanceof StringTimeSeries) {
+                for (StringArrayChunk chunk : ((StringTimeSeries) timeSeries).getChunks()) {
+                    writeChunk(chunk, chunkRefs);
+                }
+            } else {
+                throw new AssertionError("Unsupported time series type " + timeSeries.getClass());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        entry.chunksByVersion.put(version, chunkRefs);
+    }
+
+    private long align() throws IOException {
+        while (countingOutputStream.getCount() % ALIGNMENT != 0) {
+            os.writeByte(0);
+        }
+        return countingOutputStream.getCount();
+    }
+
+    private void addChunkRef(List<ChunkRef> chunkRefs, byte type, long position) {
+        chunkRefs.add(new ChunkRef(type, position, Math.toIntExact(countingOutputStream.getCount() - position)));
+    }
+
+    private void writeDoubles(double[] values) throws IOException {
+        // bulk conversion by blocks, much faster than writing values one by one
+        for (int i = 0; i < values.length; i += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, values.length - i);
+            block.clear();
+            block.asDoubleBuffer().put(values, i, length);
+            os.write(block.array(), 0, length * Double.BYTES);
+        }
+    }
+
+    private void writeInts(int[] values) throws IOException {
+        for (int value : values) {
+            os.writeInt(value);
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            os.writeInt(NULL_STRING_LENGTH);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            os.writeInt(bytes.length);
+            os.write(bytes);
+        }
+    }
+
+    private void writeChunk(DoubleArrayChunk chunk, List<ChunkRef> chunkRefs) throws IOException {
+        long position = align();
+        os.writeInt(chunk.getOffset());
+        if (chunk instanceof CompressedDoubleArrayChunk) {
+            CompressedDoubleArrayChunk compressedChunk = (CompressedDoubleArrayChunk) chunk;
+            os.writeInt(compressedChunk.getUncompressedLength());
+            os.writeInt(compressedChunk.getStepValues().length);
+            os.writeInt(0); // padding so that step values are aligned
+            writeDoubles(compressedChunk.getStepValues());
+            writeInts(compressedChunk.getStepLengths());
+            addChunkRef(chunkRefs, DOUBLE_COMPRESSED, position);
+        } else if (chunk instanceof XorCompressedDoubleArrayChunk) {
+            XorCompressedDoubleArrayChunk xorChunk = (XorCompressedDoubleArrayChunk) chunk;
+            os.writeInt(xorChunk.getUncompressedLength());
+            os.writeInt(xorChunk.getData().length);
+            os.write(xorChunk.getData());
+            addChunkRef(chunkRefs, DOUBLE_XOR, position);
+        } else {
+            double[] values;
+            if (chunk instanceof UncompressedDoubleArrayChunk) {
+                values = ((UncompressedDoubleArrayChunk) chunk).getValues();
+            } else {
+                values = new double[chunk.getLength()];
+                chunk.fillArray(values, chunk.getOffset());
+            }
+            os.writeInt(values.length);
+            writeDoubles(values);
+            addChunkRef(chunkRefs, DOUBLE_UNCOMPRESSED, position);
+        }
+    }
+
+    private void writeChunk(StringArrayChunk chunk, List<ChunkRef> chunkRefs) throws IOException {
+        long position = align();
+        os.writeInt(chunk.getOffset());
+        if (chunk instanceof UncompressedStringArrayChunk) {
+            String[] values = ((UncompressedStringArrayChunk) chunk).getValues();
+            os.writeInt(values.length);
+            for (String value : values) {
+                writeString(value);
+            }
+            addChunkRef(chunkRefs, STRING_UNCOMPRESSED, position);
+        } else if (chunk instanceof CompressedStringArrayChunk) {
+            CompressedStringArrayChunk compressedChunk = (CompressedStringArrayChunk) chunk;
+            os.writeInt(compressedChunk.getUncompressedLength());
+            os.writeInt(compressedChunk.getStepValues().length);
+            for (String stepValue : compressedChunk.getStepValues()) {
+                writeString(stepValue);
+            }
+            writeInts(compressedChunk.getStepLengths());
+            addChunkRef(chunkRefs, STRING_COMPRESSED, position);
+        } else {
+            throw new AssertionError("Unsupported chunk type " + chunk.getClass());
+        }
+    }
+
+    private void writeDirectory() throws IOException {
+        long directoryPosition = countingOutputStream.getCount();
+        os.writeInt(entries.size());
+        for (SeriesEntry entry : entries.values()) {
+            byte[] metadataJson = JsonUtil.toJson(entry.metadata::writeJson).getBytes(StandardCharsets.UTF_8);
+            os.writeInt(metadataJson.length);
+            os.write(metadataJson);
+            os.writeInt(entry.chunksByVersion.size());
+            for (Map.Entry<Integer, List<ChunkRef>> e : entry.chunksByVersion.entrySet()) {
+                os.writeInt(e.getKey());
+                os.writeInt(e.getValue().size());
+                for (ChunkRef chunkRef : e.getValue()) {
+                    os.writeByte(chunkRef.type);
+                    os.writeLong(chunkRef.position);
+                    os.writeInt(chunkRef.size);
+                }
+            }
+        }
+        os.writeLong(directoryPosition);
+        os.writeInt(MAGIC);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            try {
+                writeDirectory();
+            } finally {
+                os.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,828 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.primitives.Doubles;
+import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.list.array.TLongArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Streaming time series CSV parser (same format as {@link TimeSeries#parseCsv(Path)}).
+ *
+ * <ul>
+ *     <li>Lines are tokenized directly from bytes, numbers and times are parsed without creating a string per field
+ *     (strings are only created for string time series values)</li>
+ *     <li>Chunks of at most {@code chunkSize} values are sent to a {@link Handler} as soon as they are parsed, so
+ *     that the whole file never has to be in memory</li>
+ *     <li>Files are split in ranges of lines parsed in parallel (memory mapped), chunks being still sent to the
+ *     handler in file order</li>
+ * </ul>
+ *
+ * Type of each time series is deduced from the first line of data. Index of a version is regular if times are
+ * regularly spaced and irregular otherwise. Each line must have exactly one cell per column of the header, an empty
+ * last cell being written with a trailing separator: unlike the line based parser this one replaced, a line missing
+ * its last cell is rejected.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class TimeSeriesCsvParser {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimeSeriesCsvParser.class);
+
+    static final int DEFAULT_CHUNK_SIZE = 16384;
+
+    static final int DEFAULT_RANGE_SIZE = 64 * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private static final int MAX_MANTISSA_DIGITS = 18;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final int[] DAYS_PER_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    /**
+     * Handler of parsed data. Chunks of a version are received in point order, followed by the metadata of the
+     * version time series (the index being only known once all times of the version have been parsed).
+     */
+    public interface Handler {
+
+        void onDoubleChunk(int version, String name, DoubleArrayChunk chunk);
+
+        void onStringChunk(int version, String name, StringArrayChunk chunk);
+
+        void onVersionEnd(int version, List<TimeSeriesMetadata> metadataList);
+    }
+
+    private final char separator;
+
+    private final int chunkSize;
+
+    private final int rangeSize;
+
+    public TimeSeriesCsvParser() {
+        this(TimeSeriesConstants.DEFAULT_SEPARATOR);
+    }
+
+    public TimeSeriesCsvParser(char separator) {
+        this(separator, DEFAULT_CHUNK_SIZE, DEFAULT_RANGE_SIZE);
+    }
+
+    /**
+     * @param separator the column separator, has to be an ASCII character
+     * @param chunkSize the maximum number of values of a chunk
+     * @param rangeSize the size in bytes of file ranges parsed in parallel
+     */
+    TimeSeriesCsvParser(char separator, int chunkSize, int rangeSize) {
+        if (separator > 0x7F || separator == '\n' || separator == '\r') {
+            throw new IllegalArgumentException("Invalid separator '" + separator + "'");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+        if (rangeSize < 1) {
+            throw new IllegalArgumentException("Invalid range size: " + rangeSize);
+        }
+        this.separator = separator;
+        this.chunkSize = chunkSize;
+        this.rangeSize = rangeSize;
+    }
+
+    /**
+     * Values of consecutive lines of a same version.
+     */
+    private static final class Segment {
+
+        private final int version;
+
+        private final TLongArrayList times = new TLongArrayList();
+
+        private final Object[] values;
+
+        private Segment(int version, TimeSeriesDataType[] dataTypes) {
+            this.version = version;
+            values = new Object[dataTypes.length];
+            for (int i = 0; i < dataTypes.length; i++) {
+                values[i] = dataTypes[i] == TimeSeriesDataType.DOUBLE ? new TDoubleArrayList() : new ArrayList<String>();
+            }
+        }
+
+        private int size() {
+            return times.size();
+        }
+    }
+
+    /**
+     * Parser of a sequence of lines, lines being split in segments.
+     */
+    private final class LinesParser {
+
+        private final List<String> names;
+
+        private TimeSeriesDataType[] dataTypes;
+
+        private final int[] fieldStarts;
+
+        private final int[] fieldEnds;
+
+        private final List<Segment> segments = new ArrayList<>();
+
+        private Segment segment;
+
+        private long baseOffset;
+
+        private LinesParser(List<String> names, TimeSeriesDataType[] dataTypes, long baseOffset) {
+            this.names = names;
+            this.dataTypes = dataTypes;
+            this.baseOffset = baseOffset;
+            fieldStarts = new int[names.size() + 2];
+            fieldEnds = new int[names.size() + 2];
+        }
+
+        /**
+         * Split a line in trimmed fields.
+         *
+         * @return the number of fields or -1 if there are too many fields
+         */
+        private int tokenize(ByteBuffer buffer, int start, int end) {
+            int fieldCount = 0;
+            int fieldStart = start;
+            for (int i = start; i <= end; i++) {
+                if (i == end || buffer.get(i) == separator) {
+                    if (fieldCount == fieldStarts.length) {
+                        return -1;
+                    }
+                    int s = fieldStart;
+                    int e = i;
+                    while (s < e && isBlank(buffer.get(s))) {
+                        s++;
+                    }
+                    while (e > s && isBlank(buffer.get(e - 1))) {
+                        e--;
+                    }
+                    fieldStarts[fieldCount] = s;
+                    fieldEnds[fieldCount] = e;
+                    fieldCount++;
+                    fieldStart = i + 1;
+                }
+            }
+            return fieldCount;
+        }
+
+        private TimeSeriesDataType[] detectDataTypes(ByteBuffer buffer) {
+            TimeSeriesDataType[] detectedDataTypes = new TimeSeriesDataType[names.size()];
+            for (int i = 0; i < names.size(); i++) {
+                // an empty first value means a string time series
+                String token = decodeString(buffer, fieldStarts[i + 2], fieldEnds[i + 2]);
+                detectedDataTypes[i] = token != null && Doubles.tryParse(token) != null ? TimeSeriesDataType.DOUBLE
+                                                                                        : TimeSeriesDataType.STRING;
+            }
+            return detectedDataTypes;
+        }
+
+        private void parseLine(ByteBuffer buffer, int start, int end) {
+            if (tokenize(buffer, start, end) != names.size() + 2) {
+                throw new TimeSeriesException("Columns of line at byte " + (baseOffset + start) + " are inconsistent with header");
+            }
+            long time = parseTime(buffer, fieldStarts[0], fieldEnds[0]);
+            int version = parseVersion(buffer, fieldStarts[1], fieldEnds[1]);
+            if (dataTypes == null) {
+                dataTypes = detectDataTypes(buffer);
+            }
+            if (segment == null || segment.version != version || segment.size() == chunkSize) {
+                segment = new Segment(version, dataTypes);
+                segments.add(segment);
+            }
+            segment.times.add(time);
+            for (int i = 0; i < names.size(); i++) {
+                int s = fieldStarts[i + 2];
+                int e = fieldEnds[i + 2];
+                if (dataTypes[i] == TimeSeriesDataType.DOUBLE) {
+                    ((TDoubleArrayList) segment.values[i]).add(parseDouble(buffer, s, e));
+                } else {
+                    ((List<String>) segment.values[i]).add(decodeString(buffer, s, e));
+                }
+            }
+        }
+
+        /**
+         * Parse all complete lines of a buffer range.
+         *
+         * @param last true if the end of the range is the end of the data, so that last line does not need to end
+         *             with a line feed
+         * @return the position following the last parsed line
+         */
+        private int parseLines(ByteBuffer buffer, int from, int to, boolean last) {
+            int lineStart = from;
+            for (int i = from; i < to; i++) {
+                if (buffer.get(i) == '\n') {
+                    parseLineIfNotEmpty(buffer, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            if (last && lineStart < to) {
+                parseLineIfNotEmpty(buffer, lineStart, to);
+                lineStart = to;
+            }
+            return lineStart;
+        }
+
+        private void parseLineIfNotEmpty(ByteBuffer buffer, int start, int end) {
+            int lineEnd = end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+            if (lineEnd > start) {
+                parseLine(buffer, start, lineEnd);
+            }
+        }
+
+        /**
+         * Remove segments that cannot grow anymore.
+         */
+        private List<Segment> pollCompletedSegments() {
+            List<Segment> completedSegments = new ArrayList<>(segments);
+            segments.clear();
+            if (segment != null && segment.size() < chunkSize) {
+                // last segment may be continued by next lines
+                completedSegments.remove(completedSegments.size() - 1);
+                segments.add(segment);
+            }
+            return completedSegments;
+        }
+    }
+
+    /**
+     * Send segments to the handler, in file order.
+     */
+    private static final class Emitter {
+
+        private final List<String> names;
+
+        private final Handler handler;
+
+        private final Set<Integer> versions = new HashSet<>();
+
+        private int version = Integer.MIN_VALUE;
+
+        private final TLongArrayList times = new TLongArrayList();
+
+        private TimeSeriesDataType[] dataTypes;
+
+        private TimeSeriesIndex refIndex;
+
+        private Emitter(List<String> names, Handler handler) {
+            this.names = names;
+            this.handler = handler;
+        }
+
+        private void emit(List<Segment> segments, TimeSeriesDataType[] dataTypes) {
+            this.dataTypes = dataTypes;
+            for (Segment segment : segments) {
+                emit(segment);
+            }
+        }
+
+        private void emit(Segment segment) {
+            if (segment.version != version) {
+                endVersion();
+                if (!versions.add(segment.version)) {
+                    throw new TimeSeriesException("Lines of version " + segment.version + " are not contiguous");
+                }
+                version = segment.version;
+            }
+            int offset = times.size();
+            for (int i = 0; i < names.size(); i++) {
+                if (dataTypes[i] == TimeSeriesDataType.DOUBLE) {
+                    double[] values = ((TDoubleArrayList) segment.values[i]).toArray();
+                    handler.onDoubleChunk(version, names.get(i), new UncompressedDoubleArrayChunk(offset, values).tryToCompress());
+                } else {
+                    String[] values = ((List<String>) segment.values[i]).toArray(new String[0]);
+                    handler.onStringChunk(version, names.get(i), new UncompressedStringArrayChunk(offset, values).tryToCompress());
+                }
+            }
+            times.addAll(segment.times);
+        }
+
+        private void endVersion() {
+            if (times.isEmpty()) {
+                return;
+            }
+            TimeSeriesIndex index = createIndex(times);
+            if (refIndex != null && !index.equals(refIndex)) {
+                throw new TimeSeriesException("All version of the data must have the same index: " + refIndex + " != " + index);
+            }
+            refIndex = index;
+            List<TimeSeriesMetadata> metadataList = new ArrayList<>(names.size());
+            for (int i = 0; i < names.size(); i++) {
+                metadataList.add(new TimeSeriesMetadata(names.get(i), dataTypes[i], index));
+            }
+            handler.onVersionEnd(version, metadataList);
+            times.clear();
+        }
+    }
+
+    /**
+     * Collect chunks to create in memory time series.
+     */
+    private static final class Collector implements Handler {
+
+        private final Map<Integer, List<TimeSeries>> timeSeriesPerVersion = new HashMap<>();
+
+        private final Map<String, List<DoubleArrayChunk>> doubleChunks = new HashMap<>();
+
+        private final Map<String, List<StringArrayChunk>> stringChunks = new HashMap<>();
+
+        @Override
+        public void onDoubleChunk(int version, String name, DoubleArrayChunk chunk) {
+            doubleChunks.computeIfAbsent(name, k -> new ArrayList<>()).add(chunk);
+        }
+
+        @Override
+        public void onStringChunk(int version, String name, StringArrayChunk chunk) {
+            stringChunks.computeIfAbsent(name, k -> new ArrayList<>()).add(chunk);
+        }
+
+        @Override
+        public void onVersionEnd(int version, List<TimeSeriesMetadata> metadataList) {
+            List<TimeSeries> timeSeriesList = new ArrayList<>(metadataList.size());
+            for (TimeSeriesMetadata metadata : metadataList) {
+                if (metadata.getDataType() == TimeSeriesDataType.DOUBLE) {
+                    timeSeriesList.add(new StoredDoubleTimeSeries(metadata, doubleChunks.remove(metadata.getName())));
+                } else {
+                    timeSeriesList.add(new StringTimeSeries(metadata, stringChunks.remove(metadata.getName())));
+                }
+            }
+            timeSeriesPerVersion.put(version, timeSeriesList);
+        }
+    }
+
+    static TimeSeriesIndex createIndex(TLongArrayList times) {
+        if (times.size() > 1) {
+            long spacing = times.get(1) - times.get(0);
+            boolean regular = true;
+            for (int i = 2; i < times.size() && regular; i++) {
+                regular = times.get(i) - times.get(i - 1) == spacing;
+            }
+            if (regular && spacing > 0) {
+                return new RegularTimeSeriesIndex(times.get(0), times.get(times.size() - 1), spacing);
+            }
+        }
+        return new IrregularTimeSeriesIndex(times.toArray());
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private static boolean isBlank(byte[] line) {
+        return line.length == 0 || (line.length == 1 && line[0] == '\r');
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static String decodeString(ByteBuffer buffer, int start, int end) {
+        if (start == end) {
+            return null;
+        }
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parse a fixed number of digits.
+     *
+     * @return the parsed number or -1 if a character is not a digit
+     */
+    private static int parseDigits(ByteBuffer buffer, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            byte b = buffer.get(i);
+            if (!isDigit(b)) {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    /**
+     * Number of days from epoch of a proleptic gregorian date.
+     */
+    private static long toEpochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * Parse ISO 8601 times like 2018-01-01T00:00:00.000+01:00 without any allocation, other time formats supported
+     * by {@link ZonedDateTime#parse(CharSequence)} are parsed the slow way.
+     */
+    static long parseTime(ByteBuffer buffer, int start, int end) {
+        long time = parseIsoOffsetTime(buffer, start, end);
+        if (time != Long.MIN_VALUE) {
+            return time;
+        }
+        String token = decodeString(buffer, start, end);
+        if (token == null) {
+            throw new TimeSeriesException("Time is missing");
+        }
+        try {
+            return ZonedDateTime.parse(token).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new TimeSeriesException("Invalid time '" + token + "'");
+        }
+    }
+
+    private static long parseIsoOffsetTime(ByteBuffer buffer, int start, int end) {
+        if (end - start < 20 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-' || buffer.get(start + 10) != 'T'
+                || buffer.get(start + 13) != ':' || buffer.get(start + 16) != ':') {
+            return Long.MIN_VALUE;
+        }
+        int year = parseDigits(buffer, start, 4);
+        int month = parseDigits(buffer, start + 5, 2);
+        int day = parseDigits(buffer, start + 8, 2);
+        int hour = parseDigits(buffer, start + 11, 2);
+        int minute = parseDigits(buffer, start + 14, 2);
+        int second = parseDigits(buffer, start + 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23 || minute < 0 || minute > 59
+                || second < 0 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+        int daysInMonth = month == 2 && isLeapYear(year) ? 29 : DAYS_PER_MONTH[month - 1];
+        if (day > daysInMonth) {
+            return Long.MIN_VALUE;
+        }
+        int i = start + 19;
+        int millis = 0;
+        if (buffer.get(i) == '.') {
+            i++;
+            int digitCount = 0;
+            while (i < end && isDigit(buffer.get(i))) {
+                if (digitCount < 3) {
+                    millis = millis * 10 + (buffer.get(i) - '0');
+                }
+                digitCount++;
+                i++;
+            }
+            if (digitCount == 0) {
+                return Long.MIN_VALUE;
+            }
+            for (int j = digitCount; j < 3; j++) {
+                millis *= 10;
+            }
+        }
+        int offsetSeconds;
+        if (i == end - 1 && buffer.get(i) == 'Z') {
+            offsetSeconds = 0;
+        } else if (i == end - 6 && (buffer.get(i) == '+' || buffer.get(i) == '-') && buffer.get(i + 3) == ':') {
+            int offsetHours = parseDigits(buffer, i + 1, 2);
+            int offsetMinutes = parseDigits(buffer, i + 4, 2);
+            if (offsetHours < 0 || offsetHours > 18 || offsetMinutes < 0 || offsetMinutes > 59) {
+                return Long.MIN_VALUE;
+            }
+            offsetSeconds = (buffer.get(i) == '-' ? -1 : 1) * (offsetHours * 3600 + offsetMinutes * 60);
+        } else {
+            return Long.MIN_VALUE;
+        }
+        long epochSecond = toEpochDay(year, month, day) * 86400 + hour * 3600L + minute * 60L + second - offsetSeconds;
+        return epochSecond * 1000 + millis;
+    }
+
+    private static int parseVersion(ByteBuffer buffer, int start, int end) {
+        boolean negative = start < end && buffer.get(start) == '-';
+        int i = negative ? start + 1 : start;
+        if (i == end || end - i > 9) {
+            throw new TimeSeriesException("Invalid version '" + decodeString(buffer, start, end) + "'");
+        }
+        int version = 0;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (!isDigit(b)) {
+                throw new TimeSeriesException("Invalid version '" + decodeString(buffer, start, end) + "'");
+            }
+            version = version * 10 + (b - '0');
+        }
+        return negative ? -version : version;
+    }
+
+    /**
+     * Parse a decimal number. When the number has at most 18 significant digits and a small enough exponent, it is
+     * computed with a single correctly rounded floating point operation, otherwise {@link Double#parseDouble(String)}
+     * is used. An empty field is NaN.
+     */
+    static double parseDouble(ByteBuffer buffer, int start, int end) {
+        if (start == end) {
+            return Double.NaN;
+        }
+        int i = start;
+        boolean negative = false;
+        byte b = buffer.get(i);
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digitCount = 0;
+        int exponent = 0;
+        boolean digitFound = false;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            b = buffer.get(i);
+            if (isDigit(b)) {
+                digitFound = true;
+                if (mantissa != 0 || b != '0') {
+                    digitCount++;
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (fraction) {
+                    exponent--;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (digitFound && digitCount <= MAX_MANTISSA_DIGITS) {
+            boolean valid = true;
+            if (i < end && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+                i++;
+                boolean negativeExponent = i < end && buffer.get(i) == '-';
+                if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                    i++;
+                }
+                int explicitExponent = 0;
+                valid = i < end;
+                for (; i < end && isDigit(buffer.get(i)) && explicitExponent < 1000; i++) {
+                    explicitExponent = explicitExponent * 10 + (buffer.get(i) - '0');
+                }
+                exponent += negativeExponent ? -explicitExponent : explicitExponent;
+            }
+            if (valid && i == end && mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+                double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+                return negative ? -value : value;
+            }
+        }
+        // slow path
+        String token = decodeString(buffer, start, end);
+        try {
+            return Double.parseDouble(token);
+        } catch (NumberFormatException e) {
+            throw new TimeSeriesException("Invalid double value '" + token + "'");
+        }
+    }
+
+    private static byte[] readLine(InputStream is) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        int b;
+        while ((b = is.read()) != -1 && b != '\n') {
+            os.write(b);
+        }
+        if (b == -1 && os.size() == 0) {
+            return null;
+        }
+        return os.toByteArray();
+    }
+
+    private List<String> parseHeader(byte[] line) {
+        if (line == null) {
+            throw new TimeSeriesException("CSV header is missing");
+        }
+        String separatorStr = Character.toString(separator);
+        String[] tokens = new String(line, StandardCharsets.UTF_8).trim().split(Pattern.quote(separatorStr));
+        if (tokens.length < 2 || !"Time".equals(tokens[0]) || !"Version".equals(tokens[1])) {
+            throw new TimeSeriesException("Bad CSV header, should be \nTime" + separatorStr + "Version" + separatorStr + "...");
+        }
+        List<String> duplicates = new ArrayList<>();
+        Set<String> namesWithoutDuplicates = new HashSet<>();
+        for (String token : tokens) {
+            if (!namesWithoutDuplicates.add(token)) {
+                duplicates.add(token);
+            }
+        }
+        if (!duplicates.isEmpty()) {
+            throw new TimeSeriesException("Bad CSV header, there are duplicates in time series names " + duplicates);
+        }
+        return Arrays.asList(tokens).subList(2, tokens.length);
+    }
+
+    /**
+     * Parse a CSV stream sequentially.
+     */
+    public void parse(InputStream is, Handler handler) {
+        Objects.requireNonNull(is);
+        Objects.requireNonNull(handler);
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int length = 0;
+            int n;
+            LinesParser parser = null;
+            Emitter emitter = null;
+            long offset = 0;
+            while ((n = is.read(buffer, length, buffer.length - length)) != -1) {
+                length += n;
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, length);
+                int position = 0;
+                if (parser == null) {
+                    int headerEnd = indexOf(buffer, length, (byte) '\n');
+                    if (headerEnd == -1) {
+                        buffer = growIfFull(buffer, length);
+                        continue;
+                    }
+                    List<String> names = parseHeader(Arrays.copyOf(buffer, headerEnd));
+                    parser = new LinesParser(names, null, 0);
+                    emitter = new Emitter(names, handler);
+                    position = headerEnd + 1;
+                }
+                int consumed = parser.parseLines(byteBuffer, position, length, false);
+                emitter.emit(parser.pollCompletedSegments(), parser.dataTypes);
+
+                // keep incomplete last line for next read
+                System.arraycopy(buffer, consumed, buffer, 0, length - consumed);
+                length -= consumed;
+                offset += consumed;
+                parser.baseOffset = offset;
+                buffer = growIfFull(buffer, length);
+            }
+            if (parser == null) {
+                parseHeader(length > 0 ? Arrays.copyOf(buffer, length) : null);
+                return;
+            }
+            parser.parseLines(ByteBuffer.wrap(buffer, 0, length), 0, length, true);
+            emitter.emit(parser.segments, parser.dataTypes);
+            emitter.endVersion();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int indexOf(byte[] buffer, int length, byte b) {
+        for (int i = 0; i < length; i++) {
+            if (buffer[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] growIfFull(byte[] buffer, int length) {
+        // a line longer than the buffer
+        return length == buffer.length ? Arrays.copyOf(buffer, buffer.length * 2) : buffer;
+    }
+
+    /**
+     * Find the start of the first line beginning at or after a position.
+     */
+    private static long findLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long p = position - 1; // position may already be a line start
+        while (p < size) {
+            buffer.clear();
+            int n = channel.read(buffer, p);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                if (buffer.get(i) == '\n') {
+                    return p + i + 1;
+                }
+            }
+            p += n;
+        }
+        return size;
+    }
+
+    private List<Segment> parseRange(FileChannel channel, long start, long end, List<String> names, TimeSeriesDataType[] dataTypes) {
+        try {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            LinesParser parser = new LinesParser(names, dataTypes, start);
+            parser.parseLines(buffer, 0, buffer.limit(), true);
+            return parser.segments;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parse a CSV file, ranges of lines being parsed in parallel.
+     */
+    public void parse(Path file, Handler handler) {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(handler);
+        List<String> names;
+        TimeSeriesDataType[] dataTypes;
+        long dataStart;
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(file))) {
+            byte[] headerLine = readLine(is);
+            names = parseHeader(headerLine);
+            dataStart = headerLine.length + 1L;
+            byte[] firstLine;
+            while ((firstLine = readLine(is)) != null && isBlank(firstLine)) {
+                dataStart += firstLine.length + 1L;
+            }
+            if (firstLine == null) {
+                return;
+            }
+            // types are deduced from the first line before parallel parsing
+            LinesParser parser = new LinesParser(names, null, dataStart);
+            parser.parseLines(ByteBuffer.wrap(firstLine), 0, firstLine.length, true);
+            dataTypes = parser.dataTypes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            TLongArrayList rangeStarts = new TLongArrayList();
+            long rangeStart = dataStart;
+            while (rangeStart < size) {
+                rangeStarts.add(rangeStart);
+                rangeStart = rangeStart + rangeSize >= size ? size : findLineStart(channel, rangeStart + rangeSize, size);
+            }
+            rangeStarts.add(size);
+
+            // ranges are parsed by waves to bound memory usage
+            Emitter emitter = new Emitter(names, handler);
+            int rangeCount = rangeStarts.size() - 1;
+            int waveSize = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+            TimeSeriesDataType[] finalDataTypes = dataTypes;
+            for (int firstRange = 0; firstRange < rangeCount; firstRange += waveSize) {
+                IntStream ranges = IntStream.range(firstRange, Math.min(rangeCount, firstRange + waveSize));
+                if (waveSize > 1 && rangeCount > 1) {
+                    ranges = ranges.parallel();
+                }
+                List<List<Segment>> segments = ranges.mapToObj(r -> parseRange(channel, rangeStarts.get(r), rangeStarts.get(r + 1), names, finalDataTypes))
+                        .collect(Collectors.toList());
+                for (List<Segment> rangeSegments : segments) {
+                    emitter.emit(rangeSegments, finalDataTypes);
+                }
+            }
+            emitter.endVersion();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<Integer, List<TimeSeries>> log(Map<Integer, List<TimeSeries>> timeSeriesPerVersion, Stopwatch stopwatch) {
+        LOGGER.info("{} time series loaded from CSV in {} ms",
+                timeSeriesPerVersion.values().stream().mapToInt(List::size).sum(),
+                stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        return timeSeriesPerVersion;
+    }
+
+    public Map<Integer, List<TimeSeries>> parse(InputStream is) {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        Collector collector = new Collector();
+        parse(is, collector);
+        return log(collector.timeSeriesPerVersion, stopwatch);
+    }
+
+    public Map<Integer, List<TimeSeries>> parse(Path file) {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        Collector collector = new Collector();
+        parse(file, collector);
+        return log(collector.timeSeriesPerVersion, stopwatch);
+    }
+}
@@ -118,6 +118,9 @@ public class TimeSeriesMetadata {
                 case InfiniteTimeSeriesIndex.TYPE:
                     context.index = InfiniteTimeSeriesIndex.parseJson(parser);
                     break;
+                case IrregularTimeSeriesIndex.TYPE:
+                    context.index = IrregularTimeSeriesIndex.parseJson(parser);
+                    break;
                 default:
                     throw new IllegalStateException("Unexpected field name " + fieldName);
             }
@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class TimeSeriesNodeCalc implements NodeCalc {
+
+    private final DoubleTimeSeries timeSeries;
+
+    public TimeSeriesNodeCalc(DoubleTimeSeries timeSeries) {
+        this.timeSeries = Objects.requireNonNull(timeSeries);
+    }
+
+    public DoubleTimeSeries getTimeSeries() {
+        return timeSeries;
+    }
+
+    @Override
+    public void evaluate(NodeCalcContext context, int fromPoint, double[] values) {
+        double[] timeSeriesValues = context.getTimeSeriesValues(timeSeries, fromPoint, values.length);
+        System.arraycopy(timeSeriesValues, 0, values, 0, values.length);
+    }
+
+    @Override
+    public void collectTimeSeries(List<DoubleTimeSeries> timeSeriesList) {
+        timeSeriesList.add(timeSeries);
+    }
+
+    @Override
+    public String toString() {
+        return timeSeries.getMetadata().getName();
+    }
+}
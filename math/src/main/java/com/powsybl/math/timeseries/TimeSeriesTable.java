@@ -7,7 +7,8 @@
 package com.powsybl.math.timeseries;
 
 import com.google.common.base.Stopwatch;
-import com.google.common.math.IntMath;
+import com.powsybl.commons.io.mmap.MemoryMappedFile;
+import com.powsybl.commons.io.mmap.MemoryMappedFileImpl;
 import gnu.trove.list.array.TIntArrayList;
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
@@ -24,6 +25,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -38,7 +40,7 @@ import java.util.zip.GZIPOutputStream;
  * <ul>
  *   <li>Get direct access to all values</li>
  *   <li>Compute statistics like mean, standard deviation, and Pearson product-moment correlation coefficient</li>
- *   <li>Convert to CSV</li>
+ *   <li>Convert to CSV or to binary columnar format (see {@link TimeSeriesBinaryWriter})</li>
  * </ul>
  *
  * Some design considerations and limitations:
@@ -46,8 +48,14 @@ import java.util.zip.GZIPOutputStream;
  *     <li>Number of version loadable in the table has to be specified at creation</li>
  *     <li>Versions have to contiguous</li>
  *     <li>Once first batch of time series has been loaded, new time series cannot be added but data of existing one can be updated</li>
+ *     <li>Index of loaded time series has to be the table index or to be included in the table index (see {@link IrregularTimeSeriesIndex#union(TimeSeriesIndex...)})</li>
  *     <li>Concurrent load (i.e multi-thread) of data is supported (using same time series list)</li>
  *     <li>Concurrency between data loading and other operations (CSV writing, statistics computation) is NOT supported</li>
+ *     <li>Double values are stored in several buffers of at most 1 GB (a version of a time series is never split
+ *     across 2 buffers), so the table size is not limited to 2 GB. Buffers can be mapped to files to only keep
+ *     the working set in memory (see {@link #createMemoryMapped(int, int, TimeSeriesIndex, Path)}). Buffers are not
+ *     initialized, values of versions not loaded yet are NaN without being written</li>
+ *     <li>{@link CalculatedTimeSeries} loaded together are evaluated block by block directly into the table</li>
  * </ul>
  *
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -56,6 +64,12 @@ public class TimeSeriesTable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TimeSeriesTable.class);
 
+    private static final int CORRELATION_BLOCK_SIZE = 32;
+
+    private static final int POINT_BLOCK_SIZE = 512;
+
+    private static final long PARALLEL_THRESHOLD = 1L << 20;
+
     public class Correlation {
 
         private final String timeSeriesName1;
@@ -130,13 +144,19 @@ public class TimeSeriesTable {
 
     private final IntFunction<ByteBuffer> byteBufferAllocator;
 
+    private final int maxBufferSize;
+
     private final TIntArrayList timeSeriesIndexDoubleOrString = new TIntArrayList(); // global index to typed index
 
     private final TimeSeriesNameMap doubleTimeSeriesNames = new TimeSeriesNameMap();
 
     private final TimeSeriesNameMap stringTimeSeriesNames = new TimeSeriesNameMap();
 
-    private DoubleBuffer doubleBuffer;
+    private BigDoubleBuffer doubleBuffer;
+
+    // versions of double time series already loaded, indexed like statistics, values of other ones are NaN and are
+    // never read from the buffer so that it does not have to be filled at allocation
+    private boolean[] doubleLoaded;
 
     private CompactStringBuffer stringBuffer;
 
@@ -154,6 +174,11 @@ public class TimeSeriesTable {
     }
 
     public TimeSeriesTable(int fromVersion, int toVersion, TimeSeriesIndex tableIndex, IntFunction<ByteBuffer> byteBufferAllocator) {
+        this(fromVersion, toVersion, tableIndex, byteBufferAllocator, BigDoubleBuffer.MAX_BUFFER_SIZE);
+    }
+
+    TimeSeriesTable(int fromVersion, int toVersion, TimeSeriesIndex tableIndex, IntFunction<ByteBuffer> byteBufferAllocator,
+                    int maxBufferSize) {
         TimeSeriesIndex.checkVersion(fromVersion);
         TimeSeriesIndex.checkVersion(toVersion);
         if (toVersion < fromVersion) {
@@ -163,6 +188,7 @@ public class TimeSeriesTable {
         this.toVersion = toVersion;
         this.tableIndex = Objects.requireNonNull(tableIndex);
         this.byteBufferAllocator = Objects.requireNonNull(byteBufferAllocator);
+        this.maxBufferSize = maxBufferSize;
     }
 
     public static TimeSeriesTable createDirectMem(int fromVersion, int toVersion, TimeSeriesIndex tableIndex) {
@@ -173,6 +199,36 @@ public class TimeSeriesTable {
         return new TimeSeriesTable(fromVersion, toVersion, tableIndex, ByteBuffer::allocate);
     }
 
+    /**
+     * Create a table which buffers are mapped to temporary files of a directory, so that the operating system only
+     * keeps in memory the pages which are accessed.
+     */
+    public static TimeSeriesTable createMemoryMapped(int fromVersion, int toVersion, TimeSeriesIndex tableIndex, Path directory) {
+        return new TimeSeriesTable(fromVersion, toVersion, tableIndex, createMappedByteBufferAllocator(directory));
+    }
+
+    private static IntFunction<ByteBuffer> createMappedByteBufferAllocator(Path directory) {
+        Objects.requireNonNull(directory);
+        return size -> {
+            try {
+                Path file = Files.createTempFile(directory, "timeseries-table-", ".bin");
+                ByteBuffer buffer;
+                try (MemoryMappedFile memoryMappedFile = new MemoryMappedFileImpl(file.toFile())) {
+                    buffer = memoryMappedFile.getBuffer(size);
+                }
+                // mapping stays valid once the file is deleted, except on file systems not allowing it
+                try {
+                    Files.delete(file);
+                } catch (IOException e) {
+                    file.toFile().deleteOnExit();
+                }
+                return buffer;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
     private void initTable(List<DoubleTimeSeries> doubleTimeSeries, List<StringTimeSeries> stringTimeSeries) {
         initLock.lock();
         try {
@@ -204,16 +260,17 @@ public class TimeSeriesTable {
             int versionCount = toVersion - fromVersion + 1;
 
             // allocate double buffer
-            int doubleBufferSize = versionCount * doubleTimeSeriesNames.size() * tableIndex.getPointCount();
-            doubleBuffer = createDoubleBuffer(byteBufferAllocator, doubleBufferSize, Double.NaN);
+            long doubleBufferSize = (long) versionCount * doubleTimeSeriesNames.size() * tableIndex.getPointCount();
+            doubleBuffer = createDoubleBuffer(doubleBufferSize);
+            doubleLoaded = new boolean[versionCount * doubleTimeSeriesNames.size()];
 
             // allocate string buffer
-            int stringBufferSize = versionCount * stringTimeSeriesNames.size() * tableIndex.getPointCount();
+            int stringBufferSize = Math.toIntExact((long) versionCount * stringTimeSeriesNames.size() * tableIndex.getPointCount());
             stringBuffer = new CompactStringBuffer(byteBufferAllocator, stringBufferSize);
 
             if (LOGGER.isInfoEnabled()) {
                 LOGGER.info("Allocation of {} for time series table",
-                        FileUtils.byteCountToDisplaySize((long) doubleBuffer.capacity() * Double.BYTES + stringBuffer.capacity() * Integer.BYTES));
+                        FileUtils.byteCountToDisplaySize(doubleBuffer.capacity() * Double.BYTES + (long) stringBuffer.capacity() * Integer.BYTES));
             }
 
             // allocate statistics buffer
@@ -229,6 +286,7 @@ public class TimeSeriesTable {
             stringTimeSeriesNames.clear();
             timeSeriesIndexDoubleOrString.clear();
             doubleBuffer = null;
+            doubleLoaded = null;
             stringBuffer = null;
             means = null;
             stdDevs = null;
@@ -242,26 +300,32 @@ public class TimeSeriesTable {
         return tableIndex;
     }
 
-    private static DoubleBuffer createDoubleBuffer(IntFunction<ByteBuffer> byteBufferAllocator, int size) {
-        return byteBufferAllocator.apply(IntMath.checkedMultiply(size, Double.BYTES)).asDoubleBuffer();
+    private BigDoubleBuffer createDoubleBuffer(long size) {
+        // buffer size is a multiple of point count so that a version of a time series is never split across 2 buffers
+        int pointCount = tableIndex.getPointCount();
+        if (pointCount > maxBufferSize) {
+            throw new TimeSeriesException("Too many points (" + pointCount + ") for a time series table");
+        }
+        int bufferSize = Math.max(1, maxBufferSize / Math.max(1, pointCount) * pointCount);
+        return new BigDoubleBuffer(byteBufferAllocator, size, bufferSize);
     }
 
-    private static DoubleBuffer createDoubleBuffer(IntFunction<ByteBuffer> byteBufferAllocator, int size, double initialValue) {
-        DoubleBuffer doubleBuffer = createDoubleBuffer(byteBufferAllocator, size);
-        for (int i = 0; i < size; i++) {
-            doubleBuffer.put(initialValue);
-        }
-        return doubleBuffer;
+    private long getTimeSeriesOffset(int version, int timeSeriesNum) {
+        return (long) timeSeriesNum * tableIndex.getPointCount() * (toVersion - fromVersion + 1) + (long) (version - fromVersion) * tableIndex.getPointCount();
     }
 
-    private int getTimeSeriesOffset(int version, int timeSeriesNum) {
-        return timeSeriesNum * tableIndex.getPointCount() * (toVersion - fromVersion + 1) + (version - fromVersion) * tableIndex.getPointCount();
+    private int getStringTimeSeriesOffset(int version, int timeSeriesNum) {
+        return (int) getTimeSeriesOffset(version, timeSeriesNum);
     }
 
     private int getStatisticsIndex(int version, int timeSeriesNum) {
         return (version - fromVersion) * doubleTimeSeriesNames.size() + timeSeriesNum;
     }
 
+    private boolean isDoubleLoaded(int version, int timeSeriesNum) {
+        return doubleLoaded[getStatisticsIndex(version, timeSeriesNum)];
+    }
+
     private void checkVersion(int version) {
         if (version < fromVersion || version > toVersion) {
             throw new IllegalArgumentException("Version is out of range [" + fromVersion + ", " + toVersion + "]");
@@ -281,25 +345,105 @@ public class TimeSeriesTable {
         }
     }
 
-    private void loadDouble(int version, DoubleTimeSeries timeSeries) {
+    /**
+     * Map points of a time series index to points of the table index. Both indexes being sorted, this is done by
+     * walking them in parallel.
+     *
+     * @return for each point of the time series, the corresponding point of the table
+     */
+    private int[] mapPoints(TimeSeriesIndex index) {
+        int[] tablePoints = new int[index.getPointCount()];
+        int tablePoint = 0;
+        for (int point = 0; point < index.getPointCount(); point++) {
+            long time = index.getTimeAt(point);
+            while (tablePoint < tableIndex.getPointCount() && tableIndex.getTimeAt(tablePoint) < time) {
+                tablePoint++;
+            }
+            if (tablePoint == tableIndex.getPointCount() || tableIndex.getTimeAt(tablePoint) != time) {
+                throw new TimeSeriesException("Time " + Instant.ofEpochMilli(time) + " not found in table index");
+            }
+            tablePoints[point] = tablePoint;
+        }
+        return tablePoints;
+    }
+
+    private void loadDouble(int version, DoubleTimeSeries timeSeries, int[] tablePoints) {
         // check time series exists in the table
         int timeSeriesNum = doubleTimeSeriesNames.getIndex(timeSeries.getMetadata().getName());
 
         // copy data
-        int timeSeriesOffset = getTimeSeriesOffset(version, timeSeriesNum);
-        timeSeries.fillBuffer(doubleBuffer, timeSeriesOffset);
+        long timeSeriesOffset = getTimeSeriesOffset(version, timeSeriesNum);
+        if (tablePoints == null) {
+            if (tableIndex.getPointCount() > 0) {
+                timeSeries.fillBuffer(doubleBuffer.getBuffer(timeSeriesOffset), doubleBuffer.getBufferOffset(timeSeriesOffset));
+            }
+        } else {
+            // time series index is a subset of table index, missing points are NaN
+            for (int point = 0; point < tableIndex.getPointCount(); point++) {
+                doubleBuffer.put(timeSeriesOffset + point, Double.NaN);
+            }
+            double[] values = timeSeries.toArray();
+            for (int point = 0; point < values.length; point++) {
+                doubleBuffer.put(timeSeriesOffset + tablePoints[point], values[point]);
+            }
+        }
 
         // invalidate statistics
+        doubleLoaded[getStatisticsIndex(version, timeSeriesNum)] = true;
         invalidateStatistics(version, timeSeriesNum);
     }
 
-    private void loadString(int version, StringTimeSeries timeSeries) {
+    private void loadString(int version, StringTimeSeries timeSeries, int[] tablePoints) {
         // check time series exists in the table
         int timeSeriesNum = stringTimeSeriesNames.getIndex(timeSeries.getMetadata().getName());
 
         // copy data
-        int timeSeriesOffset = getTimeSeriesOffset(version, timeSeriesNum);
-        timeSeries.fillBuffer(stringBuffer, timeSeriesOffset);
+        int timeSeriesOffset = getStringTimeSeriesOffset(version, timeSeriesNum);
+        if (tablePoints == null) {
+            timeSeries.fillBuffer(stringBuffer, timeSeriesOffset);
+        } else {
+            for (int point = 0; point < tableIndex.getPointCount(); point++) {
+                stringBuffer.putString(timeSeriesOffset + point, null);
+            }
+            String[] values = timeSeries.toArray();
+            for (int point = 0; point < values.length; point++) {
+                stringBuffer.putString(timeSeriesOffset + tablePoints[point], values[point]);
+            }
+        }
+    }
+
+    /**
+     * Calculated time series are evaluated together block by block, so that time series referenced by several
+     * expressions are only read once per block.
+     */
+    private void loadCalculated(int version, List<CalculatedTimeSeries> timeSeriesList) {
+        int[] timeSeriesNums = new int[timeSeriesList.size()];
+        for (int i = 0; i < timeSeriesList.size(); i++) {
+            timeSeriesNums[i] = doubleTimeSeriesNames.getIndex(timeSeriesList.get(i).getMetadata().getName());
+        }
+
+        CalculatedTimeSeries.evaluate(timeSeriesList, (i, fromPoint, values) -> {
+            long timeSeriesOffset = getTimeSeriesOffset(version, timeSeriesNums[i]);
+            DoubleBuffer buffer = doubleBuffer.getBuffer(timeSeriesOffset).duplicate();
+            buffer.position(doubleBuffer.getBufferOffset(timeSeriesOffset) + fromPoint);
+            buffer.put(values);
+        });
+
+        for (int timeSeriesNum : timeSeriesNums) {
+            doubleLoaded[getStatisticsIndex(version, timeSeriesNum)] = true;
+            invalidateStatistics(version, timeSeriesNum);
+        }
+    }
+
+    /**
+     * Get the point mapping of a time series which index is different from the table one, or null if indexes are the same.
+     */
+    private int[] getTablePoints(TimeSeries timeSeries, Map<TimeSeriesIndex, int[]> tablePointsByIndex) {
+        TimeSeriesIndex index = timeSeries.getMetadata().getIndex();
+        if (index.equals(tableIndex)) {
+            return null;
+        }
+        return tablePointsByIndex.computeIfAbsent(index, this::mapPoints);
     }
 
     @SafeVarargs
@@ -332,13 +476,21 @@ public class TimeSeriesTable {
 
         initTable(doubleTimeSeries, stringTimeSeries);
 
+        // time series with a different index are loaded if their index is included in the table index
+        // (see IrregularTimeSeriesIndex.union)
+        Map<TimeSeriesIndex, int[]> tablePointsByIndex = new HashMap<>();
+        List<CalculatedTimeSeries> calculatedTimeSeries = new ArrayList<>();
         for (DoubleTimeSeries timeSeries : doubleTimeSeries) {
-            timeSeries.synchronize(tableIndex);
-            loadDouble(version, timeSeries);
+            int[] tablePoints = getTablePoints(timeSeries, tablePointsByIndex);
+            if (timeSeries instanceof CalculatedTimeSeries && tablePoints == null) {
+                calculatedTimeSeries.add((CalculatedTimeSeries) timeSeries);
+            } else {
+                loadDouble(version, timeSeries, tablePoints);
+            }
         }
+        loadCalculated(version, calculatedTimeSeries);
         for (StringTimeSeries timeSeries : stringTimeSeries) {
-            timeSeries.synchronize(tableIndex);
-            loadString(version, timeSeries);
+            loadString(version, timeSeries, getTablePoints(timeSeries, tablePointsByIndex));
         }
 
         LOGGER.info("{} time series (version={}) loaded in {} ms", timeSeriesList.size(), version,
@@ -353,7 +505,10 @@ public class TimeSeriesTable {
         checkVersion(version);
         int doubleTimeSeriesNum = checkTimeSeriesNum(timeSeriesNum);
         checkPoint(point);
-        int timeSeriesOffset = getTimeSeriesOffset(version, doubleTimeSeriesNum);
+        if (!isDoubleLoaded(version, doubleTimeSeriesNum)) {
+            return Double.NaN;
+        }
+        long timeSeriesOffset = getTimeSeriesOffset(version, doubleTimeSeriesNum);
         return doubleBuffer.get(timeSeriesOffset + point);
     }
 
@@ -361,7 +516,7 @@ public class TimeSeriesTable {
         checkVersion(version);
         int stringTimeSeriesNum = checkTimeSeriesNum(timeSeriesNum);
         checkPoint(point);
-        int timeSeriesOffset = getTimeSeriesOffset(version, stringTimeSeriesNum);
+        int timeSeriesOffset = getStringTimeSeriesOffset(version, stringTimeSeriesNum);
         return stringBuffer.getString(timeSeriesOffset + point);
     }
 
@@ -384,18 +539,34 @@ public class TimeSeriesTable {
         }
     }
 
+    private static boolean useParallelism(long operationCount, int taskCount) {
+        return taskCount > 1 && operationCount >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /**
+     * Copy values of a version of a double time series to an array.
+     */
+    private double[] getDoubleValues(int version, int timeSeriesNum) {
+        double[] values = new double[tableIndex.getPointCount()];
+        if (isDoubleLoaded(version, timeSeriesNum)) {
+            doubleBuffer.get(getTimeSeriesOffset(version, timeSeriesNum), values);
+        } else {
+            Arrays.fill(values, Double.NaN);
+        }
+        return values;
+    }
+
     private void updateStatistics(int version, int timeSeriesNum) {
 
         int statisticsIndex = getStatisticsIndex(version, timeSeriesNum);
         if (!Double.isNaN(means[statisticsIndex]) && !Double.isNaN(stdDevs[statisticsIndex])) {
             return;
         }
-        int timeSeriesOffset = getTimeSeriesOffset(version, timeSeriesNum);
+        double[] values = getDoubleValues(version, timeSeriesNum);
 
         double sum = 0;
         int nbPoints = 0;
-        for (int point = 0; point < tableIndex.getPointCount(); point++) {
-            double value = doubleBuffer.get(timeSeriesOffset + point);
+        for (double value : values) {
             if (!Double.isNaN(value)) {
                 sum += value;
                 nbPoints++;
@@ -405,8 +576,7 @@ public class TimeSeriesTable {
         means[statisticsIndex] = mean;
 
         double stdDev = 0;
-        for (int point = 0; point < tableIndex.getPointCount(); point++) {
-            double value = doubleBuffer.get(timeSeriesOffset + point);
+        for (double value : values) {
             if (!Double.isNaN(value)) {
                 stdDev += (value - mean) * (value - mean);
             }
@@ -415,9 +585,33 @@ public class TimeSeriesTable {
         stdDevs[statisticsIndex] = stdDev;
     }
 
+    /**
+     * Update statistics of all double time series of a range of versions, each (version, time series) pair being an
+     * independent task.
+     */
+    private void updateVersionsStatistics(int firstVersion, int lastVersion) {
+        int timeSeriesCount = doubleTimeSeriesNames.size();
+        int taskCount = (lastVersion - firstVersion + 1) * timeSeriesCount;
+        IntStream tasks = IntStream.range(0, taskCount);
+        if (useParallelism((long) taskCount * tableIndex.getPointCount(), taskCount)) {
+            tasks = tasks.parallel();
+        }
+        tasks.forEach(task -> updateStatistics(firstVersion + task / timeSeriesCount, task % timeSeriesCount));
+    }
+
     private void updateStatistics(int version) {
-        for (int timeSeriesNum = 0; timeSeriesNum < doubleTimeSeriesNames.size(); timeSeriesNum++) {
-            updateStatistics(version, timeSeriesNum);
+        updateVersionsStatistics(version, version);
+    }
+
+    /**
+     * Compute mean and standard deviation of all double time series for all versions of the table.
+     */
+    public void computeStatistics() {
+        statsLock.lock();
+        try {
+            updateVersionsStatistics(fromVersion, toVersion);
+        } finally {
+            statsLock.unlock();
         }
     }
 
@@ -457,73 +651,203 @@ public class TimeSeriesTable {
                 .collect(Collectors.toList());
     }
 
-    private void computeConstantTimeSeriesPpmcc(double[] r, int version) {
-        for (int timeSeriesNum2 = 0; timeSeriesNum2 < doubleTimeSeriesNames.size(); timeSeriesNum2++) {
-            int statisticsIndex2 = getStatisticsIndex(version, timeSeriesNum2);
-            double stdDev2 = stdDevs[statisticsIndex2];
+    /**
+     * Get up to date means and standard deviations of a version, so that correlations can be computed outside of
+     * the statistics lock.
+     */
+    private double[][] getVersionStatistics(int version) {
+        int timeSeriesCount = doubleTimeSeriesNames.size();
+        double[] versionMeans = new double[timeSeriesCount];
+        double[] versionStdDevs = new double[timeSeriesCount];
+        statsLock.lock();
+        try {
+            updateStatistics(version);
+            for (int timeSeriesNum = 0; timeSeriesNum < timeSeriesCount; timeSeriesNum++) {
+                int statisticsIndex = getStatisticsIndex(version, timeSeriesNum);
+                versionMeans[timeSeriesNum] = means[statisticsIndex];
+                versionStdDevs[timeSeriesNum] = stdDevs[statisticsIndex];
+            }
+        } finally {
+            statsLock.unlock();
+        }
+        return new double[][] {versionMeans, versionStdDevs};
+    }
 
-            // time series 1 is correlated to other constant time series
-            r[timeSeriesNum2] = stdDev2 == 0 ? 1 : 0;
+    /**
+     * Values of a variable time series centered and scaled by the standard deviation, so that the correlation
+     * coefficient is just a dot product.
+     */
+    private double[] getStandardizedValues(int version, int timeSeriesNum, double mean, double stdDev) {
+        double[] values = getDoubleValues(version, timeSeriesNum);
+        for (int point = 0; point < values.length; point++) {
+            values[point] = (values[point] - mean) / stdDev;
         }
+        return values;
     }
 
-    private void computeVariableTimeSeriesPpmcc(double[] r, int timeSeriesNum1, int statisticsIndex1, double stdDev1,
-                                                int version) {
-        double mean1 = means[statisticsIndex1];
+    private static double dot(double[] values1, double[] values2, int fromPoint, int toPoint) {
+        double sum = 0;
+        for (int point = fromPoint; point < toPoint; point++) {
+            sum += values1[point] * values2[point];
+        }
+        return sum;
+    }
 
-        for (int timeSeriesNum2 = 0; timeSeriesNum2 < doubleTimeSeriesNames.size(); timeSeriesNum2++) {
-            if (timeSeriesNum2 == timeSeriesNum1) {
-                r[timeSeriesNum2] = 1;
-            } else {
-                int statisticsIndex2 = getStatisticsIndex(version, timeSeriesNum2);
-                double stdDev2 = stdDevs[statisticsIndex2];
+    public double[] computePpmcc(String timeSeriesName, int version) {
+        int timeSeriesNum1 = doubleTimeSeriesNames.getIndex(timeSeriesName);
+        checkVersion(version);
 
-                r[timeSeriesNum2] = 0;
+        Stopwatch stopWatch = Stopwatch.createStarted();
 
-                if (stdDev2 != 0) {
-                    double mean2 = means[statisticsIndex2];
+        int timeSeriesCount = doubleTimeSeriesNames.size();
+        double[][] statistics = getVersionStatistics(version);
+        double[] versionMeans = statistics[0];
+        double[] versionStdDevs = statistics[1];
 
-                    int timeSeriesOffset1 = getTimeSeriesOffset(version, timeSeriesNum1);
-                    int timeSeriesOffset2 = getTimeSeriesOffset(version, timeSeriesNum2);
+        double[] r = new double[timeSeriesCount];
 
-                    for (int point = 0; point < tableIndex.getPointCount(); point++) {
-                        double value1 = doubleBuffer.get(timeSeriesOffset1 + point);
-                        double value2 = doubleBuffer.get(timeSeriesOffset2 + point);
-                        r[timeSeriesNum2] += (value1 - mean1) / stdDev1 * (value2 - mean2) / stdDev2;
-                    }
-                    r[timeSeriesNum2] /= tableIndex.getPointCount() - 1;
-                }
+        if (versionStdDevs[timeSeriesNum1] == 0) { // constant time series
+            for (int timeSeriesNum2 = 0; timeSeriesNum2 < timeSeriesCount; timeSeriesNum2++) {
+                // time series 1 is correlated to other constant time series
+                r[timeSeriesNum2] = versionStdDevs[timeSeriesNum2] == 0 ? 1 : 0;
+            }
+        } else {
+            int pointCount = tableIndex.getPointCount();
+            double[] values1 = getStandardizedValues(version, timeSeriesNum1, versionMeans[timeSeriesNum1], versionStdDevs[timeSeriesNum1]);
+            IntStream timeSeriesNums = IntStream.range(0, timeSeriesCount);
+            if (useParallelism((long) timeSeriesCount * pointCount, timeSeriesCount)) {
+                timeSeriesNums = timeSeriesNums.parallel();
             }
+            timeSeriesNums.forEach(timeSeriesNum2 -> {
+                if (timeSeriesNum2 == timeSeriesNum1) {
+                    r[timeSeriesNum2] = 1;
+                } else if (versionStdDevs[timeSeriesNum2] != 0) {
+                    double[] values2 = getStandardizedValues(version, timeSeriesNum2, versionMeans[timeSeriesNum2], versionStdDevs[timeSeriesNum2]);
+                    r[timeSeriesNum2] = dot(values1, values2, 0, pointCount) / (pointCount - 1);
+                }
+            });
         }
+
+        LOGGER.info("PPMCC computed in {} ms", stopWatch.elapsed(TimeUnit.MILLISECONDS));
+
+        return r;
     }
 
-    public double[] computePpmcc(String timeSeriesName, int version) {
-        int timeSeriesNum1 = doubleTimeSeriesNames.getIndex(timeSeriesName);
+    /**
+     * Compute the Pearson product-moment correlation coefficient of all pairs of double time series of a version.
+     * The matrix is computed by square blocks of time series, each block being processed by range of points: values
+     * of both time series blocks are read and standardized one range at a time, so that they stay in cache and the
+     * table is never copied. Blocks are distributed on the common fork/join pool.
+     *
+     * @return a symmetric matrix, indexed by double time series number
+     */
+    public double[][] computePpmccMatrix(int version) {
         checkVersion(version);
 
         Stopwatch stopWatch = Stopwatch.createStarted();
 
-        double[] r = new double[doubleTimeSeriesNames.size()];
+        int timeSeriesCount = doubleTimeSeriesNames.size();
+        int pointCount = tableIndex.getPointCount();
+        double[][] statistics = getVersionStatistics(version);
+        double[] versionMeans = statistics[0];
+        double[] versionStdDevs = statistics[1];
+
+        double[][] r = new double[timeSeriesCount][timeSeriesCount];
+
+        // upper triangular blocks including diagonal
+        int blockCount = (timeSeriesCount + CORRELATION_BLOCK_SIZE - 1) / CORRELATION_BLOCK_SIZE;
+        int taskCount = blockCount * (blockCount + 1) / 2;
+        int[] blocks1 = new int[taskCount];
+        int[] blocks2 = new int[taskCount];
+        int task = 0;
+        for (int block1 = 0; block1 < blockCount; block1++) {
+            for (int block2 = block1; block2 < blockCount; block2++) {
+                blocks1[task] = block1;
+                blocks2[task] = block2;
+                task++;
+            }
+        }
+        IntStream tasks = IntStream.range(0, taskCount);
+        if (useParallelism((long) timeSeriesCount * timeSeriesCount * pointCount / 2, taskCount)) {
+            tasks = tasks.parallel();
+        }
+        tasks.forEach(t -> computePpmccBlock(version, versionMeans, versionStdDevs, r, blocks1[t] * CORRELATION_BLOCK_SIZE,
+                                             blocks2[t] * CORRELATION_BLOCK_SIZE));
 
-        statsLock.lock();
-        try {
-            updateStatistics(version);
+        LOGGER.info("PPMCC matrix of {} time series computed in {} ms", timeSeriesCount, stopWatch.elapsed(TimeUnit.MILLISECONDS));
 
-            int statisticsIndex1 = getStatisticsIndex(version, timeSeriesNum1);
-            double stdDev1 = stdDevs[statisticsIndex1];
+        return r;
+    }
 
-            if (stdDev1 == 0) { // constant time series
-                computeConstantTimeSeriesPpmcc(r, version);
-            } else {
-                computeVariableTimeSeriesPpmcc(r, timeSeriesNum1, statisticsIndex1, stdDev1, version);
+    /**
+     * Read and standardize a range of points of a block of variable time series, values of constant time series
+     * are left null.
+     */
+    private void getStandardizedBlock(int version, double[] versionMeans, double[] versionStdDevs, int first, int last,
+                                      int fromPoint, int toPoint, double[][] values) {
+        int length = toPoint - fromPoint;
+        for (int timeSeriesNum = first; timeSeriesNum < last; timeSeriesNum++) {
+            double stdDev = versionStdDevs[timeSeriesNum];
+            if (stdDev != 0) {
+                int i = timeSeriesNum - first;
+                if (values[i] == null) {
+                    values[i] = new double[POINT_BLOCK_SIZE];
+                }
+                if (isDoubleLoaded(version, timeSeriesNum)) {
+                    doubleBuffer.get(getTimeSeriesOffset(version, timeSeriesNum) + fromPoint, values[i], 0, length);
+                } else {
+                    Arrays.fill(values[i], 0, length, Double.NaN);
+                }
+                double mean = versionMeans[timeSeriesNum];
+                for (int point = 0; point < length; point++) {
+                    values[i][point] = (values[i][point] - mean) / stdDev;
+                }
             }
-        } finally {
-            statsLock.unlock();
         }
+    }
 
-        LOGGER.info("PPMCC computed in {} ms", stopWatch.elapsed(TimeUnit.MILLISECONDS));
-
-        return r;
+    private void computePpmccBlock(int version, double[] versionMeans, double[] versionStdDevs, double[][] r, int first1, int first2) {
+        int timeSeriesCount = r.length;
+        int pointCount = tableIndex.getPointCount();
+        int last1 = Math.min(timeSeriesCount, first1 + CORRELATION_BLOCK_SIZE);
+        int last2 = Math.min(timeSeriesCount, first2 + CORRELATION_BLOCK_SIZE);
+        double[][] values1 = new double[last1 - first1][];
+        double[][] values2 = first1 == first2 ? values1 : new double[last2 - first2][];
+        for (int fromPoint = 0; fromPoint < pointCount; fromPoint += POINT_BLOCK_SIZE) {
+            int toPoint = Math.min(pointCount, fromPoint + POINT_BLOCK_SIZE);
+            getStandardizedBlock(version, versionMeans, versionStdDevs, first1, last1, fromPoint, toPoint, values1);
+            if (values2 != values1) {
+                getStandardizedBlock(version, versionMeans, versionStdDevs, first2, last2, fromPoint, toPoint, values2);
+            }
+            for (int timeSeriesNum1 = first1; timeSeriesNum1 < last1; timeSeriesNum1++) {
+                double[] blockValues1 = values1[timeSeriesNum1 - first1];
+                if (blockValues1 != null) {
+                    for (int timeSeriesNum2 = Math.max(first2, timeSeriesNum1 + 1); timeSeriesNum2 < last2; timeSeriesNum2++) {
+                        double[] blockValues2 = values2[timeSeriesNum2 - first2];
+                        if (blockValues2 != null) {
+                            r[timeSeriesNum1][timeSeriesNum2] += dot(blockValues1, blockValues2, 0, toPoint - fromPoint);
+                        }
+                    }
+                }
+            }
+        }
+        for (int timeSeriesNum1 = first1; timeSeriesNum1 < last1; timeSeriesNum1++) {
+            for (int timeSeriesNum2 = Math.max(first2, timeSeriesNum1); timeSeriesNum2 < last2; timeSeriesNum2++) {
+                boolean constant1 = versionStdDevs[timeSeriesNum1] == 0;
+                boolean constant2 = versionStdDevs[timeSeriesNum2] == 0;
+                double coefficient;
+                if (timeSeriesNum1 == timeSeriesNum2) {
+                    coefficient = 1;
+                } else if (constant1 || constant2) {
+                    // constant time series are only correlated to other constant time series
+                    coefficient = constant1 && constant2 ? 1 : 0;
+                } else {
+                    coefficient = r[timeSeriesNum1][timeSeriesNum2] / (pointCount - 1);
+                }
+                r[timeSeriesNum1][timeSeriesNum2] = coefficient;
+                r[timeSeriesNum2][timeSeriesNum1] = coefficient;
+            }
+        }
     }
 
     private static BufferedWriter createWriter(Path file) throws IOException {
@@ -589,12 +913,14 @@ public class TimeSeriesTable {
         for (int i = 0; i < timeSeriesMetadata.size(); i++) {
             TimeSeriesMetadata metadata = timeSeriesMetadata.get(i);
             int timeSeriesNum = timeSeriesIndexDoubleOrString.get(i);
-            int timeSeriesOffset = getTimeSeriesOffset(version, timeSeriesNum);
             if (metadata.getDataType() == TimeSeriesDataType.DOUBLE) {
+                boolean loaded = isDoubleLoaded(version, timeSeriesNum);
+                long timeSeriesOffset = getTimeSeriesOffset(version, timeSeriesNum);
                 for (int cachedPoint = 0; cachedPoint < cachedPoints; cachedPoint++) {
-                    cache.doubleCache[cachedPoint * doubleTimeSeriesNames.size() + timeSeriesNum] = doubleBuffer.get(timeSeriesOffset + point + cachedPoint);
+                    cache.doubleCache[cachedPoint * doubleTimeSeriesNames.size() + timeSeriesNum] = loaded ? doubleBuffer.get(timeSeriesOffset + point + cachedPoint) : Double.NaN;
                 }
             } else if (metadata.getDataType() == TimeSeriesDataType.STRING) {
+                int timeSeriesOffset = getStringTimeSeriesOffset(version, timeSeriesNum);
                 for (int cachedPoint = 0; cachedPoint < cachedPoints; cachedPoint++) {
                     cache.stringCache[cachedPoint * stringTimeSeriesNames.size() + timeSeriesNum] = stringBuffer.getString(timeSeriesOffset + point + cachedPoint);
                 }
@@ -673,4 +999,55 @@ public class TimeSeriesTable {
 
         LOGGER.info("Csv written in {} ms", stopWatch.elapsed(TimeUnit.MILLISECONDS));
     }
+
+    private TimeSeries createTimeSeries(int version, TimeSeriesMetadata metadata) {
+        int pointCount = tableIndex.getPointCount();
+        if (metadata.getDataType() == TimeSeriesDataType.DOUBLE) {
+            double[] values = getDoubleValues(version, doubleTimeSeriesNames.getIndex(metadata.getName()));
+            return new StoredDoubleTimeSeries(metadata, new UncompressedDoubleArrayChunk(0, values).tryToCompress());
+        } else {
+            int timeSeriesOffset = getStringTimeSeriesOffset(version, stringTimeSeriesNames.getIndex(metadata.getName()));
+            String[] values = new String[pointCount];
+            for (int point = 0; point < pointCount; point++) {
+                values[point] = stringBuffer.getString(timeSeriesOffset + point);
+            }
+            return new StringTimeSeries(metadata, new UncompressedStringArrayChunk(0, values).tryToCompress());
+        }
+    }
+
+    /**
+     * Write all versions of the table to a binary columnar file (see {@link TimeSeriesBinaryWriter}). Time series are
+     * written with the table index, their values being compressed when it is efficient.
+     */
+    public void writeBinary(Path file) {
+        Objects.requireNonNull(file);
+        if (timeSeriesMetadata == null) {
+            throw new TimeSeriesException("Time series table is empty");
+        }
+
+        Stopwatch stopWatch = Stopwatch.createStarted();
+
+        try (TimeSeriesBinaryWriter writer = new TimeSeriesBinaryWriter(file)) {
+            for (TimeSeriesMetadata metadata : timeSeriesMetadata) {
+                TimeSeriesMetadata tableMetadata = new TimeSeriesMetadata(metadata.getName(), metadata.getDataType(),
+                                                                          metadata.getTags(), tableIndex);
+                for (int version = fromVersion; version <= toVersion; version++) {
+                    writer.write(version, createTimeSeries(version, tableMetadata));
+                }
+            }
+        }
+
+        LOGGER.info("Binary file written in {} ms", stopWatch.elapsed(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Load all versions of a binary columnar file (see {@link TimeSeriesBinaryReader}).
+     */
+    public void loadBinary(Path file) {
+        try (TimeSeriesBinaryReader reader = new TimeSeriesBinaryReader(file)) {
+            for (int version : reader.getVersions()) {
+                load(version, reader.read(version));
+            }
+        }
+    }
 }
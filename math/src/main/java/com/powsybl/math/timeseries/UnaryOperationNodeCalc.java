@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class UnaryOperationNodeCalc implements NodeCalc {
+
+    public enum Operator {
+        NEGATE,
+        ABS
+    }
+
+    private final NodeCalc child;
+
+    private final Operator operator;
+
+    public UnaryOperationNodeCalc(NodeCalc child, Operator operator) {
+        this.child = Objects.requireNonNull(child);
+        this.operator = Objects.requireNonNull(operator);
+    }
+
+    public NodeCalc getChild() {
+        return child;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    @Override
+    public void evaluate(NodeCalcContext context, int fromPoint, double[] values) {
+        child.evaluate(context, fromPoint, values);
+        switch (operator) {
+            case NEGATE:
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = -values[i];
+                }
+                break;
+            case ABS:
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = Math.abs(values[i]);
+                }
+                break;
+            default:
+                throw new AssertionError("Unknown operator " + operator);
+        }
+    }
+
+    @Override
+    public void collectTimeSeries(List<DoubleTimeSeries> timeSeriesList) {
+        child.collectTimeSeries(timeSeriesList);
+    }
+
+    @Override
+    public String toString() {
+        return operator == Operator.NEGATE ? "-(" + child + ")" : "abs(" + child + ")";
+    }
+}
@@ -24,6 +24,11 @@ import java.util.stream.Stream;
  */
 public class UncompressedDoubleArrayChunk extends AbstractUncompressedArrayChunk implements DoubleArrayChunk {
 
+    /**
+     * XOR compression is not worth it for small chunks.
+     */
+    private static final int XOR_COMPRESSION_MIN_LENGTH = 16;
+
     private final double[] values;
 
     public UncompressedDoubleArrayChunk(int offset, double[] values) {
@@ -58,6 +63,53 @@ public class UncompressedDoubleArrayChunk extends AbstractUncompressedArrayChunk
         }
     }
 
+    @Override
+    public void fillArray(double[] array, int fromPoint) {
+        Objects.requireNonNull(array);
+        int start = Math.max(offset, fromPoint);
+        int end = Math.min(offset + values.length, fromPoint + array.length);
+        if (start < end) {
+            System.arraycopy(values, start - offset, array, start - fromPoint, end - start);
+        }
+    }
+
+    @Override
+    public DoubleCursor cursor(TimeSeriesIndex index) {
+        Objects.requireNonNull(index);
+        return new DoubleCursor() {
+
+            private int i = -1;
+
+            @Override
+            public boolean next() {
+                if (i < values.length) {
+                    i++;
+                }
+                return i < values.length;
+            }
+
+            @Override
+            public int getIndex() {
+                return offset + i;
+            }
+
+            @Override
+            public int getLength() {
+                return 1;
+            }
+
+            @Override
+            public long getTime() {
+                return index.getTimeAt(offset + i);
+            }
+
+            @Override
+            public double getValue() {
+                return values[i];
+            }
+        };
+    }
+
     @Override
     public DoubleArrayChunk tryToCompress() {
         TDoubleArrayListHack stepValues = new TDoubleArrayListHack();
@@ -78,13 +130,25 @@ public class UncompressedDoubleArrayChunk extends AbstractUncompressedArrayChunk
                 }
             }
             if (CompressedDoubleArrayChunk.getEstimatedSize(stepValues.size(), stepLengths.size()) >= estimatedSize) {
-                // compression is inefficient
-                return this;
+                // run length compression is inefficient
+                return tryToXorCompress();
             }
         }
         return new CompressedDoubleArrayChunk(offset, values.length, stepValues.toArray(), stepLengths.toArray());
     }
 
+    private DoubleArrayChunk tryToXorCompress() {
+        if (values.length < XOR_COMPRESSION_MIN_LENGTH) {
+            return this;
+        }
+        byte[] data = XorCompressedDoubleArrayChunk.compress(values);
+        if (data.length >= getEstimatedSize()) {
+            // compression is inefficient
+            return this;
+        }
+        return new XorCompressedDoubleArrayChunk(offset, values.length, data);
+    }
+
     @Override
     public Split<DoublePoint, DoubleArrayChunk> splitAt(int splitIndex) {
         // split at offset is not allowed because it will result to a null left chunk
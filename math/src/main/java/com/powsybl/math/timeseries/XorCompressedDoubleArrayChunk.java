@@ -0,0 +1,390 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.DoubleBuffer;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Double array chunk compressed by XOR of consecutive values (as described in Facebook Gorilla paper). Each value
+ * is XORed with the previous one and only the meaningful bits of the result are stored:
+ * <ul>
+ *     <li>'0' when the value is the same as the previous one</li>
+ *     <li>'10' followed by meaningful bits when they fit in the previous leading and trailing zeros window</li>
+ *     <li>'11' followed by leading zeros count (5 bits), meaningful bits count minus one (6 bits) and meaningful bits</li>
+ * </ul>
+ * The first value is stored on 64 bits. This is efficient for measurement series which values are close to each
+ * other, even if they are never strictly equal.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class XorCompressedDoubleArrayChunk implements DoubleArrayChunk {
+
+    private static final int MAX_LEADING_ZEROS = 31;
+
+    private final int offset;
+
+    private final int uncompressedLength;
+
+    private final byte[] data;
+
+    public XorCompressedDoubleArrayChunk(int offset, int uncompressedLength, byte[] data) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Bad offset value " + offset);
+        }
+        if (uncompressedLength < 1) {
+            throw new IllegalArgumentException("Bad uncompressed length value " + uncompressedLength);
+        }
+        this.offset = offset;
+        this.uncompressedLength = uncompressedLength;
+        this.data = Objects.requireNonNull(data);
+    }
+
+    /**
+     * Bit writer, most significant bits first.
+     */
+    private static final class BitWriter {
+
+        private byte[] bytes;
+
+        private int bitCount = 0;
+
+        private BitWriter(int initialCapacity) {
+            bytes = new byte[Math.max(initialCapacity, 8)];
+        }
+
+        private void write(long value, int n) {
+            int remaining = n;
+            while (remaining > 0) {
+                int byteIndex = bitCount >>> 3;
+                if (byteIndex == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                }
+                int free = 8 - (bitCount & 7);
+                int take = Math.min(free, remaining);
+                int bits = (int) (value >>> (remaining - take)) & ((1 << take) - 1);
+                bytes[byteIndex] |= bits << (free - take);
+                bitCount += take;
+                remaining -= take;
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, (bitCount + 7) >>> 3);
+        }
+    }
+
+    /**
+     * Bit reader, most significant bits first.
+     */
+    private static final class BitReader {
+
+        private final byte[] bytes;
+
+        private int bitCount = 0;
+
+        private BitReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private long read(int n) {
+            long value = 0;
+            int remaining = n;
+            while (remaining > 0) {
+                int used = bitCount & 7;
+                int take = Math.min(8 - used, remaining);
+                int bits = ((bytes[bitCount >>> 3] & 0xFF) >>> (8 - used - take)) & ((1 << take) - 1);
+                value = (value << take) | bits;
+                bitCount += take;
+                remaining -= take;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Sequential decoding of values.
+     */
+    private final class Decoder {
+
+        private final BitReader reader = new BitReader(data);
+
+        private int decodedCount = 0;
+
+        private long previousBits;
+
+        private int previousLeadingZeros;
+
+        private int previousMeaningfulBits;
+
+        private double next() {
+            if (decodedCount == 0) {
+                previousBits = reader.read(Long.SIZE);
+            } else if (reader.read(1) != 0) {
+                if (reader.read(1) != 0) {
+                    previousLeadingZeros = (int) reader.read(5);
+                    previousMeaningfulBits = (int) reader.read(6) + 1;
+                }
+                int trailingZeros = Long.SIZE - previousLeadingZeros - previousMeaningfulBits;
+                previousBits ^= reader.read(previousMeaningfulBits) << trailingZeros;
+            }
+            decodedCount++;
+            return Double.longBitsToDouble(previousBits);
+        }
+    }
+
+    /**
+     * Compress values.
+     *
+     * @param offset the chunk offset
+     * @param values the values to compress
+     * @return the compressed chunk
+     */
+    public static XorCompressedDoubleArrayChunk create(int offset, double[] values) {
+        Objects.requireNonNull(values);
+        return new XorCompressedDoubleArrayChunk(offset, values.length, compress(values));
+    }
+
+    static byte[] compress(double[] values) {
+        BitWriter writer = new BitWriter(values.length * 2);
+        long previousBits = 0;
+        int previousLeadingZeros = -1;
+        int previousTrailingZeros = -1;
+        for (int i = 0; i < values.length; i++) {
+            long bits = Double.doubleToRawLongBits(values[i]);
+            if (i == 0) {
+                writer.write(bits, Long.SIZE);
+            } else {
+                long xor = bits ^ previousBits;
+                if (xor == 0) {
+                    writer.write(0, 1);
+                } else {
+                    int leadingZeros = Math.min(Long.numberOfLeadingZeros(xor), MAX_LEADING_ZEROS);
+                    int trailingZeros = Long.numberOfTrailingZeros(xor);
+                    if (previousLeadingZeros != -1 && leadingZeros >= previousLeadingZeros && trailingZeros >= previousTrailingZeros) {
+                        // meaningful bits fit in previous window
+                        writer.write(0b10, 2);
+                        writer.write(xor >>> previousTrailingZeros, Long.SIZE - previousLeadingZeros - previousTrailingZeros);
+                    } else {
+                        int meaningfulBits = Long.SIZE - leadingZeros - trailingZeros;
+                        writer.write(0b11, 2);
+                        writer.write(leadingZeros, 5);
+                        writer.write(meaningfulBits - 1L, 6);
+                        writer.write(xor >>> trailingZeros, meaningfulBits);
+                        previousLeadingZeros = leadingZeros;
+                        previousTrailingZeros = trailingZeros;
+                    }
+                }
+            }
+            previousBits = bits;
+        }
+        return writer.toByteArray();
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * Get uncompressed values.
+     */
+    public double[] uncompress() {
+        double[] values = new double[uncompressedLength];
+        Decoder decoder = new Decoder();
+        for (int i = 0; i < uncompressedLength; i++) {
+            values[i] = decoder.next();
+        }
+        return values;
+    }
+
+    @Override
+    public int getOffset() {
+        return offset;
+    }
+
+    @Override
+    public int getLength() {
+        return uncompressedLength;
+    }
+
+    public int getUncompressedLength() {
+        return uncompressedLength;
+    }
+
+    @Override
+    public int getEstimatedSize() {
+        return data.length;
+    }
+
+    @Override
+    public double getCompressionFactor() {
+        return ((double) getEstimatedSize()) / (Double.BYTES * uncompressedLength);
+    }
+
+    @Override
+    public boolean isCompressed() {
+        return true;
+    }
+
+    @Override
+    public TimeSeriesDataType getDataType() {
+        return TimeSeriesDataType.DOUBLE;
+    }
+
+    @Override
+    public void fillBuffer(DoubleBuffer buffer, int timeSeriesOffset) {
+        Objects.requireNonNull(buffer);
+        Decoder decoder = new Decoder();
+        for (int i = 0; i < uncompressedLength; i++) {
+            buffer.put(timeSeriesOffset + offset + i, decoder.next());
+        }
+    }
+
+    @Override
+    public void fillArray(double[] array, int fromPoint) {
+        Objects.requireNonNull(array);
+        // values have to be decoded from the beginning of the chunk
+        int end = Math.min(offset + uncompressedLength, fromPoint + array.length);
+        Decoder decoder = new Decoder();
+        for (int point = offset; point < end; point++) {
+            double value = decoder.next();
+            if (point >= fromPoint) {
+                array[point - fromPoint] = value;
+            }
+        }
+    }
+
+    @Override
+    public Iterator<DoublePoint> iterator(TimeSeriesIndex index) {
+        Objects.requireNonNull(index);
+        return new Iterator<DoublePoint>() {
+
+            private final Decoder decoder = new Decoder();
+
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < uncompressedLength;
+            }
+
+            @Override
+            public DoublePoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                DoublePoint point = new DoublePoint(offset + i, index.getTimeAt(offset + i), decoder.next());
+                i++;
+                return point;
+            }
+        };
+    }
+
+    @Override
+    public DoubleCursor cursor(TimeSeriesIndex index) {
+        Objects.requireNonNull(index);
+        return new DoubleCursor() {
+
+            private final Decoder decoder = new Decoder();
+
+            private int i = -1;
+
+            private double value = Double.NaN;
+
+            @Override
+            public boolean next() {
+                if (i < uncompressedLength) {
+                    i++;
+                    if (i < uncompressedLength) {
+                        value = decoder.next();
+                    }
+                }
+                return i < uncompressedLength;
+            }
+
+            @Override
+            public int getIndex() {
+                return offset + i;
+            }
+
+            @Override
+            public int getLength() {
+                return 1;
+            }
+
+            @Override
+            public long getTime() {
+                return index.getTimeAt(offset + i);
+            }
+
+            @Override
+            public double getValue() {
+                return value;
+            }
+        };
+    }
+
+    @Override
+    public Stream<DoublePoint> stream(TimeSeriesIndex index) {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(index), uncompressedLength,
+                Spliterator.ORDERED | Spliterator.IMMUTABLE), false);
+    }
+
+    @Override
+    public DoubleArrayChunk tryToCompress() {
+        return this;
+    }
+
+    @Override
+    public Split<DoublePoint, DoubleArrayChunk> splitAt(int splitIndex) {
+        // split at offset is not allowed because it will result to a null left chunk
+        if (splitIndex <= offset || splitIndex > (offset + uncompressedLength - 1)) {
+            throw new IllegalArgumentException("Split index " + splitIndex + " out of chunk range ]" + offset
+                    + ", " + (offset + uncompressedLength - 1) + "]");
+        }
+        double[] values = uncompress();
+        double[] values1 = Arrays.copyOfRange(values, 0, splitIndex - offset);
+        double[] values2 = Arrays.copyOfRange(values, values1.length, values.length);
+        return new Split<>(create(offset, values1), create(splitIndex, values2));
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator) {
+        Objects.requireNonNull(generator);
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("offset", offset);
+            generator.writeNumberField("uncompressedLength", uncompressedLength);
+            generator.writeBinaryField("xorValues", data);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(offset, uncompressedLength, Arrays.hashCode(data));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof XorCompressedDoubleArrayChunk) {
+            XorCompressedDoubleArrayChunk other = (XorCompressedDoubleArrayChunk) obj;
+            return offset == other.offset &&
+                    uncompressedLength == other.uncompressedLength &&
+                    Arrays.equals(data, other.data);
+        }
+        return false;
+    }
+}
@@ -24,6 +24,17 @@ public class TDoubleArrayListHack extends TDoubleArrayList {
         super(values);
     }
 
+    private TDoubleArrayListHack(double[] values, boolean wrap) {
+        super(values, 0, wrap);
+    }
+
+    /**
+     * Create a list backed by the given array, without any copy.
+     */
+    public static TDoubleArrayListHack wrap(double[] values) {
+        return new TDoubleArrayListHack(values, true);
+    }
+
     public double[] getData() {
         return _data;
     }
@@ -24,6 +24,17 @@ public class TIntArrayListHack extends TIntArrayList {
         super(values);
     }
 
+    private TIntArrayListHack(int[] values, boolean wrap) {
+        super(values, 0, wrap);
+    }
+
+    /**
+     * Create a list backed by the given array, without any copy.
+     */
+    public static TIntArrayListHack wrap(int[] values) {
+        return new TIntArrayListHack(values, true);
+    }
+
     public int[] getData() {
         return _data;
     }
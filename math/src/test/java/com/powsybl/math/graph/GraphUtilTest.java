@@ -1,7 +1,10 @@
 package com.powsybl.math.graph;
 
+import gnu.trove.list.array.TIntArrayList;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 /**
@@ -29,4 +32,63 @@ public class GraphUtilTest {
         assertEquals(2, graph.getVertexCount());
     }
 
+    private static TIntArrayList[] createAdjacencyList(int vertexCount) {
+        TIntArrayList[] adjacencyList = new TIntArrayList[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            adjacencyList[v] = new TIntArrayList();
+        }
+        return adjacencyList;
+    }
+
+    private static void addEdge(TIntArrayList[] adjacencyList, int v1, int v2) {
+        adjacencyList[v1].add(v2);
+        adjacencyList[v2].add(v1);
+    }
+
+    @Test
+    public void computeConnectedComponents() {
+        // 0-1 3-4-5 2 6
+        TIntArrayList[] adjacencyList = createAdjacencyList(7);
+        addEdge(adjacencyList, 0, 1);
+        addEdge(adjacencyList, 3, 4);
+        addEdge(adjacencyList, 5, 4);
+        for (boolean parallel : new boolean[] {false, true}) {
+            GraphUtil.ConnectedComponentsComputationResult result = GraphUtil.computeConnectedComponents(adjacencyList, parallel);
+            assertArrayEquals(new int[] {1, 1, 2, 0, 0, 0, 3}, result.getComponentNumber());
+            assertArrayEquals(new int[] {3, 2, 1, 1}, result.getComponentSize());
+        }
+    }
+
+    @Test
+    public void computeConnectedComponentsOfLongChain() {
+        // would overflow the stack with a recursive depth first search
+        int vertexCount = 1000000;
+        TIntArrayList[] adjacencyList = createAdjacencyList(vertexCount);
+        for (int v = 1; v < vertexCount; v++) {
+            addEdge(adjacencyList, v - 1, v);
+        }
+        GraphUtil.ConnectedComponentsComputationResult result = GraphUtil.computeConnectedComponents(adjacencyList);
+        assertArrayEquals(new int[] {vertexCount}, result.getComponentSize());
+    }
+
+    @Test
+    public void computeConnectedComponentsInParallel() {
+        int vertexCount = 10000;
+        TIntArrayList[] adjacencyList = createAdjacencyList(vertexCount);
+        UnionFind unionFind = new UnionFind(vertexCount);
+        Random random = new Random(3);
+        for (int i = 0; i < vertexCount * 9 / 10; i++) {
+            int v1 = random.nextInt(vertexCount);
+            int v2 = random.nextInt(vertexCount);
+            addEdge(adjacencyList, v1, v2);
+            unionFind.union(v1, v2);
+        }
+        GraphUtil.ConnectedComponentsComputationResult result = GraphUtil.computeConnectedComponents(adjacencyList, false);
+        GraphUtil.ConnectedComponentsComputationResult result2 = GraphUtil.computeConnectedComponents(adjacencyList, true);
+        GraphUtil.ConnectedComponentsComputationResult result3 = unionFind.getConnectedComponents();
+        assertArrayEquals(result.getComponentNumber(), result2.getComponentNumber());
+        assertArrayEquals(result.getComponentSize(), result2.getComponentSize());
+        assertArrayEquals(result.getComponentNumber(), result3.getComponentNumber());
+        assertArrayEquals(result.getComponentSize(), result3.getComponentSize());
+    }
 }
@@ -22,8 +22,12 @@ import org.mockito.Mockito;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  *
@@ -262,6 +266,49 @@ public class UndirectedGraphImplTest {
         assertArrayEquals(paths.get(2).toArray(), new int[] {1, 4, 5});
     }
 
+    @Test
+    public void testFindPaths() {
+        for (int v = 0; v < 6; v++) {
+            graph.addVertex();
+        }
+        graph.setVertexObject(5, new Vertex("end"));
+        graph.addEdge(0, 1, null); // 0
+        graph.addEdge(0, 2, null); // 1
+        graph.addEdge(0, 3, null); // 2
+        graph.addEdge(1, 4, null); // 3
+        graph.addEdge(2, 4, "canceled"); // 4
+        graph.addEdge(4, 5, null); // 5
+        graph.addEdge(3, 5, null); // 6
+        graph.addEdge(1, 2, null); // 7
+        Function<Vertex, Boolean> pathComplete = vertex -> vertex != null && "end".equals(vertex.name);
+
+        List<TIntArrayList> paths = graph.findPaths(0, pathComplete, null, Integer.MAX_VALUE).collect(Collectors.toList());
+        assertEquals(graph.findAllPaths(0, pathComplete, null), paths);
+        assertEquals(5, paths.size());
+        assertArrayEquals(new int[] {2, 6}, paths.get(0).toArray());
+
+        // limited depth and count
+        assertEquals(3, graph.findPaths(0, pathComplete, null, 3).count());
+        assertEquals(2, graph.findPaths(0, pathComplete, null, 3).limit(2).count());
+        assertEquals(0, graph.findPaths(0, pathComplete, null, 1).count());
+        assertEquals(paths.subList(0, 2), graph.findPaths(0, pathComplete, null, Integer.MAX_VALUE, 2).collect(Collectors.toList()));
+        assertEquals(0, graph.findPaths(0, pathComplete, null, Integer.MAX_VALUE, 0).count());
+
+        // search ended by the consumer
+        List<TIntArrayList> paths3 = new ArrayList<>();
+        assertEquals(3, graph.findPaths(0, pathComplete, null, Integer.MAX_VALUE, Integer.MAX_VALUE, path -> {
+            paths3.add(path);
+            return paths3.size() == 3 ? TraverseResult.TERMINATE : TraverseResult.CONTINUE;
+        }));
+        assertEquals(paths.subList(0, 3), paths3);
+        assertEquals(5, graph.findPaths(0, pathComplete, null, Integer.MAX_VALUE, Integer.MAX_VALUE, path -> TraverseResult.CONTINUE));
+
+        // canceled edge
+        List<TIntArrayList> paths2 = graph.findPaths(0, pathComplete, "canceled"::equals, Integer.MAX_VALUE).collect(Collectors.toList());
+        assertEquals(graph.findAllPaths(0, pathComplete, "canceled"::equals), paths2);
+        assertEquals(3, paths2.size());
+    }
+
     /**
      *           0
      *           |
@@ -415,6 +462,54 @@ public class UndirectedGraphImplTest {
         graph.traverse(4, traverser);
     }
 
+    @Test
+    public void testTraverseOrder() {
+        for (int v = 0; v < 6; v++) {
+            graph.addVertex();
+        }
+        graph.addEdge(0, 1, null); // 0
+        graph.addEdge(0, 2, null); // 1
+        graph.addEdge(0, 3, null); // 2
+        graph.addEdge(1, 4, null); // 3
+        graph.addEdge(2, 4, null); // 4
+        graph.addEdge(4, 5, null); // 5
+        graph.addEdge(3, 5, null); // 6
+
+        // depth first, edges of a vertex by increasing index
+        List<Integer> traversedEdges = new ArrayList<>();
+        graph.traverse(0, (v1, e, v2) -> {
+            traversedEdges.add(e);
+            return TraverseResult.CONTINUE;
+        });
+        assertEquals(Arrays.asList(0, 3, 4, 5, 6), traversedEdges);
+
+        // adjacency list is rebuilt after a modification
+        graph.removeEdge(3);
+        traversedEdges.clear();
+        graph.traverse(0, (v1, e, v2) -> {
+            traversedEdges.add(e);
+            return TraverseResult.CONTINUE;
+        });
+        assertEquals(Arrays.asList(0, 1, 4, 5, 6), traversedEdges);
+    }
+
+    @Test
+    public void testTraverseLongChainFromManyThreads() {
+        int vertexCount = 100000;
+        for (int v = 0; v < vertexCount; v++) {
+            graph.addVertex();
+        }
+        for (int v = 1; v < vertexCount; v++) {
+            graph.addEdge(v - 1, v, null);
+        }
+        long count = IntStream.range(0, 8).parallel().mapToLong(i -> {
+            boolean[] encountered = new boolean[vertexCount];
+            graph.traverse(0, (v1, e, v2) -> TraverseResult.CONTINUE, encountered);
+            return IntStream.range(0, vertexCount).filter(v -> encountered[v]).count();
+        }).sum();
+        assertEquals(8L * vertexCount, count);
+    }
+
     @Test
     public void testGetVertexObjectStream() {
         graph.addVertex();
@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class UnionFindTest {
+
+    @Test
+    public void test() {
+        UnionFind unionFind = new UnionFind(3);
+        assertEquals(3, unionFind.getVertexCount());
+        assertEquals(3, unionFind.getComponentCount());
+        assertTrue(unionFind.union(0, 2));
+        assertFalse(unionFind.union(2, 0));
+        assertTrue(unionFind.isConnected(0, 2));
+        assertFalse(unionFind.isConnected(0, 1));
+        assertEquals(2, unionFind.getComponentCount());
+        assertEquals(2, unionFind.getComponentSize(2));
+
+        // incremental update, more vertices than initial capacity
+        for (int i = 0; i < 20; i++) {
+            int v = unionFind.addVertex();
+            assertEquals(i + 3, v);
+            unionFind.union(v, 1);
+        }
+        assertEquals(23, unionFind.getVertexCount());
+        assertEquals(2, unionFind.getComponentCount());
+        assertEquals(21, unionFind.getComponentSize(1));
+
+        GraphUtil.ConnectedComponentsComputationResult result = unionFind.getConnectedComponents();
+        assertArrayEquals(new int[] {21, 2}, result.getComponentSize());
+        assertEquals(1, result.getComponentNumber()[0]);
+        assertEquals(0, result.getComponentNumber()[1]);
+        assertEquals(1, result.getComponentNumber()[2]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownVertex() {
+        new UnionFind(2).find(2);
+    }
+}
@@ -7,10 +7,14 @@
 package com.powsybl.math.matrix;
 
 import com.google.common.collect.ImmutableList;
+import com.powsybl.commons.PowsyblException;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -80,4 +84,101 @@ public class DenseMatrixTest extends AbstractMatrixTest {
         a.addValue(0, 0, 1d);
         assertEquals(1d, a.getValue(0, 0), 1d);
     }
+
+    private static DenseMatrix createRandom(int m, int n, Random random) {
+        DenseMatrix a = new DenseMatrix(m, n);
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i < m; i++) {
+                a.setValue(i, j, random.nextDouble() - 0.5);
+            }
+        }
+        return a;
+    }
+
+    @Test
+    public void testBlockedMultiplication() {
+        // dimensions larger than block sizes and not multiple of them
+        Random random = new Random(42);
+        DenseMatrix a = createRandom(300, 150, random);
+        DenseMatrix b = createRandom(150, 70, random);
+        DenseMatrix c = (DenseMatrix) a.times(b);
+        assertEquals(300, c.getM());
+        assertEquals(70, c.getN());
+        for (int i = 0; i < c.getM(); i++) {
+            for (int j = 0; j < c.getN(); j++) {
+                double expected = 0;
+                for (int k = 0; k < a.getN(); k++) {
+                    expected += a.getValue(i, k) * b.getValue(k, j);
+                }
+                assertEquals(expected, c.getValue(i, j), 1e-12);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncompatibleMultiplication() {
+        new DenseMatrix(2, 3).times(new DenseMatrix(2, 3));
+    }
+
+    @Test
+    public void testBlockedDecompose() {
+        int n = 150;
+        DenseMatrix a = createRandom(n, n, new Random(7));
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i + 1;
+        }
+        DenseMatrix b = (DenseMatrix) a.times(new DenseMatrix(n, 1, x));
+        double[] b2 = b.getValuesCopy();
+        try (LUDecomposition decomposition = a.decomposeLU()) {
+            decomposition.solve(b);
+            decomposition.solve(b2);
+        }
+        assertArrayEquals(x, b.getValuesCopy(), 1e-9);
+        assertArrayEquals(x, b2, 1e-9);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testJamaDecomposition() {
+        int n = 20;
+        DenseMatrix a = createRandom(n, n, new Random(3));
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i + 1;
+        }
+        double[] b = ((DenseMatrix) a.times(new DenseMatrix(n, 1, x))).getValuesCopy();
+        try (LUDecomposition decomposition = new DenseLUDecomposition(new Jama.Matrix(a.getValuesCopy(), n).lu())) {
+            decomposition.solve(b);
+        }
+        assertArrayEquals(x, b, 1e-9);
+    }
+
+    @Test
+    public void testHeapBigEndianBuffer() {
+        // a buffer provided by the user may not have the default order
+        DenseMatrix a = new DenseMatrix(2, 2, ByteBuffer.allocate(4 * Double.BYTES));
+        a.setValue(0, 0, 2);
+        a.setValue(1, 0, 1);
+        a.setValue(0, 1, 1);
+        a.setValue(1, 1, 3);
+        DenseMatrix c = (DenseMatrix) a.times(a);
+        assertArrayEquals(new double[] {5, 5, 5, 10}, c.getValuesCopy(), 0);
+        DenseMatrix b = new DenseMatrix(2, 1, ByteBuffer.allocate(2 * Double.BYTES));
+        b.setValue(0, 0, 3);
+        b.setValue(1, 0, 4);
+        try (LUDecomposition decomposition = a.decomposeLU()) {
+            decomposition.solve(b);
+        }
+        assertEquals(1, b.getValue(0, 0), EPSILON);
+        assertEquals(1, b.getValue(1, 0), EPSILON);
+    }
+
+    @Test(expected = PowsyblException.class)
+    public void testSingularDecompose() {
+        DenseMatrix a = new DenseMatrix(2, 2, new double[] {1, 2, 2, 4});
+        try (LUDecomposition decomposition = a.decomposeLU()) {
+            decomposition.solve(new double[] {1, 1});
+        }
+    }
 }
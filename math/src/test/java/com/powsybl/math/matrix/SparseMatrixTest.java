@@ -10,6 +10,7 @@ import org.junit.Test;
 
 import java.io.IOException;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assume.assumeTrue;
 
@@ -32,12 +33,6 @@ public class SparseMatrixTest extends AbstractMatrixTest {
         return otherMatrixFactory;
     }
 
-    @Override
-    public void testMultiplication() throws Exception {
-        assumeTrue(SparseMatrix.NATIVE_INIT);
-        super.testMultiplication();
-    }
-
     @Override
     public void testDecompose() throws Exception {
         assumeTrue(SparseMatrix.NATIVE_INIT);
@@ -56,4 +51,85 @@ public class SparseMatrixTest extends AbstractMatrixTest {
                 + System.lineSeparator();
         assertEquals(expected, print(a, null, null));
     }
+
+    private static SparseMatrix createB() {
+        // 3x4 matrix with an empty column in the middle and an empty trailing column
+        SparseMatrix b = new SparseMatrix(3, 4, 3);
+        b.setValue(2, 0, 1);
+        b.setValue(0, 0, 2);
+        b.setValue(1, 2, 3);
+        return b;
+    }
+
+    @Test
+    public void testEmptyColumns() {
+        SparseMatrix b = createB();
+        DenseMatrix expected = new DenseMatrix(3, 4, new double[] {2, 0, 1, 0, 0, 0, 0, 3, 0, 0, 0, 0});
+        assertEquals(expected, b.toDense());
+    }
+
+    @Test
+    public void testTimesVector() {
+        SparseMatrix a = (SparseMatrix) createA(matrixFactory);
+        assertArrayEquals(new double[] {4, 15, 8}, a.times(new double[] {4, 5}), EPSILON);
+        assertArrayEquals(new double[] {2, 3, 1}, createB().times(new double[] {1, 2, 1, 3}), EPSILON);
+    }
+
+    @Test
+    public void testTransposeTimesVector() {
+        SparseMatrix a = (SparseMatrix) createA(matrixFactory);
+        assertArrayEquals(new double[] {7, 6}, a.transposeTimes(new double[] {1, 2, 3}), EPSILON);
+        double[] y = new double[4];
+        createB().transposeTimes(new double[] {1, 2, 3}, y, true);
+        assertArrayEquals(new double[] {5, 0, 6, 0}, y, EPSILON);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimesVectorBadSize() {
+        createB().times(new double[] {1, 2});
+    }
+
+    @Test
+    public void testTranspose() {
+        SparseMatrix a = (SparseMatrix) createA(matrixFactory);
+        SparseMatrix at = a.transpose();
+        assertEquals(2, at.getM());
+        assertEquals(3, at.getN());
+        DenseMatrix expected = new DenseMatrix(2, 3, new double[] {1, 0, 0, 3, 2, 0});
+        assertEquals(expected, at.toDense());
+        assertEquals(a.toDense(), at.transpose().toDense());
+        assertEquals(createB().toDense(), createB().transpose().transpose().toDense());
+    }
+
+    @Test
+    public void testAddAndScale() {
+        SparseMatrix b = createB();
+        SparseMatrix c = b.add(b.transpose().transpose(), 1, -0.5);
+        DenseMatrix expected = new DenseMatrix(3, 4, new double[] {1, 0, 0.5, 0, 0, 0, 0, 1.5, 0, 0, 0, 0});
+        assertEquals(expected, c.toDense());
+        b.scale(2);
+        assertEquals(expected, b.add(c, 0.5, -1).toDense());
+    }
+
+    @Test
+    public void testSparseProduct() {
+        SparseMatrix a = (SparseMatrix) createA(matrixFactory);
+        SparseMatrix b = createB();
+        // A (3x2) * A^T (2x3) * B (3x4)
+        for (boolean parallel : new boolean[] {false, true}) {
+            SparseMatrix c = a.times(a.transpose(), parallel).times(b, parallel);
+            DenseMatrix expected = (DenseMatrix) a.toDense().times(a.transpose().toDense()).times(b.toDense());
+            assertEquals(expected, c.toDense());
+        }
+    }
+
+    @Test
+    public void testSparseDenseProduct() {
+        SparseMatrix a = (SparseMatrix) createA(matrixFactory);
+        DenseMatrix b = new DenseMatrix(2, 2, new double[] {1, 2, 3, 4});
+        DenseMatrix expected = new DenseMatrix(3, 2, new double[] {1, 6, 2, 3, 12, 6});
+        assertEquals(expected, a.times(b));
+        DenseMatrix d = new DenseMatrix(1, 3, new double[] {1, 2, 3});
+        assertEquals(new DenseMatrix(1, 2, new double[] {7, 6}), d.times(a));
+    }
 }
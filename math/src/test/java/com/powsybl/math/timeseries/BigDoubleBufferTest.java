@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class BigDoubleBufferTest {
+
+    @Test
+    public void test() {
+        BigDoubleBuffer buffer = new BigDoubleBuffer(ByteBuffer::allocate, 10, 4);
+        assertEquals(10, buffer.capacity());
+        assertEquals(4, buffer.getBufferSize());
+        assertEquals(3, buffer.getBufferCount());
+        buffer.fill(Double.NaN);
+        for (long i = 0; i < 10; i++) {
+            assertTrue(Double.isNaN(buffer.get(i)));
+        }
+        for (long i = 0; i < 10; i++) {
+            buffer.put(i, i);
+        }
+        for (long i = 0; i < 10; i++) {
+            assertEquals(i, buffer.get(i), 0);
+        }
+        assertEquals(2, buffer.getBuffer(9).capacity());
+        assertEquals(1, buffer.getBufferOffset(9));
+        assertEquals(9, buffer.getBuffer(9).get(1), 0);
+    }
+
+    @Test
+    public void testLongIndex() {
+        // only allocate the last buffer for real, all others are shared empty buffers
+        ByteBuffer empty = ByteBuffer.allocate(0);
+        BigDoubleBuffer buffer = new BigDoubleBuffer(size -> size < BigDoubleBuffer.MAX_BUFFER_SIZE * Double.BYTES ? ByteBuffer.allocate(size) : empty,
+                                                     BigDoubleBuffer.MAX_BUFFER_SIZE * 3L + 2);
+        assertEquals(4, buffer.getBufferCount());
+        long index = BigDoubleBuffer.MAX_BUFFER_SIZE * 3L + 1;
+        buffer.put(index, 3.5);
+        assertEquals(3.5, buffer.get(index), 0);
+        assertEquals(1, buffer.getBufferOffset(index));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfRange() {
+        new BigDoubleBuffer(ByteBuffer::allocate, 10).get(10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBufferSize() {
+        new BigDoubleBuffer(ByteBuffer::allocate, 10, 0);
+    }
+}
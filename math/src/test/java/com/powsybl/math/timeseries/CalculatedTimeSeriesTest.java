@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.powsybl.math.timeseries.NodeCalc.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class CalculatedTimeSeriesTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private static StoredDoubleTimeSeries createTimeSeries(String name, TimeSeriesIndex index, int factor) {
+        return StoredDoubleTimeSeries.create(name, index, IntStream.range(0, index.getPointCount())
+                                                                  .mapToDouble(i -> (double) factor * i)
+                                                                  .toArray());
+    }
+
+    @Test
+    public void test() {
+        TimeSeriesIndex index = new TestTimeSeriesIndex(0L, 4);
+        DoubleTimeSeries ts1 = StoredDoubleTimeSeries.create("ts1", index, new double[] {1d, -2d, 3d, -4d});
+        DoubleTimeSeries ts2 = StoredDoubleTimeSeries.create("ts2", index, new double[] {2d, 2d, 2d, 2d});
+
+        CalculatedTimeSeries ts3 = new CalculatedTimeSeries("ts3", plus(multiply(timeSeries(ts1), constant(2d)), timeSeries(ts2)));
+        assertEquals("ts3", ts3.getMetadata().getName());
+        assertEquals(TimeSeriesDataType.DOUBLE, ts3.getMetadata().getDataType());
+        assertSame(index, ts3.getMetadata().getIndex());
+        assertEquals("CalculatedTimeSeries(name=ts3, nodeCalc=((ts1 * 2.0) + ts2))", ts3.toString());
+        assertArrayEquals(new double[] {4d, -2d, 8d, -6d}, ts3.toArray(), 0d);
+
+        assertArrayEquals(new double[] {1d, 2d, 3d, 4d}, new CalculatedTimeSeries("ts4", abs(timeSeries(ts1))).toArray(), 0d);
+        assertArrayEquals(new double[] {-1d, 2d, -3d, 4d}, new CalculatedTimeSeries("ts5", negate(timeSeries(ts1))).toArray(), 0d);
+        assertArrayEquals(new double[] {-1d, -4d, 1d, -6d}, new CalculatedTimeSeries("ts6", minus(timeSeries(ts1), timeSeries(ts2))).toArray(), 0d);
+        assertArrayEquals(new double[] {0.5d, -1d, 1.5d, -2d}, new CalculatedTimeSeries("ts7", divide(timeSeries(ts1), timeSeries(ts2))).toArray(), 0d);
+        assertArrayEquals(new double[] {1d, -2d, 2d, -4d}, new CalculatedTimeSeries("ts8", min(timeSeries(ts1), timeSeries(ts2))).toArray(), 0d);
+        assertArrayEquals(new double[] {2d, 2d, 3d, 2d}, new CalculatedTimeSeries("ts9", max(timeSeries(ts1), timeSeries(ts2))).toArray(), 0d);
+
+        // range read
+        double[] array = new double[3];
+        ts3.fillArray(array, 2);
+        assertArrayEquals(new double[] {8d, -6d, Double.NaN}, array, 0d);
+
+        // points
+        DoublePoint[] pointsRef = {new DoublePoint(0, 0L, 4d),
+                                   new DoublePoint(1, 1L, -2d),
+                                   new DoublePoint(2, 2L, 8d),
+                                   new DoublePoint(3, 3L, -6d)};
+        assertArrayEquals(pointsRef, ts3.stream().toArray());
+        assertArrayEquals(pointsRef, Iterators.toArray(ts3.iterator(), DoublePoint.class));
+
+        // materialization
+        StoredDoubleTimeSeries stored = ts3.toStoredTimeSeries();
+        assertSame(ts3.getMetadata(), stored.getMetadata());
+        assertArrayEquals(ts3.toArray(), stored.toArray(), 0d);
+        List<DoubleTimeSeries> split = ts3.split(2);
+        assertEquals(2, split.size());
+        assertArrayEquals(new double[] {4d, -2d, Double.NaN, Double.NaN}, split.get(0).toArray(), 0d);
+    }
+
+    @Test
+    public void testSeveralBlocks() {
+        TimeSeriesIndex index = new TestTimeSeriesIndex(0L, 2 * CalculatedTimeSeries.BLOCK_SIZE + 10);
+        StoredDoubleTimeSeries ts1 = createTimeSeries("ts1", index, 1);
+        StoredDoubleTimeSeries ts2 = createTimeSeries("ts2", index, 2);
+        CalculatedTimeSeries ts3 = new CalculatedTimeSeries("ts3", minus(timeSeries(ts2), timeSeries(ts1)));
+
+        // ts2 - ts1 = ts1
+        assertArrayEquals(ts1.toArray(), ts3.toArray(), 0d);
+        assertArrayEquals(ts1.stream().toArray(), ts3.stream().toArray());
+        double[] values = new double[index.getPointCount()];
+        ts3.forEachPoint((point, time, value) -> values[point] = value);
+        assertArrayEquals(ts1.toArray(), values, 0d);
+        double[] array = new double[20];
+        ts3.fillArray(array, CalculatedTimeSeries.BLOCK_SIZE - 10);
+        for (int i = 0; i < array.length; i++) {
+            assertEquals(CalculatedTimeSeries.BLOCK_SIZE - 10d + i, array[i], 0d);
+        }
+    }
+
+    @Test
+    public void testFusedEvaluation() {
+        TimeSeriesIndex index = new TestTimeSeriesIndex(0L, CalculatedTimeSeries.BLOCK_SIZE + 1);
+        StoredDoubleTimeSeries ts1 = Mockito.spy(createTimeSeries("ts1", index, 1));
+        CalculatedTimeSeries ts2 = new CalculatedTimeSeries("ts2", plus(timeSeries(ts1), timeSeries(ts1)));
+        CalculatedTimeSeries ts3 = new CalculatedTimeSeries("ts3", multiply(timeSeries(ts1), constant(3d)));
+
+        double[][] values = new double[2][index.getPointCount()];
+        CalculatedTimeSeries.evaluate(ImmutableList.of(ts2, ts3), (timeSeriesNum, fromPoint, blockValues) ->
+            System.arraycopy(blockValues, 0, values[timeSeriesNum], fromPoint, blockValues.length));
+        assertArrayEquals(createTimeSeries("ref2", index, 2).toArray(), values[0], 0d);
+        assertArrayEquals(createTimeSeries("ref3", index, 3).toArray(), values[1], 0d);
+
+        // ts1 is only read once per block
+        Mockito.verify(ts1, Mockito.times(2)).fillArray(Mockito.any(), Mockito.anyInt());
+    }
+
+    @Test
+    public void testTableLoad() {
+        TimeSeriesIndex index = new TestTimeSeriesIndex(0L, CalculatedTimeSeries.BLOCK_SIZE + 1);
+        StoredDoubleTimeSeries ts1 = createTimeSeries("ts1", index, 1);
+        CalculatedTimeSeries ts2 = new CalculatedTimeSeries("ts2", plus(timeSeries(ts1), constant(1d)));
+        CalculatedTimeSeries ts3 = new CalculatedTimeSeries("ts3", multiply(timeSeries(ts1), timeSeries(ts2)));
+
+        TimeSeriesTable table = new TimeSeriesTable(1, 1, index);
+        table.load(1, ImmutableList.of(ts1, ts2, ts3));
+        for (int point = 0; point < index.getPointCount(); point += 1000) {
+            assertEquals(point, table.getDoubleValue(1, 0, point), 0d);
+            assertEquals(point + 1d, table.getDoubleValue(1, 1, point), 0d);
+            assertEquals(point * (point + 1d), table.getDoubleValue(1, 2, point), 0d);
+        }
+    }
+
+    @Test
+    public void testIndexMismatch() {
+        DoubleTimeSeries ts1 = createTimeSeries("ts1", new TestTimeSeriesIndex(0L, 3), 1);
+        DoubleTimeSeries ts2 = createTimeSeries("ts2", new TestTimeSeriesIndex(0L, 4), 1);
+        exception.expect(TimeSeriesException.class);
+        exception.expectMessage("Time series referenced by 'ts3' must have the same index");
+        new CalculatedTimeSeries("ts3", plus(timeSeries(ts1), timeSeries(ts2)));
+    }
+
+    @Test
+    public void testNoTimeSeries() {
+        exception.expect(TimeSeriesException.class);
+        exception.expectMessage("Calculated time series 'ts1' does not reference any time series");
+        new CalculatedTimeSeries("ts1", constant(1d));
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.nio.DoubleBuffer;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Double array chunk only implementing abstract methods, by delegation, to test default methods.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+class DelegatingDoubleArrayChunk implements DoubleArrayChunk {
+
+    private final DoubleArrayChunk delegate;
+
+    DelegatingDoubleArrayChunk(DoubleArrayChunk delegate) {
+        this.delegate = Objects.requireNonNull(delegate);
+    }
+
+    @Override
+    public int getOffset() {
+        return delegate.getOffset();
+    }
+
+    @Override
+    public int getLength() {
+        return delegate.getLength();
+    }
+
+    @Override
+    public int getEstimatedSize() {
+        return delegate.getEstimatedSize();
+    }
+
+    @Override
+    public double getCompressionFactor() {
+        return delegate.getCompressionFactor();
+    }
+
+    @Override
+    public boolean isCompressed() {
+        return delegate.isCompressed();
+    }
+
+    @Override
+    public TimeSeriesDataType getDataType() {
+        return delegate.getDataType();
+    }
+
+    @Override
+    public Stream<DoublePoint> stream(TimeSeriesIndex index) {
+        return delegate.stream(index);
+    }
+
+    @Override
+    public Iterator<DoublePoint> iterator(TimeSeriesIndex index) {
+        return delegate.iterator(index);
+    }
+
+    @Override
+    public DoubleArrayChunk tryToCompress() {
+        return delegate.tryToCompress();
+    }
+
+    @Override
+    public Split<DoublePoint, DoubleArrayChunk> splitAt(int splitIndex) {
+        return delegate.splitAt(splitIndex);
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator) {
+        delegate.writeJson(generator);
+    }
+
+    @Override
+    public void fillBuffer(DoubleBuffer buffer, int timeSeriesOffset) {
+        delegate.fillBuffer(buffer, timeSeriesOffset);
+    }
+}
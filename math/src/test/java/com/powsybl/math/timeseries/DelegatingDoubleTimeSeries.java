@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.nio.DoubleBuffer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Double time series only implementing abstract methods, by delegation, to test default methods.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+class DelegatingDoubleTimeSeries implements DoubleTimeSeries {
+
+    private final DoubleTimeSeries delegate;
+
+    DelegatingDoubleTimeSeries(DoubleTimeSeries delegate) {
+        this.delegate = Objects.requireNonNull(delegate);
+    }
+
+    @Override
+    public TimeSeriesMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public void synchronize(TimeSeriesIndex newIndex) {
+        delegate.synchronize(newIndex);
+    }
+
+    @Override
+    public Stream<DoublePoint> stream() {
+        return delegate.stream();
+    }
+
+    @Override
+    public Iterator<DoublePoint> iterator() {
+        return delegate.iterator();
+    }
+
+    @Override
+    public List<DoubleTimeSeries> split(int newChunkSize) {
+        return delegate.split(newChunkSize);
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator) {
+        delegate.writeJson(generator);
+    }
+
+    @Override
+    public void fillBuffer(DoubleBuffer buffer, int timeSeriesOffset) {
+        delegate.fillBuffer(buffer, timeSeriesOffset);
+    }
+
+    @Override
+    public double[] toArray() {
+        return delegate.toArray();
+    }
+}
@@ -21,6 +21,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
@@ -215,4 +216,133 @@ public class DoubleArrayChunkTest {
         assertTrue(doubleChunks.get(0) instanceof UncompressedDoubleArrayChunk);
         assertArrayEquals(new double[] {1d, Double.NaN, Double.NaN}, ((UncompressedDoubleArrayChunk) doubleChunks.get(0)).getValues(), 0d);
     }
+
+    @Test
+    public void xorCompressTest() throws IOException {
+        // measurements with a quarter precision, run length compression is inefficient
+        double[] values = new double[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 400 + Math.round(Math.sin(i / 10d) * 200) / 4d;
+        }
+        values[50] = Double.NaN;
+        UncompressedDoubleArrayChunk chunk = new UncompressedDoubleArrayChunk(1, values);
+        DoubleArrayChunk maybeCompressedChunk = chunk.tryToCompress();
+        assertTrue(maybeCompressedChunk instanceof XorCompressedDoubleArrayChunk);
+        XorCompressedDoubleArrayChunk compressedChunk = (XorCompressedDoubleArrayChunk) maybeCompressedChunk;
+        assertEquals(1, compressedChunk.getOffset());
+        assertEquals(100, compressedChunk.getLength());
+        assertTrue(compressedChunk.isCompressed());
+        assertTrue(compressedChunk.getCompressionFactor() < 0.5);
+        assertArrayEquals(values, compressedChunk.uncompress(), 0d);
+        DoubleBuffer buffer = DoubleBuffer.allocate(101);
+        buffer.put(0, Double.NaN);
+        compressedChunk.fillBuffer(buffer, 0);
+        assertTrue(Double.isNaN(buffer.get(0)));
+        assertArrayEquals(values, Arrays.copyOfRange(buffer.array(), 1, 101), 0d);
+
+        // json test
+        ObjectMapper objectMapper = JsonUtil.createObjectMapper()
+                .registerModule(new TimeSeriesJsonModule());
+        List<DoubleArrayChunk> chunks = objectMapper.readValue(objectMapper.writeValueAsString(Arrays.asList(compressedChunk, chunk)),
+                                                               TypeFactory.defaultInstance().constructCollectionType(List.class, DoubleArrayChunk.class));
+        assertEquals(Arrays.asList(compressedChunk, chunk), chunks);
+
+        // stream test
+        RegularTimeSeriesIndex index = RegularTimeSeriesIndex.create(Interval.parse("2015-01-01T00:00:00Z/2015-01-02T01:00:00Z"),
+                                                                     Duration.ofMinutes(15));
+        assertEquals(chunk.stream(index).collect(Collectors.toList()), compressedChunk.stream(index).collect(Collectors.toList()));
+
+        // split test
+        ArrayChunk.Split<DoublePoint, DoubleArrayChunk> split = compressedChunk.splitAt(31);
+        assertEquals(1, split.getChunk1().getOffset());
+        assertEquals(30, split.getChunk1().getLength());
+        assertEquals(31, split.getChunk2().getOffset());
+        assertArrayEquals(Arrays.copyOfRange(values, 30, 100), ((XorCompressedDoubleArrayChunk) split.getChunk2()).uncompress(), 0d);
+    }
+
+    @Test
+    public void xorCompressSpecialValuesTest() {
+        double[] values = {0d, -0d, Double.MAX_VALUE, Double.MIN_VALUE, Double.NEGATIVE_INFINITY, Double.NaN, 1d, 1d, -1d, 1e-300};
+        XorCompressedDoubleArrayChunk chunk = XorCompressedDoubleArrayChunk.create(0, values);
+        double[] values2 = chunk.uncompress();
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(Double.doubleToRawLongBits(values[i]), Double.doubleToRawLongBits(values2[i]));
+        }
+    }
+
+    @Test
+    public void xorCompressFailureTest() {
+        // random bits cannot be compressed
+        Random random = new Random(0);
+        double[] values = new double[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Double.longBitsToDouble(random.nextLong());
+        }
+        UncompressedDoubleArrayChunk chunk = new UncompressedDoubleArrayChunk(0, values);
+        assertSame(chunk, chunk.tryToCompress());
+    }
+
+    @Test
+    public void fillArrayTest() {
+        double[] values = {1d, 2d, 2d, 2d, 3d};
+        List<DoubleArrayChunk> chunks = ImmutableList.of(new UncompressedDoubleArrayChunk(2, values),
+                                                         new CompressedDoubleArrayChunk(2, 5, new double[] {1d, 2d, 3d}, new int[] {1, 3, 1}),
+                                                         XorCompressedDoubleArrayChunk.create(2, values),
+                                                         new DelegatingDoubleArrayChunk(new UncompressedDoubleArrayChunk(2, values)));
+        for (DoubleArrayChunk chunk : chunks) {
+            // range overlapping the beginning of the chunk
+            double[] array = {-1d, -1d, -1d, -1d};
+            chunk.fillArray(array, 0);
+            assertArrayEquals(new double[] {-1d, -1d, 1d, 2d}, array, 0d);
+
+            // range included in the chunk
+            array = new double[3];
+            chunk.fillArray(array, 3);
+            assertArrayEquals(new double[] {2d, 2d, 2d}, array, 0d);
+
+            // range overlapping the end of the chunk
+            array = new double[] {-1d, -1d, -1d};
+            chunk.fillArray(array, 5);
+            assertArrayEquals(new double[] {2d, 3d, -1d}, array, 0d);
+        }
+    }
+
+    @Test
+    public void cursorTest() {
+        TimeSeriesIndex index = new TestTimeSeriesIndex(100L, 10);
+        DoubleArrayChunk compressedChunk = new CompressedDoubleArrayChunk(2, 5, new double[] {1d, 2d, 3d}, new int[] {1, 3, 1});
+        // default implementation based on the iterator gives the same steps
+        for (DoubleArrayChunk chunk : ImmutableList.of(compressedChunk, new DelegatingDoubleArrayChunk(compressedChunk))) {
+            DoubleCursor cursor = chunk.cursor(index);
+            assertTrue(cursor.next());
+            assertEquals(2, cursor.getIndex());
+            assertEquals(1, cursor.getLength());
+            assertEquals(102L, cursor.getTime());
+            assertEquals(1d, cursor.getValue(), 0d);
+            assertTrue(cursor.next());
+            assertEquals(3, cursor.getIndex());
+            assertEquals(3, cursor.getLength());
+            assertEquals(103L, cursor.getTime());
+            assertEquals(2d, cursor.getValue(), 0d);
+            assertTrue(cursor.next());
+            assertEquals(6, cursor.getIndex());
+            assertEquals(1, cursor.getLength());
+            assertEquals(3d, cursor.getValue(), 0d);
+            assertFalse(cursor.next());
+            assertFalse(cursor.next());
+        }
+
+        double[] values = {1d, 2d, 2d, 2d, 3d};
+        for (DoubleArrayChunk chunk : ImmutableList.of(new UncompressedDoubleArrayChunk(2, values), XorCompressedDoubleArrayChunk.create(2, values))) {
+            DoubleCursor cursor = chunk.cursor(index);
+            for (int i = 0; i < values.length; i++) {
+                assertTrue(cursor.next());
+                assertEquals(2 + i, cursor.getIndex());
+                assertEquals(1, cursor.getLength());
+                assertEquals(102L + i, cursor.getTime());
+                assertEquals(values[i], cursor.getValue(), 0d);
+            }
+            assertFalse(cursor.next());
+        }
+    }
 }
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import com.powsybl.math.timeseries.DoubleTimeSeriesAggregator.Type;
+import com.powsybl.math.timeseries.DoubleTimeSeriesAggregator.Windows;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class DoubleTimeSeriesAggregatorTest {
+
+    private static final long MINUTE = 60000L;
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void test() {
+        // 3 hours of one minute data: a compressed chunk, a gap, and an uncompressed chunk
+        RegularTimeSeriesIndex index = new RegularTimeSeriesIndex(0, 179 * MINUTE, MINUTE);
+        double[] values = new double[120];
+        Random random = new Random(5);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(100);
+        }
+        StoredDoubleTimeSeries timeSeries = new StoredDoubleTimeSeries(new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, index),
+                new CompressedDoubleArrayChunk(0, 50, new double[] {1d, 3d, Double.NaN}, new int[] {30, 40 - 30, 10}),
+                new UncompressedDoubleArrayChunk(60, values));
+
+        Windows windows = DoubleTimeSeriesAggregator.aggregate(timeSeries, Duration.ofHours(1));
+        assertEquals(3, windows.getWindowCount());
+        assertEquals(Duration.ofHours(1), windows.getSpacing());
+        assertEquals(new RegularTimeSeriesIndex(0, 120 * MINUTE, 60 * MINUTE), windows.getIndex());
+        assertArrayEquals(new double[] {40, 60, 60}, windows.getValues(Type.COUNT), 0d);
+        assertArrayEquals(new double[] {30 + 30, Arrays.stream(values, 0, 60).sum(), Arrays.stream(values, 60, 120).sum()},
+                          windows.getValues(Type.SUM), 0d);
+        assertEquals(1.5d, windows.getValue(Type.MEAN, 0), 0d);
+        assertEquals(1d, windows.getValue(Type.MIN, 0), 0d);
+        assertEquals(3d, windows.getValue(Type.MAX, 0), 0d);
+        assertEquals(Arrays.stream(values, 60, 120).max().getAsDouble(), windows.getValue(Type.MAX, 2), 0d);
+
+        // same result with uncompressed values
+        Windows windows2 = DoubleTimeSeriesAggregator.aggregate(StoredDoubleTimeSeries.create("ts2", index, timeSeries.toArray()), Duration.ofHours(1));
+        for (Type type : Type.values()) {
+            assertArrayEquals(windows.getValues(type), windows2.getValues(type), 0d);
+        }
+
+        // resampled time series
+        StoredDoubleTimeSeries mean = DoubleTimeSeriesAggregator.resample(timeSeries, Duration.ofHours(1), Type.MEAN);
+        assertEquals("ts1_MEAN_PT1H", mean.getMetadata().getName());
+        assertEquals("MEAN", mean.getMetadata().getTags().get(DoubleTimeSeriesAggregator.AGGREGATION_TAG));
+        assertEquals("PT1H", mean.getMetadata().getTags().get(DoubleTimeSeriesAggregator.SPACING_TAG));
+        assertEquals("ts1", mean.getMetadata().getTags().get(DoubleTimeSeriesAggregator.SOURCE_TAG));
+        assertArrayEquals(windows.getValues(Type.MEAN), mean.toArray(), 0d);
+    }
+
+    @Test
+    public void testEmptyWindow() {
+        IrregularTimeSeriesIndex index = new IrregularTimeSeriesIndex(new long[] {0, 10 * MINUTE, 20 * MINUTE, 130 * MINUTE});
+        DoubleTimeSeries timeSeries = StoredDoubleTimeSeries.create("ts1", index, new double[] {1d, 2d, 3d, 4d});
+        Windows windows = DoubleTimeSeriesAggregator.aggregate(timeSeries, Duration.ofHours(1));
+        assertArrayEquals(new double[] {3d, 0d, 1d}, windows.getValues(Type.COUNT), 0d);
+        assertArrayEquals(new double[] {2d, Double.NaN, 4d}, windows.getValues(Type.MEAN), 0d);
+    }
+
+    @Test
+    public void testPyramid() {
+        RegularTimeSeriesIndex index = new RegularTimeSeriesIndex(0, (3 * 24 * 60 - 1) * MINUTE, MINUTE);
+        double[] values = new double[index.getPointCount()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 100;
+        }
+        DoubleTimeSeries timeSeries = StoredDoubleTimeSeries.create("ts1", index, values);
+        List<StoredDoubleTimeSeries> pyramid = DoubleTimeSeriesAggregator.createPyramid(timeSeries,
+                Arrays.asList(Duration.ofHours(1), Duration.ofDays(1)), EnumSet.of(Type.MIN, Type.MEAN));
+        assertEquals(4, pyramid.size());
+        assertEquals("ts1_MIN_PT1H", pyramid.get(0).getMetadata().getName());
+        assertEquals("ts1_MEAN_PT24H", pyramid.get(3).getMetadata().getName());
+        assertEquals(72, pyramid.get(0).getMetadata().getIndex().getPointCount());
+
+        // levels aggregated from previous ones are the same as aggregated from raw data
+        for (Type type : EnumSet.of(Type.MIN, Type.MEAN)) {
+            assertArrayEquals(DoubleTimeSeriesAggregator.resample(timeSeries, Duration.ofDays(1), type).toArray(),
+                              pyramid.get(type == Type.MIN ? 2 : 3).toArray(), 1e-9);
+        }
+    }
+
+    @Test
+    public void testCalculated() {
+        RegularTimeSeriesIndex index = new RegularTimeSeriesIndex(0, 9 * MINUTE, MINUTE);
+        DoubleTimeSeries ts1 = StoredDoubleTimeSeries.create("ts1", index, new double[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+        DoubleTimeSeries ts2 = new CalculatedTimeSeries("ts2", NodeCalc.multiply(NodeCalc.timeSeries(ts1), NodeCalc.constant(2d)));
+        assertArrayEquals(new double[] {8d, 18d}, DoubleTimeSeriesAggregator.resample(ts2, Duration.ofMinutes(5), Type.MAX).toArray(), 0d);
+    }
+
+    @Test
+    public void testBadSpacing() {
+        RegularTimeSeriesIndex index = new RegularTimeSeriesIndex(0, 9 * MINUTE, MINUTE);
+        DoubleTimeSeries timeSeries = StoredDoubleTimeSeries.create("ts1", index, new double[10]);
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("Spacing PT7M is not a multiple of PT2M");
+        DoubleTimeSeriesAggregator.aggregate(timeSeries, Duration.ofMinutes(2)).aggregate(Duration.ofMinutes(7));
+    }
+
+    @Test
+    public void testTooManyWindows() {
+        // 1 ms windows over 30 days
+        IrregularTimeSeriesIndex index = new IrregularTimeSeriesIndex(new long[] {0, 30 * 24 * 60 * MINUTE});
+        DoubleTimeSeries timeSeries = StoredDoubleTimeSeries.create("ts1", index, new double[] {1d, 2d});
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("Too many windows of PT0.001S to aggregate time series 'ts1'");
+        DoubleTimeSeriesAggregator.aggregate(timeSeries, Duration.ofMillis(1));
+    }
+
+    @Test
+    public void testLargeAggregationFactor() {
+        RegularTimeSeriesIndex index = new RegularTimeSeriesIndex(0, 9 * MINUTE, MINUTE);
+        DoubleTimeSeries timeSeries = StoredDoubleTimeSeries.create("ts1", index, new double[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+        // a factor which does not fit in an int gives a single window
+        Windows windows = DoubleTimeSeriesAggregator.aggregate(timeSeries, Duration.ofMillis(1))
+                .aggregate(Duration.ofMillis(1L << 40));
+        assertArrayEquals(new double[] {45}, windows.getValues(Type.SUM), 0d);
+    }
+}
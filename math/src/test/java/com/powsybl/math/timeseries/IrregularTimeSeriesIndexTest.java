@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.testing.EqualsTester;
+import com.powsybl.commons.json.JsonUtil;
+import org.junit.Test;
+import org.threeten.extra.Interval;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class IrregularTimeSeriesIndexTest {
+
+    @Test
+    public void test() throws IOException {
+        IrregularTimeSeriesIndex index = IrregularTimeSeriesIndex.create(Instant.parse("2015-01-01T00:00:00Z"),
+                                                                         Instant.parse("2015-01-01T00:15:00Z"),
+                                                                         Instant.parse("2015-01-01T01:00:00Z"));
+
+        // test getters
+        assertEquals(3, index.getPointCount());
+        assertEquals("2015-01-01T00:15:00Z", TimeSeriesIndex.getInstantAt(index, 1).toString());
+        assertEquals(2, index.getPointAt(Instant.parse("2015-01-01T01:00:00Z").toEpochMilli()));
+        assertTrue(index.getPointAt(Instant.parse("2015-01-01T00:30:00Z").toEpochMilli()) < 0);
+
+        // test to string
+        assertEquals("IrregularTimeSeriesIndex(startTime=2015-01-01T00:00:00Z, endTime=2015-01-01T01:00:00Z, pointCount=3)",
+                     index.toString());
+
+        // test json
+        String jsonRef = String.join(System.lineSeparator(),
+                "{",
+                "  \"startTime\" : 1420070400000,",
+                "  \"deltas\" : [ 900000, 2700000 ]",
+                "}");
+        String json = JsonUtil.toJson(index::writeJson);
+        assertEquals(jsonRef, json);
+        IrregularTimeSeriesIndex index2 = JsonUtil.parseJson(json, IrregularTimeSeriesIndex::parseJson);
+        assertEquals(index, index2);
+
+        // test json through metadata
+        TimeSeriesMetadata metadata = new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, index);
+        assertEquals(metadata, JsonUtil.parseJson(JsonUtil.toJson(metadata::writeJson), TimeSeriesMetadata::parseJson));
+    }
+
+    @Test
+    public void testEquals() {
+        new EqualsTester()
+                .addEqualityGroup(new IrregularTimeSeriesIndex(new long[] {0, 10}), new IrregularTimeSeriesIndex(new long[] {0, 10}))
+                .addEqualityGroup(new IrregularTimeSeriesIndex(new long[] {0, 20}), new IrregularTimeSeriesIndex(new long[] {0, 20}))
+                .addEqualityGroup(new RegularTimeSeriesIndex(0, 20, 10))
+                .testEquals();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testContructorError() {
+        new IrregularTimeSeriesIndex(new long[] {0, 10, 10});
+    }
+
+    @Test
+    public void testUnion() {
+        RegularTimeSeriesIndex index1 = RegularTimeSeriesIndex.create(Interval.parse("2015-01-01T00:00:00Z/2015-01-01T01:00:00Z"),
+                                                                      Duration.ofMinutes(30));
+        IrregularTimeSeriesIndex index2 = IrregularTimeSeriesIndex.create(Instant.parse("2015-01-01T00:10:00Z"),
+                                                                          Instant.parse("2015-01-01T00:30:00Z"));
+        IrregularTimeSeriesIndex union = IrregularTimeSeriesIndex.union(index1, index2);
+        assertEquals(IrregularTimeSeriesIndex.create(Instant.parse("2015-01-01T00:00:00Z"),
+                                                     Instant.parse("2015-01-01T00:10:00Z"),
+                                                     Instant.parse("2015-01-01T00:30:00Z"),
+                                                     Instant.parse("2015-01-01T01:00:00Z")),
+                     union);
+
+        // load time series with different indexes in a table
+        TimeSeriesTable table = new TimeSeriesTable(1, 1, union);
+        table.load(1, ImmutableList.of(StoredDoubleTimeSeries.create("ts1", index1, new double[] {1, 2, 3}),
+                                       StoredDoubleTimeSeries.create("ts2", index2, new double[] {4, 5})));
+        assertEquals(String.join(System.lineSeparator(),
+                                 "Time;Version;ts1;ts2",
+                                 "2015-01-01T00:00:00Z;1;1.0;",
+                                 "2015-01-01T00:10:00Z;1;;4.0",
+                                 "2015-01-01T00:30:00Z;1;2.0;5.0",
+                                 "2015-01-01T01:00:00Z;1;3.0;") + System.lineSeparator(),
+                     table.toCsvString(';', ZoneId.of("UTC")));
+    }
+
+    @Test(expected = TimeSeriesException.class)
+    public void testNotIncludedIndex() {
+        IrregularTimeSeriesIndex tableIndex = new IrregularTimeSeriesIndex(new long[] {0, 10});
+        TimeSeriesTable table = new TimeSeriesTable(1, 1, tableIndex);
+        table.load(1, ImmutableList.of(StoredDoubleTimeSeries.create("ts1", new IrregularTimeSeriesIndex(new long[] {0, 5}), new double[] {1, 2})));
+    }
+}
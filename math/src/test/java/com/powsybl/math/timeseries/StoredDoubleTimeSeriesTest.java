@@ -141,4 +141,62 @@ public class StoredDoubleTimeSeriesTest {
         exception.expectMessage("Bad number of values 2, expected 3");
         StoredDoubleTimeSeries.create("ts1", new TestTimeSeriesIndex(0L, 3), new double[]{0d, 1d});
     }
+
+    @Test
+    public void testFillArray() {
+        TimeSeriesMetadata metadata = new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, new TestTimeSeriesIndex(0L, 8));
+        StoredDoubleTimeSeries timeSeries = new StoredDoubleTimeSeries(metadata,
+                                                                       new UncompressedDoubleArrayChunk(2, new double[] {1d, 2d}),
+                                                                       new CompressedDoubleArrayChunk(5, 3, new double[] {3d, 4d}, new int[] {1, 2}));
+        double[] array = new double[4];
+        timeSeries.fillArray(array, 3);
+        assertArrayEquals(new double[] {2d, Double.NaN, 3d, 4d}, array, 0d);
+        array = new double[2];
+        timeSeries.fillArray(array, 0);
+        assertArrayEquals(new double[] {Double.NaN, Double.NaN}, array, 0d);
+
+        // default implementation based on the iterator
+        DoubleTimeSeries defaultTimeSeries = new DelegatingDoubleTimeSeries(timeSeries);
+        array = new double[4];
+        defaultTimeSeries.fillArray(array, 3);
+        assertArrayEquals(new double[] {2d, Double.NaN, 3d, 4d}, array, 0d);
+        array = new double[8];
+        defaultTimeSeries.fillArray(array, 0);
+        assertArrayEquals(timeSeries.toArray(), array, 0d);
+    }
+
+    @Test
+    public void testCursor() {
+        TimeSeriesMetadata metadata = new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, new TestTimeSeriesIndex(0L, 8));
+        StoredDoubleTimeSeries timeSeries = new StoredDoubleTimeSeries(metadata,
+                                                                       new CompressedDoubleArrayChunk(5, 3, new double[] {3d, 4d}, new int[] {1, 2}),
+                                                                       new UncompressedDoubleArrayChunk(2, new double[] {1d, 2d}));
+        // cursor steps are the same as iterator points
+        DoubleCursor cursor = timeSeries.cursor();
+        for (DoublePoint point : timeSeries) {
+            assertTrue(cursor.next());
+            assertEquals(point, new DoublePoint(cursor.getIndex(), cursor.getTime(), cursor.getValue()));
+        }
+        assertFalse(cursor.next());
+
+        // default implementation based on the iterator gives the same steps
+        cursor = timeSeries.cursor();
+        DoubleCursor defaultCursor = new DelegatingDoubleTimeSeries(timeSeries).cursor();
+        while (cursor.next()) {
+            assertTrue(defaultCursor.next());
+            assertEquals(cursor.getIndex(), defaultCursor.getIndex());
+            assertEquals(cursor.getLength(), defaultCursor.getLength());
+            assertEquals(cursor.getTime(), defaultCursor.getTime());
+            assertEquals(cursor.getValue(), defaultCursor.getValue(), 0d);
+        }
+        assertFalse(defaultCursor.next());
+
+        // all points
+        double[] values = new double[8];
+        timeSeries.forEachPoint((index, time, value) -> {
+            assertEquals(index, time);
+            values[index] = value;
+        });
+        assertArrayEquals(timeSeries.toArray(), values, 0d);
+    }
 }
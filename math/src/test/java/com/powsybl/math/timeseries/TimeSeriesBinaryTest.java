@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class TimeSeriesBinaryTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void test() {
+        RegularTimeSeriesIndex index = new RegularTimeSeriesIndex(0, 9, 1);
+        TimeSeriesMetadata metadata1 = new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, ImmutableMap.of("tag", "value"), index);
+        TimeSeriesMetadata metadata2 = new TimeSeriesMetadata("ts2", TimeSeriesDataType.STRING, index);
+        StoredDoubleTimeSeries ts1v1 = new StoredDoubleTimeSeries(metadata1,
+                new UncompressedDoubleArrayChunk(0, new double[] {1d, 2d}),
+                new CompressedDoubleArrayChunk(2, 4, new double[] {3d, Double.NaN}, new int[] {2, 2}),
+                XorCompressedDoubleArrayChunk.create(7, new double[] {4d, 4.5d, 5d}));
+        StoredDoubleTimeSeries ts1v2 = new StoredDoubleTimeSeries(metadata1, new UncompressedDoubleArrayChunk(0, new double[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9}));
+        StringTimeSeries ts2v1 = new StringTimeSeries(metadata2,
+                new UncompressedStringArrayChunk(0, new String[] {"a", null, "été"}),
+                new CompressedStringArrayChunk(3, 7, new String[] {"b", null}, new int[] {3, 4}));
+        CalculatedTimeSeries ts3v1 = new CalculatedTimeSeries("ts3", NodeCalc.multiply(NodeCalc.timeSeries(ts1v1), NodeCalc.constant(2d)));
+
+        Path file = folder.getRoot().toPath().resolve("test.bin");
+        try (TimeSeriesBinaryWriter writer = new TimeSeriesBinaryWriter(file)) {
+            writer.write(1, Arrays.asList(ts1v1, ts2v1, ts3v1));
+            writer.write(2, ts1v2);
+        }
+
+        try (TimeSeriesBinaryReader reader = new TimeSeriesBinaryReader(file)) {
+            assertEquals(Arrays.asList(metadata1, metadata2, ts3v1.getMetadata()), reader.getMetadata());
+            assertEquals(new TreeSet<>(Arrays.asList(1, 2)), reader.getVersions());
+
+            // chunks are read back as they were written
+            assertEquals(ts1v1, reader.read("ts1", 1));
+            assertEquals(ts2v1, reader.read("ts2", 1));
+            assertEquals(ImmutableList.of(ts1v2), reader.read(2));
+
+            // calculated time series are stored
+            assertArrayEquals(ts3v1.toArray(), ((DoubleTimeSeries) reader.read("ts3", 1)).toArray(), 0d);
+        }
+
+        Map<Integer, List<TimeSeries>> timeSeriesPerVersion = TimeSeries.readBinary(file);
+        assertEquals(2, timeSeriesPerVersion.size());
+        assertEquals(3, timeSeriesPerVersion.get(1).size());
+
+        // write again what has been read
+        Path file2 = folder.getRoot().toPath().resolve("test2.bin");
+        TimeSeries.writeBinary(file2, timeSeriesPerVersion);
+        assertEquals(timeSeriesPerVersion, TimeSeries.readBinary(file2));
+    }
+
+    @Test
+    public void testTable() {
+        RegularTimeSeriesIndex index = new RegularTimeSeriesIndex(0, 999, 1);
+        Random random = new Random(3);
+        double[] values1 = new double[index.getPointCount()];
+        double[] values2 = new double[index.getPointCount()];
+        String[] values3 = new String[index.getPointCount()];
+        for (int point = 0; point < index.getPointCount(); point++) {
+            values1[point] = random.nextDouble();
+            values2[point] = point / 100;
+            values3[point] = point % 2 == 0 ? null : Integer.toString(point / 10);
+        }
+        TimeSeriesTable table = TimeSeriesTable.createMem(1, 2, index);
+        table.load(1, ImmutableList.of(StoredDoubleTimeSeries.create("ts1", index, values1),
+                                       StoredDoubleTimeSeries.create("ts2", index, values2),
+                                       StringTimeSeries.create("ts3", index, values3)));
+        table.load(2, ImmutableList.of(StoredDoubleTimeSeries.create("ts1", index, values2)));
+
+        Path file = folder.getRoot().toPath().resolve("table.bin");
+        table.writeBinary(file);
+
+        TimeSeriesTable table2 = TimeSeriesTable.createMem(1, 2, index);
+        table2.loadBinary(file);
+        assertEquals(table.getTimeSeriesNames(), table2.getTimeSeriesNames());
+        assertEquals(table.toCsvString(';', ZoneId.of("UTC")), table2.toCsvString(';', ZoneId.of("UTC")));
+    }
+
+    @Test
+    public void testAlreadyWritten() {
+        DoubleTimeSeries ts1 = StoredDoubleTimeSeries.create("ts1", new RegularTimeSeriesIndex(0, 1, 1), new double[] {1d, 2d});
+        exception.expect(TimeSeriesException.class);
+        exception.expectMessage("Version 1 of time series 'ts1' already written");
+        try (TimeSeriesBinaryWriter writer = new TimeSeriesBinaryWriter(folder.getRoot().toPath().resolve("test.bin"))) {
+            writer.write(1, ts1);
+            writer.write(1, ts1);
+        }
+    }
+
+    @Test
+    public void testNotFound() {
+        Path file = folder.getRoot().toPath().resolve("test.bin");
+        TimeSeries.writeBinary(file, Collections.emptyMap());
+        exception.expect(TimeSeriesException.class);
+        exception.expectMessage("Time series 'ts1' not found");
+        try (TimeSeriesBinaryReader reader = new TimeSeriesBinaryReader(file)) {
+            assertTrue(reader.getMetadata().isEmpty());
+            reader.read("ts1", 1);
+        }
+    }
+
+    @Test
+    public void testBadFile() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("test.csv");
+        Files.write(file, "Time;Version;ts1\n1970-01-01T00:00:00Z;1;1\n".getBytes(StandardCharsets.UTF_8));
+        exception.expect(TimeSeriesException.class);
+        exception.expectMessage("is not a binary time series file");
+        TimeSeries.readBinary(file);
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.timeseries;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class TimeSeriesCsvParserTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private static ByteBuffer toBuffer(String str) {
+        return ByteBuffer.wrap(str.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static double parseDouble(String str) {
+        return TimeSeriesCsvParser.parseDouble(toBuffer(str), 0, str.length());
+    }
+
+    private static long parseTime(String str) {
+        return TimeSeriesCsvParser.parseTime(toBuffer(str), 0, str.length());
+    }
+
+    private static Map<Integer, List<TimeSeries>> parse(String csv) {
+        return new TimeSeriesCsvParser(';', 2, 1).parse(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void parseDoubleTest() {
+        assertTrue(Double.isNaN(parseDouble("")));
+        assertTrue(Double.isNaN(parseDouble("NaN")));
+        assertEquals(Double.doubleToRawLongBits(-0d), Double.doubleToRawLongBits(parseDouble("-0.0")));
+        for (String str : new String[] {"0", "1", "-1", "+2.5", "3.14159", ".5", "5.", "1e3", "1.5E-7", "-2.25e+10",
+                                        "123456789012345678", "1234567890123456789", "0.1", "1e23", "1e-300",
+                                        "4.9e-324", "Infinity", "0.000000000000000000000000000001"}) {
+            assertEquals(str, Double.parseDouble(str), parseDouble(str), 0d);
+        }
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            String str = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(20) - 10));
+            assertEquals(str, Double.parseDouble(str), parseDouble(str), 0d);
+            str = Long.toString(random.nextLong() % 100000000) + "." + random.nextInt(1000);
+            assertEquals(str, Double.parseDouble(str), parseDouble(str), 0d);
+        }
+    }
+
+    @Test
+    public void parseDoubleErrorTest() {
+        exception.expect(TimeSeriesException.class);
+        exception.expectMessage("Invalid double value '1.2.3'");
+        parseDouble("1.2.3");
+    }
+
+    @Test
+    public void parseTimeTest() {
+        for (String str : new String[] {"1970-01-01T01:00:00.000+01:00", "2015-01-01T00:00:00Z", "2016-02-29T23:59:59.5-05:30",
+                                        "1969-12-31T23:59:59.999Z", "2018-06-30T12:00:00.123456789+02:00",
+                                        "2018-03-25T03:00:00+02:00[Europe/Paris]"}) {
+            assertEquals(str, ZonedDateTime.parse(str).toInstant().toEpochMilli(), parseTime(str));
+        }
+    }
+
+    @Test
+    public void parseTimeErrorTest() {
+        exception.expect(TimeSeriesException.class);
+        exception.expectMessage("Invalid time '2015-02-29T00:00:00Z'");
+        parseTime("2015-02-29T00:00:00Z");
+    }
+
+    @Test
+    public void test() throws IOException {
+        String csv = String.join("\r\n",
+                "Time;Version;ts1;ts2",
+                "1970-01-01T01:00:00.000+01:00;1;1.0;",
+                "1970-01-01T02:00:00.000+01:00;1;;a",
+                "1970-01-01T03:00:00.000+01:00;1;3.0;b",
+                "1970-01-01T01:00:00.000+01:00;2;4.0;c",
+                "1970-01-01T02:00:00.000+01:00;2; 5.0 ;",
+                "1970-01-01T03:00:00.000+01:00;2;6.0;d");
+        Path file = folder.getRoot().toPath().resolve("test.csv");
+        Files.write(file, csv.getBytes(StandardCharsets.UTF_8));
+
+        // 2 values per chunk and 1 line per range (chunks are also cut at range boundaries)
+        for (Map<Integer, List<TimeSeries>> timeSeriesPerVersion : new Map[] {parse(csv), new TimeSeriesCsvParser(';', 2, 1).parse(file)}) {
+            assertEquals(2, timeSeriesPerVersion.size());
+            StoredDoubleTimeSeries ts1v1 = (StoredDoubleTimeSeries) timeSeriesPerVersion.get(1).get(0);
+            StringTimeSeries ts2v1 = (StringTimeSeries) timeSeriesPerVersion.get(1).get(1);
+            StoredDoubleTimeSeries ts1v2 = (StoredDoubleTimeSeries) timeSeriesPerVersion.get(2).get(0);
+            StringTimeSeries ts2v2 = (StringTimeSeries) timeSeriesPerVersion.get(2).get(1);
+            assertEquals(new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, new RegularTimeSeriesIndex(0, 7200000, 3600000)),
+                         ts1v1.getMetadata());
+            assertTrue(ts1v1.getChunks().size() >= 2);
+            assertArrayEquals(new double[] {1, Double.NaN, 3}, ts1v1.toArray(), 0);
+            assertArrayEquals(new String[] {null, "a", "b"}, ts2v1.toArray());
+            assertArrayEquals(new double[] {4, 5, 6}, ts1v2.toArray(), 0);
+            assertArrayEquals(new String[] {"c", null, "d"}, ts2v2.toArray());
+        }
+    }
+
+    @Test
+    public void testLargeFile() throws IOException {
+        StringBuilder builder = new StringBuilder("Time;Version;ts1;ts2").append(System.lineSeparator());
+        double[] values = new double[10000];
+        Random random = new Random(3);
+        for (int point = 0; point < values.length; point++) {
+            values[point] = Math.round(random.nextDouble() * 100000) / 100d;
+            builder.append(Instant.ofEpochMilli(point * 60000L)).append(";1;").append(values[point]).append(';')
+                   .append(-values[point]).append(System.lineSeparator());
+        }
+        Path file = folder.getRoot().toPath().resolve("test.csv");
+        Files.write(file, builder.toString().getBytes(StandardCharsets.UTF_8));
+
+        // chunks are received in order even if ranges are parsed in parallel
+        List<Integer> offsets = new ArrayList<>();
+        List<TimeSeriesMetadata> metadata = new ArrayList<>();
+        new TimeSeriesCsvParser(';', 1000, 4096).parse(file, new TimeSeriesCsvParser.Handler() {
+            @Override
+            public void onDoubleChunk(int version, String name, DoubleArrayChunk chunk) {
+                if (name.equals("ts1")) {
+                    offsets.add(chunk.getOffset());
+                }
+            }
+
+            @Override
+            public void onStringChunk(int version, String name, StringArrayChunk chunk) {
+                fail();
+            }
+
+            @Override
+            public void onVersionEnd(int version, List<TimeSeriesMetadata> metadataList) {
+                metadata.addAll(metadataList);
+            }
+        });
+        for (int i = 1; i < offsets.size(); i++) {
+            assertTrue(offsets.get(i) > offsets.get(i - 1));
+        }
+        assertEquals(2, metadata.size());
+        assertEquals(new RegularTimeSeriesIndex(0, 9999 * 60000L, 60000), metadata.get(0).getIndex());
+
+        Map<Integer, List<TimeSeries>> timeSeriesPerVersion = new TimeSeriesCsvParser(';', 1000, 4096).parse(file);
+        assertArrayEquals(values, ((DoubleTimeSeries) timeSeriesPerVersion.get(1).get(0)).toArray(), 0d);
+        // sequential parsing of a stream gives the same values as parallel parsing of ranges of the file
+        try (InputStream is = Files.newInputStream(file)) {
+            Map<Integer, List<TimeSeries>> timeSeriesPerVersion2 = new TimeSeriesCsvParser(';', 1000, 4096).parse(is);
+            for (int i = 0; i < 2; i++) {
+                DoubleTimeSeries ts = (DoubleTimeSeries) timeSeriesPerVersion.get(1).get(i);
+                DoubleTimeSeries ts2 = (DoubleTimeSeries) timeSeriesPerVersion2.get(1).get(i);
+                assertEquals(ts.getMetadata(), ts2.getMetadata());
+                assertArrayEquals(ts.toArray(), ts2.toArray(), 0d);
+            }
+        }
+    }
+
+    @Test
+    public void testIrregularIndex() {
+        String csv = String.join("\n",
+                "Time;Version;ts1",
+                "1970-01-01T00:00:00Z;1;1",
+                "1970-01-01T00:00:01Z;1;2",
+                "1970-01-01T00:00:03Z;1;3");
+        TimeSeries ts1 = parse(csv).get(1).get(0);
+        assertEquals(new IrregularTimeSeriesIndex(new long[] {0, 1000, 3000}), ts1.getMetadata().getIndex());
+    }
+
+    @Test
+    public void testInconsistentColumns() {
+        exception.expect(TimeSeriesException.class);
+        exception.expectMessage("Columns of line at byte 42 are inconsistent with header");
+        parse("Time;Version;ts1\n1970-01-01T00:00:00Z;1;1\n1970-01-01T00:00:01Z;1;2;3\n");
+    }
+
+    @Test
+    public void testMissingLastCell() {
+        // an empty last cell needs a trailing separator, a line missing it was accepted by the previous parser
+        DoubleTimeSeries ts2 = (DoubleTimeSeries) parse("Time;Version;ts1;ts2\n1970-01-01T00:00:00Z;1;1;2\n1970-01-01T00:00:01Z;1;1;\n").get(1).get(1);
+        assertArrayEquals(new double[] {2, Double.NaN}, ts2.toArray(), 0);
+
+        exception.expect(TimeSeriesException.class);
+        exception.expectMessage("Columns of line at byte 48 are inconsistent with header");
+        parse("Time;Version;ts1;ts2\n1970-01-01T00:00:00Z;1;1;2\n1970-01-01T00:00:01Z;1;1\n");
+    }
+
+    @Test
+    public void testNotContiguousVersion() {
+        exception.expect(TimeSeriesException.class);
+        exception.expectMessage("Lines of version 1 are not contiguous");
+        parse("Time;Version;ts1\n1970-01-01T00:00:00Z;1;1\n1970-01-01T00:00:00Z;2;1\n1970-01-01T00:00:00Z;1;1\n");
+    }
+
+    @Test
+    public void testBadHeader() {
+        exception.expect(TimeSeriesException.class);
+        exception.expectMessage("Bad CSV header");
+        parse("Time;ts1\n");
+    }
+}
@@ -7,21 +7,68 @@
 package com.powsybl.math.timeseries;
 
 import com.google.common.collect.ImmutableList;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.nio.ByteBuffer;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
 public class TimeSeriesTableTest {
 
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void test() {
         TimeSeriesIndex index = new TestTimeSeriesIndex(0, 4);
+        test(new TimeSeriesTable(1, 1, index), index);
+    }
+
+    @Test
+    public void testSeveralBuffers() {
+        // buffers are aligned on point count, so one buffer of 4 values per double time series
+        TimeSeriesIndex index = new TestTimeSeriesIndex(0, 4);
+        test(new TimeSeriesTable(1, 1, index, ByteBuffer::allocate, 6), index);
+    }
+
+    @Test
+    public void testMemoryMapped() {
+        TimeSeriesIndex index = new TestTimeSeriesIndex(0, 4);
+        test(TimeSeriesTable.createMemoryMapped(1, 1, index, folder.getRoot().toPath()), index);
+    }
+
+    @Test
+    public void testVersionNotLoaded() {
+        TimeSeriesIndex index = new TestTimeSeriesIndex(0, 2);
+        TimeSeriesTable table = TimeSeriesTable.createMemoryMapped(1, 2, index, folder.getRoot().toPath());
+        TimeSeriesMetadata metadata = new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, index);
+        table.load(2, ImmutableList.of(new StoredDoubleTimeSeries(metadata, new UncompressedDoubleArrayChunk(0, new double[] {1, 2}))));
+
+        // buffer is not initialized, but values of a version not loaded are NaN
+        assertTrue(Double.isNaN(table.getDoubleValue(1, 0, 0)));
+        assertEquals(0, table.getMean(1, 0), 0);
+        assertEquals(2, table.getDoubleValue(2, 0, 1), 0);
+        assertEquals(String.join(System.lineSeparator(),
+                                 "Time;Version;ts1",
+                                 "1970-01-01T00:00:00Z;1;",
+                                 "1970-01-01T00:00:00.001Z;1;",
+                                 "1970-01-01T00:00:00Z;2;1.0",
+                                 "1970-01-01T00:00:00.001Z;2;2.0") + System.lineSeparator(),
+                     table.toCsvString(';', ZoneId.of("UTC")));
+    }
+
+    private static void test(TimeSeriesTable table, TimeSeriesIndex index) {
         TimeSeriesMetadata metadata1 = new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, index);
         TimeSeriesMetadata metadata2 = new TimeSeriesMetadata("ts2", TimeSeriesDataType.DOUBLE, index);
         TimeSeriesMetadata metadata3 = new TimeSeriesMetadata("ts3", TimeSeriesDataType.STRING, index);
@@ -30,8 +77,6 @@ public class TimeSeriesTableTest {
         StringTimeSeries ts3 = new StringTimeSeries(metadata3, new UncompressedStringArrayChunk(1, new String[] {"a", "b", "c"}));
 
         // load time series in the table
-        TimeSeriesTable table = new TimeSeriesTable(1, 1, index);
-
         table.load(1, ImmutableList.of(ts1, ts2, ts3));
 
         assertEquals(index, table.getTableIndex());
@@ -72,4 +117,42 @@ public class TimeSeriesTableTest {
                                  "1970-01-01T00:00:00.003Z;1;4.0;8.0;c") + System.lineSeparator(),
                      table.toCsvString(';', ZoneId.of("UTC")));
     }
+
+    @Test
+    public void testPpmccMatrix() {
+        // several blocks of time series and of points
+        int pointCount = 1000;
+        int timeSeriesCount = 70;
+        TimeSeriesIndex index = new TestTimeSeriesIndex(0, pointCount);
+        Random random = new Random(0);
+        List<TimeSeries> timeSeriesList = new ArrayList<>();
+        for (int i = 0; i < timeSeriesCount; i++) {
+            double[] values = new double[pointCount];
+            for (int point = 0; point < pointCount; point++) {
+                // 2 constant time series, others are more or less correlated to the first one
+                values[point] = i % 30 == 5 ? i : random.nextDouble() + (i % 3) * point / (double) pointCount;
+            }
+            TimeSeriesMetadata metadata = new TimeSeriesMetadata(String.format("ts%02d", i), TimeSeriesDataType.DOUBLE, index);
+            timeSeriesList.add(new StoredDoubleTimeSeries(metadata, new UncompressedDoubleArrayChunk(0, values)));
+        }
+        TimeSeriesTable table = new TimeSeriesTable(1, 2, index);
+        table.load(1, timeSeriesList);
+        table.load(2, timeSeriesList);
+        table.computeStatistics();
+        assertEquals(table.getMean(1, 3), table.getMean(2, 3), 0);
+        assertEquals(0, table.getStdDev(2, 5), 0);
+
+        double[][] matrix = table.computePpmccMatrix(1);
+        assertEquals(timeSeriesCount, matrix.length);
+        for (int i = 0; i < timeSeriesCount; i++) {
+            assertArrayEquals(table.computePpmcc(String.format("ts%02d", i), 1), matrix[i], 1e-12);
+            for (int j = 0; j < timeSeriesCount; j++) {
+                assertEquals(matrix[i][j], matrix[j][i], 0);
+            }
+        }
+        assertEquals(1, matrix[5][35], 0);
+        assertEquals(0, matrix[5][6], 0);
+        assertEquals(1, matrix[6][6], 0);
+        assertEquals(0.8, matrix[2][8], 0.05);
+    }
 }